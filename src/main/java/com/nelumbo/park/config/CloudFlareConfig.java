@@ -1,15 +1,20 @@
 package com.nelumbo.park.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import java.net.URI;
 
 @Configuration
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3", matchIfMissing = true)
 public class CloudFlareConfig {
 
     @Value("${r2.bucket.access.key}")
@@ -24,14 +29,48 @@ public class CloudFlareConfig {
     @Value("${r2.account.id}")
     private String accountId;
 
+    @Value("${app.storage.s3.multipart-threshold-mb:16}")
+    private long multipartThresholdMb;
+
+    @Value("${app.storage.s3.part-size-mb:8}")
+    private long partSizeMb;
+
+    /**
+     * Cliente asincrono con multipart: los objetos mayores a {@code multipart-threshold-mb} se
+     * suben en partes de {@code part-size-mb} enviadas en paralelo.
+     */
     @Bean
-    public S3Client cloudFlare() {
+    public S3AsyncClient cloudFlare() {
         AwsBasicCredentials awsCreds = AwsBasicCredentials.create(bucketAccessKey, bucketSecretKey);
-        return S3Client.builder()
+        return S3AsyncClient.builder()
                 .region(Region.of(bucketRegion))
-                .endpointOverride(URI.create("https://" + accountId + ".r2.cloudflarestorage.com"))
+                .endpointOverride(endpoint())
                 .credentialsProvider(StaticCredentialsProvider.create(awsCreds))
                 .forcePathStyle(true)
+                .multipartEnabled(true)
+                .multipartConfiguration(MultipartConfiguration.builder()
+                        .thresholdInBytes(multipartThresholdMb * 1024 * 1024)
+                        .minimumPartSizeInBytes(partSizeMb * 1024 * 1024)
+                        .build())
                 .build();
     }
+
+    /**
+     * Firma URLs de descarga temporales contra el mismo bucket de R2. Firmar es un calculo
+     * local, no hace peticiones al almacenamiento.
+     */
+    @Bean
+    public S3Presigner cloudFlarePresigner() {
+        AwsBasicCredentials awsCreds = AwsBasicCredentials.create(bucketAccessKey, bucketSecretKey);
+        return S3Presigner.builder()
+                .region(Region.of(bucketRegion))
+                .endpointOverride(endpoint())
+                .credentialsProvider(StaticCredentialsProvider.create(awsCreds))
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .build();
+    }
+
+    private URI endpoint() {
+        return URI.create("https://" + accountId + ".r2.cloudflarestorage.com");
+    }
 }
@@ -0,0 +1,40 @@
+package com.nelumbo.park.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ReportJobConfig {
+
+    @Value("${app.reports.jobs.workers:2}")
+    private int workers;
+
+    @Value("${app.reports.jobs.queue-capacity:50}")
+    private int queueCapacity;
+
+    /**
+     * Pool de los reportes bajo demanda. Tiene un numero fijo de hilos y una cola acotada: si
+     * la cola esta llena el trabajo se rechaza en lugar de acumularse en memoria.
+     */
+    @Bean
+    public ExecutorService reportJobExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "report-job-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        int threads = Math.max(1, workers);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -2,7 +2,10 @@ package com.nelumbo.park.config.initialization;
 
 import com.nelumbo.park.entity.User;
 import com.nelumbo.park.repository.UserRepository;
+import com.nelumbo.park.repository.VehicleRepository;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -10,20 +13,47 @@ import org.springframework.stereotype.Component;
 @Component
 public class DatabaseInitializer {
 
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseInitializer.class);
+
     @Value("${admin.password}")
     private String passwordAdmin;
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final VehicleRepository vehicleRepository;
 
-    public DatabaseInitializer(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public DatabaseInitializer(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                               VehicleRepository vehicleRepository) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.vehicleRepository = vehicleRepository;
     }
 
     @PostConstruct
     public void initialize() {
         initializeAdminUser();
+        backfillVehicleCharges();
+        backfillFirstVisits();
+    }
+
+    /**
+     * Calcula total_cost para las salidas registradas antes de que el cobro se guardara en la fila.
+     */
+    private void backfillVehicleCharges() {
+        int updated = vehicleRepository.backfillTotalCost();
+        if (updated > 0) {
+            logger.info("Se calculo total_cost para {} vehiculos historicos", updated);
+        }
+    }
+
+    /**
+     * Marca la primera visita de cada placa en las filas creadas antes de que existiera first_visit.
+     */
+    private void backfillFirstVisits() {
+        int updated = vehicleRepository.backfillFirstVisit();
+        if (updated > 0) {
+            logger.info("Se calculo first_visit para {} vehiculos historicos", updated);
+        }
     }
 
     private void initializeAdminUser() {
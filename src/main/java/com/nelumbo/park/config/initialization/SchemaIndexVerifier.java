@@ -0,0 +1,73 @@
+package com.nelumbo.park.config.initialization;
+
+import com.nelumbo.park.exception.exceptions.DatabaseInitializationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Verifica al arrancar que los indices de las rutas calientes existan y sean validos. Un
+ * CREATE INDEX CONCURRENTLY que falla deja el indice marcado como invalido y las consultas
+ * dejan de usarlo sin ningun error visible, por eso se consulta pg_index y no solo el nombre.
+ */
+@Component
+public class SchemaIndexVerifier implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaIndexVerifier.class);
+
+    static final List<String> REQUIRED_INDEXES = List.of(
+            "idx_vehicles_plate_status",
+            "uq_vehicles_plate_in",
+            "idx_vehicles_parking_status_entry",
+            "idx_vehicles_exit_time",
+            "idx_vehicles_entry_time",
+            "idx_vehicles_exit_ranking",
+            "idx_vehicles_first_visit_status",
+            "idx_vehicle_history_parking_exit",
+            "idx_vehicle_history_entry_time",
+            "idx_vehicle_history_plate",
+            "idx_vehicle_history_parking_entry"
+    );
+
+    private static final String VALID_INDEXES_SQL = """
+            SELECT c.relname
+            FROM pg_index i
+            JOIN pg_class c ON c.oid = i.indexrelid
+            JOIN pg_namespace n ON n.oid = c.relnamespace
+            WHERE n.nspname = current_schema() AND i.indisvalid
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public SchemaIndexVerifier(JdbcTemplate jdbcTemplate,
+                               @Value("${app.schema.verify-indexes:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled) {
+            return;
+        }
+
+        Set<String> present = new HashSet<>(jdbcTemplate.queryForList(VALID_INDEXES_SQL, String.class));
+        List<String> missing = REQUIRED_INDEXES.stream()
+                .filter(index -> !present.contains(index))
+                .toList();
+
+        if (!missing.isEmpty()) {
+            throw new DatabaseInitializationException(String.format(
+                    "Faltan indices o son invalidos: %s. Revise las migraciones de db/migration", missing));
+        }
+        logger.info("Indices de vehiculos verificados: {}", REQUIRED_INDEXES.size());
+    }
+}
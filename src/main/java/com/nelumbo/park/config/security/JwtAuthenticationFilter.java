@@ -2,7 +2,8 @@ package com.nelumbo.park.config.security;
 
 import com.nelumbo.park.entity.User;
 import com.nelumbo.park.exception.exceptions.JwtProcessingException;
-import com.nelumbo.park.repository.UserRepository;
+import com.nelumbo.park.service.infrastructure.UserLookupCache;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,26 +20,25 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger loggers = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final JwtService jwtService;
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
     private final String applicationJson;
     private final String applicationJsonCharset;
 
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
-            UserRepository userRepository,
+            UserLookupCache userLookupCache,
             @Value("${application.json}") String applicationJson,
             @Value("${character.encoding}") String applicationJsonCharset
     ) {
         this.jwtService = jwtService;
-        this.userRepository = userRepository;
+        this.userLookupCache = userLookupCache;
         this.applicationJson = applicationJson;
         this.applicationJsonCharset = applicationJsonCharset;
     }
@@ -51,16 +51,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String jwt = null;
+        Claims claims = null;
         String username = null;
+        User user = null;
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            jwt = authHeader.substring(7);
+            String jwt = authHeader.substring(7);
             try {
-                username = extractUsernameFromJwt(jwt, response);
-                if (username == null) {
+                claims = parseClaims(jwt, response);
+                if (claims == null) {
                     return;
                 }
+                username = jwtService.extractUid(claims);
             } catch (JwtProcessingException e) {
                 loggers.error("Error processing JWT: {}", e.getMessage());
                 writeErrorResponse(response, HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
@@ -69,14 +71,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
 
-        if (username != null && !validateUserExists(username, response)) {
-            return;
+        if (username != null) {
+            user = loadUser(username, response);
+            if (user == null) {
+                return;
+            }
         }
 
         if (username != null) {
             boolean isNotAuthenticated = SecurityContextHolder.getContext().getAuthentication() == null;
             if (isNotAuthenticated) {
-                boolean authenticationFailed = !processAuthentication(jwt, username, response);
+                boolean authenticationFailed = !processAuthentication(claims, user, response);
                 if (authenticationFailed) {
                     return;
                 }
@@ -93,9 +98,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         response.getWriter().write("{\"error\":\"" + errorMessage + "\"}");
     }
 
-    private String extractUsernameFromJwt(String jwt, HttpServletResponse response) throws IOException {
+    private Claims parseClaims(String jwt, HttpServletResponse response) throws IOException {
         try {
-            return jwtService.extractUid(jwt);
+            return jwtService.parseToken(jwt);
         } catch (RuntimeException e) {
             if (isSignatureError(e)) {
                 writeErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED,
@@ -113,24 +118,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                message.contains("SignatureException");
     }
 
-    private boolean validateUserExists(String username, HttpServletResponse response) throws IOException {
-        Optional<User> userOptional = userRepository.findById(username);
-        if (userOptional.isEmpty()) {
+    private User loadUser(String username, HttpServletResponse response) throws IOException {
+        User user = userLookupCache.findById(username);
+        if (user == null) {
             writeErrorResponse(response, HttpServletResponse.SC_FORBIDDEN, "Usuario no encontrado");
-            return false;
         }
-        return true;
+        return user;
     }
 
 
-    private boolean processAuthentication(String jwt, String username, HttpServletResponse response) throws IOException {
+    private boolean processAuthentication(Claims claims, User user, HttpServletResponse response) throws IOException {
         try {
-            boolean tokenNotExpired = !jwtService.isTokenExpired(jwt);
+            boolean tokenNotExpired = !jwtService.isTokenExpired(claims);
             if (tokenNotExpired) {
-                setAuthentication(jwt, username);
+                setAuthentication(claims, user);
                 return true;
             } else {
-                loggers.warn("Token expirado para usuario: {}", username);
+                loggers.warn("Token expirado para usuario: {}", user.getId());
                 writeErrorResponse(response, HttpServletResponse.SC_UNAUTHORIZED, "Token expirado");
                 return false;
             }
@@ -141,13 +145,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
-    private void setAuthentication(String jwt, String username) {
-        String role = jwtService.extractRole(jwt);
+    /**
+     * Registra la autenticacion con el usuario ya cargado en los detalles, para que
+     * {@code SecurityService} lo reutilice durante la peticion sin volver a consultarlo.
+     */
+    private void setAuthentication(Claims claims, User user) {
+        String role = jwtService.extractRole(claims);
         List<SimpleGrantedAuthority> authorities = Collections.singletonList(
                 new SimpleGrantedAuthority(role)
         );
         UsernamePasswordAuthenticationToken authToken =
-                new UsernamePasswordAuthenticationToken(username, null, authorities);
+                new UsernamePasswordAuthenticationToken(user.getId(), null, authorities);
+        authToken.setDetails(user);
         SecurityContextHolder.getContext().setAuthentication(authToken);
     }
 }
\ No newline at end of file
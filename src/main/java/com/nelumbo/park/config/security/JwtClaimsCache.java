@@ -0,0 +1,99 @@
+package com.nelumbo.park.config.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache acotado de tokens JWT ya verificados, indexado por el hash SHA-256 del token.
+ * Cada entrada vive hasta la expiracion del token; al superar el maximo se descarta la
+ * entrada menos usada.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private final Map<String, CachedClaims> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public JwtClaimsCache(
+            @Value("${app.security.jwt.cache.max-entries:10000}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedClaims> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        FunctionCounter.builder("jwt.claims.cache.hits", hits, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("jwt.claims.cache.misses", misses, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("jwt.claims.cache.size", entries, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Devuelve los claims del token desde el cache o los verifica con {@code verifier}.
+     * @param token Token JWT recibido
+     * @param verifier Funcion que valida la firma y devuelve los claims
+     * @return Claims del token
+     */
+    public Claims get(String token, Function<String, Claims> verifier) {
+        String key = hash(token);
+        CachedClaims cached = entries.get(key);
+
+        if (cached != null) {
+            if (cached.expiresAt() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return cached.claims();
+            }
+            entries.remove(key);
+        }
+
+        misses.incrementAndGet();
+        Claims claims = verifier.apply(token);
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            entries.put(key, new CachedClaims(claims, expiration.getTime()));
+        }
+        return claims;
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+
+    private record CachedClaims(Claims claims, long expiresAt) {
+    }
+}
@@ -19,10 +19,12 @@ public class JwtService {
 
     private final SecretKey key;
     private final long expirationHours;
+    private final JwtClaimsCache claimsCache;
 
     public JwtService(
             @Value("${app.security.jwt.secret}") String secret,
-            @Value("${app.security.jwt.expiration-hours:6}") long expirationHours
+            @Value("${app.security.jwt.expiration-hours:6}") long expirationHours,
+            JwtClaimsCache claimsCache
     ) {
 
         if (secret == null || secret.length() < 32) {
@@ -31,6 +33,7 @@ public class JwtService {
 
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationHours = expirationHours;
+        this.claimsCache = claimsCache;
     }
 
     public String generateToken(String subject, Map<String, Object> extraClaims) {
@@ -47,10 +50,22 @@ public class JwtService {
                 .compact();
     }
 
+    /**
+     * Verifica la firma del token una sola vez y devuelve sus claims.
+     * Los tokens ya verificados se sirven desde {@link JwtClaimsCache} hasta su expiracion.
+     */
+    public Claims parseToken(String token) {
+        return claimsCache.get(token, this::extractAllClaims);
+    }
+
     public String extractUid(String token) {
-        String uid = extractClaim(token, claims -> claims.get("uid", String.class));
+        return extractUid(parseToken(token));
+    }
+
+    public String extractUid(Claims claims) {
+        String uid = claims.get("uid", String.class);
         if (uid == null || uid.isEmpty()) {
-            uid = extractClaim(token, Claims::getId);
+            uid = claims.getId();
         }
         return uid;
     }
@@ -60,7 +75,11 @@ public class JwtService {
     }
 
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return extractRole(parseToken(token));
+    }
+
+    public String extractRole(Claims claims) {
+        return claims.get("role", String.class);
     }
 
     public Date extractExpiration(String token) {
@@ -68,7 +87,7 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseToken(token);
         return claimsResolver.apply(claims);
     }
 
@@ -85,7 +104,11 @@ public class JwtService {
     }
 
     public Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return isTokenExpired(parseToken(token));
+    }
+
+    public boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public Boolean validateToken(String token, String username) {
@@ -1,10 +1,12 @@
 package com.nelumbo.park.controller;
 
 import com.nelumbo.park.dto.request.ParkingRequest;
+import com.nelumbo.park.dto.request.VehicleFilterRequest;
 import com.nelumbo.park.dto.response.ParkingResponse;
 import com.nelumbo.park.dto.request.ParkingUpdateRequest;
 import com.nelumbo.park.dto.response.ParkingWithVehiclesResponse;
 import com.nelumbo.park.entity.Parking;
+import com.nelumbo.park.enums.VehicleStatus;
 import com.nelumbo.park.mapper.ParkingResponseMapper;
 import com.nelumbo.park.service.ParkingService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +15,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -23,8 +26,10 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Date;
 import java.util.List;
 
 @RestController
@@ -32,6 +37,9 @@ import java.util.List;
 @Tag(name = "Parkings", description = "Parking API")
 public class ParkingController {
 
+    private static final String INCLUDE_VEHICLES = "vehicles";
+    private static final String INCLUDE_NONE = "none";
+
     private final ParkingService parkingService;
     private final ParkingResponseMapper parkingResponseMapper;
 
@@ -57,18 +65,32 @@ public class ParkingController {
         return parkingService.getAllParkings();
     }
 
-    @Operation(summary = "Obtiene un parking por su id")
+    @Operation(summary = "Obtiene un parking por su id",
+            description = "Incluye una pagina de sus vehiculos (por defecto los que estan dentro), " +
+                    "filtrable por estado y rango de entrada. Con include=none solo devuelve el parking.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Parking encontrado",
                     content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = ParkingWithVehiclesResponse.class))),
+            @ApiResponse(responseCode = "400", description = "El cursor de paginacion o el rango de fechas no es valido", content = @Content),
             @ApiResponse(responseCode = "401", description = "No tienes permisos para acceder al parking", content = @Content),
             @ApiResponse(responseCode = "404", description = "El parking no existe", content = @Content)
     })
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN') || hasAuthority('SOCIO')")
-    public ParkingWithVehiclesResponse getParkingById(@PathVariable String id) {
-        return parkingService.getParkingById(id);
+    public ParkingWithVehiclesResponse getParkingById(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "IN") VehicleStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = INCLUDE_VEHICLES) String include) {
+        if (INCLUDE_NONE.equalsIgnoreCase(include)) {
+            return parkingService.getParkingById(id);
+        }
+        VehicleFilterRequest filter = new VehicleFilterRequest(status, id, from, to);
+        return parkingService.getParkingById(id, filter, cursor, limit);
     }
 
     @Operation(summary = "Crea un parking")
@@ -2,29 +2,44 @@ package com.nelumbo.park.controller;
 
 import com.nelumbo.park.dto.response.MonthParkingStatsResponse;
 import com.nelumbo.park.dto.response.WeeklyParkingStatsResponse;
+import com.nelumbo.park.dto.response.ParkingRankingResponse;
 import com.nelumbo.park.service.VehicleService;
+import com.nelumbo.park.service.infrastructure.RankingCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
 @RestController
 @RequestMapping("/parking-rankings")
 @Tag(name = "Parking Rankings", description = "Parking Ranking API")
 public class ParkingRankingController {
 
+    private static final String CACHE_PREFIX = "parking-rankings:";
+
     private final VehicleService vehicleService;
+    private final RankingCache rankingCache;
 
     public ParkingRankingController(
-            VehicleService vehicleService
+            VehicleService vehicleService,
+            RankingCache rankingCache
     ) {
         this.vehicleService = vehicleService;
+        this.rankingCache = rankingCache;
     }
 
     @Operation(summary = "Obtiene los top 3 de parqueaderos con mayor ganancia")
@@ -32,12 +47,14 @@ public class ParkingRankingController {
             @ApiResponse(responseCode = "200", description = "Ranking encontrado",
                     content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = WeeklyParkingStatsResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El ranking no ha cambiado desde el ETag enviado", content = @Content),
             @ApiResponse(responseCode = "401", description = "No tienes permisos para realizar esta accion", content = @Content)
     })
     @GetMapping("/week")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public WeeklyParkingStatsResponse getParkingRanking() {
-        return vehicleService.getParkingRanking();
+    public ResponseEntity<WeeklyParkingStatsResponse> getParkingRanking() {
+        String key = CACHE_PREFIX + "week:" + LocalDate.now().with(DayOfWeek.MONDAY);
+        return RankingResponses.of(rankingCache.get(key, vehicleService::getParkingRanking));
     }
 
     @Operation(summary = "Obtiene los top 3 de parqueaderos con mayor ganancia")
@@ -45,11 +62,33 @@ public class ParkingRankingController {
             @ApiResponse(responseCode = "200", description = "Ranking encontrado",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = WeeklyParkingStatsResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El ranking no ha cambiado desde el ETag enviado", content = @Content),
             @ApiResponse(responseCode = "401", description = "No tienes permisos para realizar esta accion", content = @Content)
     })
     @GetMapping("/month")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public MonthParkingStatsResponse getParkingRankingMonth() {
-        return vehicleService.getParkingRankingMonth();
+    public ResponseEntity<MonthParkingStatsResponse> getParkingRankingMonth() {
+        String key = CACHE_PREFIX + "month:" + YearMonth.now();
+        return RankingResponses.of(rankingCache.get(key, vehicleService::getParkingRankingMonth));
+    }
+
+    @Operation(summary = "Obtiene los top 3 de parqueaderos con mayor ganancia en un rango de fechas",
+            description = "Con los acumulados horarios (por defecto) el ranking se calcula por horas completas: " +
+                    "'from' se redondea al inicio de su hora y se incluye completa la hora que contiene a 'to'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranking encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ParkingRankingResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El ranking no ha cambiado desde el ETag enviado", content = @Content),
+            @ApiResponse(responseCode = "400", description = "El rango de fechas no es valido", content = @Content),
+            @ApiResponse(responseCode = "401", description = "No tienes permisos para realizar esta accion", content = @Content)
+    })
+    @GetMapping("/range")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ParkingRankingResponse> getParkingRankingBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        String key = CACHE_PREFIX + "range:" + from + ":" + to;
+        return RankingResponses.of(rankingCache.get(key, () -> vehicleService.getParkingRankingBetween(from, to)));
     }
 }
@@ -2,29 +2,44 @@ package com.nelumbo.park.controller;
 
 import com.nelumbo.park.dto.response.MonthPartnerStatsResponse;
 import com.nelumbo.park.dto.response.WeeklyPartnerStatsResponse;
+import com.nelumbo.park.dto.response.PartnerRankingResponse;
 import com.nelumbo.park.service.VehicleService;
+import com.nelumbo.park.service.infrastructure.RankingCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
 @RestController
 @RequestMapping("/partners-rankings")
 @Tag(name = "Partners Rankings", description = "Partners Ranking API")
 public class PartnersRankingController {
     
+    private static final String CACHE_PREFIX = "partners-rankings:";
+
     private final VehicleService vehicleService;
+    private final RankingCache rankingCache;
     
     public PartnersRankingController(
-            VehicleService vehicleService
+            VehicleService vehicleService,
+            RankingCache rankingCache
     ) {
         this.vehicleService = vehicleService;
+        this.rankingCache = rankingCache;
     }
 
     @Operation(summary = "Obtiene los top 3 de partners con mayor ganancia en la semana")
@@ -32,12 +47,14 @@ public class PartnersRankingController {
             @ApiResponse(responseCode = "200", description = "Ranking encontrado",
                     content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = WeeklyPartnerStatsResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El ranking no ha cambiado desde el ETag enviado", content = @Content),
             @ApiResponse(responseCode = "401", description = "No tienes permisos para realizar esta accion", content = @Content)
     })
     @GetMapping("/week")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public WeeklyPartnerStatsResponse getPartnersRanking() {
-        return vehicleService.getPartnersRanking();
+    public ResponseEntity<WeeklyPartnerStatsResponse> getPartnersRanking() {
+        String key = CACHE_PREFIX + "week:" + LocalDate.now().with(DayOfWeek.MONDAY);
+        return RankingResponses.of(rankingCache.get(key, vehicleService::getPartnersRanking));
     }
 
     @Operation(summary = "Obtiene los top 3 de partners con mayor ganancia en el mes")
@@ -45,11 +62,33 @@ public class PartnersRankingController {
             @ApiResponse(responseCode = "200", description = "Ranking encontrado",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = MonthPartnerStatsResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El ranking no ha cambiado desde el ETag enviado", content = @Content),
             @ApiResponse(responseCode = "401", description = "No tienes permisos para realizar esta accion", content = @Content)
     })
     @GetMapping("/month")
     @PreAuthorize("hasAuthority('ADMIN')")
-    public MonthPartnerStatsResponse getPartnersRankingMonth() {
-        return vehicleService.getPartnersRankingMonth();
+    public ResponseEntity<MonthPartnerStatsResponse> getPartnersRankingMonth() {
+        String key = CACHE_PREFIX + "month:" + YearMonth.now();
+        return RankingResponses.of(rankingCache.get(key, vehicleService::getPartnersRankingMonth));
+    }
+
+    @Operation(summary = "Obtiene los top 3 de partners con mas ingresos de vehiculos en un rango de fechas",
+            description = "Con los acumulados horarios (por defecto) el ranking se calcula por horas completas: " +
+                    "'from' se redondea al inicio de su hora y se incluye completa la hora que contiene a 'to'.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ranking encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PartnerRankingResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El ranking no ha cambiado desde el ETag enviado", content = @Content),
+            @ApiResponse(responseCode = "400", description = "El rango de fechas no es valido", content = @Content),
+            @ApiResponse(responseCode = "401", description = "No tienes permisos para realizar esta accion", content = @Content)
+    })
+    @GetMapping("/range")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<PartnerRankingResponse> getPartnersRankingBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        String key = CACHE_PREFIX + "range:" + from + ":" + to;
+        return RankingResponses.of(rankingCache.get(key, () -> vehicleService.getPartnersRankingBetween(from, to)));
     }
 }
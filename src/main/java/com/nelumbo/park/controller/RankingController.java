@@ -2,12 +2,14 @@ package com.nelumbo.park.controller;
 
 import com.nelumbo.park.dto.response.TopVehicleResponse;
 import com.nelumbo.park.service.VehicleService;
+import com.nelumbo.park.service.infrastructure.RankingCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,12 +23,17 @@ import java.util.List;
 @Tag(name = "Rankings", description = "Ranking API")
 public class RankingController {
     
+    private static final String CACHE_PREFIX = "rankings:";
+
     private final VehicleService vehicleService;
+    private final RankingCache rankingCache;
     
     public RankingController(
-            VehicleService vehicleService
+            VehicleService vehicleService,
+            RankingCache rankingCache
     ) {
         this.vehicleService = vehicleService;
+        this.rankingCache = rankingCache;
     }
 
     @Operation(summary = "Obtiene el top 10 vehículos que más veces se han registrado en los diferentes \n" +
@@ -35,12 +42,13 @@ public class RankingController {
             @ApiResponse(responseCode = "200", description = "Ranking encontrado",
                     content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = TopVehicleResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El ranking no ha cambiado desde el ETag enviado", content = @Content),
             @ApiResponse(responseCode = "401", description = "No tienes permisos para realizar esta accion", content = @Content)
     })
     @GetMapping("/")
     @PreAuthorize("hasAuthority('ADMIN') || hasAuthority('SOCIO')")
-    public List<TopVehicleResponse> getTopVehicles() {
-        return vehicleService.getTopVehicles();
+    public ResponseEntity<List<TopVehicleResponse>> getTopVehicles() {
+        return RankingResponses.of(rankingCache.get(CACHE_PREFIX + "global", vehicleService::getTopVehicles));
     }
     
     @Operation(summary = "Obtiene el top 10 vehículos que más veces se han registrado en un \n" +
@@ -49,13 +57,14 @@ public class RankingController {
             @ApiResponse(responseCode = "200", description = "Ranking encontrado",
                     content = @Content(mediaType = "application/json",
                     schema = @Schema(implementation = TopVehicleResponse.class))),
+            @ApiResponse(responseCode = "304", description = "El ranking no ha cambiado desde el ETag enviado", content = @Content),
             @ApiResponse(responseCode = "401", description = "No tienes permisos para realizar esta accion", content = @Content),
             @ApiResponse(responseCode = "404", description = "El parqueadero no existe", content = @Content)
     })
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('ADMIN') || hasAuthority('SOCIO')")
-    public List<TopVehicleResponse> getTopVehicleById(@PathVariable String id) {
-        return vehicleService.getTopVehicleById(id);
+    public ResponseEntity<List<TopVehicleResponse>> getTopVehicleById(@PathVariable String id) {
+        return RankingResponses.of(rankingCache.get(CACHE_PREFIX + "parking:" + id, () -> vehicleService.getTopVehicleById(id)));
     }
 
 }
@@ -0,0 +1,27 @@
+package com.nelumbo.park.controller;
+
+import com.nelumbo.park.service.infrastructure.RankingCache;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Respuesta de un ranking cacheado con su ETag y {@code Cache-Control}. Si el cliente envia
+ * {@code If-None-Match} con el mismo ETag, Spring MVC responde 304 sin cuerpo.
+ */
+final class RankingResponses {
+
+    private RankingResponses() {
+    }
+
+    static <T> ResponseEntity<T> of(RankingCache.Cached<T> cached) {
+        CacheControl cacheControl = CacheControl.maxAge(cached.maxAgeSeconds(), TimeUnit.SECONDS)
+                .cachePrivate()
+                .staleWhileRevalidate(cached.staleSeconds(), TimeUnit.SECONDS);
+        return ResponseEntity.ok()
+                .eTag(cached.etag())
+                .cacheControl(cacheControl)
+                .body(cached.value());
+    }
+}
@@ -0,0 +1,67 @@
+package com.nelumbo.park.controller;
+
+import com.nelumbo.park.dto.request.ReportJobRequest;
+import com.nelumbo.park.dto.response.ReportJobResponse;
+import com.nelumbo.park.service.ReportJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/reports")
+@Tag(name = "Reports", description = "Report API")
+public class ReportController {
+
+    private final ReportJobService reportJobService;
+
+    public ReportController(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    @Operation(summary = "Solicita la generacion de un reporte de salidas de un parqueadero en un rango de fechas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Reporte encolado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReportJobResponse.class))),
+            @ApiResponse(responseCode = "400", description = "El rango de fechas no es valido", content = @Content),
+            @ApiResponse(responseCode = "403", description = "No tienes permisos para realizar esta accion", content = @Content),
+            @ApiResponse(responseCode = "404", description = "El parking no existe", content = @Content),
+            @ApiResponse(responseCode = "503", description = "Hay demasiados reportes en proceso", content = @Content)
+    })
+    @PostMapping
+    @PreAuthorize("hasAuthority('ADMIN') || hasAuthority('SOCIO')")
+    public ResponseEntity<ReportJobResponse> createReport(@Validated @RequestBody ReportJobRequest request) {
+        ReportJobResponse response = reportJobService.createJob(request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/reports/" + response.getId()))
+                .body(response);
+    }
+
+    @Operation(summary = "Obtiene el estado de un reporte y, si ya termino, su URL de descarga")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reporte encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReportJobResponse.class))),
+            @ApiResponse(responseCode = "403", description = "No tienes permisos para realizar esta accion", content = @Content),
+            @ApiResponse(responseCode = "404", description = "El reporte no existe", content = @Content)
+    })
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAuthority('ADMIN') || hasAuthority('SOCIO')")
+    public ReportJobResponse getReport(@PathVariable String id) {
+        return reportJobService.getJob(id);
+    }
+}
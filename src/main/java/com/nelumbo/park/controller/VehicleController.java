@@ -1,12 +1,17 @@
 package com.nelumbo.park.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nelumbo.park.dto.request.VehicleCreateRequest;
+import com.nelumbo.park.dto.request.VehicleFilterRequest;
 import com.nelumbo.park.dto.response.VehicleCreateResponse;
 import com.nelumbo.park.dto.response.VehicleExitResponse;
+import com.nelumbo.park.dto.response.VehiclePageResponse;
 import com.nelumbo.park.dto.response.VehicleResponse;
 import com.nelumbo.park.dto.request.VehicleUpdateRequest;
-import com.nelumbo.park.entity.Vehicle;
+import com.nelumbo.park.entity.VehicleRecord;
+import com.nelumbo.park.enums.VehicleStatus;
 import com.nelumbo.park.mapper.VehicleResponseMapper;
+import com.nelumbo.park.service.VehicleQueryService;
 import com.nelumbo.park.service.VehicleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +19,8 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -24,8 +31,14 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Date;
 import java.util.List;
 
 @RestController
@@ -33,14 +46,22 @@ import java.util.List;
 @Tag(name = "Vehicles", description = "Vehicle API")
 public class VehicleController {
 
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+
     private final VehicleService vehicleService;
     private final VehicleResponseMapper vehicleResponseMapper;
+    private final VehicleQueryService vehicleQueryService;
+    private final ObjectMapper objectMapper;
 
     public VehicleController(
             VehicleService vehicleService,
-            VehicleResponseMapper vehicleResponseMapper) {
+            VehicleResponseMapper vehicleResponseMapper,
+            VehicleQueryService vehicleQueryService,
+            ObjectMapper objectMapper) {
         this.vehicleService = vehicleService;
         this.vehicleResponseMapper = vehicleResponseMapper;
+        this.vehicleQueryService = vehicleQueryService;
+        this.objectMapper = objectMapper;
     }
 
     @Operation(summary = "Obtiene todos los vehiculos")
@@ -53,10 +74,55 @@ public class VehicleController {
     @GetMapping("/")
     @PreAuthorize("hasAuthority('ADMIN') || hasAuthority('SOCIO')")
     public List<VehicleResponse> getVehicles() {
-        List<Vehicle> vehicles = vehicleService.getAllVehicles();
+        List<VehicleRecord> vehicles = vehicleService.getAllVehicles();
         return vehicleResponseMapper.toResponseList(vehicles);
     }
 
+    @Operation(summary = "Obtiene los vehiculos paginados por cursor",
+            description = "Ordena por fecha de entrada descendente. Para la siguiente pagina se envia el nextCursor recibido.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Pagina de vehiculos",
+                    content = @Content(mediaType = "application/json",
+                    schema = @Schema(implementation = VehiclePageResponse.class))),
+            @ApiResponse(responseCode = "400", description = "El cursor de paginacion no es valido", content = @Content),
+            @ApiResponse(responseCode = "401", description = "No tienes permisos para realizar esta accion", content = @Content)
+    })
+    @GetMapping("/page")
+    @PreAuthorize("hasAuthority('ADMIN') || hasAuthority('SOCIO')")
+    public VehiclePageResponse getVehiclesPage(
+            @RequestParam(required = false) VehicleStatus status,
+            @RequestParam(required = false) String parkingId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        VehicleFilterRequest filter = new VehicleFilterRequest(status, parkingId, from, to);
+        return vehicleQueryService.getVehiclesPage(filter, cursor, limit);
+    }
+
+    @Operation(summary = "Exporta los vehiculos en formato NDJSON",
+            description = "Escribe un vehiculo por linea a medida que se leen de la base de datos.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Vehiculos exportados",
+                    content = @Content(mediaType = APPLICATION_NDJSON,
+                    schema = @Schema(implementation = VehicleResponse.class))),
+            @ApiResponse(responseCode = "401", description = "No tienes permisos para realizar esta accion", content = @Content)
+    })
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON)
+    @PreAuthorize("hasAuthority('ADMIN') || hasAuthority('SOCIO')")
+    public ResponseEntity<StreamingResponseBody> exportVehicles(
+            @RequestParam(required = false) VehicleStatus status,
+            @RequestParam(required = false) String parkingId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to) {
+        VehicleFilterRequest filter = new VehicleFilterRequest(status, parkingId, from, to);
+        StreamingResponseBody body = outputStream ->
+                vehicleQueryService.streamVehicles(filter, vehicle -> writeLine(outputStream, vehicle));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON))
+                .body(body);
+    }
+
     @Operation(summary = "Obtiene un vehiculo por su id")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Vehiculo encontrado",
@@ -68,7 +134,7 @@ public class VehicleController {
     @GetMapping("/{id}")
     @PreAuthorize("hasAuthority('SOCIO')")
     public VehicleResponse getVehicleById(@PathVariable String id) {
-        Vehicle vehicle = vehicleService.getVehicleById(id);
+        VehicleRecord vehicle = vehicleService.getVehicleById(id);
         return vehicleResponseMapper.toResponse(vehicle);
     }
 
@@ -116,4 +182,13 @@ public class VehicleController {
         vehicleService.deleteVehicle(id);
         return ResponseEntity.ok("Vehículo eliminado exitosamente");
     }
-}
\ No newline at end of file
+
+    private void writeLine(OutputStream outputStream, VehicleResponse vehicle) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(vehicle));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
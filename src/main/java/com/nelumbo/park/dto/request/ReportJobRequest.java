@@ -0,0 +1,28 @@
+package com.nelumbo.park.dto.request;
+
+import com.nelumbo.park.enums.ReportFormat;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportJobRequest {
+
+    @NotBlank(message = "El id del parking no puede estar vacío")
+    private String parkingId;
+
+    @NotNull(message = "La fecha inicial no puede estar vacía")
+    private LocalDateTime from;
+
+    @NotNull(message = "La fecha final no puede estar vacía")
+    private LocalDateTime to;
+
+    @NotNull(message = "El formato del reporte no puede estar vacío")
+    private ReportFormat format;
+}
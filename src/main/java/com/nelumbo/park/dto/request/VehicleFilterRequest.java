@@ -0,0 +1,18 @@
+package com.nelumbo.park.dto.request;
+
+import com.nelumbo.park.enums.VehicleStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleFilterRequest {
+    private VehicleStatus status;
+    private String parkingId;
+    private Date from;
+    private Date to;
+}
@@ -3,23 +3,25 @@ package com.nelumbo.park.dto.response;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @NoArgsConstructor
 public class ParkingEarningsResponse {
     private String id;
     private String name;
-    private Float totalEarnings;
+    private BigDecimal totalEarnings;
     private Long vehicleCount;
 
-    public ParkingEarningsResponse(String id, String name, Float totalEarnings, Long vehicleCount) {
+    public ParkingEarningsResponse(String id, String name, BigDecimal totalEarnings, Long vehicleCount) {
         this.id = id;
         this.name = name;
         this.totalEarnings = totalEarnings;
         this.vehicleCount = vehicleCount;
     }
 
-    public void addEarnings(Float amount) {
-        this.totalEarnings += amount;
+    public void addEarnings(BigDecimal amount) {
+        this.totalEarnings = this.totalEarnings.add(amount);
         this.vehicleCount += 1;
     }
 }
@@ -0,0 +1,20 @@
+package com.nelumbo.park.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ParkingRowResponse {
+    private String id;
+    private String name;
+    private String address;
+    private int capacity;
+    private Float costPerHour;
+    private String ownerId;
+    private String ownerUsername;
+    private String ownerEmail;
+    private String ownerRole;
+}
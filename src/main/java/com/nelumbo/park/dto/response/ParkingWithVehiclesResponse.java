@@ -1,5 +1,6 @@
 package com.nelumbo.park.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -15,5 +16,8 @@ public class ParkingWithVehiclesResponse {
     private String address;
     private int capacity;
     private Float costPerHour;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private List<VehicleSimpleResponse> vehicles;
-}
\ No newline at end of file
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+}
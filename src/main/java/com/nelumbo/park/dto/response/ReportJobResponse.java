@@ -0,0 +1,40 @@
+package com.nelumbo.park.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.nelumbo.park.enums.ReportFormat;
+import com.nelumbo.park.enums.ReportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportJobResponse {
+    private String id;
+    private ReportJobStatus status;
+    private String parkingId;
+    private ReportFormat format;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime to;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime finishedAt;
+
+    private String fileName;
+    private String downloadUrl;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime downloadUrlExpiresAt;
+
+    private String error;
+}
@@ -5,6 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -13,4 +15,12 @@ public class TopParkingResponse {
     private String parkingName;
     private Long totalVehicles;
     private String totalCost;
+
+    public TopParkingResponse(String parkingId, String parkingName, Long totalVehicles, BigDecimal totalEarnings) {
+        this(parkingId, parkingName, totalVehicles, formatEarnings(totalEarnings));
+    }
+
+    public static String formatEarnings(BigDecimal totalEarnings) {
+        return String.format("%.1f", totalEarnings) + "f";
+    }
 }
@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -13,5 +15,5 @@ public class VehicleDetailResponse {
     private String modelVehicle;
     private String dayEntry;
     private String dayExit;
-    private Float totalCost;
+    private BigDecimal totalCost;
 }
\ No newline at end of file
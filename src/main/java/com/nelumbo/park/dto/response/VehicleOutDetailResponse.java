@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Data
@@ -18,5 +19,5 @@ public class VehicleOutDetailResponse {
     private String parking;
     private List<VehicleDetailResponse> vehicles;
     private Integer totalVehicles;
-    private Float totalEarnings;
+    private BigDecimal totalEarnings;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.nelumbo.park.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehiclePageResponse {
+    private List<VehicleResponse> items;
+    private String nextCursor;
+}
@@ -0,0 +1,25 @@
+package com.nelumbo.park.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleReportRowResponse {
+    private String userId;
+    private String username;
+    private String email;
+    private String parkingId;
+    private String parkingName;
+    private String vehicleId;
+    private String plateNumber;
+    private String modelVehicle;
+    private Date entryTime;
+    private Date exitTime;
+    private BigDecimal totalCost;
+}
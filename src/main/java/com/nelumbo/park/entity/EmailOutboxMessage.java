@@ -0,0 +1,59 @@
+package com.nelumbo.park.entity;
+
+import com.nelumbo.park.enums.OutboxStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Notificacion pendiente de publicar en RabbitMQ. {@code availableAt} marca desde cuando la
+ * puede tomar el relay: se adelanta al reclamarla para que otra instancia no la publique a la
+ * vez y se posterga tras un fallo.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Entity
+@Table(name = "\"email_outbox\"", indexes = {
+        @Index(name = "idx_email_outbox_status_available", columnList = "status, available_at")
+})
+public class EmailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Column(name = "available_at", nullable = false)
+    private Date availableAt;
+
+    @Column(name = "sent_at")
+    private Date sentAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+}
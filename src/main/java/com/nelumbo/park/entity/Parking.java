@@ -40,8 +40,11 @@ public class Parking {
     
     @Column(nullable = false)
     private Float costPerHour;
+
+    @Column(nullable = false, insertable = false, updatable = false, columnDefinition = "integer default 0")
+    private int occupied;
     
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "id_owner", nullable = false, referencedColumnName = "id")
     private User owner;
 
@@ -0,0 +1,23 @@
+package com.nelumbo.park.entity;
+
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Placas vistas por parqueadero y hora, usadas para contar placas distintas de forma incremental.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Entity
+@Table(name = "\"parking_hourly_plates\"")
+public class ParkingHourlyPlate {
+
+    @EmbeddedId
+    private ParkingHourlyPlateId id;
+}
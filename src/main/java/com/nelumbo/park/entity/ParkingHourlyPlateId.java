@@ -0,0 +1,27 @@
+package com.nelumbo.park.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Embeddable
+public class ParkingHourlyPlateId implements Serializable {
+
+    @Column(name = "id_parking", nullable = false)
+    private String parkingId;
+
+    @Column(name = "bucket_start", nullable = false)
+    private Date bucketStart;
+
+    @Column(name = "plate_number", nullable = false)
+    private String plateNumber;
+}
@@ -0,0 +1,39 @@
+package com.nelumbo.park.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Acumulado por parqueadero y hora: entradas, salidas, ingresos y placas distintas que
+ * entraron en la hora. Se actualiza en cada entrada y salida y se reconstruye por lotes.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Entity
+@Table(name = "\"parking_hourly_stats\"")
+public class ParkingHourlyStats {
+
+    @EmbeddedId
+    private ParkingHourlyStatsId id;
+
+    @Column(nullable = false)
+    private long entries;
+
+    @Column(nullable = false)
+    private long exits;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "distinct_plates", nullable = false)
+    private long distinctPlates;
+}
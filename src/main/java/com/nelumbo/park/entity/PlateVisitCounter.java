@@ -0,0 +1,32 @@
+package com.nelumbo.park.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Numero de entradas de una placa. El alcance es el id del parqueadero o
+ * {@link #GLOBAL_SCOPE} para el total en todos los parqueaderos.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Entity
+@Table(name = "\"plate_visit_counters\"",
+        indexes = @Index(name = "idx_plate_visit_counters_scope_visits", columnList = "scope, visits"))
+public class PlateVisitCounter {
+
+    public static final String GLOBAL_SCOPE = "*";
+
+    @EmbeddedId
+    private PlateVisitCounterId id;
+
+    @Column(nullable = false)
+    private long visits;
+}
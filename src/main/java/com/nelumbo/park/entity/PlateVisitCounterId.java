@@ -0,0 +1,23 @@
+package com.nelumbo.park.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Embeddable
+public class PlateVisitCounterId implements Serializable {
+
+    @Column(name = "scope", nullable = false)
+    private String scope;
+
+    @Column(name = "plate_number", nullable = false)
+    private String plateNumber;
+}
@@ -0,0 +1,71 @@
+package com.nelumbo.park.entity;
+
+import com.nelumbo.park.enums.ReportFormat;
+import com.nelumbo.park.enums.ReportJobStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Entity
+@Table(name = "\"report_jobs\"", indexes = {
+        @Index(name = "idx_report_jobs_status", columnList = "status")
+})
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "requested_by", nullable = false)
+    private String requestedBy;
+
+    @Column(name = "id_parking", nullable = false)
+    private String parkingId;
+
+    @Column(name = "from_time", nullable = false)
+    private Date fromTime;
+
+    @Column(name = "to_time", nullable = false)
+    private Date toTime;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportJobStatus status;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "file_key")
+    private String fileKey;
+
+    @Column(name = "error_message")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Column(name = "finished_at")
+    private Date finishedAt;
+
+    @Column(name = "heartbeat_at")
+    private Date heartbeatAt;
+}
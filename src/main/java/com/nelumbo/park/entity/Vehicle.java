@@ -5,16 +5,22 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.EnumType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.util.Date;
 
 @Data
@@ -22,9 +28,29 @@ import java.util.Date;
 @NoArgsConstructor
 
 @Entity
-@Table(name = "\"vehicles\"")
+@NamedEntityGraph(
+        name = Vehicle.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "parking", subgraph = "parking-owner"),
+                @NamedAttributeNode("admin")
+        },
+        subgraphs = @NamedSubgraph(name = "parking-owner", attributeNodes = @NamedAttributeNode("owner"))
+)
+// Solo los indices simples: los parciales y los que usan INCLUDE estan en db/migration
+@Table(name = "\"vehicles\"", indexes = {
+        @Index(name = "idx_vehicles_plate_status", columnList = "plate_number, status"),
+        @Index(name = "idx_vehicles_parking_status_entry", columnList = "id_parking, status, entry_time DESC, id DESC"),
+        @Index(name = "idx_vehicles_exit_time", columnList = "exit_time"),
+        @Index(name = "idx_vehicles_first_visit_status", columnList = "first_visit, status")
+})
 public class Vehicle {
 
+    /**
+     * Grafo con el parqueadero, su dueno y el socio que registro el vehiculo: todo lo que mapea
+     * {@code VehicleResponse}.
+     */
+    public static final String DETAILS_GRAPH = "Vehicle.details";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
@@ -44,15 +70,25 @@ public class Vehicle {
     @Column(name = "cost_per_hour", nullable = false)
     private Float costPerHour;
 
+    @Column(name = "total_cost", nullable = true, precision = 12, scale = 2)
+    private BigDecimal totalCost;
+
+    /**
+     * Indica si es la primera vez que la placa entra a algun parqueadero. Se calcula al
+     * registrar la entrada; es null solo en filas historicas aun no recalculadas.
+     */
+    @Column(name = "first_visit", nullable = true)
+    private Boolean firstVisit;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private VehicleStatus status = VehicleStatus.IN;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "id_parking", nullable = false, referencedColumnName = "id")
     private Parking parking;
 
-    @ManyToOne(optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "id_admin", nullable = false, referencedColumnName = "id")
     private User admin;
 }
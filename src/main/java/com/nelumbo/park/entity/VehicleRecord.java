@@ -0,0 +1,86 @@
+package com.nelumbo.park.entity;
+
+import com.nelumbo.park.enums.VehicleStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Fila de la vista {@code vehicle_records}: los vehiculos de {@code vehicles} mas los archivados
+ * en {@code vehicle_history}. Es de solo lectura y se usa para reportes, rankings y los listados
+ * de vehiculos, que asi siguen mostrando las salidas ya archivadas.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+
+@Entity
+@Immutable
+@NamedEntityGraph(
+        name = VehicleRecord.DETAILS_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "parking", subgraph = "parking-owner"),
+                @NamedAttributeNode("admin")
+        },
+        subgraphs = @NamedSubgraph(name = "parking-owner", attributeNodes = @NamedAttributeNode("owner"))
+)
+@Table(name = "\"vehicle_records\"")
+public class VehicleRecord {
+
+    /**
+     * Igual que {@link Vehicle#DETAILS_GRAPH}: todo lo que mapea {@code VehicleResponse}.
+     */
+    public static final String DETAILS_GRAPH = "VehicleRecord.details";
+
+    @Id
+    private String id;
+
+    @Column(name = "plate_number", nullable = false)
+    private String plateNumber;
+
+    @Column(name = "model_vehicle", nullable = false)
+    private String model;
+
+    @Column(name = "entry_time", nullable = false)
+    private Date entryTime;
+
+    @Column(name = "exit_time", nullable = true)
+    private Date exitTime;
+
+    @Column(name = "cost_per_hour", nullable = false)
+    private Float costPerHour;
+
+    @Column(name = "total_cost", nullable = true, precision = 12, scale = 2)
+    private BigDecimal totalCost;
+
+    @Column(name = "first_visit", nullable = true)
+    private Boolean firstVisit;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private VehicleStatus status;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "id_parking", nullable = false, referencedColumnName = "id")
+    private Parking parking;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "id_admin", nullable = false, referencedColumnName = "id")
+    private User admin;
+}
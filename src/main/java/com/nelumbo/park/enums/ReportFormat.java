@@ -0,0 +1,5 @@
+package com.nelumbo.park.enums;
+
+public enum ReportFormat {
+    EXCEL, PDF
+}
@@ -0,0 +1,5 @@
+package com.nelumbo.park.enums;
+
+public enum ReportJobStatus {
+    PENDING, RUNNING, COMPLETED, NO_DATA, FAILED
+}
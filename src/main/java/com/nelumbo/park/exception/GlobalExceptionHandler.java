@@ -3,6 +3,8 @@ package com.nelumbo.park.exception;
 import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import com.nelumbo.park.exception.exceptions.EmailNotFoundException;
 import com.nelumbo.park.exception.exceptions.InvalidPasswordException;
+import com.nelumbo.park.exception.exceptions.InvalidCursorException;
+import com.nelumbo.park.exception.exceptions.InvalidDateRangeException;
 import com.nelumbo.park.exception.exceptions.InsufficientPermissionsException;
 import com.nelumbo.park.exception.exceptions.LimitParkingFullException;
 import com.nelumbo.park.exception.exceptions.NoAssociatedParkingException;
@@ -10,6 +12,8 @@ import com.nelumbo.park.exception.exceptions.UserNotFoundException;
 import com.nelumbo.park.exception.exceptions.DuplicateEmailException;
 import com.nelumbo.park.exception.exceptions.DuplicateUsernameException;
 import com.nelumbo.park.exception.exceptions.ParkingNotFoundException;
+import com.nelumbo.park.exception.exceptions.ReportJobNotFoundException;
+import com.nelumbo.park.exception.exceptions.ReportQueueFullException;
 import com.nelumbo.park.exception.exceptions.VehicleNotFoundException;
 import com.nelumbo.park.exception.exceptions.VehicleAlreadyInParkingException;
 import com.nelumbo.park.exception.exceptions.JwtUserNotFoundException;
@@ -248,6 +252,28 @@ public class GlobalExceptionHandler {
                 .body(Collections.singletonMap(ERROR_KEY, ex.getMessage()));
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidCursorException(InvalidCursorException ex) {
+        return createErrorResponse(HttpStatus.BAD_REQUEST, "El cursor de paginación no es válido");
+    }
+
+    @ExceptionHandler(InvalidDateRangeException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidDateRangeException(InvalidDateRangeException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Collections.singletonMap(ERROR_KEY, ex.getMessage()));
+    }
+
+    @ExceptionHandler(ReportJobNotFoundException.class)
+    public ResponseEntity<Map<String, String>> handleReportJobNotFoundException(ReportJobNotFoundException ex) {
+        return createErrorResponse(HttpStatus.NOT_FOUND, "El reporte no existe");
+    }
+
+    @ExceptionHandler(ReportQueueFullException.class)
+    public ResponseEntity<Map<String, String>> handleReportQueueFullException(ReportQueueFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Collections.singletonMap(ERROR_KEY, ex.getMessage()));
+    }
+
     @ExceptionHandler(JwtUserNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleJwtUserNotFoundException(JwtUserNotFoundException ex) {
         return createErrorResponse(HttpStatus.UNAUTHORIZED, "El usuario no existe");
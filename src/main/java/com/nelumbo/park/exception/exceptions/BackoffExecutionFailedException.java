@@ -1,15 +0,0 @@
-package com.nelumbo.park.exception.exceptions;
-
-public class BackoffExecutionFailedException extends RuntimeException {
-    public BackoffExecutionFailedException() {
-        super();
-    }
-
-    public BackoffExecutionFailedException(String message) {
-        super(message);
-    }
-
-    public BackoffExecutionFailedException(String message, Throwable cause) {
-        super(message, cause);
-    }
-}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package com.nelumbo.park.exception.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException() {
+        super();
+    }
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.nelumbo.park.exception.exceptions;
+
+public class InvalidDateRangeException extends RuntimeException {
+    public InvalidDateRangeException() {
+        super();
+    }
+
+    public InvalidDateRangeException(String message) {
+        super(message);
+    }
+}
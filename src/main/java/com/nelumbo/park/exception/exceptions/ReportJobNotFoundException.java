@@ -0,0 +1,11 @@
+package com.nelumbo.park.exception.exceptions;
+
+public class ReportJobNotFoundException extends RuntimeException {
+    public ReportJobNotFoundException() {
+        super();
+    }
+
+    public ReportJobNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.nelumbo.park.exception.exceptions;
+
+public class ReportQueueFullException extends RuntimeException {
+    public ReportQueueFullException() {
+        super();
+    }
+
+    public ReportQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -22,12 +22,14 @@ public abstract class ParkingMapper {
     @Mapping(target = "owner", source = "idOwner", qualifiedByName = "mapOwner")
     @Mapping(target = "costPerHour", source = "costPerHour")
     @Mapping(target = "vehicles", ignore = true)
+    @Mapping(target = "occupied", ignore = true)
     public abstract Parking toEntity(ParkingRequest dto);
 
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "owner", source = "idOwner", qualifiedByName = "mapOwner")
     @Mapping(target = "costPerHour", source = "costPerHour")
     @Mapping(target = "vehicles", ignore = true)
+    @Mapping(target = "occupied", ignore = true)
     public abstract Parking toEntity(ParkingUpdateRequest dto);
 
     @Named("mapOwner")
@@ -1,6 +1,7 @@
 package com.nelumbo.park.mapper;
 
 import com.nelumbo.park.dto.response.ParkingResponse;
+import com.nelumbo.park.dto.response.ParkingRowResponse;
 import com.nelumbo.park.dto.response.UserResponse;
 import com.nelumbo.park.entity.Parking;
 import com.nelumbo.park.entity.User;
@@ -38,4 +39,21 @@ public interface ParkingResponseMapper {
 
     @IterableMapping(qualifiedByName = "toResponseWithoutOwner")
     List<ParkingResponse> toResponseListWithoutOwner(List<Parking> parkings);
+
+    @Mapping(target = "owner.id", source = "ownerId")
+    @Mapping(target = "owner.username", source = "ownerUsername")
+    @Mapping(target = "owner.email", source = "ownerEmail")
+    @Mapping(target = "owner.role", source = "ownerRole")
+    @Named("fromRow")
+    ParkingResponse fromRow(ParkingRowResponse row);
+
+    @IterableMapping(qualifiedByName = "fromRow")
+    List<ParkingResponse> fromRows(List<ParkingRowResponse> rows);
+
+    @Mapping(target = "owner", ignore = true)
+    @Named("fromRowWithoutOwner")
+    ParkingResponse fromRowWithoutOwner(ParkingRowResponse row);
+
+    @IterableMapping(qualifiedByName = "fromRowWithoutOwner")
+    List<ParkingResponse> fromRowsWithoutOwner(List<ParkingRowResponse> rows);
 }
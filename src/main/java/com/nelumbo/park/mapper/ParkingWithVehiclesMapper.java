@@ -3,42 +3,26 @@ package com.nelumbo.park.mapper;
 import com.nelumbo.park.dto.response.ParkingWithVehiclesResponse;
 import com.nelumbo.park.dto.response.VehicleSimpleResponse;
 import com.nelumbo.park.entity.Parking;
-import com.nelumbo.park.entity.Vehicle;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
+import java.util.List;
 
 @Component
 public class ParkingWithVehiclesMapper {
 
-    public ParkingWithVehiclesResponse toResponse(Parking parking) {
+    /**
+     * @param vehicles Pagina de vehiculos ya proyectada, o null para omitirlos; no se recorre {@code Parking.vehicles}
+     * @param nextCursor Cursor de la siguiente pagina, null si no hay mas
+     */
+    public ParkingWithVehiclesResponse toResponse(Parking parking, List<VehicleSimpleResponse> vehicles, String nextCursor) {
         ParkingWithVehiclesResponse response = new ParkingWithVehiclesResponse();
         response.setId(parking.getId());
         response.setName(parking.getName());
         response.setAddress(parking.getAddress());
         response.setCapacity(parking.getCapacity());
         response.setCostPerHour(parking.getCostPerHour());
-
-        if (parking.getVehicles() != null && !parking.getVehicles().isEmpty()) {
-            response.setVehicles(parking.getVehicles().stream()
-                    .map(this::toVehicleSimpleResponse)
-                    .toList());
-        } else {
-            response.setVehicles(new ArrayList<>());
-        }
-        
-        return response;
-    }
-
-    private VehicleSimpleResponse toVehicleSimpleResponse(Vehicle vehicle) {
-        VehicleSimpleResponse response = new VehicleSimpleResponse();
-        response.setId(vehicle.getId());
-        response.setPlateNumber(vehicle.getPlateNumber());
-        response.setModel(vehicle.getModel());
-        response.setEntryTime(vehicle.getEntryTime());
-        response.setExitTime(vehicle.getExitTime());
-        response.setCostPerHour(vehicle.getCostPerHour());
-        response.setStatus(vehicle.getStatus());
+        response.setVehicles(vehicles);
+        response.setNextCursor(nextCursor);
         return response;
     }
-}
\ No newline at end of file
+}
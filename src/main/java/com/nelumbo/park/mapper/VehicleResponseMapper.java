@@ -1,7 +1,7 @@
 package com.nelumbo.park.mapper;
 
 import com.nelumbo.park.dto.response.VehicleResponse;
-import com.nelumbo.park.entity.Vehicle;
+import com.nelumbo.park.entity.VehicleRecord;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
 
@@ -10,6 +10,6 @@ import java.util.List;
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING, uses = {ParkingResponseMapper.class})
 public interface VehicleResponseMapper {
 
-    VehicleResponse toResponse(Vehicle vehicle);
-    List<VehicleResponse> toResponseList(List<Vehicle> vehicles);
+    VehicleResponse toResponse(VehicleRecord vehicle);
+    List<VehicleResponse> toResponseList(List<VehicleRecord> vehicles);
 }
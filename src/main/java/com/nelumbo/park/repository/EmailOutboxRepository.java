@@ -0,0 +1,53 @@
+package com.nelumbo.park.repository;
+
+import com.nelumbo.park.entity.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, String> {
+
+    /**
+     * Reclama un lote de mensajes disponibles moviendo su {@code available_at} al fin del
+     * arriendo. Las filas bloqueadas por otro relay se saltan, y si el relay se cae antes de
+     * marcarlas como enviadas vuelven a estar disponibles al vencer el arriendo.
+     */
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET available_at = :leaseUntil " +
+                   "WHERE id IN (SELECT id FROM email_outbox " +
+                   "             WHERE status = 'PENDING' AND available_at <= :now " +
+                   "             ORDER BY created_at LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+                   "RETURNING *",
+           nativeQuery = true)
+    List<EmailOutboxMessage> claimBatch(@Param("now") Date now,
+                                        @Param("leaseUntil") Date leaseUntil,
+                                        @Param("batchSize") int batchSize);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxMessage m SET m.status = com.nelumbo.park.enums.OutboxStatus.SENT, " +
+           "m.sentAt = :sentAt, m.attempts = m.attempts + 1, m.lastError = NULL WHERE m.id IN :ids")
+    int markSent(@Param("ids") Collection<String> ids, @Param("sentAt") Date sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutboxMessage m SET m.attempts = m.attempts + 1, " +
+           "m.availableAt = :availableAt, m.lastError = :lastError WHERE m.id = :id")
+    int markFailed(@Param("id") String id,
+                   @Param("availableAt") Date availableAt,
+                   @Param("lastError") String lastError);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutboxMessage m " +
+           "WHERE m.status = com.nelumbo.park.enums.OutboxStatus.SENT AND m.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") Date cutoff);
+}
@@ -0,0 +1,110 @@
+package com.nelumbo.park.repository;
+
+import com.nelumbo.park.dto.response.TopParkingResponse;
+import com.nelumbo.park.dto.response.TopPartnerResponse;
+import com.nelumbo.park.entity.ParkingHourlyStats;
+import com.nelumbo.park.entity.ParkingHourlyStatsId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface ParkingHourlyStatsRepository extends JpaRepository<ParkingHourlyStats, ParkingHourlyStatsId> {
+
+    @Modifying
+    @Query(value = "INSERT INTO parking_hourly_plates (id_parking, bucket_start, plate_number) " +
+            "VALUES (:parkingId, :bucketStart, :plateNumber) " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertPlate(@Param("parkingId") String parkingId,
+                    @Param("bucketStart") Date bucketStart,
+                    @Param("plateNumber") String plateNumber);
+
+    @Modifying
+    @Query(value = "INSERT INTO parking_hourly_stats (id_parking, bucket_start, entries, exits, revenue, distinct_plates) " +
+            "VALUES (:parkingId, :bucketStart, 1, 0, 0, :newPlates) " +
+            "ON CONFLICT (id_parking, bucket_start) DO UPDATE SET " +
+            "entries = parking_hourly_stats.entries + 1, " +
+            "distinct_plates = parking_hourly_stats.distinct_plates + EXCLUDED.distinct_plates",
+            nativeQuery = true)
+    int incrementEntries(@Param("parkingId") String parkingId,
+                         @Param("bucketStart") Date bucketStart,
+                         @Param("newPlates") int newPlates);
+
+    @Modifying
+    @Query(value = "INSERT INTO parking_hourly_stats (id_parking, bucket_start, entries, exits, revenue, distinct_plates) " +
+            "VALUES (:parkingId, :bucketStart, 0, 1, :revenue, 0) " +
+            "ON CONFLICT (id_parking, bucket_start) DO UPDATE SET " +
+            "exits = parking_hourly_stats.exits + 1, " +
+            "revenue = parking_hourly_stats.revenue + EXCLUDED.revenue",
+            nativeQuery = true)
+    int incrementExits(@Param("parkingId") String parkingId,
+                       @Param("bucketStart") Date bucketStart,
+                       @Param("revenue") BigDecimal revenue);
+
+    @Modifying
+    @Query(value = "DELETE FROM parking_hourly_stats WHERE bucket_start >= :fromTime AND bucket_start < :toTime",
+            nativeQuery = true)
+    int deleteStatsBetween(@Param("fromTime") Date fromTime, @Param("toTime") Date toTime);
+
+    @Modifying
+    @Query(value = "DELETE FROM parking_hourly_plates WHERE bucket_start >= :fromTime AND bucket_start < :toTime",
+            nativeQuery = true)
+    int deletePlatesBetween(@Param("fromTime") Date fromTime, @Param("toTime") Date toTime);
+
+    @Modifying
+    @Query(value = "INSERT INTO parking_hourly_plates (id_parking, bucket_start, plate_number) " +
+            "SELECT DISTINCT id_parking, date_trunc('hour', entry_time), plate_number FROM vehicle_records " +
+            "WHERE entry_time >= :fromTime AND entry_time < :toTime " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int rebuildPlatesBetween(@Param("fromTime") Date fromTime, @Param("toTime") Date toTime);
+
+    @Modifying
+    @Query(value = "INSERT INTO parking_hourly_stats (id_parking, bucket_start, entries, exits, revenue, distinct_plates) " +
+            "SELECT id_parking, bucket_start, SUM(entries), SUM(exits), SUM(revenue), SUM(distinct_plates) FROM (" +
+            "  SELECT id_parking, date_trunc('hour', entry_time) AS bucket_start, COUNT(*) AS entries, 0 AS exits, " +
+            "         0 AS revenue, COUNT(DISTINCT plate_number) AS distinct_plates " +
+            "  FROM vehicle_records WHERE entry_time >= :fromTime AND entry_time < :toTime " +
+            "  GROUP BY id_parking, date_trunc('hour', entry_time) " +
+            "  UNION ALL " +
+            "  SELECT id_parking, date_trunc('hour', exit_time), 0, COUNT(*), COALESCE(SUM(total_cost), 0), 0 " +
+            "  FROM vehicle_records WHERE status = 'OUT' AND exit_time >= :fromTime AND exit_time < :toTime " +
+            "  GROUP BY id_parking, date_trunc('hour', exit_time)" +
+            ") buckets GROUP BY id_parking, bucket_start " +
+            "ON CONFLICT (id_parking, bucket_start) DO UPDATE SET " +
+            "entries = EXCLUDED.entries, exits = EXCLUDED.exits, revenue = EXCLUDED.revenue, " +
+            "distinct_plates = EXCLUDED.distinct_plates",
+            nativeQuery = true)
+    int rebuildStatsBetween(@Param("fromTime") Date fromTime, @Param("toTime") Date toTime);
+
+    @Query("SELECT new com.nelumbo.park.dto.response.TopParkingResponse(p.id, p.name, SUM(s.exits), SUM(s.revenue)) " +
+           "FROM ParkingHourlyStats s JOIN Parking p ON p.id = s.id.parkingId " +
+           "WHERE s.id.bucketStart >= :fromTime AND s.id.bucketStart <= :toTime " +
+           "GROUP BY p.id, p.name " +
+           "HAVING SUM(s.revenue) > 0 " +
+           "ORDER BY SUM(s.revenue) DESC")
+    List<TopParkingResponse> findTopParkingsByRevenue(@Param("fromTime") Date fromTime,
+                                                      @Param("toTime") Date toTime,
+                                                      Pageable pageable);
+
+    @Query("SELECT new com.nelumbo.park.dto.response.TopPartnerResponse(o.username, SUM(s.entries), p.id) " +
+           "FROM ParkingHourlyStats s JOIN Parking p ON p.id = s.id.parkingId JOIN p.owner o " +
+           "WHERE o.role = 'SOCIO' AND s.id.bucketStart >= :fromTime AND s.id.bucketStart <= :toTime " +
+           "GROUP BY o.id, o.username, p.id " +
+           "HAVING SUM(s.entries) > 0 " +
+           "ORDER BY SUM(s.entries) DESC")
+    List<TopPartnerResponse> findTopPartnersByEntries(@Param("fromTime") Date fromTime,
+                                                      @Param("toTime") Date toTime,
+                                                      Pageable pageable);
+
+    @Query(value = "SELECT MIN(entry_time) FROM vehicle_records", nativeQuery = true)
+    Date findFirstEntryTime();
+}
@@ -1,10 +1,14 @@
 package com.nelumbo.park.repository;
 
+import com.nelumbo.park.dto.response.ParkingRowResponse;
 import com.nelumbo.park.entity.Parking;
 import com.nelumbo.park.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,8 +16,48 @@ import java.util.List;
 public interface ParkingRepository extends JpaRepository<Parking, Long> {
     Parking findById(String id);
 
-    @Query("SELECT p FROM Parking p WHERE p.owner = :owner")
-    List<Parking> findByOwner(User owner);
-
     Parking findByIdAndOwner(String id, User owner);
+
+    @Query("SELECT new com.nelumbo.park.dto.response.ParkingRowResponse(" +
+           "p.id, p.name, p.address, p.capacity, p.costPerHour, o.id, o.username, o.email, o.role) " +
+           "FROM Parking p JOIN p.owner o " +
+           "ORDER BY p.name")
+    List<ParkingRowResponse> findAllRows();
+
+    @Query("SELECT new com.nelumbo.park.dto.response.ParkingRowResponse(" +
+           "p.id, p.name, p.address, p.capacity, p.costPerHour, o.id, o.username, o.email, o.role) " +
+           "FROM Parking p JOIN p.owner o " +
+           "WHERE o.id = :ownerId " +
+           "ORDER BY p.name")
+    List<ParkingRowResponse> findRowsByOwnerId(@Param("ownerId") String ownerId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Parking p SET p.occupied = p.occupied + 1 WHERE p.id = :id AND p.occupied < p.capacity")
+    int reserveSlot(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Parking p SET p.occupied = p.occupied - 1 WHERE p.id = :id AND p.occupied > 0")
+    int releaseSlot(@Param("id") String id);
+
+    /**
+     * Corrige {@code occupied} en una sola sentencia. La diferencia con los vehiculos IN se calcula
+     * sobre la lectura inicial y se resta al valor de la fila ya bloqueada, asi que los
+     * {@link #reserveSlot(String)} y {@link #releaseSlot(String)} que se confirman mientras tanto
+     * se conservan en lugar de sobrescribirse.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE parking_lot p SET occupied = GREATEST(p.occupied - c.drift, 0) " +
+                   "FROM (SELECT l.id, l.occupied - COUNT(v.id) AS drift FROM parking_lot l " +
+                   "      LEFT JOIN vehicles v ON v.id_parking = l.id AND v.status = 'IN' " +
+                   "      GROUP BY l.id, l.occupied) c " +
+                   "WHERE p.id = c.id AND c.drift <> 0",
+           nativeQuery = true)
+    int reconcileOccupied();
+
+    @Modifying
+    @Query(value = "DELETE FROM vehicle_history WHERE id_parking = :id", nativeQuery = true)
+    int deleteVehicleHistory(@Param("id") String id);
 }
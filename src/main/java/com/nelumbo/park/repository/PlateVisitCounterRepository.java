@@ -0,0 +1,60 @@
+package com.nelumbo.park.repository;
+
+import com.nelumbo.park.dto.response.TopVehicleResponse;
+import com.nelumbo.park.entity.PlateVisitCounter;
+import com.nelumbo.park.entity.PlateVisitCounterId;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface PlateVisitCounterRepository extends JpaRepository<PlateVisitCounter, PlateVisitCounterId> {
+
+    /**
+     * Suma una visita a la placa en el contador global y en el del parqueadero.
+     * @return Filas {@code [scope, visits]} con los valores ya incrementados
+     */
+    @Transactional
+    @Query(value = "INSERT INTO plate_visit_counters (scope, plate_number, visits) " +
+                   "VALUES ('*', :plateNumber, 1), (:parkingId, :plateNumber, 1) " +
+                   "ON CONFLICT (scope, plate_number) DO UPDATE SET visits = plate_visit_counters.visits + 1 " +
+                   "RETURNING scope, visits",
+           nativeQuery = true)
+    List<Object[]> incrementVisits(@Param("parkingId") String parkingId,
+                                   @Param("plateNumber") String plateNumber);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE plate_visit_counters SET visits = visits - 1 " +
+                   "WHERE plate_number = :plateNumber AND scope IN ('*', :parkingId) AND visits > 0",
+           nativeQuery = true)
+    int decrementVisits(@Param("parkingId") String parkingId,
+                        @Param("plateNumber") String plateNumber);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM plate_visit_counters", nativeQuery = true)
+    int deleteAllCounters();
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO plate_visit_counters (scope, plate_number, visits) " +
+                   "SELECT '*', plate_number, COUNT(*) FROM vehicle_records GROUP BY plate_number " +
+                   "UNION ALL " +
+                   "SELECT id_parking, plate_number, COUNT(*) FROM vehicle_records GROUP BY id_parking, plate_number " +
+                   "ON CONFLICT (scope, plate_number) DO UPDATE SET visits = EXCLUDED.visits",
+           nativeQuery = true)
+    int rebuildFromVehicles();
+
+    @Query("SELECT new com.nelumbo.park.dto.response.TopVehicleResponse(c.id.plateNumber, c.visits) " +
+           "FROM PlateVisitCounter c " +
+           "WHERE c.id.scope = :scope " +
+           "ORDER BY c.visits DESC")
+    List<TopVehicleResponse> findTopByScope(@Param("scope") String scope, Pageable pageable);
+}
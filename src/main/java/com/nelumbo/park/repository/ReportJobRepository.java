@@ -0,0 +1,54 @@
+package com.nelumbo.park.repository;
+
+import com.nelumbo.park.entity.ReportJob;
+import com.nelumbo.park.enums.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, String> {
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.heartbeatAt = :heartbeatAt " +
+           "WHERE j.id IN :ids AND j.status IN (com.nelumbo.park.enums.ReportJobStatus.PENDING, " +
+           "com.nelumbo.park.enums.ReportJobStatus.RUNNING)")
+    int renewLeases(@Param("ids") Collection<String> ids, @Param("heartbeatAt") Date heartbeatAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = com.nelumbo.park.enums.ReportJobStatus.RUNNING, " +
+           "j.heartbeatAt = :heartbeatAt " +
+           "WHERE j.id = :id AND j.status = com.nelumbo.park.enums.ReportJobStatus.PENDING")
+    int startJob(@Param("id") String id, @Param("heartbeatAt") Date heartbeatAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = :status, j.fileName = :fileName, j.fileKey = :fileKey, " +
+           "j.errorMessage = :errorMessage, j.finishedAt = :finishedAt " +
+           "WHERE j.id = :id AND j.status = com.nelumbo.park.enums.ReportJobStatus.RUNNING")
+    int finishJob(@Param("id") String id,
+                  @Param("status") ReportJobStatus status,
+                  @Param("fileName") String fileName,
+                  @Param("fileKey") String fileKey,
+                  @Param("errorMessage") String errorMessage,
+                  @Param("finishedAt") Date finishedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ReportJob j SET j.status = com.nelumbo.park.enums.ReportJobStatus.FAILED, " +
+           "j.errorMessage = :errorMessage, j.finishedAt = :finishedAt " +
+           "WHERE j.status IN (com.nelumbo.park.enums.ReportJobStatus.PENDING, " +
+           "com.nelumbo.park.enums.ReportJobStatus.RUNNING) " +
+           "AND (j.heartbeatAt IS NULL OR j.heartbeatAt < :expiredBefore)")
+    int failExpiredJobs(@Param("errorMessage") String errorMessage,
+                        @Param("finishedAt") Date finishedAt,
+                        @Param("expiredBefore") Date expiredBefore);
+}
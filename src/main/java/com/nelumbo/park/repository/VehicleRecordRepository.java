@@ -0,0 +1,145 @@
+package com.nelumbo.park.repository;
+
+import com.nelumbo.park.dto.response.TopParkingResponse;
+import com.nelumbo.park.dto.response.TopPartnerResponse;
+import com.nelumbo.park.dto.response.VehicleReportRowResponse;
+import com.nelumbo.park.dto.response.VehicleSimpleResponse;
+import com.nelumbo.park.entity.User;
+import com.nelumbo.park.entity.VehicleRecord;
+import com.nelumbo.park.enums.VehicleStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de listados, reportes y rankings sobre {@code vehicle_records}, que incluye los
+ * vehiculos archivados en {@code vehicle_history} y los que siguen en {@code vehicles}.
+ */
+@Repository
+public interface VehicleRecordRepository extends JpaRepository<VehicleRecord, String> {
+
+    @Override
+    @EntityGraph(VehicleRecord.DETAILS_GRAPH)
+    List<VehicleRecord> findAll();
+
+    @Override
+    @EntityGraph(VehicleRecord.DETAILS_GRAPH)
+    Optional<VehicleRecord> findById(String id);
+
+    @EntityGraph(VehicleRecord.DETAILS_GRAPH)
+    List<VehicleRecord> findByAdmin(User admin);
+
+    @Query("SELECT v FROM VehicleRecord v JOIN FETCH v.parking p JOIN FETCH p.owner JOIN FETCH v.admin a " +
+           "WHERE (:adminId IS NULL OR a.id = :adminId) " +
+           "AND (:status IS NULL OR v.status = :status) " +
+           "AND (:parkingId IS NULL OR p.id = :parkingId) " +
+           "AND (CAST(:fromTime AS timestamp) IS NULL OR v.entryTime >= :fromTime) " +
+           "AND (CAST(:toTime AS timestamp) IS NULL OR v.entryTime < :toTime) " +
+           "AND (CAST(:cursorTime AS timestamp) IS NULL OR v.entryTime < :cursorTime " +
+           "     OR (v.entryTime = :cursorTime AND v.id < :cursorId)) " +
+           "ORDER BY v.entryTime DESC, v.id DESC")
+    List<VehicleRecord> findPageAfter(@Param("adminId") String adminId,
+                                      @Param("status") VehicleStatus status,
+                                      @Param("parkingId") String parkingId,
+                                      @Param("fromTime") Date fromTime,
+                                      @Param("toTime") Date toTime,
+                                      @Param("cursorTime") Date cursorTime,
+                                      @Param("cursorId") String cursorId,
+                                      Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM VehicleRecord v JOIN FETCH v.parking p JOIN FETCH p.owner JOIN FETCH v.admin a " +
+           "WHERE (:adminId IS NULL OR a.id = :adminId) " +
+           "AND (:status IS NULL OR v.status = :status) " +
+           "AND (:parkingId IS NULL OR p.id = :parkingId) " +
+           "AND (CAST(:fromTime AS timestamp) IS NULL OR v.entryTime >= :fromTime) " +
+           "AND (CAST(:toTime AS timestamp) IS NULL OR v.entryTime < :toTime) " +
+           "ORDER BY v.entryTime DESC, v.id DESC")
+    Stream<VehicleRecord> streamByFilter(@Param("adminId") String adminId,
+                                         @Param("status") VehicleStatus status,
+                                         @Param("parkingId") String parkingId,
+                                         @Param("fromTime") Date fromTime,
+                                         @Param("toTime") Date toTime);
+
+    @Query("SELECT new com.nelumbo.park.dto.response.TopPartnerResponse(o.username, COUNT(v.id), p.id) " +
+            "FROM VehicleRecord v JOIN v.parking p JOIN p.owner o " +
+            "WHERE o.role = 'SOCIO' AND v.entryTime >= :startOfWeek AND v.entryTime <= :endOfWeek " +
+            "GROUP BY o.id, o.username, p.id " +
+            "ORDER BY COUNT(v.id) DESC")
+    List<TopPartnerResponse> findTopPartnersByWeek(@Param("startOfWeek") Date startOfWeek,
+                                                   @Param("endOfWeek") Date endOfWeek,
+                                                   Pageable pageable);
+
+    @Query("SELECT new com.nelumbo.park.dto.response.VehicleSimpleResponse(" +
+           "v.id, v.plateNumber, v.model, v.entryTime, v.exitTime, v.costPerHour, v.status) " +
+           "FROM VehicleRecord v WHERE v.parking.id = :parkingId AND v.status = :status " +
+           "AND (CAST(:fromTime AS timestamp) IS NULL OR v.entryTime >= :fromTime) " +
+           "AND (CAST(:toTime AS timestamp) IS NULL OR v.entryTime < :toTime) " +
+           "AND (CAST(:cursorTime AS timestamp) IS NULL OR v.entryTime < :cursorTime " +
+           "     OR (v.entryTime = :cursorTime AND v.id < :cursorId)) " +
+           "ORDER BY v.entryTime DESC, v.id DESC")
+    List<VehicleSimpleResponse> findSimplePageByParking(@Param("parkingId") String parkingId,
+                                                        @Param("status") VehicleStatus status,
+                                                        @Param("fromTime") Date fromTime,
+                                                        @Param("toTime") Date toTime,
+                                                        @Param("cursorTime") Date cursorTime,
+                                                        @Param("cursorId") String cursorId,
+                                                        Pageable pageable);
+
+    @Query("SELECT v FROM VehicleRecord v JOIN FETCH v.parking " +
+           "WHERE v.exitTime IS NOT NULL AND v.exitTime >= :startDate AND v.exitTime <= :endDate")
+    List<VehicleRecord> findVehiclesWithExitTimeBetween(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+    @Query("SELECT new com.nelumbo.park.dto.response.TopParkingResponse(p.id, p.name, COUNT(v.id), SUM(v.totalCost)) " +
+           "FROM VehicleRecord v JOIN v.parking p " +
+           "WHERE v.totalCost IS NOT NULL AND v.exitTime >= :startDate AND v.exitTime <= :endDate " +
+           "GROUP BY p.id, p.name " +
+           "HAVING SUM(v.totalCost) > 0 " +
+           "ORDER BY SUM(v.totalCost) DESC")
+    List<TopParkingResponse> findTopParkingsByEarnings(@Param("startDate") Date startDate,
+                                                       @Param("endDate") Date endDate,
+                                                       Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.nelumbo.park.dto.response.VehicleReportRowResponse(" +
+           "a.id, a.username, a.email, p.id, p.name, v.id, v.plateNumber, v.model, " +
+           "v.entryTime, v.exitTime, v.totalCost) " +
+           "FROM VehicleRecord v JOIN v.parking p JOIN v.admin a " +
+           "WHERE v.status = com.nelumbo.park.enums.VehicleStatus.OUT " +
+           "AND v.exitTime >= :startDate AND v.exitTime < :endDate " +
+           "ORDER BY a.id, p.id, v.totalCost DESC NULLS LAST, v.id")
+    Stream<VehicleReportRowResponse> streamReportRowsByExitTime(@Param("startDate") Date startDate,
+                                                                @Param("endDate") Date endDate);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.nelumbo.park.dto.response.VehicleReportRowResponse(" +
+           "a.id, a.username, a.email, p.id, p.name, v.id, v.plateNumber, v.model, " +
+           "v.entryTime, v.exitTime, v.totalCost) " +
+           "FROM VehicleRecord v JOIN v.parking p JOIN v.admin a " +
+           "WHERE p.id = :parkingId AND v.status = com.nelumbo.park.enums.VehicleStatus.OUT " +
+           "AND v.exitTime >= :startDate AND v.exitTime < :endDate " +
+           "ORDER BY a.id, v.totalCost DESC NULLS LAST, v.id")
+    Stream<VehicleReportRowResponse> streamReportRowsByParkingAndExitTime(@Param("parkingId") String parkingId,
+                                                                          @Param("startDate") Date startDate,
+                                                                          @Param("endDate") Date endDate);
+}
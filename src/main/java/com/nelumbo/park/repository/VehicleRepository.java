@@ -1,15 +1,18 @@
 package com.nelumbo.park.repository;
 
-import com.nelumbo.park.dto.response.TopPartnerResponse;
+import com.nelumbo.park.dto.response.VehicleSimpleResponse;
 import com.nelumbo.park.entity.Vehicle;
-import com.nelumbo.park.entity.User;
 import com.nelumbo.park.enums.VehicleStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import org.springframework.data.domain.Pageable;
+import java.math.BigDecimal;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -17,44 +20,105 @@ import java.util.Optional;
 @Repository
 public interface VehicleRepository extends JpaRepository<Vehicle, String> {
 
-    @Query("SELECT v FROM Vehicle v " +
-           "WHERE v.status = :status " +
-           "GROUP BY v.id, v.plateNumber, v.model, v.entryTime, v.exitTime, v.costPerHour," +
-           "v.status, v.parking.id, v.parking.name, v.parking.address, v.parking.capacity, v.parking.costPerHour, v.admin.id " +
-           "HAVING COUNT(v.plateNumber) = 1")
-    List<Vehicle> findFirstTimeParkedVehicles(VehicleStatus status);
+    @Query("SELECT v FROM Vehicle v JOIN FETCH v.parking " +
+           "WHERE v.status = :status AND v.firstVisit = true")
+    List<Vehicle> findFirstTimeParkedVehicles(@Param("status") VehicleStatus status);
+
+    /**
+     * Indica si la placa tiene algun registro, activo o archivado en {@code vehicle_history}.
+     */
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM vehicle_records WHERE plate_number = :plateNumber)",
+           nativeQuery = true)
+    boolean existsByPlateNumber(@Param("plateNumber") String plateNumber);
+
+    @Override
+    @EntityGraph(Vehicle.DETAILS_GRAPH)
+    Optional<Vehicle> findById(String id);
+
+    @Query("SELECT new com.nelumbo.park.dto.response.VehicleSimpleResponse(" +
+           "v.id, v.plateNumber, v.model, v.entryTime, v.exitTime, v.costPerHour, v.status) " +
+           "FROM Vehicle v WHERE v.parking.id = :parkingId AND v.status = :status " +
+           "AND (CAST(:fromTime AS timestamp) IS NULL OR v.entryTime >= :fromTime) " +
+           "AND (CAST(:toTime AS timestamp) IS NULL OR v.entryTime < :toTime) " +
+           "AND (CAST(:cursorTime AS timestamp) IS NULL OR v.entryTime < :cursorTime " +
+           "     OR (v.entryTime = :cursorTime AND v.id < :cursorId)) " +
+           "ORDER BY v.entryTime DESC, v.id DESC")
+    List<VehicleSimpleResponse> findSimplePageByParking(@Param("parkingId") String parkingId,
+                                                        @Param("status") VehicleStatus status,
+                                                        @Param("fromTime") Date fromTime,
+                                                        @Param("toTime") Date toTime,
+                                                        @Param("cursorTime") Date cursorTime,
+                                                        @Param("cursorId") String cursorId,
+                                                        Pageable pageable);
 
-    List<Vehicle> findByAdmin(User admin);
     Optional<Vehicle> findByPlateNumberAndStatus(String plateNumber, VehicleStatus status);
 
-    @Query("SELECT COUNT(v), p.capacity " +
-           "FROM Vehicle v JOIN v.parking p " +
-           "WHERE p.id = :idParking AND v.status = :status " +
-           "GROUP BY p.capacity")
-    List<Object[]> findLimitParking(@Param("idParking") String idParking, @Param("status") VehicleStatus status);
-
-    @Query("SELECT v.plateNumber, COUNT(v) as total_visits " +
-                  "FROM Vehicle v " +
-                  "GROUP BY v.plateNumber " +
-                  "ORDER BY COUNT(v) DESC")
-    List<Object[]> findTopVehiclesByVisits(Pageable pageable);
-    
-    @Query("SELECT v.plateNumber, COUNT(v) as total_visits " +
-           "FROM Vehicle v JOIN v.parking p " +
-           "WHERE p.id = :id " +
-           "GROUP BY v.plateNumber " +
-           "ORDER BY COUNT(v) DESC")
-    List<Object[]> findTopVehicleById(String id, Pageable pageable);
-
-    @Query("SELECT new com.nelumbo.park.dto.response.TopPartnerResponse(o.username, COUNT(v.id), p.id) " +
-            "FROM Vehicle v JOIN v.parking p JOIN p.owner o " +
-            "WHERE o.role = 'SOCIO' AND v.entryTime >= :startOfWeek AND v.entryTime <= :endOfWeek " +
-            "GROUP BY o.id, o.username, p.id " +
-            "ORDER BY COUNT(v.id) DESC")
-    List<TopPartnerResponse> findTopPartnersByWeek(@Param("startOfWeek") Date startOfWeek,
-                                                   @Param("endOfWeek") Date endOfWeek,
-                                                   Pageable pageable);
-    
-    @Query("SELECT v FROM Vehicle v WHERE v.exitTime IS NOT NULL AND v.exitTime >= :startDate AND v.exitTime <= :endDate")
-    List<Vehicle> findVehiclesWithExitTimeBetween(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+    boolean existsByPlateNumberAndStatus(String plateNumber, VehicleStatus status);
+
+    /**
+     * Registra la salida solo si el vehiculo sigue dentro. Devuelve 0 si otra peticion ya
+     * registro la salida, de modo que el cupo se libera una sola vez.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Vehicle v SET v.status = com.nelumbo.park.enums.VehicleStatus.OUT, " +
+           "v.exitTime = :exitTime, v.totalCost = :totalCost " +
+           "WHERE v.id = :id AND v.status = com.nelumbo.park.enums.VehicleStatus.IN")
+    int markExited(@Param("id") String id, @Param("exitTime") Date exitTime,
+                   @Param("totalCost") BigDecimal totalCost);
+
+    @Query("SELECT v.plateNumber FROM Vehicle v WHERE v.status = :status")
+    List<String> findPlateNumbersByStatus(@Param("status") VehicleStatus status);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE vehicles SET total_cost = ROUND(CAST(cost_per_hour AS numeric) * " +
+            "CEIL(FLOOR(ABS(EXTRACT(EPOCH FROM (exit_time - entry_time))) / 60) / 60), 2) " +
+            "WHERE exit_time IS NOT NULL AND total_cost IS NULL",
+            nativeQuery = true)
+    int backfillTotalCost();
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE vehicles v SET first_visit = (v.entry_time = " +
+            "(SELECT MIN(h.entry_time) FROM vehicle_records h WHERE h.plate_number = v.plate_number)) " +
+            "WHERE v.first_visit IS NULL",
+            nativeQuery = true)
+    int backfillFirstVisit();
+
+    /**
+     * Mueve a {@code vehicle_history} las salidas mas antiguas liquidadas antes de
+     * {@code settledBefore}, en una sola sentencia: cada lote se borra e inserta de forma atomica.
+     * Las filas bloqueadas por otra transaccion se saltan y se mueven en un lote posterior.
+     * @return Numero de vehiculos archivados
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "WITH moved AS (" +
+            "  DELETE FROM vehicles WHERE id IN (" +
+            "    SELECT id FROM vehicles " +
+            "    WHERE status = 'OUT' AND total_cost IS NOT NULL AND exit_time < :settledBefore " +
+            "    ORDER BY exit_time LIMIT :batchSize FOR UPDATE SKIP LOCKED) " +
+            "  RETURNING id, plate_number, model_vehicle, entry_time, exit_time, cost_per_hour, total_cost, " +
+            "            first_visit, status, id_parking, id_admin) " +
+            "INSERT INTO vehicle_history (id, plate_number, model_vehicle, entry_time, exit_time, cost_per_hour, " +
+            "                             total_cost, first_visit, status, id_parking, id_admin) " +
+            "SELECT id, plate_number, model_vehicle, entry_time, exit_time, cost_per_hour, total_cost, " +
+            "       first_visit, status, id_parking, id_admin FROM moved",
+            nativeQuery = true)
+    int archiveSettledBatch(@Param("settledBefore") Date settledBefore, @Param("batchSize") int batchSize);
+
+    /**
+     * Borra un vehiculo ya archivado en {@code vehicle_history}.
+     * @return Numero de filas borradas, 0 si el id no esta archivado
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM vehicle_history WHERE id = :id", nativeQuery = true)
+    int deleteArchivedById(@Param("id") String id);
+
+    @Query(value = "SELECT MIN(exit_time) FROM vehicles " +
+            "WHERE status = 'OUT' AND total_cost IS NOT NULL AND exit_time < :settledBefore",
+            nativeQuery = true)
+    Date findOldestSettledExit(@Param("settledBefore") Date settledBefore);
 }
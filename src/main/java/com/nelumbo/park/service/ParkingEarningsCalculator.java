@@ -2,10 +2,10 @@ package com.nelumbo.park.service;
 
 import com.nelumbo.park.dto.response.ParkingEarningsResponse;
 import com.nelumbo.park.dto.response.TopParkingResponse;
-import com.nelumbo.park.entity.Vehicle;
+import com.nelumbo.park.entity.VehicleRecord;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -13,51 +13,35 @@ import java.util.Map;
 @Component
 public class ParkingEarningsCalculator {
 
-    public List<TopParkingResponse> calculateParkingEarnings(List<Vehicle> vehicles) {
+    public List<TopParkingResponse> calculateParkingEarnings(List<VehicleRecord> vehicles) {
         Map<String, ParkingEarningsResponse> parkingEarningsMap = new HashMap<>();
 
         vehicles.forEach(vehicle -> {
-            if (vehicle.getParking() != null) {
+            if (vehicle.getParking() != null && vehicle.getTotalCost() != null) {
                 String parkingId = vehicle.getParking().getId();
                 String parkingName = vehicle.getParking().getName();
-                Float costPerHour = vehicle.getCostPerHour();
 
-                Date entryTime = vehicle.getEntryTime();
-                Date exitTime = vehicle.getExitTime();
-
-                if (entryTime != null && exitTime != null) {
-                    Float totalCost = calculateVehicleCost(entryTime, exitTime, costPerHour);
-
-                    parkingEarningsMap.computeIfAbsent(parkingId,
-                        k -> new ParkingEarningsResponse(parkingId, parkingName, 0.0f, 0L))
-                        .addEarnings(totalCost);
-                }
+                parkingEarningsMap.computeIfAbsent(parkingId,
+                    k -> new ParkingEarningsResponse(parkingId, parkingName, BigDecimal.ZERO, 0L))
+                    .addEarnings(vehicle.getTotalCost());
             }
         });
 
         return parkingEarningsMap.values()
                 .stream()
-                .filter(earnings -> earnings.getTotalEarnings() > 0.0f)
-                .sorted((a, b) -> Float.compare(b.getTotalEarnings(), a.getTotalEarnings()))
+                .filter(earning -> earning.getTotalEarnings() != null && earning.getTotalEarnings().signum() > 0)
+                .sorted((a, b) -> b.getTotalEarnings().compareTo(a.getTotalEarnings()))
                 .limit(3)
                 .map(this::toTopParkingResponse)
                 .toList();
     }
 
-    private Float calculateVehicleCost(Date entryTime, Date exitTime, Float costPerHour) {
-        long timeDifference = Math.abs(exitTime.getTime() - entryTime.getTime());
-        long minutesParked = timeDifference / (1000 * 60);
-        long hoursParked = (long) Math.ceil((double) minutesParked / 60);
-        return hoursParked * costPerHour;
-    }
-
     private TopParkingResponse toTopParkingResponse(ParkingEarningsResponse earnings) {
-        String formattedCost = String.format("%.1f", earnings.getTotalEarnings()) + "f";
         return new TopParkingResponse(
                 earnings.getId(),
                 earnings.getName(),
                 earnings.getVehicleCount(),
-                formattedCost
+                earnings.getTotalEarnings()
         );
     }
 
@@ -0,0 +1,38 @@
+package com.nelumbo.park.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tarifa de parqueo: cada hora iniciada se cobra completa. Es el unico lugar donde se calcula
+ * el cobro; el resultado se guarda en {@code vehicles.total_cost} al registrar la salida.
+ */
+public final class ParkingFeeCalculator {
+
+    public static final int SCALE = 2;
+
+    private ParkingFeeCalculator() {
+    }
+
+    /**
+     * Calcula el valor a cobrar por una estancia.
+     * @param entryTime Fecha de entrada
+     * @param exitTime Fecha de salida
+     * @param costPerHour Valor por hora del parqueadero, null se cobra como cero
+     * @return Valor exacto con {@link #SCALE} decimales
+     */
+    public static BigDecimal calculateCharge(Date entryTime, Date exitTime, Float costPerHour) {
+        if (costPerHour == null) {
+            return BigDecimal.ZERO.setScale(SCALE);
+        }
+        long timeDifference = Math.abs(exitTime.getTime() - entryTime.getTime());
+        long minutesParked = TimeUnit.MILLISECONDS.toMinutes(timeDifference);
+        long hoursParked = (minutesParked + 59) / 60;
+
+        return new BigDecimal(Float.toString(costPerHour))
+                .multiply(BigDecimal.valueOf(hoursParked))
+                .setScale(SCALE, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,179 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.enums.VehicleStatus;
+import com.nelumbo.park.repository.ParkingRepository;
+import com.nelumbo.park.repository.VehicleRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado de la ocupacion de los parqueaderos.
+ * Mantiene en memoria las placas actualmente parqueadas, de modo que las validaciones de
+ * entrada y salida no necesiten consultar la base de datos; los parqueaderos se leen de
+ * {@link com.nelumbo.park.service.infrastructure.ParkingLookupCache}. Los cupos
+ * se reservan con un contador atomico en {@code parking_lot.occupied}, seguro entre nodos.
+ * <p>
+ * El conjunto de placas es propio de cada nodo y solo se sincroniza en {@link #reconcile()}.
+ * Una placa que salio por otro nodo se confirma contra {@code vehicles} antes de rechazar la
+ * entrada, y una que entro por otro nodo la rechaza el indice unico {@code uq_vehicles_plate_in}.
+ */
+@Service
+public class ParkingOccupancyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParkingOccupancyService.class);
+
+    private final VehicleRepository vehicleRepository;
+    private final ParkingRepository parkingRepository;
+
+    private final Object platesLock = new Object();
+
+    private volatile Set<String> parkedPlates = ConcurrentHashMap.newKeySet();
+    /** Placas reservadas en este nodo cuya entrada aun no se ha guardado. */
+    private final Set<String> pendingPlates = ConcurrentHashMap.newKeySet();
+    /**
+     * Placas reservadas (true) o liberadas (false) mientras se recarga el estado, o null si no
+     * hay recarga en curso. Se aplican sobre la lectura de la base de datos antes del reemplazo.
+     */
+    private Map<String, Boolean> changesDuringLoad;
+
+    public ParkingOccupancyService(VehicleRepository vehicleRepository, ParkingRepository parkingRepository) {
+        this.vehicleRepository = vehicleRepository;
+        this.parkingRepository = parkingRepository;
+    }
+
+    /**
+     * Carga el estado al arrancar. Primero corrige los contadores de {@code occupied}, que pueden
+     * haber quedado desfasados si el nodo se detuvo entre la reserva del cupo y la entrada.
+     */
+    @PostConstruct
+    public void load() {
+        reconcile();
+    }
+
+    /**
+     * Carga desde la base de datos las placas parqueadas. El nuevo conjunto se arma aparte y
+     * reemplaza al anterior de una vez: durante la recarga las consultas siguen viendo el estado
+     * previo, y se conservan las placas reservadas o liberadas mientras tanto.
+     */
+    private synchronized void loadPlates() {
+        synchronized (platesLock) {
+            changesDuringLoad = new HashMap<>();
+        }
+        Set<String> loadedPlates = ConcurrentHashMap.newKeySet();
+        try {
+            loadedPlates.addAll(vehicleRepository.findPlateNumbersByStatus(VehicleStatus.IN));
+            synchronized (platesLock) {
+                loadedPlates.addAll(pendingPlates);
+                changesDuringLoad.forEach((plate, parked) -> {
+                    if (Boolean.TRUE.equals(parked)) {
+                        loadedPlates.add(plate);
+                    } else {
+                        loadedPlates.remove(plate);
+                    }
+                });
+                parkedPlates = loadedPlates;
+            }
+        } finally {
+            synchronized (platesLock) {
+                changesDuringLoad = null;
+            }
+        }
+        logger.info("Ocupacion cargada: {} vehiculos parqueados", loadedPlates.size());
+    }
+
+    /**
+     * Indica si la placa esta dentro de algun parqueadero. Solo consulta la base de datos cuando
+     * la placa figura como parqueada sin una entrada pendiente en este nodo, para descartar las
+     * salidas registradas por otro nodo desde la ultima recarga.
+     */
+    public boolean isParked(String plateNumber) {
+        if (!parkedPlates.contains(plateNumber)) {
+            return false;
+        }
+        if (pendingPlates.contains(plateNumber)) {
+            return true;
+        }
+        if (vehicleRepository.existsByPlateNumberAndStatus(plateNumber, VehicleStatus.IN)) {
+            return true;
+        }
+        synchronized (platesLock) {
+            if (!pendingPlates.contains(plateNumber)) {
+                parkedPlates.remove(plateNumber);
+                recordChange(plateNumber, false);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registra la placa como parqueada y pendiente hasta que {@link #confirmPlate(String)}
+     * indique que la entrada se guardo.
+     * @return false si la placa ya se encontraba dentro de algun parqueadero
+     */
+    public boolean reservePlate(String plateNumber) {
+        synchronized (platesLock) {
+            if (!parkedPlates.add(plateNumber)) {
+                return false;
+            }
+            pendingPlates.add(plateNumber);
+            recordChange(plateNumber, true);
+            return true;
+        }
+    }
+
+    /**
+     * Marca como guardada la entrada de una placa reservada; la placa sigue parqueada.
+     */
+    public void confirmPlate(String plateNumber) {
+        pendingPlates.remove(plateNumber);
+    }
+
+    public void releasePlate(String plateNumber) {
+        synchronized (platesLock) {
+            pendingPlates.remove(plateNumber);
+            parkedPlates.remove(plateNumber);
+            recordChange(plateNumber, false);
+        }
+    }
+
+    private void recordChange(String plateNumber, boolean parked) {
+        if (changesDuringLoad != null) {
+            changesDuringLoad.put(plateNumber, parked);
+        }
+    }
+
+    /**
+     * Ocupa un cupo del parqueadero con un unico UPDATE condicional sobre {@code occupied}.
+     * @return false si el parqueadero esta lleno
+     */
+    public boolean reserveSlot(String parkingId) {
+        return parkingRepository.reserveSlot(parkingId) > 0;
+    }
+
+    public void releaseSlot(String parkingId) {
+        if (parkingRepository.releaseSlot(parkingId) == 0) {
+            logger.warn("El contador de ocupacion del parqueadero {} ya estaba en cero", parkingId);
+        }
+    }
+
+    /**
+     * Corrige las diferencias entre {@code parking_lot.occupied} y los vehiculos IN de la tabla
+     * {@code vehicles}, y recarga el estado en memoria para incorporar cambios de otros nodos.
+     * @return numero de parqueaderos corregidos
+     */
+    public int reconcile() {
+        int repaired = parkingRepository.reconcileOccupied();
+        if (repaired > 0) {
+            logger.warn("Se corrigio el contador de ocupacion de {} parqueaderos", repaired);
+        }
+        loadPlates();
+        return repaired;
+    }
+}
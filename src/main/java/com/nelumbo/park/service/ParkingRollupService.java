@@ -0,0 +1,98 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.dto.response.TopParkingResponse;
+import com.nelumbo.park.dto.response.TopPartnerResponse;
+import com.nelumbo.park.repository.ParkingHourlyStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Acumulados horarios por parqueadero ({@code parking_hourly_stats}). Las entradas y salidas
+ * los actualizan de forma incremental y {@link #rebuild(Date, Date)} los recalcula desde
+ * {@code vehicle_records} para un rango de horas completas. Los rankings se responden sumando
+ * buckets, por lo que su costo depende del numero de horas del rango y no de los vehiculos.
+ */
+@Service
+public class ParkingRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParkingRollupService.class);
+    private static final int TOP_SIZE = 3;
+
+    private final ParkingHourlyStatsRepository statsRepository;
+
+    public ParkingRollupService(ParkingHourlyStatsRepository statsRepository) {
+        this.statsRepository = statsRepository;
+    }
+
+    public static Date bucketOf(Date time) {
+        return Date.from(time.toInstant().truncatedTo(ChronoUnit.HOURS));
+    }
+
+    @Transactional
+    public void recordEntry(String parkingId, String plateNumber, Date entryTime) {
+        Date bucket = bucketOf(entryTime);
+        int newPlates = statsRepository.insertPlate(parkingId, bucket, plateNumber);
+        statsRepository.incrementEntries(parkingId, bucket, newPlates);
+    }
+
+    @Transactional
+    public void recordExit(String parkingId, Date exitTime, BigDecimal totalCost) {
+        statsRepository.incrementExits(parkingId, bucketOf(exitTime),
+                totalCost != null ? totalCost : BigDecimal.ZERO);
+    }
+
+    /**
+     * Recalcula los buckets del rango desde la tabla de vehiculos, reemplazando los existentes.
+     * Si una entrada o salida en curso vuelve a crear un bucket despues del borrado, el
+     * recalculo lo sobrescribe en lugar de fallar por la clave primaria.
+     * @param from Inicio del rango, se redondea hacia abajo a la hora
+     * @param to Fin exclusivo del rango, se redondea hacia abajo a la hora
+     * @return Numero de buckets escritos
+     */
+    @Transactional
+    public int rebuild(Date from, Date to) {
+        Date fromBucket = bucketOf(from);
+        Date toBucket = bucketOf(to);
+        if (!fromBucket.before(toBucket)) {
+            return 0;
+        }
+
+        statsRepository.deleteStatsBetween(fromBucket, toBucket);
+        statsRepository.deletePlatesBetween(fromBucket, toBucket);
+        statsRepository.rebuildPlatesBetween(fromBucket, toBucket);
+        int buckets = statsRepository.rebuildStatsBetween(fromBucket, toBucket);
+        logger.debug("Acumulados recalculados entre {} y {}: {} buckets", fromBucket, toBucket, buckets);
+        return buckets;
+    }
+
+    public boolean isEmpty() {
+        return statsRepository.count() == 0;
+    }
+
+    public Date findFirstEntryTime() {
+        return statsRepository.findFirstEntryTime();
+    }
+
+    /**
+     * Suma los buckets que empiezan entre la hora de {@code from} y {@code to}, por lo que el
+     * rango se amplia a horas completas en ambos extremos.
+     */
+    public List<TopParkingResponse> findTopParkings(Date from, Date to) {
+        return statsRepository.findTopParkingsByRevenue(bucketOf(from), to, PageRequest.of(0, TOP_SIZE));
+    }
+
+    /**
+     * Igual que {@link #findTopParkings(Date, Date)}, el rango se amplia a horas completas.
+     */
+    public List<TopPartnerResponse> findTopPartners(Date from, Date to) {
+        return statsRepository.findTopPartnersByEntries(bucketOf(from), to, PageRequest.of(0, TOP_SIZE));
+    }
+}
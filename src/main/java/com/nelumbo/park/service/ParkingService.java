@@ -2,20 +2,31 @@ package com.nelumbo.park.service;
 
 import com.nelumbo.park.dto.request.ParkingUpdateRequest;
 import com.nelumbo.park.dto.request.ParkingRequest;
+import com.nelumbo.park.dto.request.VehicleFilterRequest;
 import com.nelumbo.park.dto.response.ParkingResponse;
+import com.nelumbo.park.dto.response.ParkingRowResponse;
 import com.nelumbo.park.dto.response.ParkingWithVehiclesResponse;
+import com.nelumbo.park.dto.response.VehicleSimpleResponse;
 import com.nelumbo.park.entity.Parking;
 import com.nelumbo.park.entity.User;
+import com.nelumbo.park.enums.VehicleStatus;
 import com.nelumbo.park.exception.exceptions.InsufficientPermissionsException;
+import com.nelumbo.park.exception.exceptions.InvalidDateRangeException;
 import com.nelumbo.park.exception.exceptions.NoAssociatedParkingException;
 import com.nelumbo.park.exception.exceptions.ParkingNotFoundException;
 import com.nelumbo.park.mapper.ParkingMapper;
 import com.nelumbo.park.mapper.ParkingResponseMapper;
 import com.nelumbo.park.mapper.ParkingWithVehiclesMapper;
 import com.nelumbo.park.repository.ParkingRepository;
+import com.nelumbo.park.repository.VehicleRecordRepository;
+import com.nelumbo.park.repository.VehicleRepository;
+import com.nelumbo.park.service.infrastructure.ParkingLookupCache;
 import com.nelumbo.park.service.infrastructure.SecurityService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
 
 @Service
@@ -25,60 +36,107 @@ public class ParkingService {
     private final ParkingResponseMapper parkingResponseMapper;
     private final ParkingWithVehiclesMapper parkingWithVehiclesMapper;
     private final SecurityService securityService;
+    private final VehicleRepository vehicleRepository;
+    private final VehicleRecordRepository vehicleRecordRepository;
+    private final ParkingLookupCache parkingLookupCache;
 
     public ParkingService(
             ParkingMapper parkingMapper,
             ParkingRepository parkingRepository,
             ParkingResponseMapper parkingResponseMapper,
             ParkingWithVehiclesMapper parkingWithVehiclesMapper,
-            SecurityService securityService
+            SecurityService securityService,
+            VehicleRepository vehicleRepository,
+            VehicleRecordRepository vehicleRecordRepository,
+            ParkingLookupCache parkingLookupCache
     ) {
         this.parkingMapper = parkingMapper;
         this.parkingRepository = parkingRepository;
         this.parkingResponseMapper = parkingResponseMapper;
         this.parkingWithVehiclesMapper = parkingWithVehiclesMapper;
         this.securityService = securityService;
+        this.vehicleRepository = vehicleRepository;
+        this.vehicleRecordRepository = vehicleRecordRepository;
+        this.parkingLookupCache = parkingLookupCache;
     }
 
     public List<ParkingResponse> getAllParkings() {
         User currentUser = securityService.getCurrentUser();
 
         if ("SOCIO".equals(currentUser.getRole())) {
-            List<Parking> userParkings = parkingRepository.findByOwner(currentUser);
+            List<ParkingRowResponse> userParkings = parkingRepository.findRowsByOwnerId(currentUser.getId());
             if (userParkings.isEmpty()) {
                 throw new NoAssociatedParkingException();
             }
-            return parkingResponseMapper.toResponseListWithoutOwner(userParkings);
+            return parkingResponseMapper.fromRowsWithoutOwner(userParkings);
         }
 
-        List<Parking> parkings = parkingRepository.findAll();
+        List<ParkingRowResponse> parkings = parkingRepository.findAllRows();
         if (parkings.isEmpty()) {
             throw new ParkingNotFoundException();
         }
-        return parkingResponseMapper.toResponseList(parkings);
+        return parkingResponseMapper.fromRows(parkings);
     }
 
+    /**
+     * Devuelve el parqueadero sin sus vehiculos ({@code include=none}).
+     */
     public ParkingWithVehiclesResponse getParkingById(String id) {
-        User currentUser = securityService.getCurrentUser();
-
-        if ("SOCIO".equals(currentUser.getRole())) {
-            Parking parking = parkingRepository.findByIdAndOwner(id, currentUser);
-            if (parking == null) {
-                Parking newParking = parkingRepository.findById(id);
-                if (newParking.getOwner() != currentUser) {
-                    throw new InsufficientPermissionsException();
-                }
+        return parkingWithVehiclesMapper.toResponse(findAccessibleParking(id), null, null);
+    }
 
-                throw new NoAssociatedParkingException();
-            }
-            return parkingWithVehiclesMapper.toResponse(parking);
+    /**
+     * Devuelve el parqueadero con una pagina de sus vehiculos, de la entrada mas reciente a la
+     * mas antigua. Los vehiculos dentro se leen de {@code vehicles}; los que ya salieron, de
+     * {@code vehicle_records} para incluir los archivados.
+     * @param filter Estado (IN si no se indica) y rango de entrada; se ignora su parkingId
+     * @param cursor Cursor devuelto en la pagina anterior, o null para la primera pagina
+     * @param limit Tamano de la pagina, acotado a {@link VehicleQueryService#MAX_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public ParkingWithVehiclesResponse getParkingById(String id, VehicleFilterRequest filter, String cursor, Integer limit) {
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getFrom().before(filter.getTo())) {
+            throw new InvalidDateRangeException("El rango de fechas no es válido: 'from' debe ser anterior a 'to'");
+        }
+        Parking parking = findAccessibleParking(id);
+
+        int pageSize = VehicleQueryService.resolvePageSize(limit);
+        VehicleCursor after = VehicleCursor.decode(cursor);
+        VehicleStatus status = filter.getStatus() != null ? filter.getStatus() : VehicleStatus.IN;
+        Date cursorTime = after != null ? after.entryTime() : null;
+        String cursorId = after != null ? after.id() : null;
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<VehicleSimpleResponse> vehicles = status == VehicleStatus.IN
+                ? vehicleRepository.findSimplePageByParking(parking.getId(), status,
+                        filter.getFrom(), filter.getTo(), cursorTime, cursorId, page)
+                : vehicleRecordRepository.findSimplePageByParking(parking.getId(), status,
+                        filter.getFrom(), filter.getTo(), cursorTime, cursorId, page);
+
+        String nextCursor = null;
+        if (vehicles.size() > pageSize) {
+            vehicles = vehicles.subList(0, pageSize);
+            VehicleSimpleResponse last = vehicles.get(pageSize - 1);
+            nextCursor = VehicleCursor.encode(last.getEntryTime(), last.getId());
         }
+        return parkingWithVehiclesMapper.toResponse(parking, vehicles, nextCursor);
+    }
+
+    /**
+     * Lee el parqueadero desde {@link ParkingLookupCache} y valida en memoria que un socio sea su dueño.
+     */
+    private Parking findAccessibleParking(String id) {
+        User currentUser = securityService.getCurrentUser();
 
-        Parking parking = parkingRepository.findById(id);
+        Parking parking = parkingLookupCache.findById(id);
         if (parking == null) {
             throw new ParkingNotFoundException();
         }
-        return parkingWithVehiclesMapper.toResponse(parking);
+
+        if ("SOCIO".equals(currentUser.getRole()) && !parking.getOwner().getId().equals(currentUser.getId())) {
+            throw new InsufficientPermissionsException();
+        }
+        return parking;
     }
 
     public Parking createParking (ParkingRequest parkingRequest) {
@@ -96,9 +154,16 @@ public class ParkingService {
         Parking updatedParking = parkingMapper.toEntity(parkingUpdateRequest);
         updatedParking.setId(id);
 
-        return parkingRepository.save(updatedParking);
+        Parking savedParking = parkingRepository.save(updatedParking);
+        parkingLookupCache.evict(id);
+        return savedParking;
     }
 
+    /**
+     * Elimina el parqueadero junto con sus vehiculos, incluidos los archivados en
+     * {@code vehicle_history}, que no se borran en cascada desde la entidad.
+     */
+    @Transactional
     public void deleteParking(String id) {
         Parking existingParking = parkingRepository.findById(id);
 
@@ -106,7 +171,8 @@ public class ParkingService {
             throw new ParkingNotFoundException();
         }
 
+        parkingRepository.deleteVehicleHistory(id);
         parkingRepository.delete(existingParking);
+        parkingLookupCache.evict(id);
     }
-
 }
@@ -2,12 +2,16 @@ package com.nelumbo.park.service;
 
 import com.nelumbo.park.dto.response.MonthParkingStatsResponse;
 import com.nelumbo.park.dto.response.MonthPartnerStatsResponse;
+import com.nelumbo.park.dto.response.ParkingRankingResponse;
+import com.nelumbo.park.dto.response.PartnerRankingResponse;
 import com.nelumbo.park.dto.response.TopParkingResponse;
 import com.nelumbo.park.dto.response.TopPartnerResponse;
 import com.nelumbo.park.dto.response.WeeklyParkingStatsResponse;
 import com.nelumbo.park.dto.response.WeeklyPartnerStatsResponse;
-import com.nelumbo.park.entity.Vehicle;
-import com.nelumbo.park.repository.VehicleRepository;
+import com.nelumbo.park.entity.VehicleRecord;
+import com.nelumbo.park.exception.exceptions.InvalidDateRangeException;
+import com.nelumbo.park.repository.VehicleRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -21,13 +25,22 @@ import java.util.List;
 @Service
 public class ParkingStatsService {
 
-    private final VehicleRepository vehicleRepository;
+    private final VehicleRecordRepository vehicleRecordRepository;
     private final ParkingEarningsCalculator earningsCalculator;
+    private final ParkingRollupService rollupService;
 
-    public ParkingStatsService(VehicleRepository vehicleRepository, 
-                              ParkingEarningsCalculator earningsCalculator) {
-        this.vehicleRepository = vehicleRepository;
+    @Value("${app.rankings.parking.java-fallback:false}")
+    private boolean javaFallback;
+
+    @Value("${app.rankings.rollup.enabled:true}")
+    private boolean rollupEnabled;
+
+    public ParkingStatsService(VehicleRecordRepository vehicleRecordRepository, 
+                              ParkingEarningsCalculator earningsCalculator,
+                              ParkingRollupService rollupService) {
+        this.vehicleRecordRepository = vehicleRecordRepository;
         this.earningsCalculator = earningsCalculator;
+        this.rollupService = rollupService;
     }
 
     public WeeklyPartnerStatsResponse getPartnersRanking() {
@@ -38,8 +51,7 @@ public class ParkingStatsService {
         Date startOfWeek = Date.from(weekStart.atZone(ZoneId.systemDefault()).toInstant());
         Date endOfWeek = Date.from(weekEnd.atZone(ZoneId.systemDefault()).toInstant());
 
-        Pageable topThree = PageRequest.of(0, 3);
-        List<TopPartnerResponse> topPartners = vehicleRepository.findTopPartnersByWeek(startOfWeek, endOfWeek, topThree);
+        List<TopPartnerResponse> topPartners = findTopPartners(startOfWeek, endOfWeek);
 
         return new WeeklyPartnerStatsResponse(weekStart, weekEnd, topPartners);
     }
@@ -47,13 +59,12 @@ public class ParkingStatsService {
     public MonthPartnerStatsResponse getPartnersRankingMonth() {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime monthStart = now.withDayOfMonth(1).withHour(5).withMinute(0).withSecond(0).withNano(0);
-        LocalDateTime monthEnd = monthStart.plusMonths(1).withHour(23).withMinute(59).withSecond(59).withNano(999000000);
+        LocalDateTime monthEnd = monthStart.plusMonths(1).minusNanos(1);
 
         Date startOfMonth = Date.from(monthStart.atZone(ZoneId.systemDefault()).toInstant());
         Date endOfWeek = Date.from(monthEnd.atZone(ZoneId.systemDefault()).toInstant());
 
-        Pageable topThree = PageRequest.of(0, 3);
-        List<TopPartnerResponse> topPartners = vehicleRepository.findTopPartnersByWeek(startOfMonth, endOfWeek, topThree);
+        List<TopPartnerResponse> topPartners = findTopPartners(startOfMonth, endOfWeek);
         return new MonthPartnerStatsResponse(monthStart, monthEnd, topPartners);
     }
 
@@ -65,25 +76,68 @@ public class ParkingStatsService {
         Date startOfWeek = Date.from(weekStart.atZone(ZoneId.systemDefault()).toInstant());
         Date endOfWeek = Date.from(weekEnd.atZone(ZoneId.systemDefault()).toInstant());
 
-        List<Vehicle> vehicles = vehicleRepository.findVehiclesWithExitTimeBetween(startOfWeek, endOfWeek);
-
-        List<TopParkingResponse> topParkings = earningsCalculator.calculateParkingEarnings(vehicles);
+        List<TopParkingResponse> topParkings = findTopParkings(startOfWeek, endOfWeek);
 
         return new WeeklyParkingStatsResponse(weekStart, weekEnd, topParkings);
     }
 
     public MonthParkingStatsResponse getParkingRankingMonth() {
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime weekStart = now.with(DayOfWeek.MONDAY).withHour(5).withMinute(0).withSecond(0).withNano(0);
-        LocalDateTime weekEnd = weekStart.plusDays(6).withHour(23).withMinute(59).withSecond(59).withNano(999000000);
+        LocalDateTime monthStart = now.withDayOfMonth(1).withHour(5).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime monthEnd = monthStart.plusMonths(1).minusNanos(1);
 
-        Date startOfWeek = Date.from(weekStart.atZone(ZoneId.systemDefault()).toInstant());
-        Date endOfWeek = Date.from(weekEnd.atZone(ZoneId.systemDefault()).toInstant());
+        Date startOfMonth = Date.from(monthStart.atZone(ZoneId.systemDefault()).toInstant());
+        Date endOfMonth = Date.from(monthEnd.atZone(ZoneId.systemDefault()).toInstant());
 
-        List<Vehicle> vehicles = vehicleRepository.findVehiclesWithExitTimeBetween(startOfWeek, endOfWeek);
+        List<TopParkingResponse> topParkings = findTopParkings(startOfMonth, endOfMonth);
 
-        List<TopParkingResponse> topParkings = earningsCalculator.calculateParkingEarnings(vehicles);
+        return new MonthParkingStatsResponse(monthStart, monthEnd, topParkings);
+    }
+
+    public ParkingRankingResponse getParkingRankingBetween(LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to);
+        List<TopParkingResponse> topParkings = findTopParkings(toDate(from), toDate(to));
+        return new ParkingRankingResponse(from, to, topParkings);
+    }
+
+    public PartnerRankingResponse getPartnersRankingBetween(LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to);
+        List<TopPartnerResponse> topPartners = findTopPartners(toDate(from), toDate(to));
+        return new PartnerRankingResponse(from, to, topPartners);
+    }
+
+    /**
+     * Top 3 de parqueaderos por ganancias en la ventana. Por defecto se responde desde los
+     * acumulados horarios; con {@code app.rankings.rollup.enabled=false} se agrupa sobre
+     * {@code vehicle_records}, y con {@code app.rankings.parking.java-fallback=true} se calcula en
+     * memoria con {@link ParkingEarningsCalculator}, util para contrastar resultados.
+     */
+    private List<TopParkingResponse> findTopParkings(Date startDate, Date endDate) {
+        if (javaFallback) {
+            List<VehicleRecord> vehicles = vehicleRecordRepository.findVehiclesWithExitTimeBetween(startDate, endDate);
+            return earningsCalculator.calculateParkingEarnings(vehicles);
+        }
+        if (rollupEnabled) {
+            return rollupService.findTopParkings(startDate, endDate);
+        }
+        return vehicleRecordRepository.findTopParkingsByEarnings(startDate, endDate, PageRequest.of(0, 3));
+    }
+
+    private List<TopPartnerResponse> findTopPartners(Date startDate, Date endDate) {
+        if (rollupEnabled) {
+            return rollupService.findTopPartners(startDate, endDate);
+        }
+        Pageable topThree = PageRequest.of(0, 3);
+        return vehicleRecordRepository.findTopPartnersByWeek(startDate, endDate, topThree);
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidDateRangeException("El rango de fechas no es válido: 'from' debe ser anterior a 'to'");
+        }
+    }
 
-        return new MonthParkingStatsResponse(weekStart, weekEnd, topParkings);
+    private Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
     }
 }
@@ -0,0 +1,131 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.dto.response.TopVehicleResponse;
+import com.nelumbo.park.entity.PlateVisitCounter;
+import com.nelumbo.park.repository.PlateVisitCounterRepository;
+import com.nelumbo.park.utils.TopKTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ranking de placas por numero de visitas. Los contadores persistidos en
+ * {@code plate_visit_counters} se incrementan en cada entrada y el top de cada alcance
+ * (global o por parqueadero) se mantiene en memoria, de modo que consultar el ranking no
+ * depende del tamano del historico. Los contadores se pueden reconstruir desde
+ * {@code vehicle_records}.
+ * <p>
+ * Solo se guarda en memoria el top de los alcances que tienen visitas, hasta
+ * {@link #MAX_TRACKERS}; el resto se consulta a la base de datos en cada peticion, de modo que
+ * los ids inexistentes no hacen crecer el mapa.
+ */
+@Service
+public class PlateVisitRankingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlateVisitRankingService.class);
+    static final int TOP_SIZE = 10;
+    static final int MAX_TRACKERS = 1000;
+
+    private final PlateVisitCounterRepository counterRepository;
+
+    private final Map<String, TopKTracker> trackers = new ConcurrentHashMap<>();
+
+    public PlateVisitRankingService(PlateVisitCounterRepository counterRepository) {
+        this.counterRepository = counterRepository;
+    }
+
+    /**
+     * Crea los contadores a partir de {@code vehicle_records} la primera vez que arranca la aplicacion.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (counterRepository.count() == 0) {
+            int rows = counterRepository.rebuildFromVehicles();
+            logger.info("Contadores de visitas creados desde el historico: {} filas", rows);
+        }
+        refresh();
+    }
+
+    public void recordVisit(String parkingId, String plateNumber) {
+        for (Object[] row : counterRepository.incrementVisits(parkingId, plateNumber)) {
+            String scope = (String) row[0];
+            long visits = ((Number) row[1]).longValue();
+            TopKTracker tracker = trackers.get(scope);
+            if (tracker != null) {
+                tracker.offer(plateNumber, visits);
+            }
+        }
+    }
+
+    /**
+     * Descuenta la visita de un vehiculo eliminado. Un conteo que baja puede sacar a la placa
+     * del top, por lo que los alcances afectados se recargan desde la base de datos.
+     */
+    public void removeVisit(String parkingId, String plateNumber) {
+        counterRepository.decrementVisits(parkingId, plateNumber);
+        trackers.remove(PlateVisitCounter.GLOBAL_SCOPE);
+        trackers.remove(parkingId);
+    }
+
+    public List<TopVehicleResponse> getTopVehicles() {
+        return toResponse(tracker(PlateVisitCounter.GLOBAL_SCOPE));
+    }
+
+    public List<TopVehicleResponse> getTopVehicles(String parkingId) {
+        return toResponse(tracker(parkingId));
+    }
+
+    /**
+     * Descarta el top en memoria para incorporar las visitas registradas por otros nodos.
+     */
+    public void refresh() {
+        trackers.clear();
+        tracker(PlateVisitCounter.GLOBAL_SCOPE);
+    }
+
+    @Transactional
+    public int rebuild() {
+        counterRepository.deleteAllCounters();
+        int rows = counterRepository.rebuildFromVehicles();
+        refresh();
+        return rows;
+    }
+
+    private TopKTracker tracker(String scope) {
+        TopKTracker tracker = trackers.get(scope);
+        if (tracker != null) {
+            return tracker;
+        }
+        TopKTracker loaded = loadTracker(scope);
+        if (loaded.size() == 0 || trackers.size() >= MAX_TRACKERS) {
+            return loaded;
+        }
+        TopKTracker existing = trackers.putIfAbsent(scope, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private TopKTracker loadTracker(String scope) {
+        Map<String, Long> top = new LinkedHashMap<>();
+        for (TopVehicleResponse row : counterRepository.findTopByScope(scope, PageRequest.of(0, TOP_SIZE))) {
+            top.put(row.getPlateNumber(), row.getTotalVisits());
+        }
+        TopKTracker tracker = new TopKTracker(TOP_SIZE);
+        tracker.reset(top);
+        return tracker;
+    }
+
+    private List<TopVehicleResponse> toResponse(TopKTracker tracker) {
+        return tracker.snapshot().stream()
+                .map(entry -> new TopVehicleResponse(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+}
@@ -0,0 +1,350 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.dto.request.ReportJobRequest;
+import com.nelumbo.park.dto.response.ReportJobResponse;
+import com.nelumbo.park.dto.response.VehicleOutDetailResponse;
+import com.nelumbo.park.entity.Parking;
+import com.nelumbo.park.entity.ReportJob;
+import com.nelumbo.park.entity.User;
+import com.nelumbo.park.enums.ReportFormat;
+import com.nelumbo.park.enums.ReportJobStatus;
+import com.nelumbo.park.exception.exceptions.InsufficientPermissionsException;
+import com.nelumbo.park.exception.exceptions.InvalidDateRangeException;
+import com.nelumbo.park.exception.exceptions.ParkingNotFoundException;
+import com.nelumbo.park.exception.exceptions.ReportJobNotFoundException;
+import com.nelumbo.park.exception.exceptions.ReportQueueFullException;
+import com.nelumbo.park.repository.ParkingRepository;
+import com.nelumbo.park.repository.ReportJobRepository;
+import com.nelumbo.park.service.infrastructure.S3Service;
+import com.nelumbo.park.service.infrastructure.SecurityService;
+import com.nelumbo.park.utils.Excel;
+import com.nelumbo.park.utils.ExcelComponent;
+import com.nelumbo.park.utils.Pdf;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reportes bajo demanda por parqueadero y rango de fechas. La peticion solo registra el
+ * trabajo y lo encola en un pool acotado; el trabajador genera el archivo en disco con los
+ * generadores de Excel o PDF, lo sube al bucket y el estado del trabajo queda en
+ * {@code report_jobs}. La descarga se hace con una URL firmada de corta duracion, por lo que el
+ * archivo nunca pasa por los hilos de la API.
+ * <p>
+ * Cada trabajo tiene un lease en {@code heartbeat_at} que el nodo que lo ejecuta renueva
+ * mientras esta en su pool, desde un hilo propio para no depender del pool de {@code @Scheduled}.
+ * Si el nodo se detiene el lease vence y cualquier nodo marca el trabajo como fallido, sin tocar
+ * los que siguen en curso en otras instancias. Los cambios de estado son condicionales, asi que
+ * un trabajo que ya se dio por fallido no se sobrescribe al terminar.
+ */
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+    private static final String DEFAULT_EXCEL_CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final ReportJobRepository reportJobRepository;
+    private final ParkingRepository parkingRepository;
+    private final SecurityService securityService;
+    private final VehicleReportService vehicleReportService;
+    private final Excel excel;
+    private final ExcelComponent excelGenerator;
+    private final Pdf pdf;
+    private final S3Service s3Service;
+    private final Executor reportJobExecutor;
+
+    /** Trabajos encolados o en curso en el pool de esta instancia. */
+    private final Set<String> activeJobs = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService leaseTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-job-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Value("${app.reports.jobs.url-ttl-minutes:15}")
+    private long urlTtlMinutes;
+
+    @Value("${app.reports.jobs.max-range-days:93}")
+    private long maxRangeDays;
+
+    @Value("${app.reports.jobs.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${spring.mvc.contentnegotiation.media-types.pdf}")
+    private String pdfContentType;
+
+    public ReportJobService(
+            ReportJobRepository reportJobRepository,
+            ParkingRepository parkingRepository,
+            SecurityService securityService,
+            VehicleReportService vehicleReportService,
+            Excel excel,
+            ExcelComponent excelGenerator,
+            Pdf pdf,
+            S3Service s3Service,
+            @Qualifier("reportJobExecutor") Executor reportJobExecutor
+    ) {
+        this.reportJobRepository = reportJobRepository;
+        this.parkingRepository = parkingRepository;
+        this.securityService = securityService;
+        this.vehicleReportService = vehicleReportService;
+        this.excel = excel;
+        this.excelGenerator = excelGenerator;
+        this.pdf = pdf;
+        this.s3Service = s3Service;
+        this.reportJobExecutor = reportJobExecutor;
+    }
+
+    /**
+     * Programa la renovacion de leases cuatro veces por periodo de lease, de modo que un ciclo
+     * lento no alcanza a dejar vencer los trabajos en curso.
+     */
+    @PostConstruct
+    void startLeaseRenewal() {
+        long period = Math.max(1, leaseSeconds / 4);
+        leaseTimer.scheduleWithFixedDelay(() -> {
+            try {
+                renewLeases();
+            } catch (Exception e) {
+                logger.error("Error renovando el lease de los reportes: {}", e.getMessage());
+            }
+        }, period, period, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stopLeaseRenewal() {
+        leaseTimer.shutdownNow();
+    }
+
+    /**
+     * Renueva el lease de los trabajos que siguen en el pool de esta instancia.
+     */
+    public void renewLeases() {
+        if (!activeJobs.isEmpty()) {
+            reportJobRepository.renewLeases(Set.copyOf(activeJobs), new Date());
+        }
+    }
+
+    /**
+     * Marca como fallidos los trabajos pendientes o en curso cuyo lease vencio, es decir, los de
+     * una instancia que se detuvo antes de terminarlos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failExpiredJobs() {
+        Date now = new Date();
+        Date expiredBefore = new Date(now.getTime() - Duration.ofSeconds(Math.max(1, leaseSeconds)).toMillis());
+        int failed = reportJobRepository.failExpiredJobs("El reporte se interrumpio por un reinicio", now, expiredBefore);
+        if (failed > 0) {
+            logger.warn("Se marcaron como fallidos {} reportes interrumpidos", failed);
+        }
+    }
+
+    public ReportJobResponse createJob(ReportJobRequest request) {
+        validateRange(request.getFrom(), request.getTo());
+
+        User currentUser = securityService.getCurrentUser();
+        Parking parking = parkingRepository.findById(request.getParkingId());
+        if (parking == null) {
+            throw new ParkingNotFoundException();
+        }
+        if (!securityService.isAdmin() && !parking.getOwner().getId().equals(currentUser.getId())) {
+            throw new InsufficientPermissionsException();
+        }
+
+        ReportJob job = new ReportJob();
+        job.setRequestedBy(currentUser.getId());
+        job.setParkingId(parking.getId());
+        job.setFromTime(toDate(request.getFrom()));
+        job.setToTime(toDate(request.getTo()));
+        job.setFormat(request.getFormat());
+        job.setStatus(ReportJobStatus.PENDING);
+        job.setCreatedAt(new Date());
+        job.setHeartbeatAt(job.getCreatedAt());
+        ReportJob savedJob = reportJobRepository.save(job);
+
+        String jobId = Objects.requireNonNull(savedJob.getId(), "El trabajo guardado no tiene id");
+        activeJobs.add(jobId);
+        try {
+            reportJobExecutor.execute(() -> runJob(jobId));
+        } catch (RejectedExecutionException e) {
+            activeJobs.remove(jobId);
+            reportJobRepository.delete(savedJob);
+            throw new ReportQueueFullException("Hay demasiados reportes en proceso, intenta de nuevo en unos minutos");
+        }
+        return toResponse(savedJob);
+    }
+
+    public ReportJobResponse getJob(String id) {
+        ReportJob job = reportJobRepository.findById(id).orElseThrow(ReportJobNotFoundException::new);
+
+        User currentUser = securityService.getCurrentUser();
+        if (!securityService.isAdmin() && !job.getRequestedBy().equals(currentUser.getId())) {
+            throw new InsufficientPermissionsException();
+        }
+        return toResponse(job);
+    }
+
+    void runJob(String jobId) {
+        try {
+            if (reportJobRepository.startJob(jobId, new Date()) == 0) {
+                logger.warn("El reporte {} ya no esta pendiente, se omite", jobId);
+                return;
+            }
+            reportJobRepository.findById(jobId).ifPresent(this::generate);
+        } finally {
+            activeJobs.remove(jobId);
+        }
+    }
+
+    private void generate(ReportJob job) {
+        String jobId = job.getId();
+        Path file = null;
+        try {
+            List<VehicleOutDetailResponse> data = vehicleReportService.getVehiclesOutDetails(
+                    job.getParkingId(), job.getFromTime(), job.getToTime());
+            if (data.isEmpty()) {
+                finish(job, ReportJobStatus.NO_DATA);
+                return;
+            }
+
+            boolean isExcel = job.getFormat() == ReportFormat.EXCEL;
+            String extension = isExcel ? ".xlsx" : ".pdf";
+            file = Files.createTempFile("reporte-" + jobId + "-", extension);
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                if (isExcel) {
+                    excel.writeExcelPorUsuario(data, out);
+                } else {
+                    pdf.writePdfPorUsuario(data, out);
+                }
+            }
+
+            String key = UUID.randomUUID().toString().replace("-", "");
+            s3Service.uploadFile(file, isExcel ? getExcelContentType() : pdfContentType, key);
+            job.setFileKey(key);
+            job.setFileName(buildFileName(data.get(0), job, extension));
+            if (finish(job, ReportJobStatus.COMPLETED)) {
+                logger.info("Reporte {} generado para el parking {}", jobId, job.getParkingId());
+            }
+        } catch (Exception e) {
+            logger.error("Error generando el reporte {}: {}", jobId, e.getMessage());
+            String message = Optional.ofNullable(e.getMessage()).orElse(e.getClass().getSimpleName());
+            job.setErrorMessage(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+            finish(job, ReportJobStatus.FAILED);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Cierra el trabajo solo si sigue en curso. Si otra instancia ya lo marco como fallido por
+     * lease vencido se conserva ese estado y el resultado se descarta.
+     */
+    private boolean finish(ReportJob job, ReportJobStatus status) {
+        Date finishedAt = new Date();
+        int updated = reportJobRepository.finishJob(job.getId(), status, job.getFileName(), job.getFileKey(),
+                job.getErrorMessage(), finishedAt);
+        if (updated == 0) {
+            logger.warn("El reporte {} perdio su lease y ya fue marcado como fallido; se descarta el resultado {}",
+                    job.getId(), job.getFileKey());
+            return false;
+        }
+        job.setStatus(status);
+        job.setFinishedAt(finishedAt);
+        return true;
+    }
+
+    private ReportJobResponse toResponse(ReportJob job) {
+        ReportJobResponse response = new ReportJobResponse();
+        response.setId(job.getId());
+        response.setStatus(job.getStatus());
+        response.setParkingId(job.getParkingId());
+        response.setFormat(job.getFormat());
+        response.setFrom(toLocalDateTime(job.getFromTime()));
+        response.setTo(toLocalDateTime(job.getToTime()));
+        response.setCreatedAt(toLocalDateTime(job.getCreatedAt()));
+        response.setFinishedAt(toLocalDateTime(job.getFinishedAt()));
+        response.setError(job.getErrorMessage());
+
+        if (job.getStatus() == ReportJobStatus.COMPLETED && job.getFileKey() != null) {
+            Duration ttl = Duration.ofMinutes(Math.max(1, urlTtlMinutes));
+            response.setFileName(job.getFileName());
+            response.setDownloadUrl(s3Service.generateDownloadUrl(job.getFileKey(), job.getFileName(), ttl));
+            response.setDownloadUrlExpiresAt(LocalDateTime.now().plus(ttl));
+        }
+        return response;
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidDateRangeException("El rango de fechas no es válido: 'from' debe ser anterior a 'to'");
+        }
+        if (maxRangeDays > 0 && from.plusDays(maxRangeDays).isBefore(to)) {
+            throw new InvalidDateRangeException(
+                    String.format("El rango de fechas no puede superar %d días", maxRangeDays));
+        }
+    }
+
+    private String getExcelContentType() {
+        String contentType = excelGenerator.getContentType();
+        return contentType == null || contentType.isEmpty() ? DEFAULT_EXCEL_CONTENT_TYPE : contentType;
+    }
+
+    private static String buildFileName(VehicleOutDetailResponse detail, ReportJob job, String extension) {
+        String rawName = Optional.ofNullable(detail.getParking()).orElse("parking");
+        String safeName = rawName.replaceAll("[^\\w\\-]+", "_");
+        safeName = safeName.length() > 50 ? safeName.substring(0, 50) : safeName;
+        return String.format("reporte_%s_%s_%s%s", safeName,
+                toLocalDateTime(job.getFromTime()).format(FILE_DATE_FORMATTER),
+                toLocalDateTime(job.getToTime()).format(FILE_DATE_FORMATTER), extension).toLowerCase();
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("No se pudo eliminar el archivo temporal {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static LocalDateTime toLocalDateTime(Date date) {
+        return date != null ? LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()) : null;
+    }
+}
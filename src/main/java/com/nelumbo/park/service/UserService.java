@@ -12,6 +12,7 @@ import com.nelumbo.park.exception.exceptions.InvalidPasswordException;
 import com.nelumbo.park.mapper.AuthMapper;
 import com.nelumbo.park.mapper.UserMapper;
 import com.nelumbo.park.repository.UserRepository;
+import com.nelumbo.park.service.infrastructure.UserLookupCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -26,17 +27,20 @@ public class UserService {
     private final UserMapper userMapper;
     private final AuthMapper authMapper;
     private final PasswordEncoder passwordEncoder;
+    private final UserLookupCache userLookupCache;
 
     public UserService(
             UserRepository userRepository,
             UserMapper userMapper,
             AuthMapper authMapper,
-            PasswordEncoder passwordEncoder
+            PasswordEncoder passwordEncoder,
+            UserLookupCache userLookupCache
     ) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.authMapper = authMapper;
         this.passwordEncoder = passwordEncoder;
+        this.userLookupCache = userLookupCache;
     }
 
     public List<UserResponse> getAllUsers() {
@@ -47,12 +51,12 @@ public class UserService {
     }
 
     public UserResponse createUser(UserCreateRequest userCreateRequest) {
-        User existingUserByEmail = userRepository.findByEmail(userCreateRequest.getEmail());
+        User existingUserByEmail = userLookupCache.findByEmail(userCreateRequest.getEmail());
         if (existingUserByEmail != null) {
             throw new DuplicateEmailException("El email " + userCreateRequest.getEmail() + " ya está registrado");
         }
 
-        User existingUserByUsername = userRepository.findByName(userCreateRequest.getUsername());
+        User existingUserByUsername = userLookupCache.findByUsername(userCreateRequest.getUsername());
         if (existingUserByUsername != null) {
             throw new DuplicateUsernameException("El nombre de usuario " + userCreateRequest.getUsername() + " ya está registrado");
         }
@@ -62,11 +66,12 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
         User savedUser = userRepository.save(user);
+        userLookupCache.evict(user);
         return userMapper.toResponse(savedUser);
     }
 
     public UserLoginResponse login(LoginRequest loginRequest) {
-        User user = userRepository.findByEmail(loginRequest.getEmail());
+        User user = userLookupCache.findByEmail(loginRequest.getEmail());
         if (user == null) {
             throw new EmailNotFoundException();
         }
@@ -0,0 +1,55 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.exception.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Posicion {@code (entry_time, id)} del ultimo vehiculo de una pagina, codificada en base64url
+ * como {@code "<millis>:<id>"} para que el cliente la devuelva sin interpretarla.
+ */
+record VehicleCursor(Date entryTime, String id) {
+
+    private static final char SEPARATOR = ':';
+
+    String encode() {
+        String raw = entryTime.getTime() + String.valueOf(SEPARATOR) + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String encode(Date entryTime, String id) {
+        return new VehicleCursor(entryTime, id).encode();
+    }
+
+    /**
+     * @param cursor Cursor recibido del cliente
+     * @return La posicion decodificada, o null si no se envio cursor
+     * @throws InvalidCursorException Si el cursor no tiene el formato esperado
+     */
+    static VehicleCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor de paginación inválido: " + cursor);
+        }
+
+        int separator = decoded.indexOf(SEPARATOR);
+        if (separator <= 0 || separator == decoded.length() - 1) {
+            throw new InvalidCursorException("Cursor de paginación inválido: " + cursor);
+        }
+
+        try {
+            long millis = Long.parseLong(decoded.substring(0, separator));
+            return new VehicleCursor(new Date(millis), decoded.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Cursor de paginación inválido: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.dto.request.VehicleFilterRequest;
+import com.nelumbo.park.dto.response.VehiclePageResponse;
+import com.nelumbo.park.dto.response.VehicleResponse;
+import com.nelumbo.park.entity.User;
+import com.nelumbo.park.entity.VehicleRecord;
+import com.nelumbo.park.mapper.VehicleResponseMapper;
+import com.nelumbo.park.repository.VehicleRecordRepository;
+import com.nelumbo.park.service.infrastructure.SecurityService;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Consultas de vehiculos paginadas por cursor sobre {@code (entry_time, id)} y exportacion en
+ * streaming. Leen de {@code vehicle_records}, de modo que incluyen las salidas ya archivadas.
+ * Un socio solo ve los vehiculos que registro; un administrador ve todos.
+ */
+@Service
+public class VehicleQueryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final VehicleRecordRepository vehicleRecordRepository;
+    private final VehicleResponseMapper vehicleResponseMapper;
+    private final SecurityService securityService;
+    private final EntityManager entityManager;
+
+    public VehicleQueryService(
+            VehicleRecordRepository vehicleRecordRepository,
+            VehicleResponseMapper vehicleResponseMapper,
+            SecurityService securityService,
+            EntityManager entityManager
+    ) {
+        this.vehicleRecordRepository = vehicleRecordRepository;
+        this.vehicleResponseMapper = vehicleResponseMapper;
+        this.securityService = securityService;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Devuelve una pagina de vehiculos ordenada de la entrada mas reciente a la mas antigua.
+     * @param filter Filtros por estado, parqueadero y rango de entrada
+     * @param cursor Cursor devuelto en la pagina anterior, o null para la primera pagina
+     * @param limit Tamano de la pagina, acotado a {@link #MAX_PAGE_SIZE}
+     * @return Vehiculos de la pagina y el cursor de la siguiente, null si no hay mas
+     */
+    @Transactional(readOnly = true)
+    public VehiclePageResponse getVehiclesPage(VehicleFilterRequest filter, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        VehicleCursor after = VehicleCursor.decode(cursor);
+
+        List<VehicleRecord> vehicles = vehicleRecordRepository.findPageAfter(
+                resolveAdminScope(), filter.getStatus(), filter.getParkingId(),
+                filter.getFrom(), filter.getTo(),
+                after != null ? after.entryTime() : null, after != null ? after.id() : null,
+                PageRequest.of(0, pageSize + 1));
+
+        String nextCursor = null;
+        if (vehicles.size() > pageSize) {
+            vehicles = vehicles.subList(0, pageSize);
+            VehicleRecord last = vehicles.get(pageSize - 1);
+            nextCursor = VehicleCursor.encode(last.getEntryTime(), last.getId());
+        }
+
+        return new VehiclePageResponse(vehicleResponseMapper.toResponseList(vehicles), nextCursor);
+    }
+
+    /**
+     * Recorre con un cursor de base de datos todos los vehiculos que cumplen el filtro,
+     * entregando cada uno a {@code consumer} y liberandolo del contexto de persistencia,
+     * de modo que la memoria usada no depende del numero de filas.
+     * @param filter Filtros por estado, parqueadero y rango de entrada
+     * @param consumer Receptor de cada vehiculo mapeado
+     */
+    @Transactional(readOnly = true)
+    public void streamVehicles(VehicleFilterRequest filter, Consumer<VehicleResponse> consumer) {
+        try (Stream<VehicleRecord> vehicles = vehicleRecordRepository.streamByFilter(
+                resolveAdminScope(), filter.getStatus(), filter.getParkingId(),
+                filter.getFrom(), filter.getTo())) {
+            vehicles.forEach(vehicle -> {
+                consumer.accept(vehicleResponseMapper.toResponse(vehicle));
+                entityManager.detach(vehicle);
+            });
+        }
+    }
+
+    private String resolveAdminScope() {
+        User currentUser = securityService.getCurrentUser();
+        if (currentUser == null || "ADMIN".equals(currentUser.getRole())) {
+            return null;
+        }
+        return currentUser.getId();
+    }
+
+    static int resolvePageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+}
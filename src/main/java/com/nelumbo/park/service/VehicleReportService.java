@@ -2,156 +2,139 @@ package com.nelumbo.park.service;
 
 import com.nelumbo.park.dto.response.VehicleDetailResponse;
 import com.nelumbo.park.dto.response.VehicleOutDetailResponse;
-import com.nelumbo.park.entity.Vehicle;
-import com.nelumbo.park.enums.VehicleStatus;
-import com.nelumbo.park.repository.VehicleRepository;
+import com.nelumbo.park.dto.response.VehicleReportRowResponse;
+import com.nelumbo.park.repository.VehicleRecordRepository;
 import org.springframework.stereotype.Service;
-
-import java.text.SimpleDateFormat;
-import java.util.*;
-import java.util.concurrent.TimeUnit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class VehicleReportService {
 
-    private final VehicleRepository vehicleRepository;
-    private static final TimeZone UTC_TIME_ZONE = TimeZone.getTimeZone("UTC");
+    private static final DateTimeFormatter DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("dd-MM-yyyy").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("dd-MM-yyyy-HH:mm").withZone(ZoneOffset.UTC);
+    private static final String UNKNOWN_PARKING = "Unknown Parking";
+
+    private final VehicleRecordRepository vehicleRecordRepository;
 
-    public VehicleReportService(VehicleRepository vehicleRepository) {
-        this.vehicleRepository = vehicleRepository;
+    public VehicleReportService(VehicleRecordRepository vehicleRecordRepository) {
+        this.vehicleRecordRepository = vehicleRecordRepository;
     }
 
     public static String formatDate(Date date, boolean dateOnly) {
-        String pattern = dateOnly ? "dd-MM-yyyy" : "dd-MM-yyyy-HH:mm";
-        SimpleDateFormat formatter = new SimpleDateFormat(pattern);
-        formatter.setTimeZone(UTC_TIME_ZONE);
-        return formatter.format(date);
+        DateTimeFormatter formatter = dateOnly ? DATE_FORMATTER : DATE_TIME_FORMATTER;
+        return formatter.format(date.toInstant());
     }
 
+    /**
+     * Reporte del dia agrupado por socio y parqueadero, ordenado por ganancia descendente.
+     */
+    @Transactional(readOnly = true)
     public List<VehicleOutDetailResponse> getVehiclesOutDetails() {
-        List<Vehicle> vehiclesOut = getVehiclesOutToday();
-        return processVehiclesOutDetails(vehiclesOut);
+        List<VehicleOutDetailResponse> details = new ArrayList<>();
+        streamVehiclesOutDetails(details::add);
+        details.sort(Comparator.comparing(VehicleOutDetailResponse::getTotalEarnings).reversed());
+        return details;
     }
 
-    private List<Vehicle> getVehiclesOutToday() {
-        Calendar startOfDay = Calendar.getInstance();
-        startOfDay.set(Calendar.HOUR_OF_DAY, 0);
-        startOfDay.set(Calendar.MINUTE, 0);
-        startOfDay.set(Calendar.SECOND, 0);
-        startOfDay.set(Calendar.MILLISECOND, 0);
-
-        Calendar endOfDay = Calendar.getInstance();
-        endOfDay.set(Calendar.HOUR_OF_DAY, 23);
-        endOfDay.set(Calendar.MINUTE, 59);
-        endOfDay.set(Calendar.SECOND, 59);
-        endOfDay.set(Calendar.MILLISECOND, 999);
-
-        return vehicleRepository.findVehiclesWithExitTimeBetween(
-                        startOfDay.getTime(),
-                        endOfDay.getTime()
-                ).stream()
-                .filter(vehicle -> VehicleStatus.OUT.equals(vehicle.getStatus()))
-                .toList();
+    /**
+     * Recorre en una sola pasada las salidas del dia, ordenadas por socio y parqueadero, y
+     * entrega cada grupo a {@code consumer} en cuanto se completa. Solo se mantiene en memoria
+     * el grupo en curso.
+     * @param consumer Receptor de cada grupo socio-parqueadero
+     */
+    @Transactional(readOnly = true)
+    public void streamVehiclesOutDetails(Consumer<VehicleOutDetailResponse> consumer) {
+        ZonedDateTime startOfDay = LocalDate.now().atStartOfDay(ZoneId.systemDefault());
+        Date start = Date.from(startOfDay.toInstant());
+        Date end = Date.from(startOfDay.plusDays(1).toInstant());
+
+        try (Stream<VehicleReportRowResponse> rows = vehicleRecordRepository.streamReportRowsByExitTime(start, end)) {
+            accumulate(rows, consumer);
+        }
     }
 
-    private List<VehicleOutDetailResponse> processVehiclesOutDetails(List<Vehicle> vehiclesOut) {
-        Map<String, Map<String, Map<String, VehicleDetailResponse>>> parkingEarnings = new HashMap<>();
-
-        for (Vehicle vehicle : vehiclesOut) {
-            String vehicleId = vehicle.getId();
-            String parkingId = vehicle.getParking().getId();
-            String userId = vehicle.getAdmin().getId();
-
-            Float costPerHour = vehicle.getCostPerHour() != null ? vehicle.getCostPerHour() : 0.0f;
-            String plateNumber = vehicle.getPlateNumber();
-            String modelVehicle = vehicle.getModel();
+    /**
+     * Salidas de un parqueadero en el rango {@code [from, to)}, agrupadas por el socio que
+     * registro cada vehiculo.
+     */
+    @Transactional(readOnly = true)
+    public List<VehicleOutDetailResponse> getVehiclesOutDetails(String parkingId, Date from, Date to) {
+        List<VehicleOutDetailResponse> details = new ArrayList<>();
+        try (Stream<VehicleReportRowResponse> rows =
+                     vehicleRecordRepository.streamReportRowsByParkingAndExitTime(parkingId, from, to)) {
+            accumulate(rows, details::add);
+        }
+        return details;
+    }
 
-            Date entryTime = vehicle.getEntryTime();
-            Date exitTime = vehicle.getExitTime();
+    private static void accumulate(Stream<VehicleReportRowResponse> rows, Consumer<VehicleOutDetailResponse> consumer) {
+        GroupAccumulator accumulator = new GroupAccumulator(consumer);
+        rows.forEach(accumulator::accept);
+        accumulator.flush();
+    }
 
-            long timeDifference = Math.abs(exitTime.getTime() - entryTime.getTime());
-            long minutesParked = TimeUnit.MILLISECONDS.toMinutes(timeDifference);
-            long hoursParked = (minutesParked + 59) / 60;
+    private static final class GroupAccumulator {
 
-            Float totalCost = hoursParked * costPerHour;
-            String dayEntry = formatDate(entryTime, false);
-            String dayExit = formatDate(exitTime, false);
+        private final Consumer<VehicleOutDetailResponse> consumer;
+        private VehicleOutDetailResponse current;
 
-            parkingEarnings.computeIfAbsent(userId, k -> new HashMap<>());
+        private GroupAccumulator(Consumer<VehicleOutDetailResponse> consumer) {
+            this.consumer = consumer;
+        }
 
-            if (!parkingEarnings.get(userId).containsKey(parkingId)) {
-                parkingEarnings.get(userId).put(parkingId, new HashMap<>());
+        private void accept(VehicleReportRowResponse row) {
+            if (row.getUserId() == null) {
+                return;
+            }
+            if (current == null || !row.getUserId().equals(current.getUserId())
+                    || !Objects.equals(row.getParkingId(), current.getParkingId())) {
+                flush();
+                current = new VehicleOutDetailResponse(
+                        row.getUserId(),
+                        row.getUsername(),
+                        row.getEmail(),
+                        row.getParkingId(),
+                        row.getParkingName() != null ? row.getParkingName() : UNKNOWN_PARKING,
+                        new ArrayList<>(),
+                        0,
+                        BigDecimal.ZERO
+                );
             }
 
-            VehicleDetailResponse vehicleDetail = new VehicleDetailResponse(
-                    vehicleId,
-                    plateNumber,
-                    modelVehicle,
-                    dayEntry,
-                    dayExit,
+            BigDecimal totalCost = row.getTotalCost() != null ? row.getTotalCost() : BigDecimal.ZERO;
+            current.getVehicles().add(new VehicleDetailResponse(
+                    row.getVehicleId(),
+                    row.getPlateNumber(),
+                    row.getModelVehicle(),
+                    formatDate(row.getEntryTime(), false),
+                    formatDate(row.getExitTime(), false),
                     totalCost
-            );
-
-            parkingEarnings.get(userId).get(parkingId).put(vehicleId, vehicleDetail);
+            ));
+            current.setTotalVehicles(current.getTotalVehicles() + 1);
+            current.setTotalEarnings(current.getTotalEarnings().add(totalCost));
         }
 
-        return flattenVehicleData(parkingEarnings, vehiclesOut);
-    }
-
-    private List<VehicleOutDetailResponse> flattenVehicleData(
-            Map<String, Map<String, Map<String, VehicleDetailResponse>>> parkingEarnings,
-            List<Vehicle> vehiclesOut) {
-
-        List<VehicleOutDetailResponse> flattenedData = new ArrayList<>();
-
-        for (Map.Entry<String, Map<String, Map<String, VehicleDetailResponse>>> userEntry : parkingEarnings.entrySet()) {
-            String userId = userEntry.getKey();
-            Map<String, Map<String, VehicleDetailResponse>> userParkings = userEntry.getValue();
-
-            Vehicle sampleVehicle = vehiclesOut.stream()
-                    .filter(v -> v.getAdmin() != null && v.getAdmin().getId() != null && v.getAdmin().getId().equals(userId))
-                    .findFirst()
-                    .orElse(null);
-
-            if (sampleVehicle == null) continue;
-
-            String username = sampleVehicle.getAdmin().getUsername();
-            String email = sampleVehicle.getAdmin().getEmail();
-
-            for (Map.Entry<String, Map<String, VehicleDetailResponse>> parkingEntry : userParkings.entrySet()) {
-                String parkingId = parkingEntry.getKey();
-                Map<String, VehicleDetailResponse> parkingVehicles = parkingEntry.getValue();
-
-                String parkingName = vehiclesOut.stream()
-                        .filter(v -> v.getParking() != null && v.getParking().getId() != null && v.getParking().getId().equals(parkingId))
-                        .map(v -> v.getParking().getName())
-                        .findFirst()
-                        .orElse("Unknown Parking");
-
-                List<VehicleDetailResponse> vehicles = new ArrayList<>(parkingVehicles.values());
-                vehicles.sort((a, b) -> Float.compare(b.getTotalCost(), a.getTotalCost()));
-
-                Float totalEarnings = vehicles.stream()
-                        .map(VehicleDetailResponse::getTotalCost)
-                        .reduce(0.0f, Float::sum);
-
-                VehicleOutDetailResponse response = new VehicleOutDetailResponse(
-                        userId,
-                        username,
-                        email,
-                        parkingId,
-                        parkingName,
-                        vehicles,
-                        vehicles.size(),
-                        totalEarnings
-                );
-
-                flattenedData.add(response);
+        private void flush() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
             }
         }
-
-        flattenedData.sort((a, b) -> Float.compare(b.getTotalEarnings(), a.getTotalEarnings()));
-
-        return flattenedData;
     }
-}
\ No newline at end of file
+}
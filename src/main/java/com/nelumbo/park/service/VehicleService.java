@@ -2,6 +2,8 @@ package com.nelumbo.park.service;
 
 import com.nelumbo.park.dto.response.MonthParkingStatsResponse;
 import com.nelumbo.park.dto.response.MonthPartnerStatsResponse;
+import com.nelumbo.park.dto.response.ParkingRankingResponse;
+import com.nelumbo.park.dto.response.PartnerRankingResponse;
 import com.nelumbo.park.dto.response.WeeklyParkingStatsResponse;
 import com.nelumbo.park.dto.response.WeeklyPartnerStatsResponse;
 import com.nelumbo.park.exception.exceptions.LimitParkingFullException;
@@ -14,6 +16,7 @@ import com.nelumbo.park.dto.response.VehicleExitResponse;
 import com.nelumbo.park.dto.response.IndicatorResponse;
 import com.nelumbo.park.dto.response.TopVehicleResponse;
 import com.nelumbo.park.entity.Vehicle;
+import com.nelumbo.park.entity.VehicleRecord;
 import com.nelumbo.park.entity.User;
 import com.nelumbo.park.entity.Parking;
 import com.nelumbo.park.exception.exceptions.InsufficientPermissionsException;
@@ -21,56 +24,78 @@ import com.nelumbo.park.exception.exceptions.VehicleNotFoundException;
 import com.nelumbo.park.exception.exceptions.VehicleAlreadyInParkingException;
 import com.nelumbo.park.enums.VehicleStatus;
 import com.nelumbo.park.mapper.VehicleMapper;
+import com.nelumbo.park.repository.VehicleRecordRepository;
 import com.nelumbo.park.repository.VehicleRepository;
-import com.nelumbo.park.repository.UserRepository;
+import com.nelumbo.park.service.infrastructure.ParkingLookupCache;
 import com.nelumbo.park.service.infrastructure.SecurityService;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.text.NumberFormat;
+import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
-import java.util.Optional;
 
 @Service
 public class VehicleService {
 
+    private static final Logger logger = LoggerFactory.getLogger(VehicleService.class);
+    private static final String PLATE_IN_UNIQUE_INDEX = "uq_vehicles_plate_in";
+
     private final VehicleRepository vehicleRepository;
+    private final VehicleRecordRepository vehicleRecordRepository;
     private final VehicleMapper vehicleMapper;
     private final SecurityService securityService;
-    private final UserRepository userRepository;
     private final ParkingStatsService parkingStatsService;
+    private final ParkingOccupancyService occupancyService;
+    private final ParkingLookupCache parkingLookupCache;
+    private final ParkingRollupService rollupService;
+    private final PlateVisitRankingService visitRankingService;
 
     public VehicleService(
             VehicleRepository vehicleRepository,
+            VehicleRecordRepository vehicleRecordRepository,
             VehicleMapper vehicleMapper,
             SecurityService securityService,
-            UserRepository userRepository,
-            ParkingStatsService parkingStatsService
+            ParkingStatsService parkingStatsService,
+            ParkingOccupancyService occupancyService,
+            ParkingLookupCache parkingLookupCache,
+            ParkingRollupService rollupService,
+            PlateVisitRankingService visitRankingService
     ) {
         this.vehicleRepository = vehicleRepository;
+        this.vehicleRecordRepository = vehicleRecordRepository;
         this.vehicleMapper = vehicleMapper;
         this.securityService = securityService;
-        this.userRepository = userRepository;
         this.parkingStatsService = parkingStatsService;
+        this.occupancyService = occupancyService;
+        this.parkingLookupCache = parkingLookupCache;
+        this.rollupService = rollupService;
+        this.visitRankingService = visitRankingService;
     }
 
-    public List<Vehicle> getAllVehicles() {
+    /**
+     * Lista los vehiculos desde {@code vehicle_records}, incluidas las salidas archivadas.
+     */
+    public List<VehicleRecord> getAllVehicles() {
         User currentUser = securityService.getCurrentUser();
 
         if (securityService.isAdmin()) {
-            return vehicleRepository.findAll();
+            return vehicleRecordRepository.findAll();
         } else if (securityService.isSocio()) {
-            return vehicleRepository.findByAdmin(currentUser);
+            return vehicleRecordRepository.findByAdmin(currentUser);
         }
 
-        return vehicleRepository.findAll();
+        return vehicleRecordRepository.findAll();
     }
 
-    public Vehicle getVehicleById(String id) {
-        Vehicle vehicle = vehicleRepository.findById(id).orElseThrow(VehicleNotFoundException::new);
+    public VehicleRecord getVehicleById(String id) {
+        VehicleRecord vehicle = vehicleRecordRepository.findById(id).orElseThrow(VehicleNotFoundException::new);
 
         User currentUser = securityService.getCurrentUser();
 
@@ -82,57 +107,107 @@ public class VehicleService {
     }
 
     public VehicleCreateResponse createVehicle(VehicleCreateRequest vehicleCreateRequest) {
-        Optional<Vehicle> existingVehicleOpt = vehicleRepository.findByPlateNumberAndStatus(vehicleCreateRequest.getPlateNumber(), VehicleStatus.IN);
-        if (existingVehicleOpt.isPresent()) {
-            throw new VehicleAlreadyInParkingException(
-                    "El vehiculo con placa " + vehicleCreateRequest.getPlateNumber() +
-                            " ya está registrado y actualmente en un parking"
-            );
+        String plateNumber = vehicleCreateRequest.getPlateNumber();
+        if (occupancyService.isParked(plateNumber)) {
+            throw alreadyInParking(plateNumber);
         }
 
-        Vehicle vehicle = vehicleMapper.toEntity(vehicleCreateRequest);
+        String parkingId = vehicleCreateRequest.getIdParking();
+        Parking parking = parkingLookupCache.findById(parkingId);
+        if (parking == null) {
+            throw new ParkingNotFoundException("Parking no encontrado con ID: " + parkingId);
+        }
 
         User currentUser = securityService.getCurrentUser();
-        String userId = currentUser.getId();
 
-        if (vehicle.getParking() == null) {
-            throw new ParkingNotFoundException();
-        }
-
-        Boolean validateUserParking = vehicle.getParking().getOwner().getId().equals(userId);
+        Boolean validateUserParking = parking.getOwner().getId().equals(currentUser.getId());
         if (Boolean.FALSE.equals(validateUserParking)) {
             throw new InsufficientPermissionsException();
         }
 
-        Boolean validateLimitParking = validateLimitParking(vehicle.getParking().getId());
-        if (Boolean.TRUE.equals(validateLimitParking)) {
+        if (!occupancyService.reservePlate(plateNumber)) {
+            throw alreadyInParking(plateNumber);
+        }
+
+        if (!occupancyService.reserveSlot(parking.getId())) {
+            occupancyService.releasePlate(plateNumber);
             throw new LimitParkingFullException(
                     "El limite de vehiculos en parking "
-                            + vehicle.getParking().getName() +
+                            + parking.getName() +
                             " ya ha sido alcanzado"
             );
         }
 
-        vehicle.setCostPerHour(vehicle.getParking().getCostPerHour());
-
-        User admin = userRepository.findById(userId).orElse(null);
-        Date entryTime = new Date();
+        Vehicle vehicle = vehicleMapper.toNewVehicle(vehicleCreateRequest, parking, currentUser);
+        vehicle.setEntryTime(new Date());
+        vehicle.setFirstVisit(!vehicleRepository.existsByPlateNumber(plateNumber));
+
+        Vehicle savedVehicle;
+        try {
+            savedVehicle = vehicleRepository.save(vehicle);
+        } catch (DataIntegrityViolationException e) {
+            occupancyService.releaseSlot(parking.getId());
+            if (isPlateAlreadyIn(e)) {
+                occupancyService.confirmPlate(plateNumber);
+                throw alreadyInParking(plateNumber);
+            }
+            occupancyService.releasePlate(plateNumber);
+            throw e;
+        } catch (RuntimeException e) {
+            occupancyService.releaseSlot(parking.getId());
+            occupancyService.releasePlate(plateNumber);
+            throw e;
+        }
+        occupancyService.confirmPlate(plateNumber);
 
-        vehicle.setEntryTime(entryTime);
-        vehicle.setAdmin(admin);
-        Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        recordEntryStats(parking.getId(), vehicle);
         return vehicleMapper.toSimpleResponse(savedVehicle);
     }
 
-    public Boolean validateLimitParking(String idParking) {
-        List<Object[]> limitParking = vehicleRepository.findLimitParking(idParking, VehicleStatus.IN);
-        if (limitParking.isEmpty() || limitParking.getFirst().length < 2) {
-            return false;
+    private void recordEntryStats(String parkingId, Vehicle vehicle) {
+        try {
+            rollupService.recordEntry(parkingId, vehicle.getPlateNumber(), vehicle.getEntryTime());
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo actualizar el acumulado horario de entradas del parqueadero {}: {}",
+                    parkingId, e.getMessage());
         }
-        Object[] data = limitParking.getFirst();
-        long vehicleCount = ((Number) data[0]).longValue();
-        long vehicleLimit = ((Number) data[1]).longValue();
-        return vehicleCount >= vehicleLimit;
+        try {
+            visitRankingService.recordVisit(parkingId, vehicle.getPlateNumber());
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo actualizar el contador de visitas de la placa {}: {}",
+                    vehicle.getPlateNumber(), e.getMessage());
+        }
+    }
+
+    private void recordExitStats(String parkingId, Date exitTime, BigDecimal totalCost) {
+        try {
+            rollupService.recordExit(parkingId, exitTime, totalCost);
+        } catch (RuntimeException e) {
+            logger.warn("No se pudo actualizar el acumulado horario de salidas del parqueadero {}: {}",
+                    parkingId, e.getMessage());
+        }
+    }
+
+    /**
+     * Indica si el error viene de {@code uq_vehicles_plate_in}: la placa entro por otro nodo
+     * despues de la ultima recarga de {@link ParkingOccupancyService}.
+     */
+    private static boolean isPlateAlreadyIn(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().contains(PLATE_IN_UNIQUE_INDEX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private VehicleAlreadyInParkingException alreadyInParking(String plateNumber) {
+        return new VehicleAlreadyInParkingException(
+                "El vehiculo con placa " + plateNumber +
+                        " ya está registrado y actualmente en un parking"
+        );
     }
 
     public VehicleExitResponse exitVehicle(VehicleUpdateRequest vehicleUpdateRequest) {
@@ -157,28 +232,55 @@ public class VehicleService {
 
         Date exitTime = new Date();
 
-        Float costParking = existingVehicle.getCostPerHour();
         Date entryTime = existingVehicle.getEntryTime();
-
-        long timeDifference = Math.abs(exitTime.getTime() - entryTime.getTime());
-        long minutesParked = timeDifference / (1000 * 60);
-        long hoursParked = (long) Math.ceil((double) minutesParked / 60);
-        Float totalCost = hoursParked * costParking;
+        BigDecimal totalCost = ParkingFeeCalculator.calculateCharge(entryTime, exitTime, existingVehicle.getCostPerHour());
 
         NumberFormat currencyFormatter = NumberFormat.getCurrencyInstance(Locale.of("es", "CO"));
         String formattedCost = currencyFormatter.format(totalCost).replace("COP", "$").replace(",00", "");
 
+        if (vehicleRepository.markExited(existingVehicle.getId(), exitTime, totalCost) == 0) {
+            throw new VehicleOutParkingException();
+        }
         existingVehicle.setExitTime(exitTime);
+        existingVehicle.setTotalCost(totalCost);
         existingVehicle.setStatus(VehicleStatus.OUT);
-        Vehicle savedVehicle = vehicleRepository.save(existingVehicle);
 
-        return vehicleMapper.toExitResponse(savedVehicle, entryTime, exitTime, formattedCost);
+        occupancyService.releaseSlot(parking.getId());
+        occupancyService.releasePlate(existingVehicle.getPlateNumber());
+        recordExitStats(parking.getId(), exitTime, totalCost);
+
+        return vehicleMapper.toExitResponse(existingVehicle, entryTime, exitTime, formattedCost);
     }
 
+    /**
+     * Elimina el vehiculo de {@code vehicles} o, si ya se archivo, de {@code vehicle_history}.
+     */
     public void deleteVehicle(String id) {
-        Vehicle existingVehicle = vehicleRepository.findById(id).orElseThrow(VehicleNotFoundException::new);
+        Vehicle existingVehicle = vehicleRepository.findById(id).orElse(null);
+        if (existingVehicle == null) {
+            deleteArchivedVehicle(id);
+            return;
+        }
 
         vehicleRepository.delete(existingVehicle);
+
+        if (existingVehicle.getParking() == null) {
+            return;
+        }
+        visitRankingService.removeVisit(existingVehicle.getParking().getId(), existingVehicle.getPlateNumber());
+
+        if (existingVehicle.getStatus() == VehicleStatus.IN) {
+            occupancyService.releaseSlot(existingVehicle.getParking().getId());
+            occupancyService.releasePlate(existingVehicle.getPlateNumber());
+        }
+    }
+
+    private void deleteArchivedVehicle(String id) {
+        VehicleRecord archived = vehicleRecordRepository.findById(id).orElseThrow(VehicleNotFoundException::new);
+        if (vehicleRepository.deleteArchivedById(id) == 0) {
+            throw new VehicleNotFoundException();
+        }
+        visitRankingService.removeVisit(archived.getParking().getId(), archived.getPlateNumber());
     }
 
     public List<IndicatorResponse> getFirstTimeParkedVehicles() {
@@ -196,31 +298,17 @@ public class VehicleService {
     }
 
     public List<TopVehicleResponse> getTopVehicles() {
-        Pageable topTen = PageRequest.of(0, 10);
-        List<Object[]> topVehiclesData = vehicleRepository.findTopVehiclesByVisits(topTen);
-
-        return topVehiclesData.stream()
-                .map(data -> new TopVehicleResponse(
-                        (String) data[0],
-                        ((Number) data[1]).longValue()
-                ))
-                .toList();
+        return visitRankingService.getTopVehicles();
     }
 
     public List<TopVehicleResponse> getTopVehicleById(String id) {
-        Pageable topTen = PageRequest.of(0, 10);
-        List<Object[]> topVehiclesData = vehicleRepository.findTopVehicleById(id, topTen);
+        List<TopVehicleResponse> topVehicles = visitRankingService.getTopVehicles(id);
 
-        if (topVehiclesData.isEmpty()) {
+        if (topVehicles.isEmpty()) {
             throw new ParkingNotFoundException();
         }
 
-        return topVehiclesData.stream()
-                .map(data -> new TopVehicleResponse(
-                        (String) data[0],
-                        ((Number) data[1]).longValue()
-                ))
-                .toList();
+        return topVehicles;
     }
 
     public WeeklyPartnerStatsResponse getPartnersRanking() {
@@ -238,4 +326,12 @@ public class VehicleService {
     public MonthParkingStatsResponse getParkingRankingMonth() {
         return parkingStatsService.getParkingRankingMonth();
     }
+
+    public ParkingRankingResponse getParkingRankingBetween(LocalDateTime from, LocalDateTime to) {
+        return parkingStatsService.getParkingRankingBetween(from, to);
+    }
+
+    public PartnerRankingResponse getPartnersRankingBetween(LocalDateTime from, LocalDateTime to) {
+        return parkingStatsService.getPartnersRankingBetween(from, to);
+    }
 }
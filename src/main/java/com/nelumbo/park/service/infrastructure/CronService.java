@@ -15,14 +15,26 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @Slf4j
@@ -33,9 +45,22 @@ public class CronService {
     private final ExcelComponent excelGenerator;
     private final Pdf pdf;
     private final S3Service s3Service;
-    private final RabbitMQService rabbitMQService;
+    private final EmailOutboxService emailOutboxService;
 
-    private final List<FileUploadResultResponse> uploadedFiles = new ArrayList<>();
+    private static final int DEFAULT_UPLOAD_CONCURRENCY = 8;
+    private static final int DEFAULT_PUBLISH_CONCURRENCY = 4;
+
+    @Value("${app.reports.pipeline.generation-threads:0}")
+    private int generationThreads;
+
+    @Value("${app.reports.pipeline.upload-concurrency:8}")
+    private int uploadConcurrency;
+
+    @Value("${app.reports.pipeline.publish-concurrency:4}")
+    private int publishConcurrency;
+
+    @Value("${app.reports.pipeline.max-pending:0}")
+    private int maxPendingReports;
 
     @Value("${app.subject}")
     private String subject;
@@ -52,70 +77,158 @@ public class CronService {
             ExcelComponent excelGenerator,
             Pdf pdf,
             S3Service s3Service,
-            RabbitMQService rabbitMQService
+            EmailOutboxService emailOutboxService
     ) {
         this.vehicleReportService = vehicleReportService;
         this.excel = excel;
         this.excelGenerator = excelGenerator;
         this.pdf = pdf;
         this.s3Service = s3Service;
-        this.rabbitMQService = rabbitMQService;
+        this.emailOutboxService = emailOutboxService;
     }
 
+    /**
+     * Genera, sube y notifica los reportes del dia como un pipeline por etapas. Las salidas se
+     * leen con {@link VehicleReportService#streamVehiclesOutDetails} y cada grupo entra al
+     * pipeline en cuanto se completa, sin cargar el dia entero en memoria. La generacion de Excel
+     * y PDF corre en un pool acotado de hilos de plataforma y escribe a archivos temporales; la
+     * subida y la publicacion corren en hilos virtuales con un limite de concurrencia por etapa.
+     * Como maximo {@code max-pending} reportes pueden estar generados sin haberse subido, lo que
+     * frena la lectura y la generacion cuando el almacenamiento va mas lento. Las notificaciones
+     * se registran en el outbox de emails y las publica el relay, por lo que una caida de
+     * RabbitMQ no las pierde.
+     */
     public boolean runDailyTask() {
-        List<VehicleOutDetailResponse> dataVehicleOutParking = this.vehicleReportService.getVehiclesOutDetails();
-        if (dataVehicleOutParking == null || dataVehicleOutParking.isEmpty()) {
-            return false;
-        }
+        long startedAt = System.nanoTime();
+        PipelineStats stats = new PipelineStats();
+        Map<String, FileUploadResultResponse> uploadedFiles = new ConcurrentHashMap<>();
 
-        uploadedFiles.clear();
+        int generationThreads = positiveOr(this.generationThreads, Runtime.getRuntime().availableProcessors());
+        Semaphore pendingUploads = new Semaphore(positiveOr(this.maxPendingReports, generationThreads * 2));
+        Semaphore uploadPermits = new Semaphore(positiveOr(this.uploadConcurrency, DEFAULT_UPLOAD_CONCURRENCY));
+        Semaphore publishPermits = new Semaphore(positiveOr(this.publishConcurrency, DEFAULT_PUBLISH_CONCURRENCY));
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
 
-        for (VehicleOutDetailResponse vehicleOutDetailResponse : dataVehicleOutParking) {
-            processVehicleReport(vehicleOutDetailResponse);
+        try (ExecutorService generationPool = Executors.newFixedThreadPool(generationThreads);
+             ExecutorService ioPool = Executors.newVirtualThreadPerTaskExecutor()) {
+            this.vehicleReportService.streamVehiclesOutDetails(vehicleOutDetailResponse -> {
+                if (!acquire(pendingUploads)) {
+                    return;
+                }
+                tasks.add(CompletableFuture
+                        .supplyAsync(() -> generateReport(vehicleOutDetailResponse, stats), generationPool)
+                        .thenApplyAsync(report -> uploadReport(report, uploadedFiles, uploadPermits, stats), ioPool)
+                        .whenComplete((uploaded, error) -> pendingUploads.release())
+                        .thenAcceptAsync(uploaded -> publishReport(uploaded, publishPermits, stats), ioPool)
+                        .exceptionally(error -> {
+                            log.error("Error inesperado procesando archivo para usuario {}: {}",
+                                    vehicleOutDetailResponse.getUserId(), error.getMessage());
+                            return null;
+                        }));
+            });
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        }
+        if (tasks.isEmpty()) {
+            return false;
         }
 
-        log.info("Proceso completado. Total de archivos subidos: {}", uploadedFiles.size());
+        int totalFiles = uploadedFiles.values().stream().mapToInt(result -> result.getFiles().size()).sum();
+        log.info("Proceso completado en {} ms. Reportes: {}, fallidos: {}, archivos subidos: {}. " +
+                        "Tiempo acumulado por etapa (ms): generacion={}, subida={}, publicacion={}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), tasks.size(), stats.failed.sum(),
+                totalFiles, stats.generation.millis(), stats.upload.millis(), stats.publish.millis());
         return true;
     }
 
-    private void processVehicleReport(VehicleOutDetailResponse vehicleOutDetailResponse) {
+    private GeneratedReport generateReport(VehicleOutDetailResponse vehicleOutDetailResponse, PipelineStats stats) {
+        long startedAt = System.nanoTime();
+        Path excelFile = null;
+        Path pdfFile = null;
         try {
             // Excel generation
             FileInfoResponse excelFileInfo = generateFileNames(vehicleOutDetailResponse);
             String excelContentType = getContentType();
-            byte[] excelBuffer = this.excel.generarExcelPorUsuario(List.of(vehicleOutDetailResponse));
+            excelFile = Files.createTempFile("reporte-diario-", ".xlsx");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(excelFile))) {
+                this.excel.writeExcelPorUsuario(List.of(vehicleOutDetailResponse), out);
+            }
 
             // PDF generation
             String pdfFileName = excelFileInfo.getNameFile().replace(".xlsx", ".pdf");
             String pdfS3Name = UUID.randomUUID().toString().replace("-", "");
             FileInfoResponse pdfFileInfo = new FileInfoResponse(pdfFileName, pdfS3Name);
-            byte[] pdfBuffer = this.pdf.generarPdfPorUsuario(List.of(vehicleOutDetailResponse));
-
-            List<EmailAttachmentResponse> attachments = new ArrayList<>();
-
-            // Upload files
-            uploadFileAndTrack(excelBuffer, excelContentType, excelFileInfo, vehicleOutDetailResponse, attachments, "Excel");
-            uploadFileAndTrack(pdfBuffer, this.pdfContentType, pdfFileInfo, vehicleOutDetailResponse, attachments, "PDF");
-
-            if (!attachments.isEmpty()) {
-                sendEmailWithAttachments(vehicleOutDetailResponse, attachments);
+            pdfFile = Files.createTempFile("reporte-diario-", ".pdf");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(pdfFile))) {
+                this.pdf.writePdfPorUsuario(List.of(vehicleOutDetailResponse), out);
             }
 
+            return new GeneratedReport(vehicleOutDetailResponse, excelFileInfo, excelContentType, excelFile,
+                    pdfFileInfo, pdfFile);
         } catch (IOException e) {
+            stats.failed.increment();
             log.error("Error generando archivo para usuario {}: {}",
                     vehicleOutDetailResponse.getUserId(), e.getMessage());
         } catch (Exception e) {
+            stats.failed.increment();
             log.error("Error inesperado procesando archivo para usuario {}: {}",
                     vehicleOutDetailResponse.getUserId(), e.getMessage());
+        } finally {
+            stats.generation.record(startedAt);
+        }
+        deleteQuietly(excelFile);
+        deleteQuietly(pdfFile);
+        return null;
+    }
+
+    private UploadedReport uploadReport(GeneratedReport report, Map<String, FileUploadResultResponse> uploadedFiles,
+                                        Semaphore uploadPermits, PipelineStats stats) {
+        if (report == null) {
+            return null;
+        }
+        try {
+            if (!acquire(uploadPermits)) {
+                return null;
+            }
+            long startedAt = System.nanoTime();
+            try {
+                List<EmailAttachmentResponse> attachments = new ArrayList<>();
+                uploadFileAndTrack(report.excelFile(), report.excelContentType(), report.excelFileInfo(),
+                        report.detail(), attachments, uploadedFiles, "Excel");
+                uploadFileAndTrack(report.pdfFile(), this.pdfContentType, report.pdfFileInfo(),
+                        report.detail(), attachments, uploadedFiles, "PDF");
+                return new UploadedReport(report.detail(), attachments);
+            } finally {
+                stats.upload.record(startedAt);
+                uploadPermits.release();
+            }
+        } finally {
+            deleteQuietly(report.excelFile());
+            deleteQuietly(report.pdfFile());
+        }
+    }
+
+    private void publishReport(UploadedReport uploaded, Semaphore publishPermits, PipelineStats stats) {
+        if (uploaded == null || uploaded.attachments().isEmpty() || !acquire(publishPermits)) {
+            return;
+        }
+        long startedAt = System.nanoTime();
+        try {
+            sendEmailWithAttachments(uploaded.detail(), uploaded.attachments());
+        } finally {
+            stats.publish.record(startedAt);
+            publishPermits.release();
         }
     }
 
-    private void uploadFileAndTrack(byte[] buffer, String contentType, FileInfoResponse fileInfo, VehicleOutDetailResponse vehicleOutDetailResponse, List<EmailAttachmentResponse> attachments, String fileType) {
+    private void uploadFileAndTrack(Path file, String contentType, FileInfoResponse fileInfo,
+                                    VehicleOutDetailResponse vehicleOutDetailResponse,
+                                    List<EmailAttachmentResponse> attachments,
+                                    Map<String, FileUploadResultResponse> uploadedFiles, String fileType) {
         try {
-            Map<String, String> uploadResult = this.s3Service.uploadFile(buffer, contentType, fileInfo.getS3Name());
+            Map<String, String> uploadResult = this.s3Service.uploadFile(file, contentType, fileInfo.getS3Name());
             if (uploadResult != null && uploadResult.containsKey("Key")) {
                 attachments.add(new EmailAttachmentResponse(fileInfo.getNameFile(), fileInfo.getS3Name()));
-                addToUploadedFiles(vehicleOutDetailResponse, fileInfo);
+                addToUploadedFiles(uploadedFiles, vehicleOutDetailResponse, fileInfo);
             }
         } catch (Exception e) {
             log.error("Error subiendo el archivo {} para el usuario {}: {}", fileType, vehicleOutDetailResponse.getUserId(), e.getMessage());
@@ -144,35 +257,82 @@ public class CronService {
         return contentType;
     }
 
-    private void sendEmailWithAttachments(VehicleOutDetailResponse vehicleOutDetailResponse, List<EmailAttachmentResponse> attachments) {
+    private void sendEmailWithAttachments(VehicleOutDetailResponse vehicleOutDetailResponse,
+                                          List<EmailAttachmentResponse> attachments) {
         try {
             String email = Optional.ofNullable(vehicleOutDetailResponse.getEmail()).orElse("");
             String htmlContent = HtmlGenerator.generateHtmlContent(vehicleOutDetailResponse);
 
             EmailDataResponse data = new EmailDataResponse(email, htmlContent, subject, attachments);
             RabbitMQResponse response = new RabbitMQResponse(typeMessage, data);
-            this.rabbitMQService.publishMessageBackoff(response);
+            this.emailOutboxService.enqueue(response);
         } catch (Exception e) {
             log.error("Error enviando notificación por email para usuario {}: {}",
                     vehicleOutDetailResponse.getUserId(), e.getMessage());
         }
     }
 
-    private void addToUploadedFiles(VehicleOutDetailResponse vehicleOutDetailResponse, FileInfoResponse fileInfo) {
+    private void addToUploadedFiles(Map<String, FileUploadResultResponse> uploadedFiles,
+                                    VehicleOutDetailResponse vehicleOutDetailResponse, FileInfoResponse fileInfo) {
         String userId = vehicleOutDetailResponse.getUserId();
+        String email = Optional.ofNullable(vehicleOutDetailResponse.getEmail()).orElse("");
 
-        Optional<FileUploadResultResponse> existingUploadInfo = uploadedFiles.stream()
-                .filter(r -> r.getIdUser().equals(userId))
-                .findFirst();
+        uploadedFiles.computeIfAbsent(String.valueOf(userId),
+                        key -> new FileUploadResultResponse(userId, email, Collections.synchronizedList(new ArrayList<>())))
+                .getFiles()
+                .add(fileInfo);
+    }
 
-        if (existingUploadInfo.isPresent()) {
-            existingUploadInfo.get().getFiles().add(fileInfo);
-        } else {
-            String email = Optional.ofNullable(vehicleOutDetailResponse.getEmail()).orElse("");
-            List<FileInfoResponse> files = new ArrayList<>();
-            files.add(fileInfo);
-            FileUploadResultResponse newUploadInfo = new FileUploadResultResponse(userId, email, files);
-            uploadedFiles.add(newUploadInfo);
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("No se pudo eliminar el archivo temporal {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static boolean acquire(Semaphore semaphore) {
+        try {
+            semaphore.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Pipeline de reportes interrumpido");
+            return false;
+        }
+    }
+
+    private static int positiveOr(int value, int fallback) {
+        return value > 0 ? value : Math.max(1, fallback);
+    }
+
+    private record GeneratedReport(VehicleOutDetailResponse detail,
+                                   FileInfoResponse excelFileInfo, String excelContentType, Path excelFile,
+                                   FileInfoResponse pdfFileInfo, Path pdfFile) {
+    }
+
+    private record UploadedReport(VehicleOutDetailResponse detail, List<EmailAttachmentResponse> attachments) {
+    }
+
+    private static final class StageTimer {
+        private final LongAdder nanos = new LongAdder();
+
+        private void record(long startedAt) {
+            nanos.add(System.nanoTime() - startedAt);
+        }
+
+        private long millis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
         }
     }
+
+    private static final class PipelineStats {
+        private final StageTimer generation = new StageTimer();
+        private final StageTimer upload = new StageTimer();
+        private final StageTimer publish = new StageTimer();
+        private final LongAdder failed = new LongAdder();
+    }
 }
@@ -0,0 +1,166 @@
+package com.nelumbo.park.service.infrastructure;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelumbo.park.entity.EmailOutboxMessage;
+import com.nelumbo.park.enums.OutboxStatus;
+import com.nelumbo.park.exception.exceptions.RabbitMQMessagePublishException;
+import com.nelumbo.park.repository.EmailOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Outbox de notificaciones por email. Quien genera la notificacion solo inserta una fila en
+ * {@code email_outbox}, dentro de su propia transaccion, y no depende de que RabbitMQ este
+ * disponible. El relay reclama lotes de filas, las publica con confirmacion del broker y las
+ * marca como enviadas; las que fallan se reintentan con backoff. Una fila puede publicarse mas
+ * de una vez si el relay se cae entre la confirmacion y la marca, por lo que la entrega es
+ * al menos una vez.
+ */
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final RabbitMQService rabbitMQService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.outbox.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    @Value("${app.outbox.retry-max-seconds:3600}")
+    private long retryMaxSeconds;
+
+    @Value("${app.outbox.retention-days:7}")
+    private long retentionDays;
+
+    public EmailOutboxService(EmailOutboxRepository outboxRepository, RabbitMQService rabbitMQService,
+                              ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.rabbitMQService = rabbitMQService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registra el mensaje para su publicacion. Si hay una transaccion activa la fila se inserta
+     * en ella y solo se publica si esa transaccion confirma.
+     */
+    @Transactional
+    public EmailOutboxMessage enqueue(Object message) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new RabbitMQMessagePublishException("Error serializando el mensaje del outbox", e);
+        }
+
+        Date now = new Date();
+        EmailOutboxMessage outboxMessage = new EmailOutboxMessage();
+        outboxMessage.setPayload(payload);
+        outboxMessage.setStatus(OutboxStatus.PENDING);
+        outboxMessage.setCreatedAt(now);
+        outboxMessage.setAvailableAt(now);
+        return outboxRepository.save(outboxMessage);
+    }
+
+    /**
+     * Publica los mensajes pendientes por lotes hasta vaciar el outbox.
+     * @return Numero de mensajes confirmados por el broker
+     */
+    public int relay() {
+        int size = Math.max(1, batchSize);
+        int sent = 0;
+        while (true) {
+            Date now = new Date();
+            Date leaseUntil = new Date(now.getTime() + Duration.ofSeconds(Math.max(1, leaseSeconds)).toMillis());
+            List<EmailOutboxMessage> batch = outboxRepository.claimBatch(now, leaseUntil, size);
+            if (batch.isEmpty()) {
+                break;
+            }
+            sent += publishBatch(batch);
+            if (batch.size() < size) {
+                break;
+            }
+        }
+        if (sent > 0) {
+            log.info("Outbox de emails: {} mensajes publicados", sent);
+        }
+        return sent;
+    }
+
+    /**
+     * Elimina los mensajes enviados hace mas de {@code retention-days}.
+     */
+    public int purgeSent() {
+        Date cutoff = new Date(System.currentTimeMillis() - Duration.ofDays(Math.max(1, retentionDays)).toMillis());
+        return outboxRepository.deleteSentBefore(cutoff);
+    }
+
+    /**
+     * Publica todo el lote sin esperar mensaje por mensaje y luego espera las confirmaciones.
+     */
+    private int publishBatch(List<EmailOutboxMessage> batch) {
+        Map<EmailOutboxMessage, CompletableFuture<Void>> confirmations = new LinkedHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            CompletableFuture<Void> confirmation;
+            try {
+                confirmation = rabbitMQService.publishPayload(message.getPayload().getBytes(StandardCharsets.UTF_8));
+            } catch (RuntimeException e) {
+                confirmation = CompletableFuture.failedFuture(e);
+            }
+            confirmations.put(message, confirmation);
+        }
+
+        List<String> sentIds = new ArrayList<>();
+        for (Map.Entry<EmailOutboxMessage, CompletableFuture<Void>> entry : confirmations.entrySet()) {
+            EmailOutboxMessage message = entry.getKey();
+            try {
+                entry.getValue().join();
+                sentIds.add(message.getId());
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                scheduleRetry(message, cause);
+            }
+        }
+
+        if (!sentIds.isEmpty()) {
+            outboxRepository.markSent(sentIds, new Date());
+        }
+        return sentIds.size();
+    }
+
+    private void scheduleRetry(EmailOutboxMessage message, Throwable error) {
+        int shift = Math.min(message.getAttempts(), 20);
+        long delaySeconds = Math.min(Math.max(1, retryMaxSeconds), Math.max(1, retryBaseSeconds) << shift);
+        Date availableAt = new Date(System.currentTimeMillis() + Duration.ofSeconds(delaySeconds).toMillis());
+        String errorMessage = String.valueOf(error.getMessage());
+        if (errorMessage.length() > MAX_ERROR_LENGTH) {
+            errorMessage = errorMessage.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        outboxRepository.markFailed(message.getId(), availableAt, errorMessage);
+        log.warn("No se pudo publicar el mensaje {} del outbox (intento {}), se reintenta en {} s: {}",
+                message.getId(), message.getAttempts() + 1, delaySeconds, errorMessage);
+    }
+}
@@ -0,0 +1,113 @@
+package com.nelumbo.park.service.infrastructure;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Cache local acotado por tamano y TTL para datos de referencia que cambian poco. Al superar
+ * el maximo descarta la entrada menos usada; los valores null no se guardan, de modo que una
+ * busqueda sin resultado siempre vuelve a la base de datos.
+ * Publica {@code lookup.cache.hits}, {@code lookup.cache.misses}, {@code lookup.cache.size} y
+ * {@code lookup.cache.hit.ratio} con la etiqueta {@code cache}.
+ */
+public class LookupCache<K, V> {
+
+    private final long ttlMillis;
+    private final Map<K, CachedValue<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public LookupCache(String name, long ttlSeconds, int maxEntries, MeterRegistry meterRegistry) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        Tags tags = Tags.of("cache", name);
+        FunctionCounter.builder("lookup.cache.hits", hits, AtomicLong::get).tags(tags).register(meterRegistry);
+        FunctionCounter.builder("lookup.cache.misses", misses, AtomicLong::get).tags(tags).register(meterRegistry);
+        Gauge.builder("lookup.cache.size", entries, Map::size).tags(tags).register(meterRegistry);
+        Gauge.builder("lookup.cache.hit.ratio", this, LookupCache::hitRatio).tags(tags).register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el valor desde el cache o lo carga con {@code loader} si no esta o ya expiro.
+     * @param key Clave de busqueda
+     * @param loader Consulta a la base de datos; puede devolver null
+     * @return Valor encontrado o null si no existe
+     */
+    public V get(K key, Function<K, V> loader) {
+        CachedValue<V> cached = entries.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return cached.value();
+            }
+            entries.remove(key);
+        }
+
+        misses.incrementAndGet();
+        V value = loader.apply(key);
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Devuelve el valor guardado sin cargarlo ni contarlo en las metricas.
+     */
+    public V getIfPresent(K key) {
+        CachedValue<V> cached = key == null ? null : entries.get(key);
+        return cached != null ? cached.value() : null;
+    }
+
+    public void put(K key, V value) {
+        entries.put(key, new CachedValue<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public void evict(K key) {
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    public void evictAll() {
+        entries.clear();
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return Proporcion de aciertos sobre el total de busquedas, 0 si aun no hay busquedas
+     */
+    public double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record CachedValue<V>(V value, long expiresAt) {
+    }
+}
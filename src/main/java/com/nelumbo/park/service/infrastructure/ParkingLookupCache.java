@@ -0,0 +1,49 @@
+package com.nelumbo.park.service.infrastructure;
+
+import com.nelumbo.park.entity.Parking;
+import com.nelumbo.park.repository.ParkingRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache con TTL de parqueaderos por id. Capacidad, costo por hora y dueño cambian solo al
+ * actualizar o eliminar el parqueadero, que descartan la entrada; el TTL acota el tiempo que
+ * otro nodo puede ver un valor anterior.
+ * El dueño queda como referencia perezosa: {@code getOwner().getId()} no consulta la base de datos.
+ */
+@Component
+public class ParkingLookupCache {
+
+    private final ParkingRepository parkingRepository;
+    private final LookupCache<String, Parking> byId;
+
+    public ParkingLookupCache(
+            ParkingRepository parkingRepository,
+            @Value("${app.parking-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.parking-cache.max-entries:1000}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        this.parkingRepository = parkingRepository;
+        this.byId = new LookupCache<>("parking.id", ttlSeconds, maxEntries, meterRegistry);
+    }
+
+    /**
+     * @param id Id del parqueadero
+     * @return Parqueadero encontrado o null si no existe
+     */
+    public Parking findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        return byId.get(id, parkingRepository::findById);
+    }
+
+    public void evict(String id) {
+        byId.evict(id);
+    }
+
+    public void evictAll() {
+        byId.evictAll();
+    }
+}
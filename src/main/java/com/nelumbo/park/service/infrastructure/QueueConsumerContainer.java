@@ -0,0 +1,264 @@
+package com.nelumbo.park.service.infrastructure;
+
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.Delivery;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumidores concurrentes de una cola. Cada consumidor tiene su propio canal con
+ * {@code basicQos(prefetch)} y el hilo de la conexion solo reparte las entregas: los handlers
+ * corren en hilos virtuales. Los acks se agrupan por canal: se confirma con {@code multiple=true}
+ * el mayor tag contiguo ya procesado cuando se juntan {@code ackBatchSize} mensajes, cuando el
+ * canal no tiene entregas en proceso o al vencer {@code ackFlushMillis}. Un mensaje fallido se
+ * rechaza por separado y sin reencolar, para que la cola lo envie a su dead letter.
+ */
+final class QueueConsumerContainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueueConsumerContainer.class);
+
+    /**
+     * Procesa el cuerpo de una entrega. Cualquier excepcion rechaza el mensaje.
+     */
+    @FunctionalInterface
+    interface DeliveryHandler {
+        void handle(byte[] body) throws Exception;
+    }
+
+    record Settings(int concurrency, int prefetch, int ackBatchSize, long ackFlushMillis,
+                    long lagSampleMillis, long shutdownTimeoutMillis) {
+    }
+
+    private enum Outcome { PENDING, ACK, REJECT }
+
+    private final String queueName;
+    private final DeliveryHandler handler;
+    private final Settings settings;
+    private final List<ChannelConsumer> consumers = new ArrayList<>();
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService timer;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter acked;
+    private final Counter rejected;
+    private final Timer handleTimer;
+
+    QueueConsumerContainer(String queueName, DeliveryHandler handler, Settings settings, MeterRegistry meterRegistry) {
+        this.queueName = queueName;
+        this.handler = handler;
+        this.settings = settings;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rabbitmq-consumer-" + queueName);
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.acked = Counter.builder("rabbitmq.consumer.messages")
+                .tag("queue", queueName).tag("result", "ack").register(meterRegistry);
+        this.rejected = Counter.builder("rabbitmq.consumer.messages")
+                .tag("queue", queueName).tag("result", "nack").register(meterRegistry);
+        this.handleTimer = Timer.builder("rabbitmq.consumer.handle")
+                .tag("queue", queueName).register(meterRegistry);
+        Gauge.builder("rabbitmq.consumer.in.flight", inFlight, AtomicInteger::get)
+                .tag("queue", queueName).register(meterRegistry);
+        Gauge.builder("rabbitmq.consumer.lag", backlog, AtomicLong::get)
+                .tag("queue", queueName).register(meterRegistry);
+    }
+
+    /**
+     * Abre un canal por consumidor y registra los consumidores en la cola.
+     */
+    void start(Connection connection) throws IOException {
+        int concurrency = Math.max(1, settings.concurrency());
+        for (int i = 0; i < concurrency; i++) {
+            Channel channel = connection.createChannel();
+            channel.basicQos(Math.max(1, settings.prefetch()));
+            ChannelConsumer consumer = new ChannelConsumer(channel);
+            consumers.add(consumer);
+            consumer.consumerTag = channel.basicConsume(queueName, false,
+                    (consumerTag, delivery) -> consumer.dispatch(delivery), consumerTag -> {});
+        }
+
+        if (settings.ackFlushMillis() > 0) {
+            timer.scheduleWithFixedDelay(this::flushAll, settings.ackFlushMillis(), settings.ackFlushMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        if (settings.lagSampleMillis() > 0) {
+            timer.scheduleWithFixedDelay(this::sampleBacklog, 0, settings.lagSampleMillis(), TimeUnit.MILLISECONDS);
+        }
+        logger.info("Contenedor de consumidores iniciado para la cola {}: {} consumidores, prefetch {}",
+                queueName, concurrency, settings.prefetch());
+    }
+
+    /**
+     * Cancela los consumidores, espera a los handlers en curso, confirma lo procesado y cierra
+     * los canales. Las entregas que no alcanzan a terminar vuelven a la cola al cerrar el canal.
+     */
+    void stop() {
+        for (ChannelConsumer consumer : consumers) {
+            consumer.cancel();
+        }
+        workers.shutdown();
+        try {
+            if (!workers.awaitTermination(settings.shutdownTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                logger.warn("Handlers de la cola {} sin terminar al detener el contenedor", queueName);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        timer.shutdownNow();
+        for (ChannelConsumer consumer : consumers) {
+            consumer.flushAcks();
+            consumer.close();
+        }
+    }
+
+    private void flushAll() {
+        for (ChannelConsumer consumer : consumers) {
+            consumer.flushAcks();
+        }
+    }
+
+    private void sampleBacklog() {
+        if (consumers.isEmpty()) {
+            return;
+        }
+        try {
+            backlog.set(consumers.get(0).channel.messageCount(queueName));
+        } catch (IOException | RuntimeException e) {
+            logger.debug("No se pudo leer el backlog de la cola {}: {}", queueName, e.getMessage());
+        }
+    }
+
+    /**
+     * Estado de un canal. Los tags de entrega son propios de cada canal, asi que cada uno lleva
+     * sus entregas en proceso y el ultimo tag listo para confirmar.
+     */
+    private final class ChannelConsumer {
+        private final Channel channel;
+        private final NavigableMap<Long, Outcome> deliveries = new TreeMap<>();
+        private volatile String consumerTag;
+        private long readyTag;
+        private int readyCount;
+
+        private ChannelConsumer(Channel channel) {
+            this.channel = channel;
+        }
+
+        private void dispatch(Delivery delivery) {
+            long deliveryTag = delivery.getEnvelope().getDeliveryTag();
+            synchronized (this) {
+                deliveries.put(deliveryTag, Outcome.PENDING);
+            }
+            inFlight.incrementAndGet();
+            try {
+                workers.execute(() -> process(deliveryTag, delivery.getBody()));
+            } catch (RejectedExecutionException e) {
+                complete(deliveryTag, false);
+            }
+        }
+
+        private void process(long deliveryTag, byte[] body) {
+            long startedAt = System.nanoTime();
+            boolean success = false;
+            try {
+                handler.handle(body);
+                success = true;
+            } catch (Exception e) {
+                logger.error("Error procesando mensaje de la cola {}: {}", queueName, e.getMessage());
+            } finally {
+                handleTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                complete(deliveryTag, success);
+            }
+        }
+
+        private synchronized void complete(long deliveryTag, boolean success) {
+            inFlight.decrementAndGet();
+            deliveries.put(deliveryTag, success ? Outcome.ACK : Outcome.REJECT);
+
+            Iterator<Map.Entry<Long, Outcome>> head = deliveries.entrySet().iterator();
+            while (head.hasNext()) {
+                Map.Entry<Long, Outcome> entry = head.next();
+                if (entry.getValue() == Outcome.PENDING) {
+                    break;
+                }
+                head.remove();
+                if (entry.getValue() == Outcome.ACK) {
+                    readyTag = entry.getKey();
+                    readyCount++;
+                } else {
+                    flushAcks();
+                    reject(entry.getKey());
+                }
+            }
+
+            if (readyCount >= Math.max(1, settings.ackBatchSize()) || deliveries.isEmpty()) {
+                flushAcks();
+            }
+        }
+
+        private synchronized void flushAcks() {
+            if (readyCount == 0) {
+                return;
+            }
+            try {
+                channel.basicAck(readyTag, true);
+                acked.increment(readyCount);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Error enviando ACK en la cola {}: {}", queueName, e.getMessage());
+            }
+            readyCount = 0;
+        }
+
+        private void reject(long deliveryTag) {
+            try {
+                channel.basicNack(deliveryTag, false, false);
+                rejected.increment();
+            } catch (IOException | RuntimeException e) {
+                logger.error("Error enviando NACK en la cola {}: {}", queueName, e.getMessage());
+            }
+        }
+
+        private void cancel() {
+            try {
+                if (consumerTag != null && channel.isOpen()) {
+                    channel.basicCancel(consumerTag);
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Error cancelando consumidor de la cola {}: {}", queueName, e.getMessage());
+            }
+        }
+
+        private void close() {
+            try {
+                if (channel.isOpen()) {
+                    channel.close();
+                }
+            } catch (IOException | TimeoutException | RuntimeException e) {
+                logger.warn("Error cerrando canal de consumo de RabbitMQ: {}", e.getMessage());
+            }
+        }
+    }
+}
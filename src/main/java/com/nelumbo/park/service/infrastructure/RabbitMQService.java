@@ -2,15 +2,14 @@ package com.nelumbo.park.service.infrastructure;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nelumbo.park.dto.response.QueueMessageResponse;
-import com.nelumbo.park.exception.exceptions.BackoffExecutionFailedException;
 import com.nelumbo.park.exception.exceptions.RabbitMQConnectionException;
 import com.nelumbo.park.exception.exceptions.RabbitMQConsumerException;
 import com.nelumbo.park.exception.exceptions.RabbitMQMessagePublishException;
-import com.nelumbo.park.utils.BackoffExecutor;
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
 import com.rabbitmq.client.MessageProperties;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Value;
@@ -22,8 +21,18 @@ import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 @Service
@@ -44,10 +53,50 @@ public class RabbitMQService implements DisposableBean {
     @Value("${queue.final.name}")
     private String defaultFinalQueueName;
 
+    @Value("${rabbitmq.publisher.channels:4}")
+    private int publisherChannels;
+
+    @Value("${rabbitmq.publisher.confirm-timeout-ms:30000}")
+    private long confirmTimeoutMillis;
+
+    @Value("${rabbitmq.publisher.borrow-timeout-ms:5000}")
+    private long borrowTimeoutMillis;
+
+    @Value("${rabbitmq.consumer.container-enabled:true}")
+    private boolean consumerContainerEnabled;
+
+    @Value("${rabbitmq.consumer.concurrency:4}")
+    private int consumerConcurrency;
+
+    @Value("${rabbitmq.consumer.prefetch:50}")
+    private int consumerPrefetch;
+
+    @Value("${rabbitmq.consumer.ack-batch-size:25}")
+    private int consumerAckBatchSize;
+
+    @Value("${rabbitmq.consumer.ack-flush-ms:500}")
+    private long consumerAckFlushMillis;
+
+    @Value("${rabbitmq.consumer.lag-sample-ms:5000}")
+    private long consumerLagSampleMillis;
+
+    @Value("${rabbitmq.consumer.shutdown-timeout-ms:10000}")
+    private long consumerShutdownTimeoutMillis;
+
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Queue<PublisherChannel> idlePublishers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger openPublishers = new AtomicInteger();
+    /** Mensajes que esperan un canal libre porque el pool estaba completo. */
+    private final Queue<PendingMessage> awaitingPublisher = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger drainRequests = new AtomicInteger();
+
+    private final List<QueueConsumerContainer> consumerContainers = new CopyOnWriteArrayList<>();
 
-    public RabbitMQService(ObjectMapper objectMapper) {
+    public RabbitMQService(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
     }
 
     protected ConnectionFactory createConnectionFactory() {
@@ -125,7 +174,16 @@ public class RabbitMQService implements DisposableBean {
         sendToQueue(String.format("%s%s", defaultQueueName, defaultFinalQueueName), message);
     }
 
+    /**
+     * Registra {@code callback} como consumidor de la cola. En modo contenedor la cola se consume
+     * con {@code rabbitmq.consumer.concurrency} canales propios y acks agrupados (ver
+     * {@link QueueConsumerContainer}); si no, con un unico consumidor sobre el canal compartido.
+     */
     public void consumeFromQueue(String queueName, Consumer<QueueMessageResponse> callback) {
+        if (consumerContainerEnabled) {
+            startConsumerContainer(queueName, callback);
+            return;
+        }
         if (channel == null) connect(null);
 
         try {
@@ -152,38 +210,182 @@ public class RabbitMQService implements DisposableBean {
         consumeFromQueue(String.format("%s%s", defaultQueueName, defaultFinalQueueName), callback);
     }
 
-    public void publishMessageBackoff(Object message) {
+    QueueConsumerContainer startConsumerContainer(String queueName, Consumer<QueueMessageResponse> callback) {
+        QueueConsumerContainer.Settings settings = new QueueConsumerContainer.Settings(consumerConcurrency,
+                consumerPrefetch, consumerAckBatchSize, consumerAckFlushMillis, consumerLagSampleMillis,
+                consumerShutdownTimeoutMillis);
+        QueueConsumerContainer container = new QueueConsumerContainer(queueName,
+                body -> callback.accept(objectMapper.readValue(body, QueueMessageResponse.class)),
+                settings, meterRegistry);
+        try {
+            container.start(openConnection());
+        } catch (IOException e) {
+            container.stop();
+            throw new RabbitMQConsumerException(String.format("Error configurando consumidor para la cola: %s", queueName), e);
+        }
+        consumerContainers.add(container);
+        return container;
+    }
+
+    /**
+     * Publica un mensaje ya serializado en la cola principal con confirmacion del broker. El
+     * mensaje sale por un canal del pool de publicadores, de modo que los hilos no se serializan
+     * sobre un unico canal. Si el pool esta completo el mensaje queda en espera y lo publica el
+     * siguiente canal que se libere, sin bloquear al hilo que llama; si no hay canal en
+     * {@code borrow-timeout-ms} el futuro falla. Los reintentos quedan a cargo de quien llama.
+     * @param payload Cuerpo JSON del mensaje
+     * @return Futuro que se completa con la confirmacion del broker
+     */
+    public CompletableFuture<Void> publishPayload(byte[] payload) {
+        PendingMessage pending = new PendingMessage(payload);
+        PublisherChannel publisher;
         try {
-            BackoffExecutor<Object> executor = new BackoffExecutor<>(200, 5,
-                    this::publishMessageInternal,
-                    (error, msg) -> logger.error("Final error publishing message after retries: {}", error.getMessage()),
-                    (result, msg) -> logger.info("Published message with backoff successfully."),
-                    (error, msg) -> logger.warn("Retrying message publish due to: {}", error.getMessage())
-            );
-            executor.executeBackoff(message);
-        } catch (BackoffExecutionFailedException e) {
-            throw new RabbitMQMessagePublishException("Fallo final al publicar mensaje con backoff", e);
+            publisher = tryBorrowPublisher();
+        } catch (IOException | RuntimeException e) {
+            pending.result.completeExceptionally(
+                    new RabbitMQMessagePublishException("No se pudo abrir un canal de publicacion", e));
+            return pending.result;
+        }
+
+        if (publisher != null) {
+            publish(publisher, pending);
+        } else {
+            awaitPublisher(pending);
         }
+        return pending.result;
     }
 
-    private boolean publishMessageInternal(Object message) {
+    private void publish(PublisherChannel publisher, PendingMessage pending) {
+        CompletableFuture<Void> confirmation;
+        boolean healthy = false;
         try {
-            if (channel == null || !channel.isOpen() || connection == null || !connection.isOpen()) {
-                logger.warn("Connection or channel is not open. Attempting to reconnect...");
-                connect(null);
+            confirmation = publisher.publish(defaultQueueName, pending.body);
+            healthy = true;
+        } catch (IOException | RuntimeException e) {
+            pending.result.completeExceptionally(new RabbitMQMessagePublishException(
+                    String.format("Error publicando mensaje en la cola: %s", defaultQueueName), e));
+            return;
+        } finally {
+            releasePublisher(publisher, healthy);
+        }
+
+        if (confirmTimeoutMillis > 0) {
+            confirmation = confirmation.orTimeout(confirmTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+        confirmation.whenComplete((ignored, error) -> {
+            if (error == null) {
+                pending.result.complete(null);
+            } else {
+                pending.result.completeExceptionally(error instanceof RabbitMQMessagePublishException
+                        ? error
+                        : new RabbitMQMessagePublishException("El broker no confirmo el mensaje", error));
             }
-            byte[] messageBytes = objectMapper.writeValueAsBytes(message);
-            channel.basicPublish("", defaultQueueName, MessageProperties.PERSISTENT_TEXT_PLAIN, messageBytes);
-            return true;
-        } catch (Exception e) {
-            logger.warn("Failed to publish message: {}", e.getMessage());
-            this.channel = null;
-            return false;
+        });
+    }
+
+    private void awaitPublisher(PendingMessage pending) {
+        awaitingPublisher.offer(pending);
+        CompletableFuture.delayedExecutor(Math.max(1, borrowTimeoutMillis), TimeUnit.MILLISECONDS).execute(() -> {
+            if (awaitingPublisher.remove(pending)) {
+                pending.result.completeExceptionally(
+                        new RabbitMQMessagePublishException("No hay canales de publicacion disponibles"));
+            }
+        });
+        // Un canal pudo liberarse entre el intento de tomarlo y el encolado.
+        drainAwaiting();
+    }
+
+    /**
+     * Publica los mensajes en espera mientras haya canales libres. Solo un hilo recorre la cola a
+     * la vez; si otro pide un recorrido mientras tanto, el hilo activo da una vuelta mas, de modo
+     * que liberar un canal desde una publicacion en curso no anida llamadas.
+     */
+    private void drainAwaiting() {
+        if (drainRequests.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            while (!awaitingPublisher.isEmpty()) {
+                PublisherChannel publisher;
+                try {
+                    publisher = tryBorrowPublisher();
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("No se pudo abrir un canal para los mensajes en espera: {}", e.getMessage());
+                    break;
+                }
+                if (publisher == null) {
+                    break;
+                }
+                PendingMessage pending = awaitingPublisher.poll();
+                if (pending == null) {
+                    idlePublishers.offer(publisher);
+                    break;
+                }
+                publish(publisher, pending);
+            }
+        } while (drainRequests.decrementAndGet() != 0);
+    }
+
+    /**
+     * Toma un canal libre del pool, o abre uno nuevo si aun no se alcanza el maximo.
+     * @return El canal, o null si el pool esta completo y no hay canales libres
+     */
+    private PublisherChannel tryBorrowPublisher() throws IOException {
+        PublisherChannel publisher = idlePublishers.poll();
+        while (publisher != null && !publisher.isOpen()) {
+            openPublishers.decrementAndGet();
+            publisher = idlePublishers.poll();
+        }
+        if (publisher != null) {
+            return publisher;
+        }
+
+        int limit = Math.max(1, publisherChannels);
+        if (openPublishers.incrementAndGet() <= limit) {
+            try {
+                return new PublisherChannel(openConnection().createChannel());
+            } catch (IOException | RuntimeException e) {
+                openPublishers.decrementAndGet();
+                throw e;
+            }
+        }
+        openPublishers.decrementAndGet();
+        return null;
+    }
+
+    private void releasePublisher(PublisherChannel publisher, boolean healthy) {
+        if (healthy && publisher.isOpen()) {
+            idlePublishers.offer(publisher);
+        } else {
+            openPublishers.decrementAndGet();
+            publisher.close();
+        }
+        if (!awaitingPublisher.isEmpty()) {
+            drainAwaiting();
         }
     }
 
+    private synchronized Connection openConnection() {
+        if (connection == null || !connection.isOpen()) {
+            logger.warn("Connection is not open. Attempting to reconnect...");
+            connect(null);
+        }
+        return connection;
+    }
+
     @Override
     public void destroy() {
+        consumerContainers.forEach(QueueConsumerContainer::stop);
+        consumerContainers.clear();
+        PendingMessage pending;
+        while ((pending = awaitingPublisher.poll()) != null) {
+            pending.result.completeExceptionally(
+                    new RabbitMQMessagePublishException("El servicio de RabbitMQ se esta deteniendo"));
+        }
+        PublisherChannel publisher;
+        while ((publisher = idlePublishers.poll()) != null) {
+            publisher.close();
+        }
         try {
             if (channel != null && channel.isOpen()) {
                 channel.close();
@@ -199,4 +401,80 @@ public class RabbitMQService implements DisposableBean {
             logger.warn("Error cerrando conexión de RabbitMQ: {}", e.getMessage());
         }
     }
+
+    private static final class PendingMessage {
+        private final byte[] body;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private PendingMessage(byte[] body) {
+            this.body = body;
+        }
+    }
+
+    /**
+     * Canal en modo confirmacion. Guarda el futuro de cada mensaje por numero de secuencia; una
+     * confirmacion con {@code multiple} resuelve de una vez todos los mensajes hasta esa secuencia.
+     * Si el canal se cierra, los mensajes sin confirmar fallan y se reintentan por otro canal.
+     */
+    private static final class PublisherChannel {
+        private final Channel channel;
+        private final ConcurrentNavigableMap<Long, CompletableFuture<Void>> outstanding = new ConcurrentSkipListMap<>();
+
+        private PublisherChannel(Channel channel) throws IOException {
+            this.channel = channel;
+            channel.confirmSelect();
+            channel.addConfirmListener(
+                    (deliveryTag, multiple) -> settle(deliveryTag, multiple, null),
+                    (deliveryTag, multiple) -> settle(deliveryTag, multiple,
+                            new RabbitMQMessagePublishException("El broker rechazo el mensaje")));
+            channel.addShutdownListener(cause -> failOutstanding(
+                    new RabbitMQMessagePublishException("El canal de publicacion se cerro", cause)));
+        }
+
+        private CompletableFuture<Void> publish(String queueName, byte[] body) throws IOException {
+            CompletableFuture<Void> confirmation = new CompletableFuture<>();
+            long sequence = channel.getNextPublishSeqNo();
+            outstanding.put(sequence, confirmation);
+            try {
+                channel.basicPublish("", queueName, MessageProperties.PERSISTENT_TEXT_PLAIN, body);
+            } catch (IOException | RuntimeException e) {
+                outstanding.remove(sequence);
+                throw e;
+            }
+            return confirmation;
+        }
+
+        private void settle(long deliveryTag, boolean multiple, RuntimeException error) {
+            NavigableMap<Long, CompletableFuture<Void>> settled = multiple
+                    ? outstanding.headMap(deliveryTag, true)
+                    : outstanding.subMap(deliveryTag, true, deliveryTag, true);
+            settled.values().forEach(confirmation -> {
+                if (error == null) {
+                    confirmation.complete(null);
+                } else {
+                    confirmation.completeExceptionally(error);
+                }
+            });
+            settled.clear();
+        }
+
+        private void failOutstanding(RuntimeException error) {
+            outstanding.values().forEach(confirmation -> confirmation.completeExceptionally(error));
+            outstanding.clear();
+        }
+
+        private boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        private void close() {
+            try {
+                if (channel.isOpen()) {
+                    channel.close();
+                }
+            } catch (IOException | TimeoutException | RuntimeException e) {
+                logger.warn("Error cerrando canal de publicacion de RabbitMQ: {}", e.getMessage());
+            }
+        }
+    }
 }
@@ -0,0 +1,177 @@
+package com.nelumbo.park.service.infrastructure;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Cache de los rankings por ventana (semana, mes, rango o alcance). Cada entrada es fresca
+ * durante {@code ttl-seconds}; despues, y hasta {@code stale-seconds} mas, se sigue sirviendo
+ * mientras se recalcula en segundo plano. Las peticiones concurrentes sobre una clave sin valor
+ * utilizable esperan un unico calculo en lugar de lanzar cada una la misma consulta.
+ * Cada valor lleva un ETag calculado sobre su JSON para que los clientes revaliden con 304.
+ */
+@Component
+public class RankingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RankingCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final long ttlMillis;
+    private final long staleMillis;
+    private final Map<String, StoredRanking> entries;
+    private final Map<String, CompletableFuture<StoredRanking>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+
+    public RankingCache(
+            ObjectMapper objectMapper,
+            @Value("${app.rankings.cache.ttl-seconds:30}") long ttlSeconds,
+            @Value("${app.rankings.cache.stale-seconds:300}") long staleSeconds,
+            @Value("${app.rankings.cache.max-entries:200}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.staleMillis = staleSeconds * 1000;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredRanking> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        this.hits = Counter.builder("ranking.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.staleHits = Counter.builder("ranking.cache.requests").tag("result", "stale").register(meterRegistry);
+        this.misses = Counter.builder("ranking.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Devuelve el ranking de la clave desde el cache, recalculandolo con {@code loader} si hace falta.
+     * @param key Clave de la ventana, p. ej. {@code parking-rankings:week:2026-10-12}
+     * @param loader Calculo del ranking; sus excepciones llegan al llamador si no hay valor previo
+     * @return Valor con su ETag y la vigencia restante
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Cached<T> get(String key, Supplier<T> loader) {
+        long now = System.currentTimeMillis();
+        StoredRanking entry = entries.get(key);
+
+        if (entry != null && now < entry.freshUntil()) {
+            hits.increment();
+        } else if (entry != null && now < entry.freshUntil() + staleMillis) {
+            staleHits.increment();
+            load(key, loader, true);
+        } else {
+            misses.increment();
+            entry = join(load(key, loader, false));
+            now = System.currentTimeMillis();
+        }
+
+        long maxAgeSeconds = Math.max(0, entry.freshUntil() - now) / 1000;
+        return new Cached<>((T) entry.value(), entry.etag(), maxAgeSeconds, staleMillis / 1000);
+    }
+
+    public void evictAll() {
+        entries.clear();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Inicia el calculo de la clave o se une al que ya esta en curso. El calculo sincrono corre en
+     * el hilo del llamador; el de refresco, en un hilo virtual.
+     */
+    private CompletableFuture<StoredRanking> load(String key, Supplier<?> loader, boolean background) {
+        CompletableFuture<StoredRanking> created = new CompletableFuture<>();
+        CompletableFuture<StoredRanking> running = inFlight.putIfAbsent(key, created);
+        if (running != null) {
+            return running;
+        }
+
+        Runnable task = () -> {
+            try {
+                Object value = loader.get();
+                StoredRanking entry = new StoredRanking(value, etag(value), System.currentTimeMillis() + ttlMillis);
+                entries.put(key, entry);
+                created.complete(entry);
+            } catch (Throwable e) {
+                if (background) {
+                    logger.warn("No se pudo refrescar el ranking {}; se mantiene el valor anterior: {}",
+                            key, e.getMessage());
+                }
+                created.completeExceptionally(e);
+            } finally {
+                inFlight.remove(key, created);
+            }
+        };
+
+        if (background) {
+            try {
+                refreshExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                inFlight.remove(key, created);
+                created.completeExceptionally(e);
+            }
+        } else {
+            task.run();
+        }
+        return created;
+    }
+
+    private StoredRanking join(CompletableFuture<StoredRanking> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String etag(Object value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(objectMapper.writeValueAsBytes(value));
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular el ETag del ranking", e);
+        }
+    }
+
+    private record StoredRanking(Object value, String etag, long freshUntil) {
+    }
+
+    /**
+     * @param maxAgeSeconds Segundos que el valor sigue fresco
+     * @param staleSeconds Segundos que el cliente puede usarlo vencido mientras revalida
+     */
+    public record Cached<T>(T value, String etag, long maxAgeSeconds, long staleSeconds) {
+    }
+}
@@ -3,30 +3,47 @@ package com.nelumbo.park.service.infrastructure;
 import com.nelumbo.park.exception.exceptions.S3ConnectivityException;
 import com.nelumbo.park.exception.exceptions.S3FileRetrievalException;
 import com.nelumbo.park.exception.exceptions.S3FileUploadException;
+import com.nelumbo.park.service.infrastructure.storage.ObjectStorage;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.GetObjectRequest;
-import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
 
+/**
+ * Subida y consulta de archivos sobre el {@link ObjectStorage} configurado. Como maximo
+ * {@code app.storage.upload-concurrency} subidas estan en curso a la vez; las demas esperan un
+ * turno en el hilo que las pide.
+ */
 @Service
 @Slf4j
 public class S3Service {
 
-    private final S3Client s3Client;
+    private final ObjectStorage objectStorage;
+    private final Semaphore uploadPermits;
 
-    @Value("${r2.bucket.name}")
-    private String bucketName;
+    public S3Service(ObjectStorage objectStorage,
+                     @Value("${app.storage.upload-concurrency:8}") int uploadConcurrency) {
+        this.objectStorage = objectStorage;
+        this.uploadPermits = new Semaphore(Math.max(1, uploadConcurrency));
+    }
 
-    public S3Service(S3Client s3Client) {
-        this.s3Client = s3Client;
+    /**
+     * Archivo en memoria para {@link #uploadFiles(List)}.
+     */
+    public record FileUpload(byte[] buffer, String contentType, String fileName) {
     }
 
     /**
@@ -37,63 +54,34 @@ public class S3Service {
      * @return Mapa con la clave del archivo subido
      */
     public Map<String, String> uploadFile(byte[] buffer, String contentType, String fileName) {
-        if (buffer == null || buffer.length == 0) {
-            throw new IllegalArgumentException("El parámetro buffer debe ser un array de bytes válido");
-        }
-
-        try {
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileName)
-                    .contentType(contentType)
-                    .build();
-
-            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(buffer));
-            return Map.of("Key", fileName);
-        } catch (S3Exception error) {
-            throw new S3FileUploadException(String.format("Error de S3 subiendo archivo: %s", error.getMessage()), error);
-        } catch (Exception error) {
-            if (error.getCause() instanceof UnknownHostException) {
-                throw new S3ConnectivityException("Error de conectividad con S3: Verifique la configuración del endpoint y la conectividad de red", error);
-            } else {
-                throw new S3FileUploadException(String.format("Error subiendo archivo: %s", error.getMessage()), error);
-            }
-        }
+        validateBuffer(buffer);
+        return awaitUpload(uploadBytes(buffer, contentType, fileName), fileName, "");
     }
 
     /**
-     * Verifica la existencia de un archivo en el bucket S3
+     * Verifica la existencia de un archivo en el bucket S3 con una peticion HEAD, sin descargarlo
      * @param filename Nombre del archivo a verificar
      * @return Mapa con la clave del archivo y si existe
      */
     public Map<String, Object> getFile(String filename) {
         try {
-            GetObjectRequest getObjectRequest = GetObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(filename)
-                    .build();
-
-            s3Client.getObject(getObjectRequest);
-
+            boolean exists = objectStorage.exists(filename);
             return Map.of(
                     "key", filename,
-                    "exists", true
+                    "exists", exists
             );
-        } catch (NoSuchKeyException error) {
-            return Map.of(
-                    "key", filename,
-                    "exists", false
-            );
-        } catch (S3Exception error) {
-            throw new S3FileRetrievalException(String.format("Error de S3 verificando archivo: %s", error.getMessage()), error);
-        } catch (Exception error) {
-            if (error.getCause() instanceof UnknownHostException) {
+        } catch (Exception exception) {
+            Throwable error = unwrap(exception);
+            if (error instanceof S3Exception) {
+                throw new S3FileRetrievalException(String.format("Error de S3 verificando archivo: %s", error.getMessage()), error);
+            } else if (error.getCause() instanceof UnknownHostException) {
                 throw new S3ConnectivityException("Error de conectividad con S3: Verifique la configuración del endpoint y la conectividad de red", error);
             } else {
                 throw new S3FileRetrievalException(String.format("Error verificando existencia del archivo: %s", error.getMessage()), error);
             }
         }
     }
+
     /**
      * Sube un archivo directamente a S3 sin verificación previa de existencia
      * @param buffer Array de bytes del archivo
@@ -102,30 +90,132 @@ public class S3Service {
      * @return Mapa con la clave del archivo subido
      */
     public Map<String, String> uploadFileDirectly(byte[] buffer, String contentType, String fileName) {
-        if (buffer == null || buffer.length == 0) {
-            throw new IllegalArgumentException("El parámetro buffer debe ser un array de bytes válido");
+        validateBuffer(buffer);
+        try {
+            return awaitUpload(uploadBytes(buffer, contentType, fileName), fileName, " directamente");
+        } catch (S3ConnectivityException error) {
+            log.error("Error de conectividad subiendo archivo directamente {}: No se puede resolver el host S3", fileName);
+            throw error;
+        } catch (S3FileUploadException error) {
+            log.error("Error subiendo archivo directamente \"{}\": {}", fileName, error.getCause().getMessage());
+            throw error;
+        }
+    }
+
+    /**
+     * Sube un archivo local al bucket S3 leyendolo por partes, sin cargarlo completo en memoria
+     * @param file Ruta del archivo a subir
+     * @param contentType Tipo de contenido del archivo
+     * @param fileName Nombre del archivo en el bucket
+     * @return Mapa con la clave del archivo subido
+     */
+    public Map<String, String> uploadFile(Path file, String contentType, String fileName) {
+        return awaitUpload(withPermit(() -> objectStorage.upload(fileName, file, contentType)), fileName, "");
+    }
+
+    /**
+     * Sube el contenido de un stream sin cargarlo completo en memoria. El stream no se cierra.
+     * @param content Contenido del archivo
+     * @param contentLength Numero de bytes a leer del stream
+     * @param contentType Tipo de contenido del archivo
+     * @param fileName Nombre del archivo en el bucket
+     * @return Mapa con la clave del archivo subido
+     */
+    public Map<String, String> uploadFile(InputStream content, long contentLength, String contentType, String fileName) {
+        return awaitUpload(withPermit(() -> objectStorage.upload(fileName, content, contentLength, contentType)),
+                fileName, "");
+    }
+
+    /**
+     * Sube varios archivos en paralelo respetando el limite de subidas en curso. Espera a que
+     * terminen todas y, si alguna fallo, lanza el error de la primera.
+     * @param files Archivos a subir
+     * @return Un mapa con la clave de cada archivo, en el mismo orden
+     */
+    public List<Map<String, String>> uploadFiles(List<FileUpload> files) {
+        files.forEach(file -> validateBuffer(file.buffer()));
+
+        List<CompletableFuture<Void>> uploads = new ArrayList<>(files.size());
+        for (FileUpload file : files) {
+            uploads.add(uploadBytes(file.buffer(), file.contentType(), file.fileName()));
+        }
+
+        List<Map<String, String>> results = new ArrayList<>(files.size());
+        RuntimeException firstError = null;
+        for (int i = 0; i < files.size(); i++) {
+            try {
+                results.add(awaitUpload(uploads.get(i), files.get(i).fileName(), ""));
+            } catch (RuntimeException error) {
+                if (firstError == null) {
+                    firstError = error;
+                }
+            }
+        }
+        if (firstError != null) {
+            throw firstError;
+        }
+        return results;
+    }
+
+    /**
+     * Genera una URL firmada para descargar un archivo del bucket sin pasar por la API
+     * @param key Clave del archivo en el bucket
+     * @param downloadName Nombre con el que el navegador guarda el archivo
+     * @param ttl Tiempo de validez de la URL
+     * @return URL firmada
+     */
+    public String generateDownloadUrl(String key, String downloadName, Duration ttl) {
+        return objectStorage.downloadUrl(key, downloadName, ttl);
+    }
+
+    private CompletableFuture<Void> uploadBytes(byte[] buffer, String contentType, String fileName) {
+        return withPermit(() -> objectStorage.upload(fileName, new ByteArrayInputStream(buffer), buffer.length, contentType));
+    }
+
+    /**
+     * Inicia la subida cuando hay un turno libre y lo devuelve al terminar.
+     */
+    private CompletableFuture<Void> withPermit(Supplier<CompletableFuture<Void>> upload) {
+        try {
+            uploadPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
         }
 
+        CompletableFuture<Void> started;
         try {
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucketName)
-                    .key(fileName)
-                    .contentType(contentType)
-                    .build();
+            started = upload.get();
+        } catch (RuntimeException e) {
+            uploadPermits.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        return started.whenComplete((ignored, error) -> uploadPermits.release());
+    }
 
-            s3Client.putObject(putObjectRequest, RequestBody.fromBytes(buffer));
+    private Map<String, String> awaitUpload(CompletableFuture<Void> upload, String fileName, String detail) {
+        try {
+            upload.join();
             return Map.of("Key", fileName);
-        } catch (S3Exception error) {
-            log.error("Error de S3 subiendo archivo directamente \"{}\": {}", fileName, error.getMessage());
-            throw new S3FileUploadException(String.format("Error de S3 subiendo archivo directamente: %s", error.getMessage()), error);
-        } catch (Exception error) {
-            if (error.getCause() instanceof UnknownHostException) {
-                log.error("Error de conectividad subiendo archivo directamente {}: No se puede resolver el host S3", fileName);
+        } catch (Exception exception) {
+            Throwable error = unwrap(exception);
+            if (error instanceof S3Exception) {
+                throw new S3FileUploadException(String.format("Error de S3 subiendo archivo%s: %s", detail, error.getMessage()), error);
+            } else if (error.getCause() instanceof UnknownHostException) {
                 throw new S3ConnectivityException("Error de conectividad con S3: Verifique la configuración del endpoint y la conectividad de red", error);
             } else {
-                log.error("Error subiendo archivo directamente \"{}\": {}", fileName, error.getMessage());
                 throw new S3FileUploadException(String.format("Error subiendo archivo: %s", error.getMessage()), error);
             }
         }
     }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static void validateBuffer(byte[] buffer) {
+        if (buffer == null || buffer.length == 0) {
+            throw new IllegalArgumentException("El parámetro buffer debe ser un array de bytes válido");
+        }
+    }
 }
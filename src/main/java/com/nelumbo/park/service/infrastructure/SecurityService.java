@@ -2,7 +2,6 @@ package com.nelumbo.park.service.infrastructure;
 
 import com.nelumbo.park.entity.User;
 import com.nelumbo.park.exception.exceptions.JwtUserNotFoundException;
-import com.nelumbo.park.repository.UserRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -10,21 +9,28 @@ import org.springframework.stereotype.Service;
 @Service
 public class SecurityService {
 
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
 
-    public SecurityService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public SecurityService(UserLookupCache userLookupCache) {
+        this.userLookupCache = userLookupCache;
     }
 
+    /**
+     * Devuelve el usuario autenticado. El filtro JWT deja el usuario en los detalles de la
+     * autenticacion, por lo que normalmente no se consulta de nuevo durante la peticion.
+     */
     public User getCurrentUser() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication == null || !authentication.isAuthenticated()) {
             return null;
         }
 
+        if (authentication.getDetails() instanceof User user) {
+            return user;
+        }
 
         String id = authentication.getName();
-        User user = userRepository.findByIdUser(id);
+        User user = userLookupCache.findById(id);
 
         if (user == null) {
             throw new JwtUserNotFoundException("El usuario no se encuentra en la base de datos. Por favor verifica tu correo electrónico.");
@@ -0,0 +1,92 @@
+package com.nelumbo.park.service.infrastructure;
+
+import com.nelumbo.park.entity.User;
+import com.nelumbo.park.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache con TTL de usuarios por id, email y nombre de usuario, usado para validar la existencia
+ * y el rol del usuario autenticado, el login y los duplicados sin consultar la base de datos en
+ * cada peticion. Un usuario cargado por cualquiera de las claves queda disponible por las tres.
+ */
+@Component
+public class UserLookupCache {
+
+    private final UserRepository userRepository;
+    private final LookupCache<String, User> byId;
+    private final LookupCache<String, User> byEmail;
+    private final LookupCache<String, User> byUsername;
+
+    public UserLookupCache(
+            UserRepository userRepository,
+            @Value("${app.security.user-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.security.user-cache.max-entries:1000}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.byId = new LookupCache<>("user.id", ttlSeconds, maxEntries, meterRegistry);
+        this.byEmail = new LookupCache<>("user.email", ttlSeconds, maxEntries, meterRegistry);
+        this.byUsername = new LookupCache<>("user.username", ttlSeconds, maxEntries, meterRegistry);
+    }
+
+    /**
+     * Busca el usuario en el cache y, si no esta o ya expiro, en la base de datos.
+     * @param id Id del usuario
+     * @return Usuario encontrado o null si no existe
+     */
+    public User findById(String id) {
+        return byId.get(id, key -> remember(userRepository.findByIdUser(key)));
+    }
+
+    public User findByEmail(String email) {
+        return byEmail.get(email, key -> remember(userRepository.findByEmail(key)));
+    }
+
+    public User findByUsername(String username) {
+        return byUsername.get(username, key -> remember(userRepository.findByName(key)));
+    }
+
+    public void evict(String id) {
+        User cached = byId.getIfPresent(id);
+        byId.evict(id);
+        if (cached != null) {
+            byEmail.evict(cached.getEmail());
+            byUsername.evict(cached.getUsername());
+        }
+    }
+
+    /**
+     * Descarta el usuario por sus tres claves, aunque no se haya cargado por id.
+     */
+    public void evict(User user) {
+        if (user == null) {
+            return;
+        }
+        byId.evict(user.getId());
+        byEmail.evict(user.getEmail());
+        byUsername.evict(user.getUsername());
+    }
+
+    public void evictAll() {
+        byId.evictAll();
+        byEmail.evictAll();
+        byUsername.evictAll();
+    }
+
+    private User remember(User user) {
+        if (user != null) {
+            if (user.getId() != null) {
+                byId.put(user.getId(), user);
+            }
+            if (user.getEmail() != null) {
+                byEmail.put(user.getEmail(), user);
+            }
+            if (user.getUsername() != null) {
+                byUsername.put(user.getUsername(), user);
+            }
+        }
+        return user;
+    }
+}
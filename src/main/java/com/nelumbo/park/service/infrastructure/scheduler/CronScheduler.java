@@ -1,6 +1,10 @@
 package com.nelumbo.park.service.infrastructure.scheduler;
 
+import com.nelumbo.park.service.ParkingOccupancyService;
+import com.nelumbo.park.service.PlateVisitRankingService;
+import com.nelumbo.park.service.ReportJobService;
 import com.nelumbo.park.service.infrastructure.CronService;
+import com.nelumbo.park.service.infrastructure.EmailOutboxService;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
@@ -10,11 +14,26 @@ import org.slf4j.LoggerFactory;
 public class CronScheduler {
 
     private final CronService cronService;
+    private final ParkingOccupancyService occupancyService;
+    private final ParkingRollupBackfill rollupBackfill;
+    private final PlateVisitRankingService visitRankingService;
+    private final EmailOutboxService emailOutboxService;
+    private final VehicleArchiver vehicleArchiver;
+    private final ReportJobService reportJobService;
 
     private static final Logger logger = LoggerFactory.getLogger(CronScheduler.class);
 
-    public CronScheduler(CronService cronService) {
+    public CronScheduler(CronService cronService, ParkingOccupancyService occupancyService,
+                         ParkingRollupBackfill rollupBackfill, PlateVisitRankingService visitRankingService,
+                         EmailOutboxService emailOutboxService, VehicleArchiver vehicleArchiver,
+                         ReportJobService reportJobService) {
         this.cronService = cronService;
+        this.occupancyService = occupancyService;
+        this.rollupBackfill = rollupBackfill;
+        this.visitRankingService = visitRankingService;
+        this.emailOutboxService = emailOutboxService;
+        this.vehicleArchiver = vehicleArchiver;
+        this.reportJobService = reportJobService;
     }
 
     @Scheduled(cron = "${cron.determination}", zone = "America/Bogota")
@@ -25,4 +44,51 @@ public class CronScheduler {
         }
         logger.info("Ejecucion de la tarea exitosa");
     }
-}
\ No newline at end of file
+
+    @Scheduled(cron = "${cron.occupancy.reconcile:0 */5 * * * *}", zone = "America/Bogota")
+    public void reconcileOccupancy() {
+        int repaired = occupancyService.reconcile();
+        logger.info("Reconciliacion de ocupacion completada. Parqueaderos corregidos: {}", repaired);
+    }
+
+    @Scheduled(cron = "${cron.rollup.backfill:0 30 3 * * *}", zone = "America/Bogota")
+    public void backfillRollups() {
+        int buckets = rollupBackfill.backfillRecent();
+        logger.info("Recalculo de acumulados horarios completado. Buckets escritos: {}", buckets);
+    }
+
+    @Scheduled(cron = "${cron.rankings.visits.refresh:0 */5 * * * *}", zone = "America/Bogota")
+    public void refreshVisitRankings() {
+        visitRankingService.refresh();
+    }
+
+    @Scheduled(cron = "${cron.rankings.visits.rebuild:0 45 3 * * *}", zone = "America/Bogota")
+    public void rebuildVisitCounters() {
+        int rows = visitRankingService.rebuild();
+        logger.info("Reconstruccion de contadores de visitas completada. Filas: {}", rows);
+    }
+
+    @Scheduled(cron = "${cron.outbox.relay:*/5 * * * * *}", zone = "America/Bogota")
+    public void relayEmailOutbox() {
+        emailOutboxService.relay();
+    }
+
+    @Scheduled(cron = "${cron.outbox.purge:0 15 4 * * *}", zone = "America/Bogota")
+    public void purgeEmailOutbox() {
+        int deleted = emailOutboxService.purgeSent();
+        logger.info("Limpieza del outbox de emails completada. Mensajes eliminados: {}", deleted);
+    }
+
+    @Scheduled(cron = "${cron.archive.vehicles:0 */5 * * * *}", zone = "America/Bogota")
+    public void archiveVehicles() {
+        int archived = vehicleArchiver.archiveSettled();
+        if (archived > 0) {
+            logger.info("Archivado de vehiculos completado. Vehiculos movidos a vehicle_history: {}", archived);
+        }
+    }
+
+    @Scheduled(cron = "${cron.reports.jobs.expire:*/30 * * * * *}", zone = "America/Bogota")
+    public void failExpiredReportJobs() {
+        reportJobService.failExpiredJobs();
+    }
+}
@@ -0,0 +1,71 @@
+package com.nelumbo.park.service.infrastructure.scheduler;
+
+import com.nelumbo.park.service.ParkingRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+/**
+ * Carga por lotes de los acumulados horarios. Al arrancar llena la tabla si esta vacia y el
+ * cron vuelve a calcular las ultimas horas cerradas para corregir incrementos perdidos.
+ * Cada dia se recalcula en su propia transaccion.
+ */
+@Service
+public class ParkingRollupBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParkingRollupBackfill.class);
+
+    private final ParkingRollupService rollupService;
+    private final long lookbackHours;
+
+    public ParkingRollupBackfill(
+            ParkingRollupService rollupService,
+            @Value("${app.rollup.backfill.lookback-hours:48}") long lookbackHours
+    ) {
+        this.rollupService = rollupService;
+        this.lookbackHours = lookbackHours;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!rollupService.isEmpty()) {
+            return;
+        }
+        Date firstEntry = rollupService.findFirstEntryTime();
+        if (firstEntry == null) {
+            return;
+        }
+        int buckets = backfill(firstEntry, new Date());
+        logger.info("Carga inicial de acumulados horarios completada: {} buckets", buckets);
+    }
+
+    /**
+     * Recalcula las ultimas horas cerradas; la hora en curso solo se actualiza de forma incremental.
+     * @return Numero de buckets escritos
+     */
+    public int backfillRecent() {
+        Date to = ParkingRollupService.bucketOf(new Date());
+        Date from = Date.from(to.toInstant().minus(lookbackHours, ChronoUnit.HOURS));
+        return backfill(from, to);
+    }
+
+    public int backfill(Date from, Date to) {
+        int buckets = 0;
+        Date chunkStart = ParkingRollupService.bucketOf(from);
+        while (chunkStart.before(to)) {
+            Date chunkEnd = Date.from(chunkStart.toInstant().plus(1, ChronoUnit.DAYS));
+            if (chunkEnd.after(to)) {
+                chunkEnd = to;
+            }
+            buckets += rollupService.rebuild(chunkStart, chunkEnd);
+            chunkStart = chunkEnd;
+        }
+        return buckets;
+    }
+}
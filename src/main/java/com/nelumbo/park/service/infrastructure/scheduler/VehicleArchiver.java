@@ -0,0 +1,111 @@
+package com.nelumbo.park.service.infrastructure.scheduler;
+
+import com.nelumbo.park.repository.VehicleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mueve a {@code vehicle_history} los vehiculos cuya salida ya se liquido hace mas de
+ * {@code app.archive.settle-minutes}, para que {@code vehicles} solo guarde los estacionados y
+ * las salidas recientes. Cada lote es una sentencia atomica, asi que una ejecucion interrumpida
+ * se retoma en la siguiente desde la salida mas antigua pendiente. Antes de mover se crean las
+ * particiones mensuales que hagan falta.
+ */
+@Service
+public class VehicleArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(VehicleArchiver.class);
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final VehicleRepository vehicleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Set<YearMonth> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.settle-minutes:15}")
+    private long settleMinutes;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.archive.max-batches:200}")
+    private int maxBatches;
+
+    @Value("${app.archive.months-ahead:2}")
+    private int monthsAhead;
+
+    public VehicleArchiver(VehicleRepository vehicleRepository, JdbcTemplate jdbcTemplate) {
+        this.vehicleRepository = vehicleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Archiva lotes hasta que no queden salidas liquidadas o se alcance {@code app.archive.max-batches}.
+     * @return Numero de vehiculos archivados
+     */
+    public int archiveSettled() {
+        if (!enabled) {
+            return 0;
+        }
+
+        Date settledBefore = Date.from(new Date().toInstant().minus(settleMinutes, ChronoUnit.MINUTES));
+        Date oldest = vehicleRepository.findOldestSettledExit(settledBefore);
+        if (oldest == null) {
+            return 0;
+        }
+        ensurePartitions(YearMonth.from(toLocalDate(oldest)), YearMonth.now().plusMonths(monthsAhead));
+
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int moved = vehicleRepository.archiveSettledBatch(settledBefore, batchSize);
+            archived += moved;
+            if (moved < batchSize || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Crea las particiones mensuales de {@code vehicle_history} entre {@code from} y {@code to}
+     * que aun no existan. Si la particion por defecto ya tiene filas de un mes, ese mes no se
+     * puede separar y sus filas siguen en la particion por defecto.
+     */
+    void ensurePartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            if (knownPartitions.contains(month)) {
+                continue;
+            }
+            LocalDate start = month.atDay(1);
+            String sql = String.format(
+                    "CREATE TABLE IF NOT EXISTS vehicle_history_p%s PARTITION OF vehicle_history " +
+                    "FOR VALUES FROM ('%s') TO ('%s')",
+                    month.format(PARTITION_SUFFIX), start, start.plusMonths(1));
+            try {
+                jdbcTemplate.execute(sql);
+                knownPartitions.add(month);
+            } catch (DataAccessException e) {
+                logger.warn("No se pudo crear la particion de vehicle_history para {}: {}", month, e.getMessage());
+            }
+        }
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
@@ -0,0 +1,87 @@
+package com.nelumbo.park.service.infrastructure.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Backend sobre un directorio local, para correr sin R2 y para medir el pipeline sin red.
+ * Cada objeto se escribe primero en un archivo temporal y se mueve a su clave al terminar, de
+ * modo que nunca se ve un objeto a medio escribir.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "local")
+public class LocalObjectStorage implements ObjectStorage {
+
+    private final Path root;
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LocalObjectStorage(@Value("${app.storage.local.root:${java.io.tmpdir}/park-storage}") String root) {
+        this.root = Path.of(root).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public CompletableFuture<Void> upload(String key, InputStream content, long contentLength, String contentType) {
+        Path target = resolve(key);
+        return CompletableFuture.runAsync(() -> write(target, content), writers);
+    }
+
+    @Override
+    public CompletableFuture<Void> upload(String key, Path file, String contentType) {
+        Path target = resolve(key);
+        return CompletableFuture.runAsync(() -> {
+            try (InputStream content = Files.newInputStream(file)) {
+                write(target, content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, writers);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    /**
+     * El almacenamiento local no firma URLs: devuelve la ruta del archivo y {@code ttl} no aplica.
+     */
+    @Override
+    public String downloadUrl(String key, String downloadName, Duration ttl) {
+        return resolve(key).toUri().toString();
+    }
+
+    private Path resolve(String key) {
+        Path target = root.resolve(key).normalize();
+        if (!target.startsWith(root) || target.equals(root)) {
+            throw new IllegalArgumentException(String.format("Clave de objeto invalida: %s", key));
+        }
+        return target;
+    }
+
+    private static void write(Path target, InputStream content) {
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            try {
+                Files.copy(content, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.nelumbo.park.service.infrastructure.storage;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Almacenamiento de objetos donde se guardan los reportes. El backend se elige con
+ * {@code app.storage.backend}: {@code s3} para el bucket de R2 o {@code local} para un
+ * directorio del disco.
+ */
+public interface ObjectStorage {
+
+    /**
+     * Sube el contenido leyendolo del stream a medida que se envia. El stream debe seguir
+     * abierto hasta que el futuro se complete.
+     * @param key Clave del objeto
+     * @param content Contenido a subir
+     * @param contentLength Numero de bytes que se leeran del stream
+     * @param contentType Tipo de contenido del objeto
+     * @return Futuro que se completa cuando el objeto quedo guardado
+     */
+    CompletableFuture<Void> upload(String key, InputStream content, long contentLength, String contentType);
+
+    /**
+     * Sube un archivo local leyendolo por partes.
+     */
+    CompletableFuture<Void> upload(String key, Path file, String contentType);
+
+    /**
+     * Verifica si el objeto existe sin descargar su contenido.
+     */
+    boolean exists(String key);
+
+    /**
+     * URL temporal para descargar el objeto sin pasar por la API.
+     */
+    String downloadUrl(String key, String downloadName, Duration ttl);
+}
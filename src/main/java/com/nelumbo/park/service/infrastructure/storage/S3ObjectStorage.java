@@ -0,0 +1,108 @@
+package com.nelumbo.park.service.infrastructure.storage;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Backend sobre el bucket de R2 con el cliente asincrono de S3. El cliente tiene multipart
+ * habilitado, asi que los objetos por encima del umbral se suben en partes en paralelo. Los
+ * streams se leen en hilos virtuales para no bloquear los hilos del cliente HTTP.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3ObjectStorage implements ObjectStorage, DisposableBean {
+
+    private static final int NOT_FOUND = 404;
+
+    private final S3AsyncClient s3AsyncClient;
+    private final S3Presigner s3Presigner;
+    private final ExecutorService streamReaders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${r2.bucket.name}")
+    private String bucketName;
+
+    public S3ObjectStorage(S3AsyncClient s3AsyncClient, S3Presigner s3Presigner) {
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3Presigner = s3Presigner;
+    }
+
+    @Override
+    public CompletableFuture<Void> upload(String key, InputStream content, long contentLength, String contentType) {
+        PutObjectRequest request = putRequest(key, contentType).toBuilder().contentLength(contentLength).build();
+        return s3AsyncClient.putObject(request, AsyncRequestBody.fromInputStream(content, contentLength, streamReaders))
+                .thenApply(response -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> upload(String key, Path file, String contentType) {
+        return s3AsyncClient.putObject(putRequest(key, contentType), AsyncRequestBody.fromFile(file))
+                .thenApply(response -> null);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        HeadObjectRequest request = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .build();
+        try {
+            s3AsyncClient.headObject(request).join();
+            return true;
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof NoSuchKeyException
+                    || (cause instanceof S3Exception s3Exception && s3Exception.statusCode() == NOT_FOUND)) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public String downloadUrl(String key, String downloadName, Duration ttl) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .responseContentDisposition("attachment; filename=\"" + downloadName + "\"")
+                .build();
+
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(ttl)
+                .getObjectRequest(getObjectRequest)
+                .build();
+
+        return s3Presigner.presignGetObject(presignRequest).url().toString();
+    }
+
+    @Override
+    public void destroy() {
+        streamReaders.shutdown();
+    }
+
+    private PutObjectRequest putRequest(String key, String contentType) {
+        return PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .build();
+    }
+}
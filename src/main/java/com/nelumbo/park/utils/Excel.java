@@ -4,68 +4,80 @@ import com.nelumbo.park.dto.response.VehicleDetailResponse;
 import com.nelumbo.park.dto.response.VehicleOutDetailResponse;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFFont;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Component;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Reporte Excel por usuario. Se escribe con {@link SXSSFWorkbook}: solo las ultimas
+ * {@link #ROW_WINDOW} filas de cada hoja quedan en memoria y el resto se vuelca a un
+ * archivo temporal comprimido, por lo que el heap usado no crece con el numero de vehiculos.
+ */
 @Component("report")
 public class Excel {
 
+    static final int ROW_WINDOW = 200;
+    private static final String CURRENCY_FORMAT = "$#,##0.00";
+
     public byte[] generarExcelPorUsuario(List<VehicleOutDetailResponse> data) throws IOException {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            writeExcelPorUsuario(data, out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Escribe el reporte directamente en {@code out}, sin construir el libro completo en memoria.
+     * El stream no se cierra.
+     */
+    public void writeExcelPorUsuario(List<VehicleOutDetailResponse> data, OutputStream out) throws IOException {
         if (data == null || data.isEmpty()) {
             throw new IllegalArgumentException("generarExcelPorUsuario: 'data' vacío o inválido");
         }
 
-        try (XSSFWorkbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW)) {
+            workbook.setCompressTempFiles(true);
+            Styles styles = new Styles(workbook);
 
             for (VehicleOutDetailResponse item : data) {
-                createUserSheet(workbook, item);
+                createUserSheet(workbook, item, styles);
             }
 
             workbook.write(out);
-            return out.toByteArray();
         }
     }
 
-    private void createUserSheet(XSSFWorkbook workbook, VehicleOutDetailResponse item) {
+    private void createUserSheet(Workbook workbook, VehicleOutDetailResponse item, Styles styles) {
         String sheetName = Optional.ofNullable(item.getUsername()).orElse("usuario");
         sheetName = sheetName.length() > 31 ? sheetName.substring(0, 31) : sheetName;
 
-        XSSFSheet sheet = workbook.createSheet(sheetName);
-        CellStyle boldStyle = createBoldStyle(workbook);
+        Sheet sheet = workbook.createSheet(sheetName);
 
-        createSheetHeaders(sheet, item, boldStyle);
-        processVehicleData(sheet, item, boldStyle);
         configureColumnWidths(sheet);
+        createSheetHeaders(sheet, item, styles);
+        processVehicleData(sheet, item, styles);
         sheet.setAutoFilter(new CellRangeAddress(2, 2, 0, 4));
     }
 
-    private CellStyle createBoldStyle(XSSFWorkbook workbook) {
-        CellStyle boldStyle = workbook.createCellStyle();
-        XSSFFont boldFont = workbook.createFont();
-        boldFont.setBold(true);
-        boldFont.setFontHeightInPoints((short) 12);
-        boldStyle.setFont(boldFont);
-        return boldStyle;
-    }
-
-    private void createSheetHeaders(XSSFSheet sheet, VehicleOutDetailResponse item, CellStyle boldStyle) {
+    private void createSheetHeaders(Sheet sheet, VehicleOutDetailResponse item, Styles styles) {
         String nameParking = Optional.ofNullable(item.getParking()).orElse("").toLowerCase();
 
         // Fila título
         Row titleRow = sheet.createRow(0);
         Cell titleCell = titleRow.createCell(0);
         titleCell.setCellValue("Usuario: " + item.getUsername() + "  |  Parqueadero a cargo: " + nameParking);
-        titleCell.setCellStyle(boldStyle);
+        titleCell.setCellStyle(styles.bold);
         sheet.addMergedRegion(new CellRangeAddress(0, 0, 0, 5));
 
         // Encabezados
@@ -75,17 +87,17 @@ public class Excel {
         for (int i = 0; i < headers.length; i++) {
             Cell cell = headerRow.createCell(i);
             cell.setCellValue(headers[i]);
-            cell.setCellStyle(boldStyle);
+            cell.setCellStyle(styles.bold);
         }
     }
 
-    private int processVehicleData(XSSFSheet sheet, VehicleOutDetailResponse item, CellStyle boldStyle) {
+    private int processVehicleData(Sheet sheet, VehicleOutDetailResponse item, Styles styles) {
         int rowIndex = 3;
         List<VehicleDetailResponse> vehicles = item.getVehicles();
 
         if (vehicles != null && !vehicles.isEmpty()) {
-            rowIndex = addVehicleRows(sheet, vehicles, rowIndex);
-            addSubtotalRow(sheet, item, rowIndex, boldStyle);
+            rowIndex = addVehicleRows(sheet, vehicles, rowIndex, styles);
+            addSubtotalRow(sheet, item, rowIndex, styles);
         } else {
             addNoDataMessage(sheet, rowIndex);
         }
@@ -93,10 +105,8 @@ public class Excel {
         return rowIndex;
     }
 
-    private int addVehicleRows(XSSFSheet sheet, List<VehicleDetailResponse> vehicles, int startRowIndex) {
+    private int addVehicleRows(Sheet sheet, List<VehicleDetailResponse> vehicles, int startRowIndex, Styles styles) {
         int rowIndex = startRowIndex;
-        CellStyle currencyStyle = sheet.getWorkbook().createCellStyle();
-        currencyStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("$#,##0.00"));
         for (int i = 0; i < vehicles.size(); i++) {
             VehicleDetailResponse v = vehicles.get(i);
             Row row = sheet.createRow(rowIndex++);
@@ -106,43 +116,66 @@ public class Excel {
             row.createCell(3).setCellValue(Optional.ofNullable(v.getDayEntry()).orElse(""));
             row.createCell(4).setCellValue(Optional.ofNullable(v.getDayExit()).orElse(""));
             Cell costCell = row.createCell(5);
-            costCell.setCellValue(v.getTotalCost());
-            costCell.setCellStyle(currencyStyle);
+            costCell.setCellValue(v.getTotalCost().doubleValue());
+            costCell.setCellStyle(styles.currency);
         }
         return rowIndex;
     }
 
-    private void addSubtotalRow(XSSFSheet sheet, VehicleOutDetailResponse item, int rowIndex, CellStyle boldStyle) {
+    private void addSubtotalRow(Sheet sheet, VehicleOutDetailResponse item, int rowIndex, Styles styles) {
         Row subtotalRow = sheet.createRow(rowIndex);
         Cell labelCell = subtotalRow.createCell(4);
         labelCell.setCellValue("Subtotal:");
-        labelCell.setCellStyle(boldStyle);
+        labelCell.setCellStyle(styles.bold);
         Cell subtotalCell = subtotalRow.createCell(5);
 
-        CellStyle boldCurrencyStyle = sheet.getWorkbook().createCellStyle();
-        boldCurrencyStyle.cloneStyleFrom(boldStyle);
-        boldCurrencyStyle.setDataFormat(sheet.getWorkbook().createDataFormat().getFormat("$#,##0.00"));
-
         if (item.getTotalEarnings() != null) {
-            subtotalCell.setCellValue(item.getTotalEarnings());
+            subtotalCell.setCellValue(item.getTotalEarnings().doubleValue());
         } else {
             String formula = String.format("SUM(F4:F%d)", rowIndex);
             subtotalCell.setCellFormula(formula);
         }
-        subtotalCell.setCellStyle(boldCurrencyStyle);
+        subtotalCell.setCellStyle(styles.boldCurrency);
     }
 
-    private void addNoDataMessage(XSSFSheet sheet, int rowIndex) {
+    private void addNoDataMessage(Sheet sheet, int rowIndex) {
         sheet.createRow(rowIndex);
-        sheet.createRow((int) ((double) rowIndex + 1)).createCell(0).setCellValue("Sin registros de vehículos");
+        sheet.createRow(rowIndex + 1).createCell(0).setCellValue("Sin registros de vehículos");
     }
 
-    private void configureColumnWidths(XSSFSheet sheet) {
+    private void configureColumnWidths(Sheet sheet) {
         int[] colWidths = {5, 15, 25, 15, 15, 17};
         for (int i = 0; i < colWidths.length; i++) {
             sheet.setColumnWidth(i, (int) (colWidths[i] * 256.0));
         }
     }
 
+    /**
+     * Estilos compartidos por todas las hojas de un libro; un libro admite un numero limitado
+     * de estilos, por lo que se crean una sola vez.
+     */
+    private static final class Styles {
+        private final CellStyle bold;
+        private final CellStyle currency;
+        private final CellStyle boldCurrency;
+
+        private Styles(Workbook workbook) {
+            Font boldFont = workbook.createFont();
+            boldFont.setBold(true);
+            boldFont.setFontHeightInPoints((short) 12);
+
+            DataFormat dataFormat = workbook.createDataFormat();
+            short currencyFormat = dataFormat.getFormat(CURRENCY_FORMAT);
+
+            bold = workbook.createCellStyle();
+            bold.setFont(boldFont);
 
-}
\ No newline at end of file
+            currency = workbook.createCellStyle();
+            currency.setDataFormat(currencyFormat);
+
+            boldCurrency = workbook.createCellStyle();
+            boldCurrency.cloneStyleFrom(bold);
+            boldCurrency.setDataFormat(currencyFormat);
+        }
+    }
+}
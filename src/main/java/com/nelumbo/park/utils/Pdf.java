@@ -2,179 +2,261 @@ package com.nelumbo.park.utils;
 
 import com.nelumbo.park.dto.response.VehicleDetailResponse;
 import com.nelumbo.park.dto.response.VehicleOutDetailResponse;
+import org.apache.pdfbox.io.IOUtils;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Reporte PDF por usuario. El logo se lee una sola vez del classpath y se inserta en cada
+ * documento como un unico XObject compartido por todas sus paginas; las fuentes estandar se
+ * crean una vez por documento, ya que PDFBox no permite compartirlas entre documentos ni
+ * hilos. La tabla de vehiculos continua en paginas nuevas, repitiendo el
+ * encabezado, cuando no cabe en la actual.
+ */
 @Component("pdfReport")
 public class Pdf {
 
+    private static final Logger logger = LoggerFactory.getLogger(Pdf.class);
+
+    static final String LOGO_PATH = "images/logo.png";
+
+    private static final float MARGIN = 50;
+    private static final float TABLE_WIDTH = 500;
+    private static final float ROW_HEIGHT = 20;
+    private static final float FIRST_PAGE_TABLE_TOP = 670;
+    private static final float NEXT_PAGE_TABLE_TOP = 750;
+    private static final float TABLE_BOTTOM = 60;
+    private static final String[] HEADERS = {"#", "Placa", "Modelo", "Fecha Entrada", "Fecha Salida", "Dinero Generado"};
+    private static final float[] COL_WIDTHS = {30, 80, 110, 90, 90, 100};
+
+    private final byte[] logo;
+
+    public Pdf() {
+        this.logo = loadLogo();
+    }
+
     public byte[] generarPdfPorUsuario(List<VehicleOutDetailResponse> data) throws IOException {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            writePdfPorUsuario(data, out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Escribe el reporte en {@code out}. El contenido de las paginas se guarda en archivos
+     * temporales mientras se construye el documento, no en el heap. El stream no se cierra.
+     */
+    public void writePdfPorUsuario(List<VehicleOutDetailResponse> data, OutputStream out) throws IOException {
         if (data == null || data.isEmpty()) {
             throw new IllegalArgumentException("generarPdfPorUsuario: 'data' vacío o inválido");
         }
 
-        try (PDDocument document = new PDDocument();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        try (PDDocument document = new PDDocument(IOUtils.createTempFileOnlyStreamCache())) {
+            PDImageXObject logoImage = logo != null
+                    ? PDImageXObject.createFromByteArray(document, logo, LOGO_PATH)
+                    : null;
+            Fonts fonts = new Fonts();
 
             for (VehicleOutDetailResponse item : data) {
-                createUserPage(document, item);
+                writeUserPages(document, item, logoImage, fonts);
             }
 
             document.save(out);
-            return out.toByteArray();
         }
     }
 
-    private void createUserPage(PDDocument document, VehicleOutDetailResponse item) throws IOException {
-        PDPage page = new PDPage();
-        document.addPage(page);
-
-        try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
-            // Add logo
-            try {
-                PDImageXObject logo = PDImageXObject.createFromFile("src/main/resources/images/nelumbo.png", document);
-                contentStream.drawImage(logo, 50, 720, 100, 50); // Adjust position and size as needed
-            } catch (IOException e) {
-                // Handle logo not found, maybe log a warning
-            }
+    private void writeUserPages(PDDocument document, VehicleOutDetailResponse item, PDImageXObject logoImage,
+                                Fonts fonts) throws IOException {
+        PageWriter writer = new PageWriter(document, fonts);
+        try {
+            PDPageContentStream contentStream = writer.newPage();
+            drawHeader(contentStream, item, logoImage, fonts);
+            drawTable(writer, item);
+        } finally {
+            writer.close();
+        }
+    }
 
-            String username = Optional.ofNullable(item.getUsername()).orElse("usuario");
-            String parkingName = Optional.ofNullable(item.getParking()).orElse("").toLowerCase();
+    private void drawHeader(PDPageContentStream contentStream, VehicleOutDetailResponse item,
+                            PDImageXObject logoImage, Fonts fonts) throws IOException {
+        if (logoImage != null) {
+            contentStream.drawImage(logoImage, MARGIN, 720, 100, 50);
+        }
 
-            // Title
-            contentStream.beginText();
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 12);
-            contentStream.newLineAtOffset(160, 750); // Adjust position to be next to the logo
-            contentStream.showText("Usuario: " + username + "  |  Parqueadero a cargo: " + parkingName);
-            contentStream.endText();
+        String username = Optional.ofNullable(item.getUsername()).orElse("usuario");
+        String parkingName = Optional.ofNullable(item.getParking()).orElse("").toLowerCase();
+        List<VehicleDetailResponse> vehicles = Optional.ofNullable(item.getVehicles()).orElse(Collections.emptyList());
 
-            // Text
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
-            float yPosition = 705; // Below the logo
-            String text1 = "En la última hora se ha registrado un total de " + item.getVehicles().size() +
-                    " vehículos en parqueadero " + parkingName + "." + "El total de dinero generado por el parqueadero es de " + item.getTotalEarnings();
+        // Title
+        showText(contentStream, fonts.bold, 12, 160, 750,
+                "Usuario: " + username + "  |  Parqueadero a cargo: " + parkingName);
 
-            String text2 = "A continuación encontrarás con más detalle el registro";
+        // Text
+        showText(contentStream, fonts.regular, 10, MARGIN, 705,
+                "En la última hora se ha registrado un total de " + vehicles.size() +
+                        " vehículos en parqueadero " + parkingName + "." +
+                        "El total de dinero generado por el parqueadero es de " + item.getTotalEarnings());
+        showText(contentStream, fonts.regular, 10, MARGIN, 690,
+                "A continuación encontrarás con más detalle el registro");
+    }
 
-            contentStream.beginText();
-            contentStream.newLineAtOffset(50, yPosition);
-            contentStream.showText(text1);
-            contentStream.endText();
+    private void drawTable(PageWriter writer, VehicleOutDetailResponse item) throws IOException {
+        Fonts fonts = writer.fonts;
+        float y = drawTableHeader(writer.current(), fonts, FIRST_PAGE_TABLE_TOP);
+        List<VehicleDetailResponse> vehicles = item.getVehicles();
 
-            yPosition -= 15; // Move down for the next line
+        if (vehicles == null || vehicles.isEmpty()) {
+            showText(writer.current(), fonts.regular, 10, MARGIN, y - ROW_HEIGHT, "Sin registros de vehículos");
+            return;
+        }
 
-            contentStream.beginText();
-            contentStream.newLineAtOffset(50, yPosition);
-            contentStream.showText(text2);
-            contentStream.endText();
+        int rowNum = 1;
+        for (VehicleDetailResponse v : vehicles) {
+            if (y - ROW_HEIGHT < TABLE_BOTTOM) {
+                y = drawTableHeader(writer.newPage(), fonts, NEXT_PAGE_TABLE_TOP);
+            }
+            y -= ROW_HEIGHT;
 
-            // Table
-            drawTable(contentStream, item);
+            String[] rowData = {
+                    String.valueOf(rowNum++),
+                    Optional.ofNullable(v.getPlateNumber()).orElse(""),
+                    Optional.ofNullable(v.getModelVehicle()).orElse(""),
+                    Optional.ofNullable(v.getDayEntry()).orElse(""),
+                    Optional.ofNullable(v.getDayExit()).orElse(""),
+                    String.format("$%,.2f", v.getTotalCost())
+            };
+            drawRow(writer.current(), fonts.regular, rowData, y);
+        }
 
-            // Footer
-            drawFooter(contentStream);
+        // Subtotal
+        y -= ROW_HEIGHT * 1.5f;
+        if (y < TABLE_BOTTOM) {
+            writer.newPage();
+            y = NEXT_PAGE_TABLE_TOP;
         }
+        float subtotalLabelX = MARGIN + COL_WIDTHS[0] + COL_WIDTHS[1] + COL_WIDTHS[2] + COL_WIDTHS[3];
+        showText(writer.current(), fonts.bold, 10, subtotalLabelX, y, "Subtotal:");
+        showText(writer.current(), fonts.bold, 10, subtotalLabelX + COL_WIDTHS[4], y,
+                String.format("$%,.2f", item.getTotalEarnings()));
     }
 
-    private void drawTable(PDPageContentStream contentStream, VehicleOutDetailResponse item) throws IOException {
-        final float margin = 50;
-        final float yStart = 670; // Adjusted yStart to make space for the new text
-        final float tableWidth = 500;
-        final float rowHeight = 20;
-        final float tableTopY = yStart - rowHeight;
-
-        // Headers
-        String[] headers = {"#", "Placa", "Modelo", "Fecha Entrada", "Fecha Salida", "Dinero Generado"};
-        float[] colWidths = {30, 80, 110, 90, 90, 100};
-
-        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 10);
-        float nextX = margin;
-        float y = yStart;
-
-        for (int i = 0; i < headers.length; i++) {
-            contentStream.beginText();
-            contentStream.newLineAtOffset(nextX + 5, y - 15); // Add some padding
-            contentStream.showText(headers[i]);
-            contentStream.endText();
-            nextX += colWidths[i];
+    /**
+     * @return Posicion vertical de la linea base sobre la que se dibuja la primera fila
+     */
+    private float drawTableHeader(PDPageContentStream contentStream, Fonts fonts, float yStart) throws IOException {
+        float nextX = MARGIN;
+        for (int i = 0; i < HEADERS.length; i++) {
+            showText(contentStream, fonts.bold, 10, nextX + 5, yStart - 15, HEADERS[i]);
+            nextX += COL_WIDTHS[i];
         }
 
-        // Draw header separator line
         contentStream.setStrokingColor(Color.BLACK);
-        contentStream.moveTo(margin, y - rowHeight);
-        contentStream.lineTo(margin + tableWidth, y - rowHeight);
+        contentStream.moveTo(MARGIN, yStart - ROW_HEIGHT);
+        contentStream.lineTo(MARGIN + TABLE_WIDTH, yStart - ROW_HEIGHT);
         contentStream.stroke();
+        return yStart - ROW_HEIGHT;
+    }
 
-        // Table data
-        List<VehicleDetailResponse> vehicles = item.getVehicles();
-        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 10);
-        y = tableTopY;
-
-        if (vehicles != null && !vehicles.isEmpty()) {
-            int rowNum = 1;
-            for (VehicleDetailResponse v : vehicles) {
-                y -= rowHeight;
-                nextX = margin;
-
-                String[] rowData = {
-                        String.valueOf(rowNum++),
-                        Optional.ofNullable(v.getPlateNumber()).orElse(""),
-                        Optional.ofNullable(v.getModelVehicle()).orElse(""),
-                        Optional.ofNullable(v.getDayEntry()).orElse(""),
-                        Optional.ofNullable(v.getDayExit()).orElse(""),
-                        String.format("$%,.2f", v.getTotalCost())
-                };
-
-                for (int i = 0; i < rowData.length; i++) {
-                    contentStream.beginText();
-                    contentStream.newLineAtOffset(nextX + 5, y); // Add some padding
-                    contentStream.showText(rowData[i]);
-                    contentStream.endText();
-                    nextX += colWidths[i];
-                }
-            }
-            // Draw subtotal
-            y -= rowHeight * 1.5; // A bit of space
-            contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD), 10);
-
-            float subtotalLabelX = margin + colWidths[0] + colWidths[1] + colWidths[2] + colWidths[3];
-            contentStream.beginText();
-            contentStream.newLineAtOffset(subtotalLabelX, y);
-            contentStream.showText("Subtotal:");
-            contentStream.endText();
-
-            float subtotalValueX = subtotalLabelX + colWidths[4];
-            contentStream.beginText();
-            contentStream.newLineAtOffset(subtotalValueX, y);
-            contentStream.showText(String.format("$%,.2f", item.getTotalEarnings()));
-            contentStream.endText();
-
-        } else {
-            y -= rowHeight;
-            contentStream.beginText();
-            contentStream.newLineAtOffset(margin, y);
-            contentStream.showText("Sin registros de vehículos");
-            contentStream.endText();
+    private void drawRow(PDPageContentStream contentStream, PDType1Font font, String[] rowData, float y)
+            throws IOException {
+        contentStream.beginText();
+        contentStream.setFont(font, 10);
+        float previousX = 0;
+        float nextX = MARGIN + 5;
+        for (int i = 0; i < rowData.length; i++) {
+            contentStream.newLineAtOffset(nextX - previousX, i == 0 ? y : 0);
+            contentStream.showText(rowData[i]);
+            previousX = nextX;
+            nextX += COL_WIDTHS[i];
         }
+        contentStream.endText();
     }
 
-    private void drawFooter(PDPageContentStream contentStream) throws IOException {
-        float footerY = 30;
-        contentStream.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA_OBLIQUE), 8);
+    private static void drawFooter(PDPageContentStream contentStream, PDType1Font font, int pageNumber)
+            throws IOException {
+        showText(contentStream, font, 8, MARGIN, 30,
+                "Reporte generado por Nelumbo Park.  Página " + pageNumber);
+    }
+
+    private static void showText(PDPageContentStream contentStream, PDType1Font font, float size,
+                                 float x, float y, String text) throws IOException {
         contentStream.beginText();
-        contentStream.newLineAtOffset(50, footerY);
-        contentStream.showText("Reporte generado por Nelumbo Park.");
+        contentStream.setFont(font, size);
+        contentStream.newLineAtOffset(x, y);
+        contentStream.showText(text);
         contentStream.endText();
     }
+
+    private static byte[] loadLogo() {
+        try (InputStream in = new ClassPathResource(LOGO_PATH).getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            logger.warn("No se encontro el logo {} en el classpath; los PDF se generaran sin logo", LOGO_PATH);
+            return null;
+        }
+    }
+
+    /**
+     * Fuentes estandar de un documento. Se crean por documento porque las instancias de
+     * {@link PDType1Font} guardan estado del documento en el que se usan.
+     */
+    private static final class Fonts {
+        private final PDType1Font regular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        private final PDType1Font bold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
+        private final PDType1Font footer = new PDType1Font(Standard14Fonts.FontName.HELVETICA_OBLIQUE);
+    }
+
+    /**
+     * Abre una pagina a la vez: al pedir una nueva cierra el content stream de la anterior
+     * despues de dibujar su pie de pagina.
+     */
+    private static final class PageWriter {
+        private final PDDocument document;
+        private final Fonts fonts;
+        private PDPageContentStream current;
+        private int pageNumber;
+
+        private PageWriter(PDDocument document, Fonts fonts) {
+            this.document = document;
+            this.fonts = fonts;
+        }
+
+        private PDPageContentStream current() {
+            return current;
+        }
+
+        private PDPageContentStream newPage() throws IOException {
+            close();
+            PDPage page = new PDPage();
+            document.addPage(page);
+            current = new PDPageContentStream(document, page);
+            pageNumber++;
+            return current;
+        }
+
+        private void close() throws IOException {
+            if (current != null) {
+                drawFooter(current, fonts.footer, pageNumber);
+                current.close();
+                current = null;
+            }
+        }
+    }
 }
@@ -0,0 +1,134 @@
+package com.nelumbo.park.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mantiene las K claves con mayor conteo. Es un min-heap indexado por clave: actualizar una
+ * clave que ya esta en el top cuesta O(log K) y el minimo queda en la raiz para decidir en
+ * O(1) si una clave nueva entra. Los conteos solo deben crecer; si bajan hay que recargar
+ * el tracker desde la fuente con {@link #reset(Map)}.
+ */
+public class TopKTracker {
+
+    private final int capacity;
+    private final List<String> keys;
+    private final List<Long> counts;
+    private final Map<String, Integer> positions;
+
+    public TopKTracker(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser mayor que cero");
+        }
+        this.capacity = capacity;
+        this.keys = new ArrayList<>(capacity);
+        this.counts = new ArrayList<>(capacity);
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Registra el conteo actual de la clave.
+     * @return true si la clave quedo dentro del top
+     */
+    public synchronized boolean offer(String key, long count) {
+        Integer position = positions.get(key);
+        if (position != null) {
+            long previous = counts.get(position);
+            counts.set(position, count);
+            if (count >= previous) {
+                siftDown(position);
+            } else {
+                siftUp(position);
+            }
+            return true;
+        }
+
+        if (keys.size() < capacity) {
+            keys.add(key);
+            counts.add(count);
+            positions.put(key, keys.size() - 1);
+            siftUp(keys.size() - 1);
+            return true;
+        }
+
+        if (count <= counts.get(0)) {
+            return false;
+        }
+
+        positions.remove(keys.get(0));
+        keys.set(0, key);
+        counts.set(0, count);
+        positions.put(key, 0);
+        siftDown(0);
+        return true;
+    }
+
+    public synchronized void reset(Map<String, Long> entries) {
+        keys.clear();
+        counts.clear();
+        positions.clear();
+        entries.forEach(this::offer);
+    }
+
+    /**
+     * @return Las claves del top ordenadas de mayor a menor conteo
+     */
+    public synchronized List<Map.Entry<String, Long>> snapshot() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            entries.add(Map.entry(keys.get(i), counts.get(i)));
+        }
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        return entries;
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts.get(parent) <= counts.get(position)) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        int size = keys.size();
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts.get(left) < counts.get(smallest)) {
+                smallest = left;
+            }
+            if (right < size && counts.get(right) < counts.get(smallest)) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        String key = keys.get(i);
+        long count = counts.get(i);
+        keys.set(i, keys.get(j));
+        counts.set(i, counts.get(j));
+        keys.set(j, key);
+        counts.set(j, count);
+        positions.put(keys.get(i), i);
+        positions.put(keys.get(j), j);
+    }
+}
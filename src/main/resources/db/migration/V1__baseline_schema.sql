@@ -0,0 +1,132 @@
+-- Esquema base, equivalente al que generaba spring.jpa.hibernate.ddl-auto=update.
+-- Flyway marca las bases existentes en la version 0 (spring.flyway.baseline-on-migrate), asi
+-- que este script tambien corre sobre ellas: todo es IF NOT EXISTS y solo crea lo que falte.
+
+CREATE TABLE IF NOT EXISTS users_table (
+    id       VARCHAR(255) NOT NULL,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email    VARCHAR(255) NOT NULL,
+    role     VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_users_table PRIMARY KEY (id),
+    CONSTRAINT uk_users_table_username UNIQUE (username),
+    CONSTRAINT uk_users_table_email UNIQUE (email)
+);
+
+CREATE TABLE IF NOT EXISTS parking_lot (
+    id          VARCHAR(255) NOT NULL,
+    name        VARCHAR(255) NOT NULL,
+    address     VARCHAR(255) NOT NULL,
+    capacity    INTEGER      NOT NULL,
+    costPerHour REAL         NOT NULL,
+    occupied    INTEGER      NOT NULL DEFAULT 0,
+    id_owner    VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_parking_lot PRIMARY KEY (id),
+    CONSTRAINT fk_parking_lot_owner FOREIGN KEY (id_owner) REFERENCES users_table (id)
+);
+
+CREATE TABLE IF NOT EXISTS vehicles (
+    id            VARCHAR(255)   NOT NULL,
+    plate_number  VARCHAR(255)   NOT NULL,
+    model_vehicle VARCHAR(255)   NOT NULL,
+    entry_time    TIMESTAMP(6)   NOT NULL,
+    exit_time     TIMESTAMP(6),
+    cost_per_hour REAL           NOT NULL,
+    total_cost    NUMERIC(12, 2),
+    first_visit   BOOLEAN,
+    status        VARCHAR(255)   NOT NULL,
+    id_parking    VARCHAR(255)   NOT NULL,
+    id_admin      VARCHAR(255)   NOT NULL,
+    CONSTRAINT pk_vehicles PRIMARY KEY (id),
+    CONSTRAINT fk_vehicles_parking FOREIGN KEY (id_parking) REFERENCES parking_lot (id),
+    CONSTRAINT fk_vehicles_admin FOREIGN KEY (id_admin) REFERENCES users_table (id)
+);
+
+-- Columnas agregadas a entidades que ya existian. En las bases creadas con ddl-auto las tablas
+-- ya estan, asi que el CREATE TABLE anterior no hace nada y hay que agregarlas aqui.
+ALTER TABLE parking_lot ADD COLUMN IF NOT EXISTS occupied INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE vehicles ADD COLUMN IF NOT EXISTS total_cost NUMERIC(12, 2);
+ALTER TABLE vehicles ADD COLUMN IF NOT EXISTS first_visit BOOLEAN;
+
+-- Valores de las filas existentes, antes de crear los indices que los usan. En una base nueva
+-- no hay filas y no hacen nada.
+UPDATE parking_lot p SET occupied = (
+    SELECT COUNT(*) FROM vehicles v WHERE v.id_parking = p.id AND v.status = 'IN');
+
+UPDATE vehicles SET total_cost = ROUND(CAST(cost_per_hour AS numeric) *
+        CEIL(FLOOR(ABS(EXTRACT(EPOCH FROM (exit_time - entry_time))) / 60) / 60), 2)
+WHERE exit_time IS NOT NULL AND total_cost IS NULL;
+
+UPDATE vehicles v SET first_visit = (v.entry_time =
+        (SELECT MIN(h.entry_time) FROM vehicles h WHERE h.plate_number = v.plate_number))
+WHERE v.first_visit IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_vehicles_plate_number ON vehicles (plate_number);
+CREATE INDEX IF NOT EXISTS idx_vehicles_first_visit_status ON vehicles (first_visit, status);
+
+CREATE TABLE IF NOT EXISTS login_log (
+    id          UUID         NOT NULL,
+    username    VARCHAR(255),
+    email       VARCHAR(255),
+    description VARCHAR(255),
+    date        TIMESTAMP(6),
+    CONSTRAINT pk_login_log PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS parking_hourly_stats (
+    id_parking      VARCHAR(255)   NOT NULL,
+    bucket_start    TIMESTAMP(6)   NOT NULL,
+    entries         BIGINT         NOT NULL,
+    exits           BIGINT         NOT NULL,
+    revenue         NUMERIC(14, 2) NOT NULL,
+    distinct_plates BIGINT         NOT NULL,
+    CONSTRAINT pk_parking_hourly_stats PRIMARY KEY (id_parking, bucket_start)
+);
+
+CREATE TABLE IF NOT EXISTS parking_hourly_plates (
+    id_parking   VARCHAR(255) NOT NULL,
+    bucket_start TIMESTAMP(6) NOT NULL,
+    plate_number VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_parking_hourly_plates PRIMARY KEY (id_parking, bucket_start, plate_number)
+);
+
+CREATE TABLE IF NOT EXISTS plate_visit_counters (
+    scope        VARCHAR(255) NOT NULL,
+    plate_number VARCHAR(255) NOT NULL,
+    visits       BIGINT       NOT NULL,
+    CONSTRAINT pk_plate_visit_counters PRIMARY KEY (scope, plate_number)
+);
+
+CREATE INDEX IF NOT EXISTS idx_plate_visit_counters_scope_visits ON plate_visit_counters (scope, visits);
+
+CREATE TABLE IF NOT EXISTS report_jobs (
+    id            VARCHAR(255) NOT NULL,
+    requested_by  VARCHAR(255) NOT NULL,
+    id_parking    VARCHAR(255) NOT NULL,
+    from_time     TIMESTAMP(6) NOT NULL,
+    to_time       TIMESTAMP(6) NOT NULL,
+    format        VARCHAR(255) NOT NULL,
+    status        VARCHAR(255) NOT NULL,
+    file_name     VARCHAR(255),
+    file_key      VARCHAR(255),
+    error_message VARCHAR(255),
+    created_at    TIMESTAMP(6) NOT NULL,
+    finished_at   TIMESTAMP(6),
+    CONSTRAINT pk_report_jobs PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_report_jobs_status ON report_jobs (status);
+
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id           VARCHAR(255) NOT NULL,
+    payload      TEXT         NOT NULL,
+    status       VARCHAR(255) NOT NULL,
+    attempts     INTEGER      NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    available_at TIMESTAMP(6) NOT NULL,
+    sent_at      TIMESTAMP(6),
+    last_error   VARCHAR(255),
+    CONSTRAINT pk_email_outbox PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_available ON email_outbox (status, available_at);
@@ -0,0 +1,27 @@
+-- Indices para las consultas frecuentes sobre vehicles. Se crean con CONCURRENTLY para no
+-- bloquear las entradas y salidas mientras se construyen; Flyway ejecuta este script fuera de
+-- una transaccion. Si una construccion falla queda un indice invalido: SchemaIndexVerifier lo
+-- detecta al arrancar y hay que borrarlo antes de reintentar la migracion.
+
+-- Busqueda de la placa en la puerta (findByPlateNumberAndStatus, existsByPlateNumber).
+-- Reemplaza a idx_vehicles_plate_number, que es prefijo de este.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_plate_status ON vehicles (plate_number, status);
+DROP INDEX CONCURRENTLY IF EXISTS idx_vehicles_plate_number;
+
+-- Una placa solo puede estar dentro de un parqueadero a la vez. Falla si ya hay duplicados:
+-- SELECT plate_number FROM vehicles WHERE status = 'IN' GROUP BY plate_number HAVING COUNT(*) > 1;
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_vehicles_plate_in ON vehicles (plate_number) WHERE status = 'IN';
+
+-- Ocupacion por parqueadero (reconciliacion de parking_lot.occupied).
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_parking_status ON vehicles (id_parking, status);
+
+-- Reportes por fecha de salida.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_exit_time ON vehicles (exit_time);
+
+-- Listados paginados por cursor (ORDER BY entry_time DESC, id DESC) y ranking semanal de
+-- socios, que solo necesita id_parking: se responde con index-only scan.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_entry_time ON vehicles (entry_time, id) INCLUDE (id_parking);
+
+-- Ranking de parqueaderos por ingresos: rango de exit_time sumando total_cost por id_parking.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_exit_ranking ON vehicles (exit_time) INCLUDE (id_parking, total_cost)
+    WHERE total_cost IS NOT NULL;
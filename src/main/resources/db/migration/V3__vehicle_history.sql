@@ -0,0 +1,58 @@
+-- Archivo de vehiculos que ya salieron. vehicles queda con los vehiculos estacionados y las
+-- salidas recientes; VehicleArchiver mueve por lotes las salidas liquidadas a esta tabla,
+-- particionada por mes de salida. Las particiones de los meses siguientes las crea el mismo
+-- servicio; la particion por defecto solo recibe filas fuera de los meses ya creados.
+
+CREATE TABLE IF NOT EXISTS vehicle_history (
+    id            VARCHAR(255)   NOT NULL,
+    plate_number  VARCHAR(255)   NOT NULL,
+    model_vehicle VARCHAR(255)   NOT NULL,
+    entry_time    TIMESTAMP(6)   NOT NULL,
+    exit_time     TIMESTAMP(6)   NOT NULL,
+    cost_per_hour REAL           NOT NULL,
+    total_cost    NUMERIC(12, 2),
+    first_visit   BOOLEAN,
+    status        VARCHAR(255)   NOT NULL,
+    id_parking    VARCHAR(255)   NOT NULL,
+    id_admin      VARCHAR(255)   NOT NULL,
+    archived_at   TIMESTAMP(6)   NOT NULL DEFAULT now(),
+    CONSTRAINT pk_vehicle_history PRIMARY KEY (id, exit_time),
+    CONSTRAINT fk_vehicle_history_parking FOREIGN KEY (id_parking) REFERENCES parking_lot (id),
+    CONSTRAINT fk_vehicle_history_admin FOREIGN KEY (id_admin) REFERENCES users_table (id)
+) PARTITION BY RANGE (exit_time);
+
+CREATE TABLE IF NOT EXISTS vehicle_history_default PARTITION OF vehicle_history DEFAULT;
+
+-- Un mes por particion desde la salida mas antigua registrada hasta dos meses adelante.
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE(
+            (SELECT MIN(exit_time) FROM vehicles WHERE status = 'OUT'), now()))::date;
+    last_month  DATE := (date_trunc('month', now()) + INTERVAL '2 months')::date;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF vehicle_history FOR VALUES FROM (%L) TO (%L)',
+                       'vehicle_history_p' || to_char(month_start, 'YYYY_MM'),
+                       month_start, (month_start + INTERVAL '1 month')::date);
+        month_start := (month_start + INTERVAL '1 month')::date;
+    END LOOP;
+END $$;
+
+-- Rankings y reportes por parqueadero en un rango de salida.
+CREATE INDEX IF NOT EXISTS idx_vehicle_history_parking_exit ON vehicle_history (id_parking, exit_time) INCLUDE (total_cost);
+-- Ranking de socios por entradas en la semana o el mes.
+CREATE INDEX IF NOT EXISTS idx_vehicle_history_entry_time ON vehicle_history (entry_time) INCLUDE (id_parking);
+-- Primera visita de una placa y contadores de visitas.
+CREATE INDEX IF NOT EXISTS idx_vehicle_history_plate ON vehicle_history (plate_number);
+
+-- Todas las filas de vehiculos, activas y archivadas. Los reportes leen de aqui para no perder
+-- las salidas que aun no se han movido; PostgreSQL aplica los filtros en cada rama del UNION y
+-- descarta las particiones fuera del rango de exit_time.
+CREATE OR REPLACE VIEW vehicle_records AS
+SELECT id, plate_number, model_vehicle, entry_time, exit_time, cost_per_hour, total_cost, first_visit,
+       status, id_parking, id_admin
+FROM vehicles
+UNION ALL
+SELECT id, plate_number, model_vehicle, entry_time, exit_time, cost_per_hour, total_cost, first_visit,
+       status, id_parking, id_admin
+FROM vehicle_history;
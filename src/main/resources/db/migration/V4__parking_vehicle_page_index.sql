@@ -0,0 +1,7 @@
+-- Pagina de vehiculos de GET /parkings/{id}: filtra por parqueadero y estado y recorre
+-- entry_time, id en orden descendente, de modo que cada pagina lee solo sus filas. Sigue
+-- sirviendo el conteo de ocupacion por (id_parking, status), por eso reemplaza a
+-- idx_vehicles_parking_status. Igual que V2, se construye con CONCURRENTLY.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_vehicles_parking_status_entry
+    ON vehicles (id_parking, status, entry_time DESC, id DESC);
+DROP INDEX CONCURRENTLY IF EXISTS idx_vehicles_parking_status;
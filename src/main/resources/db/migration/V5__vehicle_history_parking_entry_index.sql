@@ -0,0 +1,5 @@
+-- Pagina de vehiculos que ya salieron en GET /parkings/{id}?status=OUT, leida desde
+-- vehicle_records. vehicle_history esta particionada y no admite CONCURRENTLY; solo la escribe
+-- el archivador, que espera a que termine la construccion.
+CREATE INDEX IF NOT EXISTS idx_vehicle_history_parking_entry
+    ON vehicle_history (id_parking, entry_time DESC, id DESC);
@@ -0,0 +1,3 @@
+-- Lease de los reportes en curso: el nodo que ejecuta un trabajo renueva heartbeat_at y
+-- cualquier nodo marca como fallidos los trabajos que dejaron de renovarse.
+ALTER TABLE report_jobs ADD COLUMN IF NOT EXISTS heartbeat_at TIMESTAMP(6);
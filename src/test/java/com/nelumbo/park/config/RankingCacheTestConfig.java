@@ -0,0 +1,19 @@
+package com.nelumbo.park.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelumbo.park.service.infrastructure.RankingCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Cache de rankings sin vigencia: cada peticion recalcula, de modo que los stubs de cada test
+ * se respetan, pero las respuestas siguen llevando ETag y {@code Cache-Control}.
+ */
+@TestConfiguration
+public class RankingCacheTestConfig {
+    @Bean
+    public RankingCache rankingCache(ObjectMapper objectMapper) {
+        return new RankingCache(objectMapper, 0, 0, 100, new SimpleMeterRegistry());
+    }
+}
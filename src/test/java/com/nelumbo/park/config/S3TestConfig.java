@@ -3,12 +3,18 @@ package com.nelumbo.park.config;
 import org.mockito.Mockito;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Configuration
 public class S3TestConfig {
     @Bean
-    public S3Client s3Client() {
-        return Mockito.mock(S3Client.class);
+    public S3AsyncClient s3AsyncClient() {
+        return Mockito.mock(S3AsyncClient.class);
+    }
+
+    @Bean
+    public S3Presigner s3Presigner() {
+        return Mockito.mock(S3Presigner.class);
     }
 }
@@ -47,6 +47,7 @@ public class TestSecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/parkings/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/parkings/**").hasRole("ADMIN")
                         .requestMatchers("/rankings/**").hasAnyRole("ADMIN", "SOCIO")
+                        .requestMatchers("/reports/**").hasAnyRole("ADMIN", "SOCIO")
                         .anyRequest().denyAll()
                 )
                 .exceptionHandling(exceptionHandling -> exceptionHandling
@@ -0,0 +1,59 @@
+package com.nelumbo.park.config.initialization;
+
+import com.nelumbo.park.exception.exceptions.DatabaseInitializationException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchemaIndexVerifierTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should start when every required index is present and valid")
+    void afterSingletonsInstantiated_AllIndexesPresent_DoesNotThrow() {
+        List<String> indexes = new ArrayList<>(SchemaIndexVerifier.REQUIRED_INDEXES);
+        indexes.add("pk_vehicles");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(indexes);
+
+        assertDoesNotThrow(() -> new SchemaIndexVerifier(jdbcTemplate, true).afterSingletonsInstantiated());
+    }
+
+    @Test
+    @DisplayName("Should fail listing the indexes that are missing or invalid")
+    void afterSingletonsInstantiated_MissingIndexes_Throws() {
+        List<String> indexes = new ArrayList<>(SchemaIndexVerifier.REQUIRED_INDEXES);
+        indexes.remove("uq_vehicles_plate_in");
+        indexes.remove("idx_vehicles_exit_ranking");
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(indexes);
+
+        SchemaIndexVerifier verifier = new SchemaIndexVerifier(jdbcTemplate, true);
+        DatabaseInitializationException exception = assertThrows(DatabaseInitializationException.class,
+                verifier::afterSingletonsInstantiated);
+
+        assertTrue(exception.getMessage().contains("uq_vehicles_plate_in"));
+        assertTrue(exception.getMessage().contains("idx_vehicles_exit_ranking"));
+        assertFalse(exception.getMessage().contains("idx_vehicles_plate_status"));
+    }
+
+    @Test
+    @DisplayName("Should skip the check when it is disabled")
+    void afterSingletonsInstantiated_Disabled_DoesNotQuery() {
+        new SchemaIndexVerifier(jdbcTemplate, false).afterSingletonsInstantiated();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
@@ -0,0 +1,70 @@
+package com.nelumbo.park.config.security;
+
+import com.nelumbo.park.exception.exceptions.JwtExtractException;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private JwtClaimsCache claimsCache;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        claimsCache = new JwtClaimsCache(100, new SimpleMeterRegistry());
+        jwtService = new JwtService(SECRET, 1, claimsCache);
+    }
+
+    @Test
+    void parseToken_ShouldVerifySignatureOnlyOnceForRepeatedToken() {
+        String token = jwtService.generateToken("socio", Map.of("uid", "user-id", "role", "SOCIO"));
+
+        Claims first = jwtService.parseToken(token);
+        Claims second = jwtService.parseToken(token);
+
+        assertSame(first, second);
+        assertEquals(1, claimsCache.missCount());
+        assertEquals(1, claimsCache.hitCount());
+    }
+
+    @Test
+    void extractFromClaims_ShouldResolveUidRoleAndExpiration() {
+        String token = jwtService.generateToken("socio", Map.of("uid", "user-id", "role", "SOCIO"));
+
+        Claims claims = jwtService.parseToken(token);
+
+        assertEquals("user-id", jwtService.extractUid(claims));
+        assertEquals("SOCIO", jwtService.extractRole(claims));
+        assertFalse(jwtService.isTokenExpired(claims));
+        assertEquals(1, claimsCache.missCount());
+    }
+
+    @Test
+    void parseToken_WithInvalidSignature_ShouldThrowAndNotCache() {
+        JwtService otherService = new JwtService("fedcba9876543210fedcba9876543210", 1,
+                new JwtClaimsCache(100, new SimpleMeterRegistry()));
+        String foreignToken = otherService.generateToken("socio", Map.of("uid", "user-id"));
+
+        assertThrows(JwtExtractException.class, () -> jwtService.parseToken(foreignToken));
+        assertEquals(0, claimsCache.size());
+    }
+
+    @Test
+    void claimsCache_ShouldEvictLeastRecentlyUsedEntriesBeyondMaximum() {
+        JwtClaimsCache smallCache = new JwtClaimsCache(1, new SimpleMeterRegistry());
+        JwtService service = new JwtService(SECRET, 1, smallCache);
+
+        service.parseToken(service.generateToken("a", Map.of("uid", "a")));
+        service.parseToken(service.generateToken("b", Map.of("uid", "b")));
+
+        assertEquals(1, smallCache.size());
+    }
+}
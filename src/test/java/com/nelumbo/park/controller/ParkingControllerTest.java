@@ -4,9 +4,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nelumbo.park.config.TestSecurityConfig;
 import com.nelumbo.park.dto.request.ParkingRequest;
 import com.nelumbo.park.dto.request.ParkingUpdateRequest;
+import com.nelumbo.park.dto.request.VehicleFilterRequest;
 import com.nelumbo.park.dto.response.ParkingResponse;
 import com.nelumbo.park.dto.response.ParkingWithVehiclesResponse;
 import com.nelumbo.park.entity.Parking;
+import com.nelumbo.park.enums.VehicleStatus;
 import com.nelumbo.park.mapper.ParkingResponseMapper;
 import com.nelumbo.park.service.ParkingService;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,7 +29,10 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
@@ -96,13 +101,55 @@ class ParkingControllerTest {
         ParkingWithVehiclesResponse response = new ParkingWithVehiclesResponse();
         response.setId("1");
         response.setName("Parking Test");
-        when(parkingService.getParkingById(parkingId)).thenReturn(response);
+        response.setVehicles(Collections.emptyList());
+        response.setNextCursor("next");
+        VehicleFilterRequest filter = new VehicleFilterRequest(VehicleStatus.IN, parkingId, null, null);
+        when(parkingService.getParkingById(parkingId, filter, null, null)).thenReturn(response);
 
         mockMvc.perform(get("/parkings/{id}", parkingId))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value("1"))
-                .andExpect(jsonPath("$.name").value("Parking Test"));
+                .andExpect(jsonPath("$.name").value("Parking Test"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN", "SOCIO"})
+    void testGetParkingById_WithFilters() throws Exception {
+        String parkingId = "1";
+        ParkingWithVehiclesResponse response = new ParkingWithVehiclesResponse();
+        response.setId(parkingId);
+        response.setVehicles(Collections.emptyList());
+        when(parkingService.getParkingById(eq(parkingId), any(VehicleFilterRequest.class), eq("abc"), eq(20)))
+                .thenReturn(response);
+
+        mockMvc.perform(get("/parkings/{id}", parkingId)
+                        .param("status", "OUT")
+                        .param("from", "2026-01-01T00:00:00Z")
+                        .param("cursor", "abc")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vehicles").isArray())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(parkingService).getParkingById(eq(parkingId),
+                argThat(filter -> filter.getStatus() == VehicleStatus.OUT && filter.getFrom() != null
+                        && filter.getTo() == null), eq("abc"), eq(20));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN", "SOCIO"})
+    void testGetParkingById_IncludeNone() throws Exception {
+        String parkingId = "1";
+        ParkingWithVehiclesResponse response = new ParkingWithVehiclesResponse();
+        response.setId(parkingId);
+        when(parkingService.getParkingById(parkingId)).thenReturn(response);
+
+        mockMvc.perform(get("/parkings/{id}", parkingId).param("include", "none"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(parkingId))
+                .andExpect(jsonPath("$.vehicles").doesNotExist());
     }
 
     @Test
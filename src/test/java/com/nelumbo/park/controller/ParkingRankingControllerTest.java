@@ -1,6 +1,7 @@
 package com.nelumbo.park.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelumbo.park.config.RankingCacheTestConfig;
 import com.nelumbo.park.config.TestSecurityConfig;
 import com.nelumbo.park.dto.response.WeeklyParkingStatsResponse;
 import com.nelumbo.park.service.VehicleService;
@@ -18,12 +19,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.time.LocalDateTime;
 import java.util.Collections;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = ParkingRankingController.class)
-@Import({ParkingRankingControllerTest.TestConfig.class, TestSecurityConfig.class})
+@Import({ParkingRankingControllerTest.TestConfig.class, TestSecurityConfig.class, RankingCacheTestConfig.class})
 class ParkingRankingControllerTest {
 
     @TestConfiguration
@@ -75,4 +77,23 @@ class ParkingRankingControllerTest {
 
         verify(vehicleService, never()).getParkingRanking();
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    void getParkingRanking_WithMatchingETag_ShouldReturnNotModified() throws Exception {
+        WeeklyParkingStatsResponse statsResponse = new WeeklyParkingStatsResponse(
+                LocalDateTime.of(2026, 10, 12, 5, 0), LocalDateTime.of(2026, 10, 18, 23, 59), Collections.emptyList());
+        when(vehicleService.getParkingRanking()).thenReturn(statsResponse);
+
+        String etag = mockMvc.perform(get("/parking-rankings/week"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", containsString("private")))
+                .andExpect(header().string("Cache-Control", containsString("stale-while-revalidate")))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/parking-rankings/week").header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+}
@@ -1,14 +1,17 @@
 package com.nelumbo.park.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelumbo.park.config.RankingCacheTestConfig;
 import com.nelumbo.park.config.security.JwtService;
 import com.nelumbo.park.dto.response.WeeklyPartnerStatsResponse;
 import com.nelumbo.park.repository.UserRepository;
 import com.nelumbo.park.service.VehicleService;
+import com.nelumbo.park.service.infrastructure.UserLookupCache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,6 +24,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = PartnersRankingController.class)
+@Import(RankingCacheTestConfig.class)
 class PartnersRankingControllerTest {
 
     @Autowired
@@ -35,6 +39,9 @@ class PartnersRankingControllerTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private UserLookupCache userLookupCache;
+
     @Test
     @WithMockUser(authorities = "ROLE_ADMIN")
     void getPartnersRanking_WithAdminRole_ShouldReturnRanking() throws Exception {
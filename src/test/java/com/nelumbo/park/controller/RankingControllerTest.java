@@ -1,10 +1,12 @@
 package com.nelumbo.park.controller;
 
+import com.nelumbo.park.config.RankingCacheTestConfig;
 import com.nelumbo.park.config.TestSecurityConfig;
 import com.nelumbo.park.config.security.JwtService;
 import com.nelumbo.park.repository.UserRepository;
 import com.nelumbo.park.dto.response.TopVehicleResponse;
 import com.nelumbo.park.service.VehicleService;
+import com.nelumbo.park.service.infrastructure.UserLookupCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -30,7 +32,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = RankingController.class)
-@Import({RankingControllerTest.TestConfig.class, TestSecurityConfig.class})
+@Import({RankingControllerTest.TestConfig.class, TestSecurityConfig.class, RankingCacheTestConfig.class})
 class RankingControllerTest {
 
     @TestConfiguration
@@ -55,6 +57,9 @@ class RankingControllerTest {
     @MockBean
     private UserRepository userRepository;
 
+    @MockBean
+    private UserLookupCache userLookupCache;
+
     @BeforeEach
     void setup() {
         mockMvc = MockMvcBuilders
@@ -0,0 +1,138 @@
+package com.nelumbo.park.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelumbo.park.config.TestSecurityConfig;
+import com.nelumbo.park.config.security.JwtService;
+import com.nelumbo.park.dto.request.ReportJobRequest;
+import com.nelumbo.park.dto.response.ReportJobResponse;
+import com.nelumbo.park.enums.ReportFormat;
+import com.nelumbo.park.enums.ReportJobStatus;
+import com.nelumbo.park.exception.exceptions.ReportQueueFullException;
+import com.nelumbo.park.service.ReportJobService;
+import com.nelumbo.park.service.infrastructure.UserLookupCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReportController.class)
+@Import({ReportControllerTest.TestConfig.class, TestSecurityConfig.class})
+class ReportControllerTest {
+
+    @TestConfiguration
+    static class TestConfig {
+        @Bean
+        public ReportJobService reportJobService() {
+            return Mockito.mock(ReportJobService.class);
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @MockBean
+    private JwtService jwtService;
+
+    @MockBean
+    private UserLookupCache userLookupCache;
+
+    private ReportJobRequest request;
+
+    @BeforeEach
+    void setUp() {
+        reset(reportJobService);
+        request = new ReportJobRequest("parking-1", LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 1, 31, 0, 0), ReportFormat.PDF);
+    }
+
+    private static ReportJobResponse job(ReportJobStatus status, String downloadUrl) {
+        ReportJobResponse response = new ReportJobResponse();
+        response.setId("job-1");
+        response.setStatus(status);
+        response.setParkingId("parking-1");
+        response.setFormat(ReportFormat.PDF);
+        response.setDownloadUrl(downloadUrl);
+        return response;
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_SOCIO")
+    void createReport_ShouldReturnAcceptedWithLocation() throws Exception {
+        when(reportJobService.createJob(any(ReportJobRequest.class))).thenReturn(job(ReportJobStatus.PENDING, null));
+
+        mockMvc.perform(post("/reports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/reports/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_SOCIO")
+    void createReport_WithoutFormat_ShouldReturnBadRequest() throws Exception {
+        request.setFormat(null);
+
+        mockMvc.perform(post("/reports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(reportJobService, never()).createJob(any(ReportJobRequest.class));
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    void createReport_WhenQueueIsFull_ShouldReturnServiceUnavailable() throws Exception {
+        when(reportJobService.createJob(any(ReportJobRequest.class)))
+                .thenThrow(new ReportQueueFullException("Hay demasiados reportes en proceso"));
+
+        mockMvc.perform(post("/reports")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_SOCIO")
+    void getReport_WhenCompleted_ShouldReturnDownloadUrl() throws Exception {
+        when(reportJobService.getJob("job-1"))
+                .thenReturn(job(ReportJobStatus.COMPLETED, "https://signed.example.com/key"));
+
+        mockMvc.perform(get("/reports/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.downloadUrl").value("https://signed.example.com/key"));
+    }
+
+    @Test
+    void getReport_WithoutAuthentication_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(get("/reports/job-1"))
+                .andExpect(status().isForbidden());
+
+        verify(reportJobService, never()).getJob(any());
+    }
+}
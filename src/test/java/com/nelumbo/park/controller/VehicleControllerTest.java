@@ -5,11 +5,13 @@ import com.nelumbo.park.config.TestSecurityConfig;
 import com.nelumbo.park.dto.request.VehicleCreateRequest;
 import com.nelumbo.park.dto.response.VehicleCreateResponse;
 import com.nelumbo.park.dto.response.VehicleExitResponse;
+import com.nelumbo.park.dto.response.VehiclePageResponse;
 import com.nelumbo.park.dto.response.VehicleResponse;
 import com.nelumbo.park.dto.request.VehicleUpdateRequest;
-import com.nelumbo.park.entity.Vehicle;
+import com.nelumbo.park.entity.VehicleRecord;
 import com.nelumbo.park.enums.VehicleStatus;
 import com.nelumbo.park.mapper.VehicleResponseMapper;
+import com.nelumbo.park.service.VehicleQueryService;
 import com.nelumbo.park.service.VehicleService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -28,6 +30,8 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -46,6 +50,10 @@ class VehicleControllerTest {
         public VehicleResponseMapper vehicleResponseMapper() {
             return Mockito.mock(VehicleResponseMapper.class);
         }
+        @Bean
+        public VehicleQueryService vehicleQueryService() {
+            return Mockito.mock(VehicleQueryService.class);
+        }
     }
 
     @Autowired
@@ -60,13 +68,16 @@ class VehicleControllerTest {
     @Autowired
     private VehicleResponseMapper vehicleResponseMapper;
 
+    @Autowired
+    private VehicleQueryService vehicleQueryService;
+
     @Test
     @WithMockUser(roles = {"ADMIN", "SOCIO"})
     void getVehicles_WithAuthorizedUser_ShouldReturnVehicles() throws Exception {
-        Vehicle vehicle = new Vehicle();
+        VehicleRecord vehicle = new VehicleRecord();
         vehicle.setId("veh1");
         vehicle.setPlateNumber("ABC-123");
-        List<Vehicle> vehicles = Collections.singletonList(vehicle);
+        List<VehicleRecord> vehicles = Collections.singletonList(vehicle);
 
         VehicleResponse vehicleResponse = new VehicleResponse();
         vehicleResponse.setId("veh1");
@@ -94,11 +105,35 @@ class VehicleControllerTest {
         verify(vehicleService, never()).getAllVehicles();
     }
 
+    @Test
+    @WithMockUser(roles = "SOCIO")
+    void getVehiclesPage_WithCursor_ShouldReturnPageAndNextCursor() throws Exception {
+        VehicleResponse vehicleResponse = new VehicleResponse();
+        vehicleResponse.setId("veh2");
+        vehicleResponse.setPlateNumber("XYZ-789");
+        VehiclePageResponse page = new VehiclePageResponse(Collections.singletonList(vehicleResponse), "next-cursor");
+
+        when(vehicleQueryService.getVehiclesPage(any(), eq("cursor-1"), eq(1))).thenReturn(page);
+
+        mockMvc.perform(get("/vehicles/page")
+                        .param("status", "IN")
+                        .param("parkingId", "park1")
+                        .param("cursor", "cursor-1")
+                        .param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value("veh2"))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+
+        verify(vehicleQueryService).getVehiclesPage(
+                argThat(filter -> filter.getStatus() == VehicleStatus.IN && "park1".equals(filter.getParkingId())),
+                eq("cursor-1"), eq(1));
+    }
+
     @Test
     @WithMockUser(roles = "SOCIO")
     void getVehicleById_WithSocioRole_ShouldReturnVehicle() throws Exception {
         String vehicleId = "veh1";
-        Vehicle vehicle = new Vehicle();
+        VehicleRecord vehicle = new VehicleRecord();
         vehicle.setId(vehicleId);
         vehicle.setPlateNumber("ABC-123");
 
@@ -123,7 +158,7 @@ class VehicleControllerTest {
     @WithMockUser(roles = "ADMIN")
     void getVehicleById_WithAdminRole_ShouldReturnOk() throws Exception {
         String vehicleId = "veh1";
-        Vehicle vehicle = new Vehicle();
+        VehicleRecord vehicle = new VehicleRecord();
         vehicle.setId(vehicleId);
 
         VehicleResponse vehicleResponse = new VehicleResponse();
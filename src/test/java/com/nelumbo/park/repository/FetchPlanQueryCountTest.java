@@ -0,0 +1,241 @@
+package com.nelumbo.park.repository;
+
+import com.nelumbo.park.dto.request.VehicleFilterRequest;
+import com.nelumbo.park.dto.response.ParkingResponse;
+import com.nelumbo.park.dto.response.ParkingWithVehiclesResponse;
+import com.nelumbo.park.dto.response.TopParkingResponse;
+import com.nelumbo.park.dto.response.VehicleResponse;
+import com.nelumbo.park.entity.Parking;
+import com.nelumbo.park.entity.User;
+import com.nelumbo.park.entity.Vehicle;
+import com.nelumbo.park.entity.VehicleRecord;
+import com.nelumbo.park.enums.VehicleStatus;
+import com.nelumbo.park.mapper.ParkingResponseMapper;
+import com.nelumbo.park.mapper.ParkingResponseMapperImpl;
+import com.nelumbo.park.mapper.ParkingWithVehiclesMapper;
+import com.nelumbo.park.mapper.VehicleResponseMapper;
+import com.nelumbo.park.mapper.VehicleResponseMapperImpl;
+import com.nelumbo.park.service.ParkingEarningsCalculator;
+import com.nelumbo.park.service.ParkingService;
+import com.nelumbo.park.service.infrastructure.ParkingLookupCache;
+import com.nelumbo.park.service.infrastructure.SecurityService;
+import com.nelumbo.park.support.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Numero de sentencias SQL de las lecturas de cada endpoint. Con varios parqueaderos y socios,
+ * cualquier asociacion que se cargue fila por fila sube el conteo.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ParkingResponseMapperImpl.class, VehicleResponseMapperImpl.class})
+class FetchPlanQueryCountTest {
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private VehicleRepository vehicleRepository;
+    @Autowired
+    private VehicleRecordRepository vehicleRecordRepository;
+    @Autowired
+    private ParkingRepository parkingRepository;
+    @Autowired
+    private VehicleResponseMapper vehicleResponseMapper;
+    @Autowired
+    private ParkingResponseMapper parkingResponseMapper;
+
+    private final SecurityService securityService = mock(SecurityService.class);
+    private SqlStatementCounter counter;
+    private ParkingService parkingService;
+    private User admin;
+    private List<User> socios;
+    private List<Parking> parkings;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter(entityManager);
+        parkingService = new ParkingService(null, parkingRepository, parkingResponseMapper,
+                new ParkingWithVehiclesMapper(), securityService, vehicleRepository, vehicleRecordRepository,
+                new ParkingLookupCache(parkingRepository, 60, 100, new SimpleMeterRegistry()));
+
+        admin = persistUser("admin", "ADMIN");
+        socios = new ArrayList<>();
+        parkings = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            User socio = persistUser("socio" + i, "SOCIO");
+            socios.add(socio);
+            parkings.add(persistParking("Parking " + i, socio));
+        }
+
+        Date now = new Date();
+        for (int i = 0; i < 9; i++) {
+            Parking parking = parkings.get(i % 3);
+            Vehicle vehicle = new Vehicle();
+            vehicle.setPlateNumber("ABC" + (100 + i));
+            vehicle.setModel("Model " + i);
+            vehicle.setEntryTime(new Date(now.getTime() - (i + 2) * 3_600_000L));
+            vehicle.setCostPerHour(parking.getCostPerHour());
+            vehicle.setStatus(i < 6 ? VehicleStatus.IN : VehicleStatus.OUT);
+            vehicle.setParking(parking);
+            vehicle.setAdmin(socios.get(i % 3));
+            entityManager.persist(vehicle);
+
+            VehicleRecord exited = new VehicleRecord("h" + i, "XYZ" + (100 + i), "Model " + i,
+                    new Date(now.getTime() - 7_200_000L), new Date(now.getTime() - 3_600_000L),
+                    parking.getCostPerHour(), BigDecimal.valueOf(1000L * (i + 1)), false, VehicleStatus.OUT,
+                    parking, socios.get(i % 3));
+            entityManager.persist(exited);
+        }
+    }
+
+    @Test
+    @DisplayName("GET /vehicles/ as admin loads vehicles, parkings, owners and admins in one statement")
+    void getVehicles_AsAdmin_SingleStatement() {
+        List<VehicleResponse> responses = counter.assertStatements(1,
+                () -> vehicleResponseMapper.toResponseList(vehicleRecordRepository.findAll()));
+
+        assertEquals(9, responses.size());
+        assertNotNull(responses.get(0).getParking().getOwner().getUsername());
+        assertNotNull(responses.get(0).getAdmin().getUsername());
+    }
+
+    @Test
+    @DisplayName("GET /vehicles/ as socio loads the socio's vehicles in one statement")
+    void getVehicles_AsSocio_SingleStatement() {
+        List<VehicleResponse> responses = counter.assertStatements(1,
+                () -> vehicleResponseMapper.toResponseList(vehicleRecordRepository.findByAdmin(socios.get(0))));
+
+        assertEquals(3, responses.size());
+    }
+
+    @Test
+    @DisplayName("GET /vehicles/{id} loads an archived vehicle and its associations in one statement")
+    void getVehicleById_SingleStatement() {
+        VehicleResponse response = counter.assertStatements(1,
+                () -> vehicleResponseMapper.toResponse(vehicleRecordRepository.findById("h0").orElseThrow()));
+
+        assertEquals(VehicleStatus.OUT, response.getStatus());
+        assertNotNull(response.getParking().getName());
+    }
+
+    @Test
+    @DisplayName("GET /parkings/ as admin projects parkings with their owners in one statement")
+    void getParkings_AsAdmin_SingleStatement() {
+        when(securityService.getCurrentUser()).thenReturn(admin);
+
+        List<ParkingResponse> responses = counter.assertStatements(1, parkingService::getAllParkings);
+
+        assertEquals(3, responses.size());
+        assertNotNull(responses.get(0).getOwner().getEmail());
+    }
+
+    @Test
+    @DisplayName("GET /parkings/ as socio projects the owned parkings in one statement")
+    void getParkings_AsSocio_SingleStatement() {
+        when(securityService.getCurrentUser()).thenReturn(socios.get(1));
+
+        List<ParkingResponse> responses = counter.assertStatements(1, parkingService::getAllParkings);
+
+        assertEquals(1, responses.size());
+        assertNull(responses.get(0).getOwner());
+    }
+
+    @Test
+    @DisplayName("GET /parkings/{id} reads the parking and one page of the vehicles inside")
+    void getParkingById_TwoStatements() {
+        when(securityService.getCurrentUser()).thenReturn(admin);
+        String parkingId = parkings.get(0).getId();
+
+        ParkingWithVehiclesResponse response = counter.assertStatements(2,
+                () -> parkingService.getParkingById(parkingId, new VehicleFilterRequest(), null, 1));
+
+        assertEquals(1, response.getVehicles().size());
+        assertNotNull(response.getNextCursor());
+
+        ParkingWithVehiclesResponse next = parkingService.getParkingById(
+                parkingId, new VehicleFilterRequest(), response.getNextCursor(), 1);
+        assertEquals(1, next.getVehicles().size());
+        assertNull(next.getNextCursor());
+        assertTrue(response.getVehicles().get(0).getEntryTime().after(next.getVehicles().get(0).getEntryTime()));
+    }
+
+    @Test
+    @DisplayName("GET /parkings/{id}?status=OUT pages the exited vehicles from vehicle_records")
+    void getParkingById_StatusOut_TwoStatements() {
+        when(securityService.getCurrentUser()).thenReturn(admin);
+        String parkingId = parkings.get(0).getId();
+        VehicleFilterRequest filter = new VehicleFilterRequest(VehicleStatus.OUT, parkingId, null, null);
+
+        ParkingWithVehiclesResponse response = counter.assertStatements(2,
+                () -> parkingService.getParkingById(parkingId, filter, null, null));
+
+        assertEquals(3, response.getVehicles().size());
+        assertTrue(response.getVehicles().stream().allMatch(v -> v.getStatus() == VehicleStatus.OUT));
+    }
+
+    @Test
+    @DisplayName("GET /parkings/{id}?include=none reads only the parking, and nothing once it is cached")
+    void getParkingById_IncludeNone_SingleStatement() {
+        when(securityService.getCurrentUser()).thenReturn(admin);
+        String parkingId = parkings.get(0).getId();
+
+        ParkingWithVehiclesResponse response = counter.assertStatements(1,
+                () -> parkingService.getParkingById(parkingId));
+        assertNull(response.getVehicles());
+
+        when(securityService.getCurrentUser()).thenReturn(socios.get(0));
+        ParkingWithVehiclesResponse cached = counter.assertStatements(0,
+                () -> parkingService.getParkingById(parkingId));
+        assertEquals(parkings.get(0).getCapacity(), cached.getCapacity());
+    }
+
+    @Test
+    @DisplayName("Earnings ranking fallback loads exits with their parkings in one statement")
+    void parkingEarningsFallback_SingleStatement() {
+        Date now = new Date();
+        Date from = new Date(now.getTime() - 86_400_000L);
+
+        List<TopParkingResponse> ranking = counter.assertStatements(1,
+                () -> new ParkingEarningsCalculator().calculateParkingEarnings(
+                        vehicleRecordRepository.findVehiclesWithExitTimeBetween(from, now)));
+
+        assertEquals(3, ranking.size());
+        assertNotNull(ranking.get(0).getParkingName());
+    }
+
+    private User persistUser(String username, String role) {
+        User user = new User();
+        user.setUsername(username);
+        user.setPassword("secret");
+        user.setEmail(username + "@mail.com");
+        user.setRole(role);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Parking persistParking(String name, User owner) {
+        Parking parking = new Parking();
+        parking.setName(name);
+        parking.setAddress("Calle " + name);
+        parking.setCapacity(10);
+        parking.setCostPerHour(2000f);
+        parking.setOwner(owner);
+        entityManager.persist(parking);
+        return parking;
+    }
+}
@@ -2,12 +2,13 @@ package com.nelumbo.park.service;
 
 import com.nelumbo.park.dto.response.TopParkingResponse;
 import com.nelumbo.park.entity.Parking;
-import com.nelumbo.park.entity.Vehicle;
+import com.nelumbo.park.entity.VehicleRecord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.MockitoAnnotations;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -28,19 +29,19 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
     @Test
     void testCalculateParkingEarnings_NoVehicles() {
-        List<Vehicle> vehicles = new ArrayList<>();
+        List<VehicleRecord> vehicles = new ArrayList<>();
         List<TopParkingResponse> result = parkingEarningsCalculator.calculateParkingEarnings(vehicles);
         assertTrue(result.isEmpty());
     }
 
     @Test
-    void testCalculateParkingEarnings_NoVehiclesWithExitTime() {
-        List<Vehicle> vehicles = new ArrayList<>();
+    void testCalculateParkingEarnings_NoVehiclesWithStoredTotalCost() {
+        List<VehicleRecord> vehicles = new ArrayList<>();
         Parking parking1 = new Parking();
         parking1.setId("p1");
         parking1.setName("Parking 1");
 
-        Vehicle vehicle1 = new Vehicle();
+        VehicleRecord vehicle1 = new VehicleRecord();
         vehicle1.setParking(parking1);
         vehicle1.setCostPerHour(10.0f);
         vehicle1.setEntryTime(new Date());
@@ -53,7 +54,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
     @Test
     void testCalculateParkingEarnings_WithVehicles() {
-        List<Vehicle> vehicles = new ArrayList<>();
+        List<VehicleRecord> vehicles = new ArrayList<>();
 
         Parking parking1 = new Parking();
         parking1.setId("p1");
@@ -66,25 +67,28 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
         Date entry = new Date();
         Date exit = new Date(entry.getTime() + TimeUnit.HOURS.toMillis(2));
 
-        Vehicle vehicle1 = new Vehicle();
+        VehicleRecord vehicle1 = new VehicleRecord();
         vehicle1.setParking(parking1);
         vehicle1.setCostPerHour(10.0f);
         vehicle1.setEntryTime(entry);
         vehicle1.setExitTime(exit);
+        vehicle1.setTotalCost(new BigDecimal("20.00"));
         vehicles.add(vehicle1);
 
-        Vehicle vehicle2 = new Vehicle();
+        VehicleRecord vehicle2 = new VehicleRecord();
         vehicle2.setParking(parking1);
         vehicle2.setCostPerHour(10.0f);
         vehicle2.setEntryTime(entry);
         vehicle2.setExitTime(exit);
+        vehicle2.setTotalCost(new BigDecimal("20.00"));
         vehicles.add(vehicle2);
 
-        Vehicle vehicle3 = new Vehicle();
+        VehicleRecord vehicle3 = new VehicleRecord();
         vehicle3.setParking(parking2);
         vehicle3.setCostPerHour(15.0f);
         vehicle3.setEntryTime(entry);
         vehicle3.setExitTime(new Date(entry.getTime() + TimeUnit.HOURS.toMillis(1)));
+        vehicle3.setTotalCost(new BigDecimal("15.00"));
         vehicles.add(vehicle3);
 
         List<TopParkingResponse> result = parkingEarningsCalculator.calculateParkingEarnings(vehicles);
@@ -98,7 +102,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
     @Test
     void testCalculateParkingEarnings_Top3Parkings() {
-        List<Vehicle> vehicles = new ArrayList<>();
+        List<VehicleRecord> vehicles = new ArrayList<>();
         Date entry = new Date();
         Date exit = new Date(entry.getTime() + TimeUnit.HOURS.toMillis(1));
 
@@ -107,11 +111,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
             parking.setId("p" + i);
             parking.setName("Parking " + i);
 
-            Vehicle vehicle = new Vehicle();
+            VehicleRecord vehicle = new VehicleRecord();
             vehicle.setParking(parking);
             vehicle.setCostPerHour(10.0f * i);
             vehicle.setEntryTime(entry);
             vehicle.setExitTime(exit);
+            vehicle.setTotalCost(BigDecimal.valueOf(10L * i));
             vehicles.add(vehicle);
         }
 
@@ -128,7 +133,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
     @Test
     void testCalculateParkingEarnings_ZeroEarnings() {
-        List<Vehicle> vehicles = new ArrayList<>();
+        List<VehicleRecord> vehicles = new ArrayList<>();
 
         Parking parking1 = new Parking();
         parking1.setId("p1");
@@ -136,11 +141,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 
         Date entryAndExit = new Date();
 
-        Vehicle vehicle1 = new Vehicle();
+        VehicleRecord vehicle1 = new VehicleRecord();
         vehicle1.setParking(parking1);
         vehicle1.setCostPerHour(10.0f);
         vehicle1.setEntryTime(entryAndExit);
         vehicle1.setExitTime(entryAndExit);
+        vehicle1.setTotalCost(BigDecimal.ZERO);
         vehicles.add(vehicle1);
 
         List<TopParkingResponse> result = parkingEarningsCalculator.calculateParkingEarnings(vehicles);
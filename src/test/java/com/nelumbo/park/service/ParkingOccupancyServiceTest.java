@@ -0,0 +1,131 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.enums.VehicleStatus;
+import com.nelumbo.park.repository.ParkingRepository;
+import com.nelumbo.park.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ParkingOccupancyServiceTest {
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+    @Mock
+    private ParkingRepository parkingRepository;
+
+    @InjectMocks
+    private ParkingOccupancyService occupancyService;
+
+    @Test
+    void load_ShouldRestorePlates() {
+        when(vehicleRepository.findPlateNumbersByStatus(VehicleStatus.IN)).thenReturn(List.of("ABC-123"));
+        when(vehicleRepository.existsByPlateNumberAndStatus("ABC-123", VehicleStatus.IN)).thenReturn(true);
+
+        occupancyService.load();
+
+        assertTrue(occupancyService.isParked("ABC-123"));
+        assertFalse(occupancyService.isParked("XYZ-999"));
+    }
+
+    @Test
+    void load_ShouldRepairCountersBeforeLoadingPlates() {
+        when(parkingRepository.reconcileOccupied()).thenReturn(2);
+        when(vehicleRepository.findPlateNumbersByStatus(VehicleStatus.IN)).thenReturn(List.of());
+
+        occupancyService.load();
+
+        InOrder inOrder = inOrder(parkingRepository, vehicleRepository);
+        inOrder.verify(parkingRepository).reconcileOccupied();
+        inOrder.verify(vehicleRepository).findPlateNumbersByStatus(VehicleStatus.IN);
+    }
+
+    @Test
+    void load_ShouldKeepPlatesReservedButNotYetSaved() {
+        when(vehicleRepository.findPlateNumbersByStatus(VehicleStatus.IN)).thenReturn(List.of("ABC-123"));
+        assertTrue(occupancyService.reservePlate("NEW-456"));
+
+        occupancyService.load();
+
+        assertTrue(occupancyService.isParked("NEW-456"));
+        assertFalse(occupancyService.reservePlate("NEW-456"));
+        verify(vehicleRepository, never()).existsByPlateNumberAndStatus("NEW-456", VehicleStatus.IN);
+    }
+
+    @Test
+    void load_ShouldApplyEntriesAndExitsMadeWhileReading() {
+        when(vehicleRepository.findPlateNumbersByStatus(VehicleStatus.IN)).thenAnswer(invocation -> {
+            occupancyService.reservePlate("NEW-456");
+            occupancyService.confirmPlate("NEW-456");
+            occupancyService.releasePlate("ABC-123");
+            return List.of("ABC-123");
+        });
+
+        occupancyService.load();
+
+        assertFalse(occupancyService.reservePlate("NEW-456"));
+        assertFalse(occupancyService.isParked("ABC-123"));
+        assertTrue(occupancyService.reservePlate("ABC-123"));
+    }
+
+    @Test
+    void isParked_WhenPlateLeftThroughAnotherNode_ShouldCheckDatabaseAndDropIt() {
+        when(vehicleRepository.findPlateNumbersByStatus(VehicleStatus.IN)).thenReturn(List.of("ABC-123"));
+        when(vehicleRepository.existsByPlateNumberAndStatus("ABC-123", VehicleStatus.IN)).thenReturn(false);
+        occupancyService.load();
+
+        assertFalse(occupancyService.isParked("ABC-123"));
+        assertTrue(occupancyService.reservePlate("ABC-123"));
+    }
+
+    @Test
+    void reserveSlot_WhenConditionalUpdateMatchesNoRow_ShouldReturnFalse() {
+        when(parkingRepository.reserveSlot("parking-id")).thenReturn(1, 0);
+
+        assertTrue(occupancyService.reserveSlot("parking-id"));
+        assertFalse(occupancyService.reserveSlot("parking-id"));
+    }
+
+    @Test
+    void releaseSlot_ShouldDecrementCounter() {
+        when(parkingRepository.releaseSlot("parking-id")).thenReturn(1);
+
+        occupancyService.releaseSlot("parking-id");
+
+        verify(parkingRepository).releaseSlot("parking-id");
+    }
+
+    @Test
+    void reconcile_ShouldRepairCountersAndReload() {
+        when(parkingRepository.reconcileOccupied()).thenReturn(1);
+        when(vehicleRepository.findPlateNumbersByStatus(VehicleStatus.IN)).thenReturn(List.of("ABC-123"));
+        when(vehicleRepository.existsByPlateNumberAndStatus("ABC-123", VehicleStatus.IN)).thenReturn(true);
+
+        int repaired = occupancyService.reconcile();
+
+        assertEquals(1, repaired);
+        assertTrue(occupancyService.isParked("ABC-123"));
+    }
+
+    @Test
+    void reservePlate_WhenAlreadyParked_ShouldReturnFalse() {
+        assertTrue(occupancyService.reservePlate("ABC-123"));
+        assertFalse(occupancyService.reservePlate("ABC-123"));
+
+        occupancyService.releasePlate("ABC-123");
+
+        assertTrue(occupancyService.reservePlate("ABC-123"));
+    }
+}
@@ -0,0 +1,93 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.dto.response.TopParkingResponse;
+import com.nelumbo.park.repository.ParkingHourlyStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParkingRollupServiceTest {
+
+    @Mock
+    private ParkingHourlyStatsRepository statsRepository;
+
+    @InjectMocks
+    private ParkingRollupService rollupService;
+
+    private static Date at(String instant) {
+        return Date.from(Instant.parse(instant));
+    }
+
+    @Test
+    void bucketOf_ShouldTruncateToTheHour() {
+        assertEquals(at("2025-03-01T10:00:00Z"), ParkingRollupService.bucketOf(at("2025-03-01T10:42:17Z")));
+    }
+
+    @Test
+    void recordEntry_ShouldCountPlateOnlyWhenNewInBucket() {
+        Date bucket = at("2025-03-01T10:00:00Z");
+        when(statsRepository.insertPlate("parking-id", bucket, "ABC123")).thenReturn(0);
+
+        rollupService.recordEntry("parking-id", "ABC123", at("2025-03-01T10:05:00Z"));
+
+        verify(statsRepository).incrementEntries("parking-id", bucket, 0);
+    }
+
+    @Test
+    void recordExit_WithoutCost_ShouldAddZeroRevenue() {
+        rollupService.recordExit("parking-id", at("2025-03-01T11:59:59Z"), null);
+
+        verify(statsRepository).incrementExits("parking-id", at("2025-03-01T11:00:00Z"), BigDecimal.ZERO);
+    }
+
+    @Test
+    void rebuild_ShouldReplaceBucketsInRange() {
+        Date from = at("2025-03-01T00:00:00Z");
+        Date to = at("2025-03-02T00:00:00Z");
+        when(statsRepository.rebuildStatsBetween(from, to)).thenReturn(12);
+
+        int buckets = rollupService.rebuild(at("2025-03-01T00:30:00Z"), to);
+
+        assertEquals(12, buckets);
+        verify(statsRepository).deleteStatsBetween(from, to);
+        verify(statsRepository).deletePlatesBetween(from, to);
+        verify(statsRepository).rebuildPlatesBetween(from, to);
+    }
+
+    @Test
+    void rebuild_WhenRangeIsShorterThanAnHour_ShouldDoNothing() {
+        int buckets = rollupService.rebuild(at("2025-03-01T10:10:00Z"), at("2025-03-01T10:50:00Z"));
+
+        assertEquals(0, buckets);
+        verifyNoInteractions(statsRepository);
+    }
+
+    @Test
+    void findTopParkings_ShouldQueryTopThreeFromBucketStart() {
+        List<TopParkingResponse> top = Collections.singletonList(
+                new TopParkingResponse("1", "Parking 1", 4L, new BigDecimal("40.00")));
+        when(statsRepository.findTopParkingsByRevenue(any(Date.class), any(Date.class), any()))
+                .thenReturn(top);
+
+        List<TopParkingResponse> result = rollupService.findTopParkings(
+                at("2025-03-01T10:30:00Z"), at("2025-03-02T00:00:00Z"));
+
+        assertEquals(top, result);
+        verify(statsRepository).findTopParkingsByRevenue(at("2025-03-01T10:00:00Z"),
+                at("2025-03-02T00:00:00Z"), PageRequest.of(0, 3));
+    }
+}
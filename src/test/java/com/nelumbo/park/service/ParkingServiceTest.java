@@ -2,17 +2,25 @@ package com.nelumbo.park.service;
 
 import com.nelumbo.park.dto.request.ParkingRequest;
 import com.nelumbo.park.dto.request.ParkingUpdateRequest;
+import com.nelumbo.park.dto.request.VehicleFilterRequest;
 import com.nelumbo.park.dto.response.ParkingResponse;
+import com.nelumbo.park.dto.response.ParkingRowResponse;
 import com.nelumbo.park.dto.response.ParkingWithVehiclesResponse;
+import com.nelumbo.park.dto.response.VehicleSimpleResponse;
 import com.nelumbo.park.entity.Parking;
 import com.nelumbo.park.entity.User;
+import com.nelumbo.park.enums.VehicleStatus;
 import com.nelumbo.park.exception.exceptions.InsufficientPermissionsException;
+import com.nelumbo.park.exception.exceptions.InvalidDateRangeException;
 import com.nelumbo.park.exception.exceptions.NoAssociatedParkingException;
 import com.nelumbo.park.exception.exceptions.ParkingNotFoundException;
 import com.nelumbo.park.mapper.ParkingMapper;
 import com.nelumbo.park.mapper.ParkingResponseMapper;
 import com.nelumbo.park.mapper.ParkingWithVehiclesMapper;
 import com.nelumbo.park.repository.ParkingRepository;
+import com.nelumbo.park.repository.VehicleRecordRepository;
+import com.nelumbo.park.repository.VehicleRepository;
+import com.nelumbo.park.service.infrastructure.ParkingLookupCache;
 import com.nelumbo.park.service.infrastructure.SecurityService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,8 +28,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +51,12 @@ class ParkingServiceTest {
     private ParkingWithVehiclesMapper parkingWithVehiclesMapper;
     @Mock
     private SecurityService securityService;
+    @Mock
+    private VehicleRepository vehicleRepository;
+    @Mock
+    private VehicleRecordRepository vehicleRecordRepository;
+    @Mock
+    private ParkingLookupCache parkingLookupCache;
 
     @InjectMocks
     private ParkingService parkingService;
@@ -47,6 +64,8 @@ class ParkingServiceTest {
     private User adminUser;
     private User socioUser;
     private Parking parking;
+    private ParkingRowResponse parkingRow;
+    private List<VehicleSimpleResponse> vehicles;
     private ParkingRequest parkingRequest;
     private ParkingUpdateRequest parkingUpdateRequest;
 
@@ -65,6 +84,10 @@ class ParkingServiceTest {
         parking.setName("Test Parking");
         parking.setOwner(socioUser);
 
+        parkingRow = new ParkingRowResponse("parking-id", "Test Parking", "Calle 1", 10, 2000f,
+                "socio-id", "socio", "socio@mail.com", "SOCIO");
+        vehicles = List.of(new VehicleSimpleResponse());
+
         parkingRequest = new ParkingRequest();
         parkingRequest.setName("New Parking");
 
@@ -75,21 +98,21 @@ class ParkingServiceTest {
     @Test
     void getAllParkings_AsAdmin_ShouldReturnAllParkings() {
         when(securityService.getCurrentUser()).thenReturn(adminUser);
-        when(parkingRepository.findAll()).thenReturn(Collections.singletonList(parking));
-        when(parkingResponseMapper.toResponseList(any())).thenReturn(Collections.singletonList(new ParkingResponse()));
+        when(parkingRepository.findAllRows()).thenReturn(Collections.singletonList(parkingRow));
+        when(parkingResponseMapper.fromRows(any())).thenReturn(Collections.singletonList(new ParkingResponse()));
 
         List<ParkingResponse> result = parkingService.getAllParkings();
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
-        verify(parkingRepository).findAll();
-        verify(parkingRepository, never()).findByOwner(any());
+        verify(parkingRepository).findAllRows();
+        verify(parkingRepository, never()).findRowsByOwnerId(any());
     }
 
     @Test
     void getAllParkings_AsAdmin_WhenNoParkings_ShouldThrowParkingNotFoundException() {
         when(securityService.getCurrentUser()).thenReturn(adminUser);
-        when(parkingRepository.findAll()).thenReturn(Collections.emptyList());
+        when(parkingRepository.findAllRows()).thenReturn(Collections.emptyList());
 
         assertThrows(ParkingNotFoundException.class, () -> parkingService.getAllParkings());
     }
@@ -97,41 +120,104 @@ class ParkingServiceTest {
     @Test
     void getAllParkings_AsSocio_ShouldReturnOwnedParkings() {
         when(securityService.getCurrentUser()).thenReturn(socioUser);
-        when(parkingRepository.findByOwner(socioUser)).thenReturn(Collections.singletonList(parking));
-        when(parkingResponseMapper.toResponseListWithoutOwner(any())).thenReturn(Collections.singletonList(new ParkingResponse()));
+        when(parkingRepository.findRowsByOwnerId("socio-id")).thenReturn(Collections.singletonList(parkingRow));
+        when(parkingResponseMapper.fromRowsWithoutOwner(any())).thenReturn(Collections.singletonList(new ParkingResponse()));
 
         List<ParkingResponse> result = parkingService.getAllParkings();
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
-        verify(parkingRepository, never()).findAll();
-        verify(parkingRepository).findByOwner(socioUser);
+        verify(parkingRepository, never()).findAllRows();
+        verify(parkingRepository).findRowsByOwnerId("socio-id");
     }
 
     @Test
     void getAllParkings_AsSocio_WhenNoParkings_ShouldThrowNoAssociatedParkingException() {
         when(securityService.getCurrentUser()).thenReturn(socioUser);
-        when(parkingRepository.findByOwner(socioUser)).thenReturn(Collections.emptyList());
+        when(parkingRepository.findRowsByOwnerId("socio-id")).thenReturn(Collections.emptyList());
 
         assertThrows(NoAssociatedParkingException.class, () -> parkingService.getAllParkings());
     }
 
     @Test
-    void getParkingById_AsAdmin_ShouldReturnParking() {
+    void getParkingById_AsAdmin_ShouldReturnParkingWithVehiclesInside() {
         when(securityService.getCurrentUser()).thenReturn(adminUser);
-        when(parkingRepository.findById(parking.getId())).thenReturn(parking);
-        when(parkingWithVehiclesMapper.toResponse(parking)).thenReturn(new ParkingWithVehiclesResponse());
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
+        when(vehicleRepository.findSimplePageByParking(eq(parking.getId()), eq(VehicleStatus.IN),
+                isNull(), isNull(), isNull(), isNull(), any(Pageable.class))).thenReturn(vehicles);
+        when(parkingWithVehiclesMapper.toResponse(parking, vehicles, null)).thenReturn(new ParkingWithVehiclesResponse());
 
-        ParkingWithVehiclesResponse result = parkingService.getParkingById(parking.getId());
+        ParkingWithVehiclesResponse result = parkingService.getParkingById(parking.getId(), new VehicleFilterRequest(), null, null);
 
         assertNotNull(result);
-        verify(parkingRepository).findById(parking.getId());
+        verify(parkingLookupCache).findById(parking.getId());
+        verifyNoInteractions(parkingRepository, vehicleRecordRepository);
+    }
+
+    @Test
+    void getParkingById_WithStatusOut_ShouldReadArchivedRecords() {
+        when(securityService.getCurrentUser()).thenReturn(adminUser);
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
+        when(vehicleRecordRepository.findSimplePageByParking(eq(parking.getId()), eq(VehicleStatus.OUT),
+                isNull(), isNull(), isNull(), isNull(), any(Pageable.class))).thenReturn(vehicles);
+        when(parkingWithVehiclesMapper.toResponse(parking, vehicles, null)).thenReturn(new ParkingWithVehiclesResponse());
+
+        VehicleFilterRequest filter = new VehicleFilterRequest(VehicleStatus.OUT, parking.getId(), null, null);
+        assertNotNull(parkingService.getParkingById(parking.getId(), filter, null, null));
+
+        verify(vehicleRepository, never()).findSimplePageByParking(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getParkingById_WhenMoreRowsThanLimit_ShouldReturnNextCursor() {
+        Date now = new Date();
+        VehicleSimpleResponse newest = new VehicleSimpleResponse("v2", "AAA222", "Model", now, null, 2000f, VehicleStatus.IN);
+        VehicleSimpleResponse older = new VehicleSimpleResponse("v1", "AAA111", "Model",
+                new Date(now.getTime() - 60_000L), null, 2000f, VehicleStatus.IN);
+        when(securityService.getCurrentUser()).thenReturn(adminUser);
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
+        when(vehicleRepository.findSimplePageByParking(eq(parking.getId()), eq(VehicleStatus.IN),
+                isNull(), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 2)))).thenReturn(List.of(newest, older));
+        when(parkingWithVehiclesMapper.toResponse(eq(parking), eq(List.of(newest)), anyString()))
+                .thenAnswer(invocation -> new ParkingWithVehiclesResponse(parking.getId(), parking.getName(),
+                        parking.getAddress(), parking.getCapacity(), parking.getCostPerHour(),
+                        invocation.getArgument(1), invocation.getArgument(2)));
+
+        ParkingWithVehiclesResponse page = parkingService.getParkingById(parking.getId(), new VehicleFilterRequest(), null, 1);
+        assertEquals(1, page.getVehicles().size());
+        assertNotNull(page.getNextCursor());
+
+        doReturn(List.of(older)).when(vehicleRepository).findSimplePageByParking(eq(parking.getId()), eq(VehicleStatus.IN),
+                isNull(), isNull(), eq(now), eq("v2"), eq(PageRequest.of(0, 2)));
+        doReturn(new ParkingWithVehiclesResponse()).when(parkingWithVehiclesMapper).toResponse(parking, List.of(older), null);
+
+        assertNotNull(parkingService.getParkingById(parking.getId(), new VehicleFilterRequest(), page.getNextCursor(), 1));
+    }
+
+    @Test
+    void getParkingById_WithInvertedRange_ShouldThrowInvalidDateRangeException() {
+        Date now = new Date();
+        VehicleFilterRequest filter = new VehicleFilterRequest(VehicleStatus.IN, parking.getId(), now, new Date(now.getTime() - 1000L));
+        String parkingId = parking.getId();
+
+        assertThrows(InvalidDateRangeException.class, () -> parkingService.getParkingById(parkingId, filter, null, null));
+        verifyNoInteractions(parkingLookupCache, vehicleRepository);
+    }
+
+    @Test
+    void getParkingById_WithoutVehicles_ShouldNotQueryVehicles() {
+        when(securityService.getCurrentUser()).thenReturn(adminUser);
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
+        when(parkingWithVehiclesMapper.toResponse(parking, null, null)).thenReturn(new ParkingWithVehiclesResponse());
+
+        assertNotNull(parkingService.getParkingById(parking.getId()));
+        verifyNoInteractions(vehicleRepository, vehicleRecordRepository);
     }
 
     @Test
     void getParkingById_AsAdmin_WhenNotFound_ShouldThrowParkingNotFoundException() {
         when(securityService.getCurrentUser()).thenReturn(adminUser);
-        when(parkingRepository.findById(anyString())).thenReturn(null);
+        when(parkingLookupCache.findById(anyString())).thenReturn(null);
 
         assertThrows(ParkingNotFoundException.class, () -> parkingService.getParkingById("non-existent-id"));
     }
@@ -139,13 +225,15 @@ class ParkingServiceTest {
     @Test
     void getParkingById_AsSocio_WhenIsOwner_ShouldReturnParking() {
         when(securityService.getCurrentUser()).thenReturn(socioUser);
-        when(parkingRepository.findByIdAndOwner(parking.getId(), socioUser)).thenReturn(parking);
-        when(parkingWithVehiclesMapper.toResponse(parking)).thenReturn(new ParkingWithVehiclesResponse());
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
+        when(vehicleRepository.findSimplePageByParking(eq(parking.getId()), eq(VehicleStatus.IN),
+                isNull(), isNull(), isNull(), isNull(), any(Pageable.class))).thenReturn(vehicles);
+        when(parkingWithVehiclesMapper.toResponse(parking, vehicles, null)).thenReturn(new ParkingWithVehiclesResponse());
 
-        ParkingWithVehiclesResponse result = parkingService.getParkingById(parking.getId());
+        ParkingWithVehiclesResponse result = parkingService.getParkingById(parking.getId(), new VehicleFilterRequest(), null, null);
 
         assertNotNull(result);
-        verify(parkingRepository).findByIdAndOwner(parking.getId(), socioUser);
+        verifyNoInteractions(parkingRepository);
     }
 
     @Test
@@ -155,8 +243,7 @@ class ParkingServiceTest {
         anotherSocio.setRole("SOCIO");
 
         when(securityService.getCurrentUser()).thenReturn(anotherSocio);
-        when(parkingRepository.findByIdAndOwner(parking.getId(), anotherSocio)).thenReturn(null);
-        when(parkingRepository.findById(parking.getId())).thenReturn(parking);
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
 
         String parkingId = parking.getId();
         assertThrows(InsufficientPermissionsException.class, () -> parkingService.getParkingById(parkingId));
@@ -191,6 +278,7 @@ class ParkingServiceTest {
         assertEquals("Updated Parking", result.getName());
         verify(parkingRepository).findById(parking.getId());
         verify(parkingRepository).save(any(Parking.class));
+        verify(parkingLookupCache).evict(parking.getId());
     }
 
     @Test
@@ -209,7 +297,9 @@ class ParkingServiceTest {
         parkingService.deleteParking(parking.getId());
 
         verify(parkingRepository).findById(parking.getId());
+        verify(parkingRepository).deleteVehicleHistory(parking.getId());
         verify(parkingRepository).delete(parking);
+        verify(parkingLookupCache).evict(parking.getId());
     }
 
     @Test
@@ -217,6 +307,7 @@ class ParkingServiceTest {
         when(parkingRepository.findById(anyString())).thenReturn(null);
 
         assertThrows(ParkingNotFoundException.class, () -> parkingService.deleteParking("non-existent-id"));
+        verify(parkingRepository, never()).deleteVehicleHistory(anyString());
         verify(parkingRepository, never()).delete(any());
     }
 }
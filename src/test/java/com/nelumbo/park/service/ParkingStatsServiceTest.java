@@ -1,43 +1,60 @@
 package com.nelumbo.park.service;
 
+import com.nelumbo.park.dto.response.MonthParkingStatsResponse;
+import com.nelumbo.park.dto.response.ParkingRankingResponse;
+import com.nelumbo.park.dto.response.PartnerRankingResponse;
 import com.nelumbo.park.dto.response.TopParkingResponse;
 import com.nelumbo.park.dto.response.TopPartnerResponse;
 import com.nelumbo.park.dto.response.WeeklyParkingStatsResponse;
 import com.nelumbo.park.dto.response.WeeklyPartnerStatsResponse;
-import com.nelumbo.park.entity.Vehicle;
-import com.nelumbo.park.repository.VehicleRepository;
+import com.nelumbo.park.entity.VehicleRecord;
+import com.nelumbo.park.exception.exceptions.InvalidDateRangeException;
+import com.nelumbo.park.repository.VehicleRecordRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class ParkingStatsServiceTest {
 
     @Mock
-    private VehicleRepository vehicleRepository;
+    private VehicleRecordRepository vehicleRecordRepository;
 
     @Mock
     private ParkingEarningsCalculator earningsCalculator;
 
+    @Mock
+    private ParkingRollupService rollupService;
+
     @InjectMocks
     private ParkingStatsService parkingStatsService;
 
     @Test
     void getPartnersRanking_ShouldReturnWeeklyPartnerStatsResponse() {
         List<TopPartnerResponse> mockTopPartners = Collections.singletonList(new TopPartnerResponse("partner1", 100L, "1"));
-        when(vehicleRepository.findTopPartnersByWeek(any(Date.class), any(Date.class), any(Pageable.class)))
+        when(vehicleRecordRepository.findTopPartnersByWeek(any(Date.class), any(Date.class), any(Pageable.class)))
                 .thenReturn(mockTopPartners);
 
         WeeklyPartnerStatsResponse response = parkingStatsService.getPartnersRanking();
@@ -50,13 +67,9 @@ class ParkingStatsServiceTest {
 
     @Test
     void getParkingRanking_ShouldReturnWeeklyParkingStatsResponse() {
-        List<Vehicle> mockVehicles = Collections.singletonList(new Vehicle());
-
         List<TopParkingResponse> mockTopParkings = Collections.singletonList(new TopParkingResponse("1", "Parking Name 1", 10L, "200.0"));
 
-        when(vehicleRepository.findVehiclesWithExitTimeBetween(any(Date.class), any(Date.class)))
-                .thenReturn(mockVehicles);
-        when(earningsCalculator.calculateParkingEarnings(mockVehicles))
+        when(vehicleRecordRepository.findTopParkingsByEarnings(any(Date.class), any(Date.class), eq(PageRequest.of(0, 3))))
                 .thenReturn(mockTopParkings);
 
         WeeklyParkingStatsResponse response = parkingStatsService.getParkingRanking();
@@ -65,5 +78,90 @@ class ParkingStatsServiceTest {
         assertNotNull(response.getWeekStart());
         assertNotNull(response.getWeekEnd());
         assertEquals(mockTopParkings, response.getTopParking());
+        verify(vehicleRecordRepository, never()).findVehiclesWithExitTimeBetween(any(Date.class), any(Date.class));
+    }
+
+    @Test
+    void getParkingRankingMonth_ShouldQueryTheMonthWindow() {
+        List<TopParkingResponse> mockTopParkings = Collections.singletonList(new TopParkingResponse("1", "Parking Name 1", 10L, "200.0"));
+        ArgumentCaptor<Date> startCaptor = ArgumentCaptor.forClass(Date.class);
+
+        when(vehicleRecordRepository.findTopParkingsByEarnings(startCaptor.capture(), any(Date.class), any(Pageable.class)))
+                .thenReturn(mockTopParkings);
+
+        MonthParkingStatsResponse response = parkingStatsService.getParkingRankingMonth();
+
+        assertEquals(mockTopParkings, response.getTopParking());
+        assertEquals(1, response.getMonthStart().getDayOfMonth());
+        assertEquals(Date.from(response.getMonthStart().atZone(ZoneId.systemDefault()).toInstant()), startCaptor.getValue());
+        assertEquals(response.getMonthStart().plusMonths(1), response.getMonthEnd().plusNanos(1));
+    }
+
+    @Test
+    void getParkingRanking_WithJavaFallback_ShouldUseEarningsCalculator() {
+        ReflectionTestUtils.setField(parkingStatsService, "javaFallback", true);
+        List<VehicleRecord> mockVehicles = Collections.singletonList(new VehicleRecord());
+        List<TopParkingResponse> mockTopParkings = Collections.singletonList(new TopParkingResponse("1", "Parking Name 1", 10L, "200.0"));
+
+        when(vehicleRecordRepository.findVehiclesWithExitTimeBetween(any(Date.class), any(Date.class)))
+                .thenReturn(mockVehicles);
+        when(earningsCalculator.calculateParkingEarnings(mockVehicles))
+                .thenReturn(mockTopParkings);
+
+        WeeklyParkingStatsResponse response = parkingStatsService.getParkingRanking();
+
+        assertEquals(mockTopParkings, response.getTopParking());
+        verify(vehicleRecordRepository, never()).findTopParkingsByEarnings(any(Date.class), any(Date.class), any(Pageable.class));
+    }
+
+    @Test
+    void getParkingRanking_WithRollupEnabled_ShouldUseHourlyRollup() {
+        ReflectionTestUtils.setField(parkingStatsService, "rollupEnabled", true);
+        List<TopParkingResponse> mockTopParkings = Collections.singletonList(new TopParkingResponse("1", "Parking Name 1", 10L, "200.0"));
+        when(rollupService.findTopParkings(any(Date.class), any(Date.class))).thenReturn(mockTopParkings);
+
+        WeeklyParkingStatsResponse response = parkingStatsService.getParkingRanking();
+
+        assertEquals(mockTopParkings, response.getTopParking());
+        verify(vehicleRecordRepository, never()).findTopParkingsByEarnings(any(Date.class), any(Date.class), any(Pageable.class));
+    }
+
+    @Test
+    void getParkingRankingBetween_ShouldQueryTheRequestedWindow() {
+        ReflectionTestUtils.setField(parkingStatsService, "rollupEnabled", true);
+        LocalDateTime from = LocalDateTime.of(2025, 3, 1, 8, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 3, 4, 18, 0);
+        List<TopParkingResponse> mockTopParkings = Collections.singletonList(new TopParkingResponse("1", "Parking Name 1", 10L, "200.0"));
+        when(rollupService.findTopParkings(Date.from(from.atZone(ZoneId.systemDefault()).toInstant()),
+                Date.from(to.atZone(ZoneId.systemDefault()).toInstant()))).thenReturn(mockTopParkings);
+
+        ParkingRankingResponse response = parkingStatsService.getParkingRankingBetween(from, to);
+
+        assertEquals(from, response.getFrom());
+        assertEquals(to, response.getTo());
+        assertEquals(mockTopParkings, response.getTopParking());
+    }
+
+    @Test
+    void getPartnersRankingBetween_WithRollupEnabled_ShouldUseHourlyRollup() {
+        ReflectionTestUtils.setField(parkingStatsService, "rollupEnabled", true);
+        LocalDateTime from = LocalDateTime.of(2025, 3, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 3, 2, 0, 0);
+        List<TopPartnerResponse> mockTopPartners = Collections.singletonList(new TopPartnerResponse("partner1", 100L, "1"));
+        when(rollupService.findTopPartners(any(Date.class), any(Date.class))).thenReturn(mockTopPartners);
+
+        PartnerRankingResponse response = parkingStatsService.getPartnersRankingBetween(from, to);
+
+        assertEquals(mockTopPartners, response.getTopPartners());
+        verify(vehicleRecordRepository, never()).findTopPartnersByWeek(any(Date.class), any(Date.class), any(Pageable.class));
+    }
+
+    @Test
+    void getParkingRankingBetween_WhenFromIsNotBeforeTo_ShouldThrowInvalidDateRangeException() {
+        LocalDateTime from = LocalDateTime.of(2025, 3, 2, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+        assertThrows(InvalidDateRangeException.class, () -> parkingStatsService.getParkingRankingBetween(from, to));
+        verifyNoInteractions(rollupService, vehicleRecordRepository);
     }
 }
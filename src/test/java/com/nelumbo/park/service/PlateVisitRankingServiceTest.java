@@ -0,0 +1,111 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.dto.response.TopVehicleResponse;
+import com.nelumbo.park.entity.PlateVisitCounter;
+import com.nelumbo.park.repository.PlateVisitCounterRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PlateVisitRankingServiceTest {
+
+    private static final PageRequest TOP = PageRequest.of(0, PlateVisitRankingService.TOP_SIZE);
+
+    @Mock
+    private PlateVisitCounterRepository counterRepository;
+
+    @InjectMocks
+    private PlateVisitRankingService visitRankingService;
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    @Test
+    void initialize_WhenCountersAreEmpty_ShouldRebuildFromVehicles() {
+        when(counterRepository.count()).thenReturn(0L);
+        when(counterRepository.findTopByScope(PlateVisitCounter.GLOBAL_SCOPE, TOP)).thenReturn(List.of());
+
+        visitRankingService.initialize();
+
+        verify(counterRepository).rebuildFromVehicles();
+    }
+
+    @Test
+    void recordVisit_ShouldUpdateLoadedRankingsWithoutQueryingAgain() {
+        when(counterRepository.findTopByScope(PlateVisitCounter.GLOBAL_SCOPE, TOP))
+                .thenReturn(List.of(new TopVehicleResponse("AAA111", 3L)));
+        when(counterRepository.findTopByScope("parking-id", TOP))
+                .thenReturn(List.of(new TopVehicleResponse("AAA111", 1L)));
+        visitRankingService.getTopVehicles();
+        visitRankingService.getTopVehicles("parking-id");
+        when(counterRepository.incrementVisits("parking-id", "BBB222"))
+                .thenReturn(rows(new Object[]{"*", 4L}, new Object[]{"parking-id", 2L}));
+
+        visitRankingService.recordVisit("parking-id", "BBB222");
+
+        assertEquals(List.of(new TopVehicleResponse("BBB222", 4L), new TopVehicleResponse("AAA111", 3L)),
+                visitRankingService.getTopVehicles());
+        assertEquals(List.of(new TopVehicleResponse("BBB222", 2L), new TopVehicleResponse("AAA111", 1L)),
+                visitRankingService.getTopVehicles("parking-id"));
+        verify(counterRepository, times(1)).findTopByScope(PlateVisitCounter.GLOBAL_SCOPE, TOP);
+        verify(counterRepository, times(1)).findTopByScope("parking-id", TOP);
+    }
+
+    @Test
+    void removeVisit_ShouldReloadAffectedRankings() {
+        when(counterRepository.findTopByScope(PlateVisitCounter.GLOBAL_SCOPE, TOP))
+                .thenReturn(List.of(new TopVehicleResponse("AAA111", 3L)))
+                .thenReturn(List.of(new TopVehicleResponse("AAA111", 2L)));
+        visitRankingService.getTopVehicles();
+
+        visitRankingService.removeVisit("parking-id", "AAA111");
+
+        assertEquals(2L, visitRankingService.getTopVehicles().get(0).getTotalVisits());
+        verify(counterRepository).decrementVisits("parking-id", "AAA111");
+    }
+
+    @Test
+    void getTopVehicles_ForParkingWithoutVisits_ShouldReturnEmptyList() {
+        when(counterRepository.findTopByScope("parking-id", TOP)).thenReturn(List.of());
+
+        assertTrue(visitRankingService.getTopVehicles("parking-id").isEmpty());
+    }
+
+    @Test
+    void getTopVehicles_ForUnknownParking_ShouldNotCacheTheEmptyRanking() {
+        when(counterRepository.findTopByScope("unknown-id", TOP)).thenReturn(List.of());
+
+        visitRankingService.getTopVehicles("unknown-id");
+        visitRankingService.getTopVehicles("unknown-id");
+
+        verify(counterRepository, times(2)).findTopByScope("unknown-id", TOP);
+    }
+
+    @Test
+    void getTopVehicles_WhenTrackerLimitIsReached_ShouldStopCaching() {
+        when(counterRepository.findTopByScope(anyString(), eq(TOP)))
+                .thenReturn(List.of(new TopVehicleResponse("AAA111", 1L)));
+        for (int i = 0; i < PlateVisitRankingService.MAX_TRACKERS; i++) {
+            visitRankingService.getTopVehicles("parking-" + i);
+        }
+
+        visitRankingService.getTopVehicles("parking-extra");
+        visitRankingService.getTopVehicles("parking-extra");
+        visitRankingService.getTopVehicles("parking-0");
+
+        verify(counterRepository, times(2)).findTopByScope("parking-extra", TOP);
+        verify(counterRepository, times(1)).findTopByScope("parking-0", TOP);
+    }
+}
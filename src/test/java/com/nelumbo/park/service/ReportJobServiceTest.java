@@ -0,0 +1,394 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.dto.request.ReportJobRequest;
+import com.nelumbo.park.dto.response.ReportJobResponse;
+import com.nelumbo.park.dto.response.VehicleDetailResponse;
+import com.nelumbo.park.dto.response.VehicleOutDetailResponse;
+import com.nelumbo.park.entity.Parking;
+import com.nelumbo.park.entity.ReportJob;
+import com.nelumbo.park.entity.User;
+import com.nelumbo.park.enums.ReportFormat;
+import com.nelumbo.park.enums.ReportJobStatus;
+import com.nelumbo.park.exception.exceptions.InsufficientPermissionsException;
+import com.nelumbo.park.exception.exceptions.InvalidDateRangeException;
+import com.nelumbo.park.exception.exceptions.ParkingNotFoundException;
+import com.nelumbo.park.exception.exceptions.ReportJobNotFoundException;
+import com.nelumbo.park.exception.exceptions.ReportQueueFullException;
+import com.nelumbo.park.repository.ParkingRepository;
+import com.nelumbo.park.repository.ReportJobRepository;
+import com.nelumbo.park.service.infrastructure.S3Service;
+import com.nelumbo.park.service.infrastructure.SecurityService;
+import com.nelumbo.park.utils.Excel;
+import com.nelumbo.park.utils.ExcelComponent;
+import com.nelumbo.park.utils.Pdf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportJobServiceTest {
+
+    private static final String PDF_CONTENT_TYPE = "application/pdf";
+
+    @Mock
+    private ReportJobRepository reportJobRepository;
+
+    @Mock
+    private ParkingRepository parkingRepository;
+
+    @Mock
+    private SecurityService securityService;
+
+    @Mock
+    private VehicleReportService vehicleReportService;
+
+    @Mock
+    private Excel excel;
+
+    @Mock
+    private ExcelComponent excelGenerator;
+
+    @Mock
+    private Pdf pdf;
+
+    @Mock
+    private S3Service s3Service;
+
+    private ReportJobService reportJobService;
+    private User socio;
+    private Parking parking;
+    private ReportJobRequest request;
+    private final List<ReportJobStatus> savedStatuses = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        reportJobService = newService(Runnable::run);
+
+        socio = new User();
+        socio.setId("socio-1");
+        socio.setRole("SOCIO");
+
+        parking = new Parking();
+        parking.setId("parking-1");
+        parking.setName("Parking Central");
+        parking.setOwner(socio);
+
+        request = new ReportJobRequest("parking-1", LocalDateTime.of(2025, 1, 1, 0, 0),
+                LocalDateTime.of(2025, 1, 31, 0, 0), ReportFormat.PDF);
+    }
+
+    private ReportJobService newService(Executor executor) {
+        ReportJobService service = new ReportJobService(reportJobRepository, parkingRepository, securityService,
+                vehicleReportService, excel, excelGenerator, pdf, s3Service, executor);
+        ReflectionTestUtils.setField(service, "urlTtlMinutes", 15L);
+        ReflectionTestUtils.setField(service, "maxRangeDays", 93L);
+        ReflectionTestUtils.setField(service, "leaseSeconds", 120L);
+        ReflectionTestUtils.setField(service, "pdfContentType", PDF_CONTENT_TYPE);
+        return service;
+    }
+
+    private void givenOwnerRequest() {
+        when(securityService.getCurrentUser()).thenReturn(socio);
+        when(securityService.isAdmin()).thenReturn(false);
+        when(parkingRepository.findById("parking-1")).thenReturn(parking);
+    }
+
+    private void givenPersistedJobs() {
+        ReportJob[] stored = new ReportJob[1];
+        when(reportJobRepository.save(any(ReportJob.class))).thenAnswer(invocation -> {
+            ReportJob job = invocation.getArgument(0);
+            job.setId("job-1");
+            savedStatuses.add(job.getStatus());
+            stored[0] = job;
+            return job;
+        });
+        when(reportJobRepository.startJob(eq("job-1"), any(Date.class))).thenAnswer(invocation -> {
+            stored[0].setStatus(ReportJobStatus.RUNNING);
+            savedStatuses.add(ReportJobStatus.RUNNING);
+            return 1;
+        });
+        when(reportJobRepository.finishJob(eq("job-1"), any(ReportJobStatus.class), any(), any(), any(),
+                any(Date.class))).thenAnswer(invocation -> {
+            savedStatuses.add(invocation.getArgument(1));
+            return 1;
+        });
+        when(reportJobRepository.findById("job-1")).thenAnswer(invocation -> Optional.ofNullable(stored[0]));
+    }
+
+    private void givenQueuedJob() {
+        when(reportJobRepository.save(any(ReportJob.class))).thenAnswer(invocation -> {
+            ReportJob job = invocation.getArgument(0);
+            job.setId("job-1");
+            return job;
+        });
+    }
+
+    private static VehicleOutDetailResponse detail() {
+        VehicleDetailResponse vehicle = new VehicleDetailResponse("v1", "ABC123", "Mazda",
+                "01-01-2025-08:00", "01-01-2025-10:00", new BigDecimal("20.00"));
+        return new VehicleOutDetailResponse("socio-1", "socio", "socio@mail.com", "parking-1", "Parking Central",
+                List.of(vehicle), 1, new BigDecimal("20.00"));
+    }
+
+    @Test
+    @DisplayName("Should generate the PDF on the worker, upload it and mark the job completed")
+    void createJob_AsParkingOwner_ShouldCompleteJob() throws IOException {
+        givenOwnerRequest();
+        givenPersistedJobs();
+        List<VehicleOutDetailResponse> data = List.of(detail());
+        when(vehicleReportService.getVehiclesOutDetails(eq("parking-1"), any(Date.class), any(Date.class)))
+                .thenReturn(data);
+        doAnswer(invocation -> {
+            ((OutputStream) invocation.getArgument(1)).write("pdf".getBytes());
+            return null;
+        }).when(pdf).writePdfPorUsuario(eq(data), any(OutputStream.class));
+        Path[] uploaded = new Path[1];
+        when(s3Service.uploadFile(any(Path.class), eq(PDF_CONTENT_TYPE), anyString())).thenAnswer(invocation -> {
+            uploaded[0] = invocation.getArgument(0);
+            assertArrayEquals("pdf".getBytes(), Files.readAllBytes(uploaded[0]));
+            return Collections.singletonMap("Key", invocation.getArgument(2));
+        });
+
+        ReportJobResponse response = reportJobService.createJob(request);
+
+        assertEquals("job-1", response.getId());
+        assertEquals(List.of(ReportJobStatus.PENDING, ReportJobStatus.RUNNING, ReportJobStatus.COMPLETED),
+                savedStatuses);
+        assertFalse(Files.exists(uploaded[0]), "El archivo temporal debe eliminarse despues de subirlo");
+        verify(excel, never()).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("Should mark the job as NO_DATA when the range has no exits")
+    void createJob_WithoutExits_ShouldFinishWithoutFile() {
+        givenOwnerRequest();
+        givenPersistedJobs();
+        when(vehicleReportService.getVehiclesOutDetails(eq("parking-1"), any(Date.class), any(Date.class)))
+                .thenReturn(Collections.emptyList());
+
+        reportJobService.createJob(request);
+
+        assertEquals(ReportJobStatus.NO_DATA, savedStatuses.get(savedStatuses.size() - 1));
+        verifyNoInteractions(pdf, excel, s3Service);
+    }
+
+    @Test
+    @DisplayName("Should record the error when generation fails")
+    void createJob_WhenGenerationFails_ShouldMarkJobFailed() throws IOException {
+        givenOwnerRequest();
+        givenPersistedJobs();
+        when(vehicleReportService.getVehiclesOutDetails(eq("parking-1"), any(Date.class), any(Date.class)))
+                .thenReturn(List.of(detail()));
+        doThrow(new IOException("disco lleno")).when(pdf).writePdfPorUsuario(anyList(), any(OutputStream.class));
+
+        reportJobService.createJob(request);
+
+        ReportJob job = reportJobRepository.findById("job-1").orElseThrow();
+        assertEquals(ReportJobStatus.FAILED, job.getStatus());
+        assertEquals("disco lleno", job.getErrorMessage());
+        assertNotNull(job.getFinishedAt());
+        verify(s3Service, never()).uploadFile(any(Path.class), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should skip a job that another node already marked as failed")
+    void createJob_WhenJobIsNoLongerPending_ShouldNotGenerate() {
+        givenOwnerRequest();
+        givenQueuedJob();
+        when(reportJobRepository.startJob(eq("job-1"), any(Date.class))).thenReturn(0);
+
+        reportJobService.createJob(request);
+
+        verify(reportJobRepository, never()).findById(anyString());
+        verifyNoInteractions(vehicleReportService, pdf, excel, s3Service);
+    }
+
+    @Test
+    @DisplayName("Should keep the FAILED status when the lease was lost while generating")
+    void createJob_WhenLeaseIsLost_ShouldNotOverwriteStatus() {
+        givenOwnerRequest();
+        givenQueuedJob();
+        ReportJob running = new ReportJob();
+        running.setId("job-1");
+        running.setParkingId("parking-1");
+        running.setFromTime(new Date());
+        running.setToTime(new Date());
+        running.setFormat(ReportFormat.PDF);
+        running.setStatus(ReportJobStatus.RUNNING);
+        when(reportJobRepository.startJob(eq("job-1"), any(Date.class))).thenReturn(1);
+        when(reportJobRepository.findById("job-1")).thenReturn(Optional.of(running));
+        when(vehicleReportService.getVehiclesOutDetails(eq("parking-1"), any(Date.class), any(Date.class)))
+                .thenReturn(Collections.emptyList());
+        when(reportJobRepository.finishJob(eq("job-1"), eq(ReportJobStatus.NO_DATA), any(), any(), any(),
+                any(Date.class))).thenReturn(0);
+
+        reportJobService.createJob(request);
+
+        assertEquals(ReportJobStatus.RUNNING, running.getStatus());
+        assertNull(running.getFinishedAt());
+    }
+
+    @Test
+    @DisplayName("Should reject reports for a parking owned by another partner")
+    void createJob_ForAnotherPartnersParking_ShouldThrow() {
+        User other = new User();
+        other.setId("socio-2");
+        when(securityService.getCurrentUser()).thenReturn(other);
+        when(securityService.isAdmin()).thenReturn(false);
+        when(parkingRepository.findById("parking-1")).thenReturn(parking);
+
+        assertThrows(InsufficientPermissionsException.class, () -> reportJobService.createJob(request));
+        verify(reportJobRepository, never()).save(any(ReportJob.class));
+    }
+
+    @Test
+    @DisplayName("Should throw when the parking does not exist")
+    void createJob_WithUnknownParking_ShouldThrow() {
+        when(securityService.getCurrentUser()).thenReturn(socio);
+        when(parkingRepository.findById("parking-1")).thenReturn(null);
+
+        assertThrows(ParkingNotFoundException.class, () -> reportJobService.createJob(request));
+    }
+
+    @Test
+    @DisplayName("Should reject inverted or too long ranges before touching the database")
+    void createJob_WithInvalidRange_ShouldThrow() {
+        request.setTo(request.getFrom().minusDays(1));
+        assertThrows(InvalidDateRangeException.class, () -> reportJobService.createJob(request));
+
+        request.setTo(request.getFrom().plusDays(94));
+        assertThrows(InvalidDateRangeException.class, () -> reportJobService.createJob(request));
+
+        verifyNoInteractions(parkingRepository, reportJobRepository);
+    }
+
+    @Test
+    @DisplayName("Should delete the job and report the queue as full when the pool rejects it")
+    void createJob_WhenQueueIsFull_ShouldThrow() {
+        reportJobService = newService(task -> {
+            throw new RejectedExecutionException("cola llena");
+        });
+        givenOwnerRequest();
+        givenQueuedJob();
+
+        assertThrows(ReportQueueFullException.class, () -> reportJobService.createJob(request));
+        verify(reportJobRepository).delete(any(ReportJob.class));
+        reportJobService.renewLeases();
+        verify(reportJobRepository, never()).renewLeases(anyCollection(), any(Date.class));
+    }
+
+    @Test
+    @DisplayName("Should renew only the jobs queued on this node and stop once they finish")
+    void renewLeases_ShouldTouchOnlyActiveJobs() {
+        List<Runnable> queued = new ArrayList<>();
+        reportJobService = newService(queued::add);
+        givenOwnerRequest();
+        givenPersistedJobs();
+        when(vehicleReportService.getVehiclesOutDetails(eq("parking-1"), any(Date.class), any(Date.class)))
+                .thenReturn(Collections.emptyList());
+
+        reportJobService.createJob(request);
+        reportJobService.renewLeases();
+        verify(reportJobRepository).renewLeases(eq(Set.of("job-1")), any(Date.class));
+
+        queued.get(0).run();
+        reportJobService.renewLeases();
+        verify(reportJobRepository, times(1)).renewLeases(anyCollection(), any(Date.class));
+    }
+
+    @Test
+    @DisplayName("Should fail only the jobs whose lease expired")
+    void failExpiredJobs_ShouldUseTheLeaseWindow() {
+        long before = System.currentTimeMillis();
+
+        reportJobService.failExpiredJobs();
+
+        ArgumentCaptor<Date> expiredBefore = ArgumentCaptor.forClass(Date.class);
+        verify(reportJobRepository).failExpiredJobs(anyString(), any(Date.class), expiredBefore.capture());
+        long lease = before - expiredBefore.getValue().getTime();
+        assertTrue(lease <= 120_000L && lease > 119_000L, "El lease debe ser de 120 segundos");
+    }
+
+    @Test
+    @DisplayName("Should return a presigned URL for completed jobs")
+    void getJob_WhenCompleted_ShouldIncludeDownloadUrl() {
+        ReportJob job = new ReportJob("job-1", "socio-1", "parking-1", new Date(), new Date(), ReportFormat.PDF,
+                ReportJobStatus.COMPLETED, "reporte.pdf", "s3key", null, new Date(), new Date(), null);
+        when(reportJobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(securityService.getCurrentUser()).thenReturn(socio);
+        when(securityService.isAdmin()).thenReturn(false);
+        when(s3Service.generateDownloadUrl("s3key", "reporte.pdf", Duration.ofMinutes(15)))
+                .thenReturn("https://signed.example.com/s3key");
+
+        ReportJobResponse response = reportJobService.getJob("job-1");
+
+        assertEquals(ReportJobStatus.COMPLETED, response.getStatus());
+        assertEquals("https://signed.example.com/s3key", response.getDownloadUrl());
+        assertNotNull(response.getDownloadUrlExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Should not sign URLs for jobs still running")
+    void getJob_WhenRunning_ShouldNotIncludeDownloadUrl() {
+        ReportJob job = new ReportJob("job-1", "socio-1", "parking-1", new Date(), new Date(), ReportFormat.EXCEL,
+                ReportJobStatus.RUNNING, null, null, null, new Date(), null, new Date());
+        when(reportJobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(securityService.getCurrentUser()).thenReturn(socio);
+        when(securityService.isAdmin()).thenReturn(false);
+
+        ReportJobResponse response = reportJobService.getJob("job-1");
+
+        assertEquals(ReportJobStatus.RUNNING, response.getStatus());
+        assertNull(response.getDownloadUrl());
+        verifyNoInteractions(s3Service);
+    }
+
+    @Test
+    @DisplayName("Should hide other partners' jobs")
+    void getJob_OfAnotherPartner_ShouldThrow() {
+        ReportJob job = new ReportJob("job-1", "socio-2", "parking-9", new Date(), new Date(), ReportFormat.PDF,
+                ReportJobStatus.PENDING, null, null, null, new Date(), null, new Date());
+        when(reportJobRepository.findById("job-1")).thenReturn(Optional.of(job));
+        when(securityService.getCurrentUser()).thenReturn(socio);
+        when(securityService.isAdmin()).thenReturn(false);
+
+        assertThrows(InsufficientPermissionsException.class, () -> reportJobService.getJob("job-1"));
+    }
+
+    @Test
+    @DisplayName("Should throw when the job does not exist")
+    void getJob_WhenMissing_ShouldThrow() {
+        when(reportJobRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertThrows(ReportJobNotFoundException.class, () -> reportJobService.getJob("missing"));
+    }
+}
@@ -12,6 +12,7 @@ import com.nelumbo.park.exception.exceptions.InvalidPasswordException;
 import com.nelumbo.park.mapper.AuthMapper;
 import com.nelumbo.park.mapper.UserMapper;
 import com.nelumbo.park.repository.UserRepository;
+import com.nelumbo.park.service.infrastructure.UserLookupCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -44,6 +45,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private UserLookupCache userLookupCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -122,8 +126,8 @@ class UserServiceTest {
         userToCreate.setEmail(userCreateRequest.getEmail());
         userToCreate.setPassword(rawPassword);
 
-        when(userRepository.findByEmail(anyString())).thenReturn(null);
-        when(userRepository.findByName(anyString())).thenReturn(null);
+        when(userLookupCache.findByEmail(anyString())).thenReturn(null);
+        when(userLookupCache.findByUsername(anyString())).thenReturn(null);
         when(userMapper.toEntity(userCreateRequest)).thenReturn(userToCreate);
         when(passwordEncoder.encode(rawPassword)).thenReturn(encodedPassword);
         when(userRepository.save(any(User.class))).thenReturn(user);
@@ -140,32 +144,33 @@ class UserServiceTest {
 
         assertEquals(encodedPassword, savedUser.getPassword());
         verify(passwordEncoder, times(1)).encode(rawPassword);
+        verify(userLookupCache).evict(userToCreate);
     }
 
     @Test
     void createUser_WithDuplicateEmail_ShouldThrowDuplicateEmailException() {
-        when(userRepository.findByEmail(userCreateRequest.getEmail())).thenReturn(user);
+        when(userLookupCache.findByEmail(userCreateRequest.getEmail())).thenReturn(user);
 
         assertThrows(DuplicateEmailException.class, () -> userService.createUser(userCreateRequest));
 
-        verify(userRepository, times(1)).findByEmail(userCreateRequest.getEmail());
+        verify(userLookupCache, times(1)).findByEmail(userCreateRequest.getEmail());
         verify(userRepository, never()).save(any());
     }
 
     @Test
     void createUser_WithDuplicateUsername_ShouldThrowDuplicateUsernameException() {
-        when(userRepository.findByEmail(anyString())).thenReturn(null);
-        when(userRepository.findByName(userCreateRequest.getUsername())).thenReturn(user);
+        when(userLookupCache.findByEmail(anyString())).thenReturn(null);
+        when(userLookupCache.findByUsername(userCreateRequest.getUsername())).thenReturn(user);
 
         assertThrows(DuplicateUsernameException.class, () -> userService.createUser(userCreateRequest));
 
-        verify(userRepository, times(1)).findByName(userCreateRequest.getUsername());
+        verify(userLookupCache, times(1)).findByUsername(userCreateRequest.getUsername());
         verify(userRepository, never()).save(any());
     }
 
     @Test
     void login_WithValidCredentials_ShouldReturnUserLoginResponse() {
-        when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(user);
+        when(userLookupCache.findByEmail(loginRequest.getEmail())).thenReturn(user);
         when(passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())).thenReturn(true);
         when(authMapper.toUserLoginResponse(user)).thenReturn(userLoginResponse);
 
@@ -178,7 +183,7 @@ class UserServiceTest {
 
     @Test
     void login_WithNonExistentEmail_ShouldThrowEmailNotFoundException() {
-        when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(null);
+        when(userLookupCache.findByEmail(loginRequest.getEmail())).thenReturn(null);
 
         assertThrows(EmailNotFoundException.class, () -> userService.login(loginRequest));
         verify(passwordEncoder, never()).matches(anyString(), anyString());
@@ -186,7 +191,7 @@ class UserServiceTest {
 
     @Test
     void login_WithInvalidPassword_ShouldThrowInvalidPasswordException() {
-        when(userRepository.findByEmail(loginRequest.getEmail())).thenReturn(user);
+        when(userLookupCache.findByEmail(loginRequest.getEmail())).thenReturn(user);
         when(passwordEncoder.matches(loginRequest.getPassword(), user.getPassword())).thenReturn(false);
 
         assertThrows(InvalidPasswordException.class, () -> userService.login(loginRequest));
@@ -198,8 +203,8 @@ class UserServiceTest {
         User userToCreate = new User();
         userToCreate.setPassword(userCreateRequest.getPassword());
 
-        when(userRepository.findByEmail(anyString())).thenReturn(null);
-        when(userRepository.findByName(anyString())).thenReturn(null);
+        when(userLookupCache.findByEmail(anyString())).thenReturn(null);
+        when(userLookupCache.findByUsername(anyString())).thenReturn(null);
         when(userMapper.toEntity(any(UserCreateRequest.class))).thenReturn(userToCreate);
         when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
 
@@ -0,0 +1,143 @@
+package com.nelumbo.park.service;
+
+import com.nelumbo.park.dto.request.VehicleFilterRequest;
+import com.nelumbo.park.dto.response.VehiclePageResponse;
+import com.nelumbo.park.dto.response.VehicleResponse;
+import com.nelumbo.park.entity.User;
+import com.nelumbo.park.entity.VehicleRecord;
+import com.nelumbo.park.enums.VehicleStatus;
+import com.nelumbo.park.exception.exceptions.InvalidCursorException;
+import com.nelumbo.park.mapper.VehicleResponseMapper;
+import com.nelumbo.park.repository.VehicleRecordRepository;
+import com.nelumbo.park.service.infrastructure.SecurityService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VehicleQueryServiceTest {
+
+    @Mock
+    private VehicleRecordRepository vehicleRecordRepository;
+    @Mock
+    private VehicleResponseMapper vehicleResponseMapper;
+    @Mock
+    private SecurityService securityService;
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private VehicleQueryService vehicleQueryService;
+
+    private User socio;
+    private VehicleFilterRequest filter;
+
+    @BeforeEach
+    void setUp() {
+        socio = new User();
+        socio.setId("socio-id");
+        socio.setRole("SOCIO");
+        filter = new VehicleFilterRequest(VehicleStatus.IN, "parking-id", null, null);
+    }
+
+    private VehicleRecord vehicle(String id, long entryTime) {
+        VehicleRecord vehicle = new VehicleRecord();
+        vehicle.setId(id);
+        vehicle.setEntryTime(new Date(entryTime));
+        return vehicle;
+    }
+
+    @Test
+    void getVehiclesPage_WhenMoreRowsThanLimit_ShouldReturnNextCursor() {
+        List<VehicleRecord> rows = List.of(vehicle("v3", 3000), vehicle("v2", 2000), vehicle("v1", 1000));
+        when(securityService.getCurrentUser()).thenReturn(socio);
+        when(vehicleRecordRepository.findPageAfter(eq("socio-id"), eq(VehicleStatus.IN), eq("parking-id"),
+                isNull(), isNull(), isNull(), isNull(), eq(PageRequest.of(0, 3)))).thenReturn(rows);
+        when(vehicleResponseMapper.toResponseList(anyList()))
+                .thenReturn(List.of(new VehicleResponse(), new VehicleResponse()));
+
+        VehiclePageResponse page = vehicleQueryService.getVehiclesPage(filter, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        verify(vehicleResponseMapper).toResponseList(rows.subList(0, 2));
+    }
+
+    @Test
+    void getVehiclesPage_WithCursor_ShouldContinueAfterLastEntry() {
+        List<VehicleRecord> rows = List.of(vehicle("v3", 3000), vehicle("v2", 2000), vehicle("v1", 1000));
+        when(securityService.getCurrentUser()).thenReturn(socio);
+        when(vehicleRecordRepository.findPageAfter(any(), any(), any(), any(), any(), isNull(), isNull(), any()))
+                .thenReturn(rows);
+        when(vehicleResponseMapper.toResponseList(anyList())).thenReturn(List.of());
+        String cursor = vehicleQueryService.getVehiclesPage(filter, null, 2).getNextCursor();
+
+        when(vehicleRecordRepository.findPageAfter(eq("socio-id"), eq(VehicleStatus.IN), eq("parking-id"),
+                isNull(), isNull(), eq(new Date(2000)), eq("v2"), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(vehicle("v1", 1000)));
+
+        VehiclePageResponse page = vehicleQueryService.getVehiclesPage(filter, cursor, 2);
+
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getVehiclesPage_WithAdmin_ShouldNotRestrictByOwnerAndClampLimit() {
+        User admin = new User();
+        admin.setId("admin-id");
+        admin.setRole("ADMIN");
+        when(securityService.getCurrentUser()).thenReturn(admin);
+        when(vehicleRecordRepository.findPageAfter(isNull(), any(), any(), any(), any(), any(), any(),
+                eq(PageRequest.of(0, VehicleQueryService.MAX_PAGE_SIZE + 1)))).thenReturn(List.of());
+        when(vehicleResponseMapper.toResponseList(anyList())).thenReturn(List.of());
+
+        VehiclePageResponse page = vehicleQueryService.getVehiclesPage(filter, null, 10_000);
+
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getVehiclesPage_WithMalformedCursor_ShouldThrowInvalidCursorException() {
+        assertThrows(InvalidCursorException.class,
+                () -> vehicleQueryService.getVehiclesPage(filter, "not-a-cursor!", 10));
+        verifyNoInteractions(vehicleRecordRepository);
+    }
+
+    @Test
+    void streamVehicles_ShouldEmitEachRowAndDetachIt() {
+        VehicleRecord first = vehicle("v2", 2000);
+        VehicleRecord second = vehicle("v1", 1000);
+        VehicleResponse firstResponse = new VehicleResponse();
+        VehicleResponse secondResponse = new VehicleResponse();
+        when(securityService.getCurrentUser()).thenReturn(socio);
+        when(vehicleRecordRepository.streamByFilter("socio-id", VehicleStatus.IN, "parking-id", null, null))
+                .thenReturn(Stream.of(first, second));
+        when(vehicleResponseMapper.toResponse(first)).thenReturn(firstResponse);
+        when(vehicleResponseMapper.toResponse(second)).thenReturn(secondResponse);
+
+        List<VehicleResponse> emitted = new ArrayList<>();
+        vehicleQueryService.streamVehicles(filter, emitted::add);
+
+        assertEquals(List.of(firstResponse, secondResponse), emitted);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+}
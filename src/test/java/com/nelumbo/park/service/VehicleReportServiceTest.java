@@ -2,23 +2,21 @@ package com.nelumbo.park.service;
 
 import com.nelumbo.park.dto.response.VehicleDetailResponse;
 import com.nelumbo.park.dto.response.VehicleOutDetailResponse;
-import com.nelumbo.park.entity.Parking;
-import com.nelumbo.park.entity.User;
-import com.nelumbo.park.entity.Vehicle;
-import com.nelumbo.park.enums.VehicleStatus;
-import com.nelumbo.park.repository.VehicleRepository;
+import com.nelumbo.park.dto.response.VehicleReportRowResponse;
+import com.nelumbo.park.repository.VehicleRecordRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Arrays;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -31,11 +29,28 @@ import static org.mockito.Mockito.when;
 class VehicleReportServiceTest {
 
     @Mock
-    private VehicleRepository vehicleRepository;
+    private VehicleRecordRepository vehicleRecordRepository;
 
     @InjectMocks
     private VehicleReportService vehicleReportService;
 
+    private static Date utc(int hour) {
+        Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        cal.set(2023, Calendar.JANUARY, 15, hour, 0, 0);
+        return cal.getTime();
+    }
+
+    private static VehicleReportRowResponse row(String userId, String parkingId, String parkingName, String vehicleId,
+                                                String plateNumber, int entryHour, int exitHour, BigDecimal totalCost) {
+        return new VehicleReportRowResponse(userId, "user-" + userId, userId + "@example.com", parkingId, parkingName,
+                vehicleId, plateNumber, "Model " + vehicleId, utc(entryHour), utc(exitHour), totalCost);
+    }
+
+    private void givenRows(VehicleReportRowResponse... rows) {
+        when(vehicleRecordRepository.streamReportRowsByExitTime(any(Date.class), any(Date.class)))
+                .thenReturn(Stream.of(rows));
+    }
+
     @Test
     void formatDate_ShouldReturnFormattedDate() {
         Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
@@ -51,281 +66,129 @@ class VehicleReportServiceTest {
 
     @Test
     void getVehiclesOutDetails_ShouldReturnCorrectReport() {
-        Vehicle vehicle1 = new Vehicle();
-        vehicle1.setId("v1");
-        vehicle1.setPlateNumber("ABC-123");
-        vehicle1.setModel("Model A");
-        vehicle1.setCostPerHour(10.0f);
-        vehicle1.setStatus(VehicleStatus.OUT);
-
-        Calendar entryCal1 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        entryCal1.set(2023, Calendar.JANUARY, 15, 8, 0, 0);
-        vehicle1.setEntryTime(entryCal1.getTime());
-
-        Calendar exitCal1 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        exitCal1.set(2023, Calendar.JANUARY, 15, 10, 0, 0);
-        vehicle1.setExitTime(exitCal1.getTime());
-
-        Parking parking1 = new Parking();
-        parking1.setId("p1");
-        parking1.setName("Parking One");
-        vehicle1.setParking(parking1);
-
-        User admin1 = new User();
-        admin1.setId("u1");
-        admin1.setUsername("adminUser");
-        admin1.setEmail("admin@example.com");
-        vehicle1.setAdmin(admin1);
-
-        Vehicle vehicle2 = new Vehicle();
-        vehicle2.setId("v2");
-        vehicle2.setPlateNumber("DEF-456");
-        vehicle2.setModel("Model B");
-        vehicle2.setCostPerHour(5.0f);
-        vehicle2.setStatus(VehicleStatus.OUT);
-
-        Calendar entryCal2 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        entryCal2.set(2023, Calendar.JANUARY, 15, 9, 0, 0);
-        vehicle2.setEntryTime(entryCal2.getTime());
-
-        Calendar exitCal2 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        exitCal2.set(2023, Calendar.JANUARY, 15, 11, 0, 0);
-        vehicle2.setExitTime(exitCal2.getTime());
-
-        Parking parking2 = new Parking();
-        parking2.setId("p2");
-        parking2.setName("Parking Two");
-        vehicle2.setParking(parking2);
-
-        User admin2 = new User();
-        admin2.setId("u2");
-        admin2.setUsername("adminUser2");
-        admin2.setEmail("admin2@example.com");
-        vehicle2.setAdmin(admin2);
-
-        List<Vehicle> mockVehicles = Arrays.asList(vehicle1, vehicle2);
-
-        when(vehicleRepository.findVehiclesWithExitTimeBetween(any(Date.class), any(Date.class)))
-                .thenReturn(mockVehicles);
+        givenRows(
+                row("u1", "p1", "Parking One", "v1", "ABC-123", 8, 10, new BigDecimal("20.00")),
+                row("u2", "p2", "Parking Two", "v2", "DEF-456", 9, 11, new BigDecimal("10.00"))
+        );
 
         List<VehicleOutDetailResponse> result = vehicleReportService.getVehiclesOutDetails();
 
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
         assertEquals(2, result.size());
-
-        VehicleOutDetailResponse report1 = result.stream()
-                .filter(r -> r.getUserId().equals("u1"))
-                .findFirst().orElse(null);
-        assertNotNull(report1);
-        assertVehicleOutDetailResponse(report1, "u1", "adminUser", "admin@example.com", "p1", "Parking One", 1, 1, 20.0f);
-        VehicleDetailResponse detail1 = report1.getVehicles().get(0);
-        assertVehicleDetailResponse(detail1, "v1", "ABC-123", "Model A", "15-01-2023-08:00", "15-01-2023-10:00", 20.0f);
-
-        VehicleOutDetailResponse report2 = result.stream()
-                .filter(r -> r.getUserId().equals("u2"))
-                .findFirst().orElse(null);
-        assertNotNull(report2);
-        assertVehicleOutDetailResponse(report2, "u2", "adminUser2", "admin2@example.com", "p2", "Parking Two", 1, 1, 10.0f);
-        VehicleDetailResponse detail2 = report2.getVehicles().get(0);
-        assertVehicleDetailResponse(detail2, "v2", "DEF-456", "Model B", "15-01-2023-09:00", "15-01-2023-11:00", 10.0f);
+        assertVehicleOutDetailResponse(result.get(0), "u1", "p1", "Parking One", 1, 20.0f);
+        assertVehicleDetailResponse(result.get(0).getVehicles().get(0), "v1", "ABC-123", "15-01-2023-08:00", "15-01-2023-10:00", 20.0f);
+        assertVehicleOutDetailResponse(result.get(1), "u2", "p2", "Parking Two", 1, 10.0f);
+        assertVehicleDetailResponse(result.get(1).getVehicles().get(0), "v2", "DEF-456", "15-01-2023-09:00", "15-01-2023-11:00", 10.0f);
     }
 
     @Test
-    void getVehiclesOutDetails_NoVehiclesOut_ShouldReturnEmptyList() {
-        when(vehicleRepository.findVehiclesWithExitTimeBetween(any(Date.class), any(Date.class)))
-                .thenReturn(Collections.emptyList());
+    void getVehiclesOutDetails_ShouldGroupConsecutiveRowsAndSortByEarnings() {
+        givenRows(
+                row("u1", "p1", "Parking One", "v1", "ABC-123", 8, 10, new BigDecimal("5.00")),
+                row("u1", "p2", "Parking Two", "v2", "DEF-456", 8, 10, new BigDecimal("30.00")),
+                row("u1", "p2", "Parking Two", "v3", "GHI-789", 9, 10, new BigDecimal("12.50"))
+        );
 
         List<VehicleOutDetailResponse> result = vehicleReportService.getVehiclesOutDetails();
 
-        assertNotNull(result);
-        assertEquals(0, result.size());
+        assertEquals(2, result.size());
+        assertVehicleOutDetailResponse(result.get(0), "u1", "p2", "Parking Two", 2, 42.5f);
+        assertEquals("v2", result.get(0).getVehicles().get(0).getVehicleId());
+        assertEquals("v3", result.get(0).getVehicles().get(1).getVehicleId());
+        assertVehicleOutDetailResponse(result.get(1), "u1", "p1", "Parking One", 1, 5.0f);
     }
 
     @Test
-    void getVehiclesOutDetails_VehiclesWithStatusIn_ShouldNotBeIncluded() {
-        Vehicle vehicle1 = new Vehicle();
-        vehicle1.setId("v1");
-        vehicle1.setPlateNumber("ABC-123");
-        vehicle1.setModel("Model A");
-        vehicle1.setCostPerHour(10.0f);
-        vehicle1.setStatus(VehicleStatus.IN);
-
-        Calendar entryCal1 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        entryCal1.set(2023, Calendar.JANUARY, 15, 8, 0, 0);
-        vehicle1.setEntryTime(entryCal1.getTime());
-
-        Calendar exitCal1 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        exitCal1.set(2023, Calendar.JANUARY, 15, 10, 0, 0);
-        vehicle1.setExitTime(exitCal1.getTime());
-
-        Parking parking1 = new Parking();
-        parking1.setId("p1");
-        parking1.setName("Parking One");
-        vehicle1.setParking(parking1);
-
-        User admin1 = new User();
-        admin1.setId("u1");
-        admin1.setUsername("adminUser");
-        admin1.setEmail("admin@example.com");
-        vehicle1.setAdmin(admin1);
-
-        List<Vehicle> mockVehicles = Collections.singletonList(vehicle1);
-
-        when(vehicleRepository.findVehiclesWithExitTimeBetween(any(Date.class), any(Date.class)))
-                .thenReturn(mockVehicles);
+    void streamVehiclesOutDetails_ShouldEmitEachGroupInQueryOrder() {
+        givenRows(
+                row("u1", "p1", "Parking One", "v1", "ABC-123", 8, 10, new BigDecimal("5.00")),
+                row("u2", "p1", "Parking One", "v2", "DEF-456", 8, 10, new BigDecimal("30.00"))
+        );
+        List<String> emitted = new ArrayList<>();
 
-        List<VehicleOutDetailResponse> result = vehicleReportService.getVehiclesOutDetails();
+        vehicleReportService.streamVehiclesOutDetails(detail -> emitted.add(detail.getUserId()));
 
-        assertNotNull(result);
-        assertEquals(0, result.size());
+        assertEquals(List.of("u1", "u2"), emitted);
     }
 
     @Test
-    void getVehiclesOutDetails_NullCostPerHour_ShouldCalculateZeroCost() {
-        Vehicle vehicle1 = new Vehicle();
-        vehicle1.setId("v1");
-        vehicle1.setPlateNumber("ABC-123");
-        vehicle1.setModel("Model A");
-        vehicle1.setCostPerHour(null);
-        vehicle1.setStatus(VehicleStatus.OUT);
-
-        Calendar entryCal1 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        entryCal1.set(2023, Calendar.JANUARY, 15, 8, 0, 0);
-        vehicle1.setEntryTime(entryCal1.getTime());
-
-        Calendar exitCal1 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        exitCal1.set(2023, Calendar.JANUARY, 15, 10, 0, 0);
-        vehicle1.setExitTime(exitCal1.getTime());
-
-        Parking parking1 = new Parking();
-        parking1.setId("p1");
-        parking1.setName("Parking One");
-        vehicle1.setParking(parking1);
-
-        User admin1 = new User();
-        admin1.setId("u1");
-        admin1.setUsername("adminUser");
-        admin1.setEmail("admin@example.com");
-        vehicle1.setAdmin(admin1);
-
-        List<Vehicle> mockVehicles = Collections.singletonList(vehicle1);
-
-        when(vehicleRepository.findVehiclesWithExitTimeBetween(any(Date.class), any(Date.class)))
-                .thenReturn(mockVehicles);
+    void getVehiclesOutDetails_NoVehiclesOut_ShouldReturnEmptyList() {
+        givenRows();
 
         List<VehicleOutDetailResponse> result = vehicleReportService.getVehiclesOutDetails();
 
         assertNotNull(result);
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-
-        VehicleOutDetailResponse report1 = result.get(0);
-        assertVehicleOutDetailResponse(report1, "u1", "adminUser", "admin@example.com", "p1", "Parking One", 1, 1, 0.0f);
-        VehicleDetailResponse detail1 = report1.getVehicles().get(0);
-        assertVehicleDetailResponse(detail1, "v1", "ABC-123", "Model A", "15-01-2023-08:00", "15-01-2023-10:00", 0.0f);
+        assertEquals(0, result.size());
     }
 
     @Test
-    void testFlattenVehicleData_NullAdminId_ShouldSkipUser() {
-        Vehicle vehicle1 = new Vehicle();
-        vehicle1.setId("v1");
-        vehicle1.setPlateNumber("ABC-123");
-        vehicle1.setModel("Model A");
-        vehicle1.setCostPerHour(10.0f);
-        vehicle1.setStatus(VehicleStatus.OUT);
-
-        Calendar entryCal1 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        entryCal1.set(2023, Calendar.JANUARY, 15, 8, 0, 0);
-        vehicle1.setEntryTime(entryCal1.getTime());
-
-        Calendar exitCal1 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        exitCal1.set(2023, Calendar.JANUARY, 15, 10, 0, 0);
-        vehicle1.setExitTime(exitCal1.getTime());
-
-        Parking parking1 = new Parking();
-        parking1.setId("p1");
-        parking1.setName("Parking One");
-        vehicle1.setParking(parking1);
+    void getVehiclesOutDetails_NullTotalCost_ShouldReportZeroCost() {
+        givenRows(row("u1", "p1", "Parking One", "v1", "ABC-123", 8, 10, null));
 
-        User admin1 = new User();
-        admin1.setId(null);
-        vehicle1.setAdmin(admin1);
+        List<VehicleOutDetailResponse> result = vehicleReportService.getVehiclesOutDetails();
 
-        List<Vehicle> mockVehicles = Collections.singletonList(vehicle1);
+        assertFalse(result.isEmpty());
+        assertVehicleOutDetailResponse(result.get(0), "u1", "p1", "Parking One", 1, 0.0f);
+        assertVehicleDetailResponse(result.get(0).getVehicles().get(0), "v1", "ABC-123", "15-01-2023-08:00", "15-01-2023-10:00", 0.0f);
+    }
 
-        when(vehicleRepository.findVehiclesWithExitTimeBetween(any(Date.class), any(Date.class)))
-                .thenReturn(mockVehicles);
+    @Test
+    void getVehiclesOutDetails_NullAdminId_ShouldSkipRow() {
+        givenRows(row(null, "p1", "Parking One", "v1", "ABC-123", 8, 10, new BigDecimal("20.00")));
 
         List<VehicleOutDetailResponse> result = vehicleReportService.getVehiclesOutDetails();
 
-        assertNotNull(result);
         assertTrue(result.isEmpty());
     }
 
     @Test
-    void testFlattenVehicleData_NullParkingId_ShouldUseUnknownParking() {
-        Vehicle vehicle1 = new Vehicle();
-        vehicle1.setId("v1");
-        vehicle1.setPlateNumber("ABC-123");
-        vehicle1.setModel("Model A");
-        vehicle1.setCostPerHour(10.0f);
-        vehicle1.setStatus(VehicleStatus.OUT);
-
-        Calendar entryCal1 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        entryCal1.set(2023, Calendar.JANUARY, 15, 8, 0, 0);
-        vehicle1.setEntryTime(entryCal1.getTime());
-
-        Calendar exitCal1 = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
-        exitCal1.set(2023, Calendar.JANUARY, 15, 10, 0, 0);
-        vehicle1.setExitTime(exitCal1.getTime());
-
-        Parking parking1 = new Parking();
-        parking1.setId(null);
-        parking1.setName("Parking One");
-        vehicle1.setParking(parking1);
-
-        User admin1 = new User();
-        admin1.setId("u1");
-        admin1.setUsername("adminUser");
-        admin1.setEmail("admin@example.com");
-        vehicle1.setAdmin(admin1);
-
-        List<Vehicle> mockVehicles = Collections.singletonList(vehicle1);
-
-        when(vehicleRepository.findVehiclesWithExitTimeBetween(any(Date.class), any(Date.class)))
-                .thenReturn(mockVehicles);
+    void getVehiclesOutDetails_NullParkingName_ShouldUseUnknownParking() {
+        givenRows(row("u1", "p1", null, "v1", "ABC-123", 8, 10, new BigDecimal("20.00")));
 
         List<VehicleOutDetailResponse> result = vehicleReportService.getVehiclesOutDetails();
 
-        assertNotNull(result);
-        assertFalse(result.isEmpty());
         assertEquals(1, result.size());
-
-        VehicleOutDetailResponse report1 = result.get(0);
-        assertVehicleOutDetailResponse(report1, "u1", "adminUser", "admin@example.com", null, "Unknown Parking", 1, 1, 20.0f);
-        VehicleDetailResponse detail1 = report1.getVehicles().get(0);
-        assertVehicleDetailResponse(detail1, "v1", "ABC-123", "Model A", "15-01-2023-08:00", "15-01-2023-10:00", 20.0f);
+        assertVehicleOutDetailResponse(result.get(0), "u1", "p1", "Unknown Parking", 1, 20.0f);
     }
 
-    private void assertVehicleOutDetailResponse(VehicleOutDetailResponse report, String userId, String username, String email, String parkingId, String parkingName, int vehiclesSize, int totalVehicles, float totalEarnings) {
+    private void assertVehicleOutDetailResponse(VehicleOutDetailResponse report, String userId, String parkingId,
+                                                String parkingName, int totalVehicles, float totalEarnings) {
         assertEquals(userId, report.getUserId());
-        assertEquals(username, report.getUsername());
-        assertEquals(email, report.getEmail());
+        assertEquals("user-" + userId, report.getUsername());
+        assertEquals(userId + "@example.com", report.getEmail());
         assertEquals(parkingId, report.getParkingId());
         assertEquals(parkingName, report.getParking());
-        assertEquals(vehiclesSize, report.getVehicles().size());
+        assertEquals(totalVehicles, report.getVehicles().size());
         assertEquals(totalVehicles, report.getTotalVehicles());
-        assertEquals(totalEarnings, report.getTotalEarnings());
+        assertEquals(totalEarnings, report.getTotalEarnings().floatValue());
     }
 
-    private void assertVehicleDetailResponse(VehicleDetailResponse detail, String vehicleId, String plateNumber, String modelVehicle,
+    private void assertVehicleDetailResponse(VehicleDetailResponse detail, String vehicleId, String plateNumber,
                                              String dayEntry, String dayExit, float totalCost) {
         assertEquals(vehicleId, detail.getVehicleId());
         assertEquals(plateNumber, detail.getPlateNumber());
-        assertEquals(modelVehicle, detail.getModelVehicle());
+        assertEquals("Model " + vehicleId, detail.getModelVehicle());
         assertEquals(dayEntry, detail.getDayEntry());
         assertEquals(dayExit, detail.getDayExit());
-        assertEquals(totalCost, detail.getTotalCost());
+        assertEquals(totalCost, detail.getTotalCost().floatValue());
+    }
+
+    @Test
+    void getVehiclesOutDetails_ForParking_ShouldGroupByPartnerWithinRange() {
+        Date from = utc(0);
+        Date to = utc(23);
+        when(vehicleRecordRepository.streamReportRowsByParkingAndExitTime("p1", from, to)).thenReturn(Stream.of(
+                row("u1", "p1", "Parking One", "v1", "ABC-123", 8, 10, new BigDecimal("20.00")),
+                row("u1", "p1", "Parking One", "v2", "DEF-456", 9, 11, new BigDecimal("10.00")),
+                row("u2", "p1", "Parking One", "v3", "GHI-789", 9, 12, new BigDecimal("5.00"))
+        ));
+
+        List<VehicleOutDetailResponse> result = vehicleReportService.getVehiclesOutDetails("p1", from, to);
+
+        assertEquals(2, result.size());
+        assertEquals("u1", result.get(0).getUserId());
+        assertEquals(2, result.get(0).getTotalVehicles());
+        assertEquals(new BigDecimal("30.00"), result.get(0).getTotalEarnings());
+        assertEquals("u2", result.get(1).getUserId());
+        assertEquals(1, result.get(1).getTotalVehicles());
     }
 }
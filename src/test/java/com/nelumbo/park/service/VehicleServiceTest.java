@@ -9,6 +9,7 @@ import com.nelumbo.park.dto.response.VehicleExitResponse;
 import com.nelumbo.park.entity.Parking;
 import com.nelumbo.park.entity.User;
 import com.nelumbo.park.entity.Vehicle;
+import com.nelumbo.park.entity.VehicleRecord;
 import com.nelumbo.park.enums.VehicleStatus;
 import com.nelumbo.park.exception.exceptions.InsufficientPermissionsException;
 import com.nelumbo.park.exception.exceptions.LimitParkingFullException;
@@ -17,22 +18,25 @@ import com.nelumbo.park.exception.exceptions.VehicleAlreadyInParkingException;
 import com.nelumbo.park.exception.exceptions.VehicleNotFoundException;
 import com.nelumbo.park.exception.exceptions.VehicleOutParkingException;
 import com.nelumbo.park.mapper.VehicleMapper;
-import com.nelumbo.park.repository.UserRepository;
+import com.nelumbo.park.repository.VehicleRecordRepository;
 import com.nelumbo.park.repository.VehicleRepository;
+import com.nelumbo.park.service.infrastructure.ParkingLookupCache;
 import com.nelumbo.park.service.infrastructure.SecurityService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.util.Date;
 import java.util.Optional;
 import java.util.Collections;
 import java.util.List;
-import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -45,13 +49,21 @@ class VehicleServiceTest {
     @Mock
     private VehicleRepository vehicleRepository;
     @Mock
+    private VehicleRecordRepository vehicleRecordRepository;
+    @Mock
     private VehicleMapper vehicleMapper;
     @Mock
     private SecurityService securityService;
     @Mock
-    private UserRepository userRepository;
-    @Mock
     private ParkingStatsService parkingStatsService;
+    @Mock
+    private ParkingOccupancyService occupancyService;
+    @Mock
+    private ParkingLookupCache parkingLookupCache;
+    @Mock
+    private ParkingRollupService rollupService;
+    @Mock
+    private PlateVisitRankingService visitRankingService;
 
     @InjectMocks
     private VehicleService vehicleService;
@@ -59,6 +71,7 @@ class VehicleServiceTest {
     private User adminUser;
     private User socioUser;
     private Vehicle vehicle;
+    private VehicleRecord record;
     private Parking parking;
     private VehicleCreateRequest createRequest;
     private VehicleUpdateRequest updateRequest;
@@ -89,6 +102,9 @@ class VehicleServiceTest {
         vehicle.setEntryTime(new Date(System.currentTimeMillis() - 3600 * 1000));
         vehicle.setCostPerHour(10.0f);
 
+        record = new VehicleRecord("record-id", "ABC-123", "Toyota", vehicle.getEntryTime(), new Date(),
+                10.0f, BigDecimal.valueOf(10), false, VehicleStatus.OUT, parking, socioUser);
+
         createRequest = new VehicleCreateRequest();
         createRequest.setPlateNumber("NEW-456");
         createRequest.setIdParking(parking.getId());
@@ -103,40 +119,116 @@ class VehicleServiceTest {
         vehicleFromMapper.setPlateNumber(createRequest.getPlateNumber());
         vehicleFromMapper.setParking(parking);
 
-        when(vehicleRepository.findByPlateNumberAndStatus(createRequest.getPlateNumber(), VehicleStatus.IN)).thenReturn(Optional.empty());
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
         when(securityService.getCurrentUser()).thenReturn(socioUser);
-        when(userRepository.findById(socioUser.getId())).thenReturn(Optional.of(socioUser));
-        when(vehicleMapper.toEntity(createRequest)).thenReturn(vehicleFromMapper);
+        when(occupancyService.reservePlate(createRequest.getPlateNumber())).thenReturn(true);
+        when(occupancyService.reserveSlot(parking.getId())).thenReturn(true);
+        when(vehicleMapper.toNewVehicle(createRequest, parking, socioUser)).thenReturn(vehicleFromMapper);
         when(vehicleRepository.save(any(Vehicle.class))).thenReturn(vehicle);
         when(vehicleMapper.toSimpleResponse(vehicle)).thenReturn(new VehicleCreateResponse());
 
         VehicleCreateResponse response = vehicleService.createVehicle(createRequest);
 
         assertNotNull(response);
-        verify(vehicleRepository).save(any(Vehicle.class));
+        verify(vehicleRepository).save(argThat(v -> v.getEntryTime() != null && Boolean.TRUE.equals(v.getFirstVisit())));
+        verify(vehicleRepository, never()).findByPlateNumberAndStatus(anyString(), any());
+        verify(rollupService).recordEntry(eq(parking.getId()), eq(createRequest.getPlateNumber()), any(Date.class));
+        verify(visitRankingService).recordVisit(parking.getId(), createRequest.getPlateNumber());
+        verify(occupancyService).confirmPlate(createRequest.getPlateNumber());
+    }
+
+    @Test
+    void createVehicle_WhenPlateHasHistory_ShouldNotMarkFirstVisit() {
+        Vehicle vehicleFromMapper = new Vehicle();
+        vehicleFromMapper.setPlateNumber(createRequest.getPlateNumber());
+        vehicleFromMapper.setParking(parking);
+
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
+        when(securityService.getCurrentUser()).thenReturn(socioUser);
+        when(occupancyService.reservePlate(createRequest.getPlateNumber())).thenReturn(true);
+        when(occupancyService.reserveSlot(parking.getId())).thenReturn(true);
+        when(vehicleMapper.toNewVehicle(createRequest, parking, socioUser)).thenReturn(vehicleFromMapper);
+        when(vehicleRepository.existsByPlateNumber(createRequest.getPlateNumber())).thenReturn(true);
+        when(vehicleRepository.save(any(Vehicle.class))).thenReturn(vehicle);
+        when(vehicleMapper.toSimpleResponse(vehicle)).thenReturn(new VehicleCreateResponse());
+
+        vehicleService.createVehicle(createRequest);
+
+        verify(vehicleRepository).save(argThat(v -> Boolean.FALSE.equals(v.getFirstVisit())));
+    }
+
+    @Test
+    void createVehicle_WhenRollupFails_ShouldStillCreateVehicle() {
+        Vehicle vehicleFromMapper = new Vehicle();
+        vehicleFromMapper.setPlateNumber(createRequest.getPlateNumber());
+        vehicleFromMapper.setParking(parking);
+
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
+        when(securityService.getCurrentUser()).thenReturn(socioUser);
+        when(occupancyService.reservePlate(createRequest.getPlateNumber())).thenReturn(true);
+        when(occupancyService.reserveSlot(parking.getId())).thenReturn(true);
+        when(vehicleMapper.toNewVehicle(createRequest, parking, socioUser)).thenReturn(vehicleFromMapper);
+        when(vehicleRepository.save(any(Vehicle.class))).thenReturn(vehicle);
+        when(vehicleMapper.toSimpleResponse(vehicle)).thenReturn(new VehicleCreateResponse());
+        doThrow(new IllegalStateException("db down")).when(rollupService)
+                .recordEntry(anyString(), anyString(), any(Date.class));
+
+        assertNotNull(vehicleService.createVehicle(createRequest));
+        verify(occupancyService, never()).releaseSlot(anyString());
     }
 
     @Test
     void createVehicle_WhenAlreadyParked_ShouldThrowVehicleAlreadyInParkingException() {
-        when(vehicleRepository.findByPlateNumberAndStatus(createRequest.getPlateNumber(), VehicleStatus.IN)).thenReturn(Optional.of(vehicle));
+        when(occupancyService.isParked(createRequest.getPlateNumber())).thenReturn(true);
 
         assertThrows(VehicleAlreadyInParkingException.class, () -> vehicleService.createVehicle(createRequest));
 
         verify(vehicleRepository, never()).save(any());
     }
 
+    @Test
+    void createVehicle_WhenParkingNotFound_ShouldThrowParkingNotFoundException() {
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(null);
+
+        assertThrows(ParkingNotFoundException.class, () -> vehicleService.createVehicle(createRequest));
+
+        verify(vehicleRepository, never()).save(any());
+    }
+
     @Test
     void exitVehicle_WhenVehicleExistsAndIsOwner_ShouldProcessExit() {
         when(vehicleRepository.findByPlateNumberAndStatus(anyString(), eq(VehicleStatus.IN))).thenReturn(Optional.of(vehicle));
         when(securityService.getCurrentUser()).thenReturn(socioUser);
         when(securityService.isSocio()).thenReturn(true);
-        when(vehicleRepository.save(any(Vehicle.class))).thenReturn(vehicle);
+        when(vehicleRepository.markExited(eq("vehicle-id"), any(Date.class), any(BigDecimal.class))).thenReturn(1);
         when(vehicleMapper.toExitResponse(any(), any(), any(), anyString())).thenReturn(new VehicleExitResponse());
 
         VehicleExitResponse response = vehicleService.exitVehicle(updateRequest);
 
         assertNotNull(response);
-        verify(vehicleRepository).save(argThat(v -> v.getStatus() == VehicleStatus.OUT && v.getExitTime() != null));
+        verify(vehicleRepository).markExited(eq("vehicle-id"), any(Date.class),
+                argThat(cost -> new BigDecimal("10.00").compareTo(cost) == 0));
+        verify(vehicleRepository, never()).save(any());
+        assertEquals(VehicleStatus.OUT, vehicle.getStatus());
+        assertNotNull(vehicle.getExitTime());
+        verify(occupancyService).releaseSlot(parking.getId());
+        verify(occupancyService).releasePlate(vehicle.getPlateNumber());
+        verify(rollupService).recordExit(eq(parking.getId()), any(Date.class),
+                argThat(cost -> new BigDecimal("10.00").compareTo(cost) == 0));
+    }
+
+    @Test
+    void exitVehicle_WhenAnotherRequestExitsFirst_ShouldNotReleaseTheSlotTwice() {
+        when(vehicleRepository.findByPlateNumberAndStatus(anyString(), eq(VehicleStatus.IN))).thenReturn(Optional.of(vehicle));
+        when(securityService.getCurrentUser()).thenReturn(socioUser);
+        when(securityService.isSocio()).thenReturn(true);
+        when(vehicleRepository.markExited(eq("vehicle-id"), any(Date.class), any(BigDecimal.class))).thenReturn(0);
+
+        assertThrows(VehicleOutParkingException.class, () -> vehicleService.exitVehicle(updateRequest));
+
+        verify(occupancyService, never()).releaseSlot(anyString());
+        verify(occupancyService, never()).releasePlate(anyString());
+        verifyNoInteractions(rollupService);
     }
 
     @Test
@@ -162,36 +254,36 @@ class VehicleServiceTest {
     void getAllVehicles_AsAdmin_ShouldReturnAll() {
         when(securityService.isAdmin()).thenReturn(true);
         when(securityService.getCurrentUser()).thenReturn(adminUser);
-        when(vehicleRepository.findAll()).thenReturn(Collections.singletonList(vehicle));
+        when(vehicleRecordRepository.findAll()).thenReturn(Collections.singletonList(record));
 
-        List<Vehicle> result = vehicleService.getAllVehicles();
+        List<VehicleRecord> result = vehicleService.getAllVehicles();
 
         assertFalse(result.isEmpty());
-        verify(vehicleRepository).findAll();
+        verify(vehicleRecordRepository).findAll();
     }
 
     @Test
     void getAllVehicles_AsSocio_ShouldReturnOwned() {
         when(securityService.isSocio()).thenReturn(true);
         when(securityService.getCurrentUser()).thenReturn(socioUser);
-        when(vehicleRepository.findByAdmin(socioUser)).thenReturn(Collections.singletonList(vehicle));
+        when(vehicleRecordRepository.findByAdmin(socioUser)).thenReturn(Collections.singletonList(record));
 
-        List<Vehicle> result = vehicleService.getAllVehicles();
+        List<VehicleRecord> result = vehicleService.getAllVehicles();
 
         assertFalse(result.isEmpty());
-        verify(vehicleRepository).findByAdmin(socioUser);
+        verify(vehicleRecordRepository).findByAdmin(socioUser);
     }
 
     @Test
     void getVehicleById_AsSocioAndOwner_ShouldReturnVehicle() {
-        when(vehicleRepository.findById(vehicle.getId())).thenReturn(Optional.of(vehicle));
+        when(vehicleRecordRepository.findById(record.getId())).thenReturn(Optional.of(record));
         when(securityService.getCurrentUser()).thenReturn(socioUser);
         when(securityService.isSocio()).thenReturn(true);
 
-        Vehicle result = vehicleService.getVehicleById(vehicle.getId());
+        VehicleRecord result = vehicleService.getVehicleById(record.getId());
 
         assertNotNull(result);
-        assertEquals(vehicle.getId(), result.getId());
+        assertEquals(record.getId(), result.getId());
     }
 
     @Test
@@ -199,11 +291,11 @@ class VehicleServiceTest {
         User anotherSocio = new User();
         anotherSocio.setId("another-id");
 
-        when(vehicleRepository.findById(vehicle.getId())).thenReturn(Optional.of(vehicle));
+        when(vehicleRecordRepository.findById(record.getId())).thenReturn(Optional.of(record));
         when(securityService.getCurrentUser()).thenReturn(anotherSocio);
         when(securityService.isSocio()).thenReturn(true);
 
-        assertThrows(InsufficientPermissionsException.class, () -> vehicleService.getVehicleById(vehicle.getId()));
+        assertThrows(InsufficientPermissionsException.class, () -> vehicleService.getVehicleById(record.getId()));
     }
 
     @Test
@@ -221,8 +313,8 @@ class VehicleServiceTest {
 
     @Test
     void getTopVehicles_ShouldReturnMappedResponse() {
-        Object[] topVehicleData = {"ABC-123", 5L};
-        when(vehicleRepository.findTopVehiclesByVisits(any(Pageable.class))).thenReturn(Collections.singletonList(topVehicleData));
+        when(visitRankingService.getTopVehicles())
+                .thenReturn(Collections.singletonList(new TopVehicleResponse("ABC-123", 5L)));
 
         List<TopVehicleResponse> result = vehicleService.getTopVehicles();
 
@@ -234,8 +326,8 @@ class VehicleServiceTest {
 
     @Test
     void getTopVehicleById_ShouldReturnMappedResponse() {
-        Object[] topVehicleData = {"ABC-123", 5L};
-        when(vehicleRepository.findTopVehicleById(anyString(), any(Pageable.class))).thenReturn(Collections.singletonList(topVehicleData));
+        when(visitRankingService.getTopVehicles("parking-id"))
+                .thenReturn(Collections.singletonList(new TopVehicleResponse("ABC-123", 5L)));
 
         List<TopVehicleResponse> result = vehicleService.getTopVehicleById("parking-id");
 
@@ -247,7 +339,7 @@ class VehicleServiceTest {
 
     @Test
     void getTopVehicleById_WhenNoVehicles_ShouldThrowParkingNotFoundException() {
-        when(vehicleRepository.findTopVehicleById(anyString(), any(Pageable.class))).thenReturn(Collections.emptyList());
+        when(visitRankingService.getTopVehicles("parking-id")).thenReturn(Collections.emptyList());
 
         assertThrows(ParkingNotFoundException.class, () -> vehicleService.getTopVehicleById("parking-id"));
     }
@@ -272,87 +364,107 @@ class VehicleServiceTest {
         vehicleService.deleteVehicle(vehicle.getId());
 
         verify(vehicleRepository).delete(vehicle);
+        verify(visitRankingService).removeVisit(parking.getId(), vehicle.getPlateNumber());
+        verify(occupancyService).releaseSlot(parking.getId());
+        verify(occupancyService).releasePlate(vehicle.getPlateNumber());
+    }
+
+    @Test
+    void deleteVehicle_WhenArchived_ShouldDeleteFromHistory() {
+        when(vehicleRepository.findById(record.getId())).thenReturn(Optional.empty());
+        when(vehicleRecordRepository.findById(record.getId())).thenReturn(Optional.of(record));
+        when(vehicleRepository.deleteArchivedById(record.getId())).thenReturn(1);
+
+        vehicleService.deleteVehicle(record.getId());
+
+        verify(vehicleRepository, never()).delete(any());
+        verify(visitRankingService).removeVisit(parking.getId(), record.getPlateNumber());
+        verifyNoInteractions(occupancyService);
     }
 
     @Test
     void deleteVehicle_WhenNotFound_ShouldThrowVehicleNotFoundException() {
         when(vehicleRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(vehicleRecordRepository.findById(anyString())).thenReturn(Optional.empty());
 
         assertThrows(VehicleNotFoundException.class, () -> vehicleService.deleteVehicle("non-existent-id"));
         verify(vehicleRepository, never()).delete(any());
+        verify(vehicleRepository, never()).deleteArchivedById(anyString());
     }
 
     @Test
     void getAllVehicles_AsDefaultUser_ShouldReturnAll() {
         when(securityService.isAdmin()).thenReturn(false);
         when(securityService.isSocio()).thenReturn(false);
-        when(vehicleRepository.findAll()).thenReturn(Collections.singletonList(vehicle));
+        when(vehicleRecordRepository.findAll()).thenReturn(Collections.singletonList(record));
 
-        List<Vehicle> result = vehicleService.getAllVehicles();
+        List<VehicleRecord> result = vehicleService.getAllVehicles();
 
         assertFalse(result.isEmpty());
-        verify(vehicleRepository).findAll();
+        verify(vehicleRecordRepository).findAll();
     }
 
     @Test
     void createVehicle_WhenParkingLimitIsFull_ShouldThrowLimitParkingFullException() {
-        Vehicle vehicleFromMapper = new Vehicle();
-        vehicleFromMapper.setPlateNumber(createRequest.getPlateNumber());
-        vehicleFromMapper.setParking(parking);
-
-        when(vehicleRepository.findByPlateNumberAndStatus(createRequest.getPlateNumber(), VehicleStatus.IN)).thenReturn(Optional.empty());
-        when(vehicleMapper.toEntity(createRequest)).thenReturn(vehicleFromMapper);
-        when(vehicleRepository.findLimitParking(anyString(), eq(VehicleStatus.IN))).thenReturn(Arrays.<Object[]>asList(new Object[]{10L, 10L}));
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
         when(securityService.getCurrentUser()).thenReturn(socioUser);
+        when(occupancyService.reservePlate(createRequest.getPlateNumber())).thenReturn(true);
+        when(occupancyService.reserveSlot(parking.getId())).thenReturn(false);
 
         assertThrows(LimitParkingFullException.class, () -> vehicleService.createVehicle(createRequest));
+        verify(occupancyService).releasePlate(createRequest.getPlateNumber());
         verify(vehicleRepository, never()).save(any());
     }
 
     @Test
-    void createVehicle_WhenAdminNotFound_ShouldCreateVehicleWithNullAdmin() {
-        Vehicle vehicleFromMapper = new Vehicle();
-        vehicleFromMapper.setPlateNumber(createRequest.getPlateNumber());
-        vehicleFromMapper.setParking(parking);
-
-        when(vehicleRepository.findByPlateNumberAndStatus(createRequest.getPlateNumber(), VehicleStatus.IN)).thenReturn(Optional.empty());
-        when(securityService.getCurrentUser()).thenReturn(socioUser);
-        when(userRepository.findById(socioUser.getId())).thenReturn(Optional.empty());
-        when(vehicleMapper.toEntity(createRequest)).thenReturn(vehicleFromMapper);
-        when(vehicleRepository.save(any(Vehicle.class))).thenReturn(vehicle);
-        when(vehicleMapper.toSimpleResponse(vehicle)).thenReturn(new VehicleCreateResponse());
-
-        VehicleCreateResponse response = vehicleService.createVehicle(createRequest);
-
-        assertNotNull(response);
-        verify(vehicleRepository).save(argThat(v -> v.getAdmin() == null));
-    }
-
-    @Test
-    void validateLimitParking_WhenLimitParkingIsEmpty_ShouldReturnFalse() {
-        when(vehicleRepository.findLimitParking(anyString(), eq(VehicleStatus.IN))).thenReturn(Collections.emptyList());
+    void createVehicle_WhenNotParkingOwner_ShouldThrowInsufficientPermissionsException() {
+        User anotherSocio = new User();
+        anotherSocio.setId("another-id");
 
-        Boolean result = vehicleService.validateLimitParking("parking-id");
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
+        when(securityService.getCurrentUser()).thenReturn(anotherSocio);
 
-        assertFalse(result);
+        assertThrows(InsufficientPermissionsException.class, () -> vehicleService.createVehicle(createRequest));
+        verify(occupancyService, never()).reservePlate(anyString());
     }
 
     @Test
-    void validateLimitParking_WhenLimitParkingDataIsInvalid_ShouldReturnFalse() {
-        when(vehicleRepository.findLimitParking(anyString(), eq(VehicleStatus.IN))).thenReturn(Arrays.<Object[]>asList(new Object[]{10L}));
-
-        Boolean result = vehicleService.validateLimitParking("parking-id");
+    void createVehicle_WhenSaveFails_ShouldReleaseReservation() {
+        Vehicle vehicleFromMapper = new Vehicle();
+        vehicleFromMapper.setParking(parking);
 
-        assertFalse(result);
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
+        when(securityService.getCurrentUser()).thenReturn(socioUser);
+        when(occupancyService.reservePlate(createRequest.getPlateNumber())).thenReturn(true);
+        when(occupancyService.reserveSlot(parking.getId())).thenReturn(true);
+        when(vehicleMapper.toNewVehicle(createRequest, parking, socioUser)).thenReturn(vehicleFromMapper);
+        when(vehicleRepository.save(any(Vehicle.class))).thenThrow(new IllegalStateException("db down"));
+
+        assertThrows(IllegalStateException.class, () -> vehicleService.createVehicle(createRequest));
+        verify(occupancyService).releaseSlot(parking.getId());
+        verify(occupancyService).releasePlate(createRequest.getPlateNumber());
+        verifyNoInteractions(rollupService);
     }
 
     @Test
-    void validateLimitParking_WhenParkingIsNotFull_ShouldReturnFalse() {
-        when(vehicleRepository.findLimitParking(anyString(), eq(VehicleStatus.IN))).thenReturn(Arrays.<Object[]>asList(new Object[]{5L, 10L}));
+    void createVehicle_WhenPlateEnteredThroughAnotherNode_ShouldThrowVehicleAlreadyInParkingException() {
+        Vehicle vehicleFromMapper = new Vehicle();
+        vehicleFromMapper.setParking(parking);
+        DataIntegrityViolationException duplicate = new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key"),
+                        "uq_vehicles_plate_in"));
 
-        Boolean result = vehicleService.validateLimitParking("parking-id");
+        when(parkingLookupCache.findById(parking.getId())).thenReturn(parking);
+        when(securityService.getCurrentUser()).thenReturn(socioUser);
+        when(occupancyService.reservePlate(createRequest.getPlateNumber())).thenReturn(true);
+        when(occupancyService.reserveSlot(parking.getId())).thenReturn(true);
+        when(vehicleMapper.toNewVehicle(createRequest, parking, socioUser)).thenReturn(vehicleFromMapper);
+        when(vehicleRepository.save(any(Vehicle.class))).thenThrow(duplicate);
 
-        assertFalse(result);
+        assertThrows(VehicleAlreadyInParkingException.class, () -> vehicleService.createVehicle(createRequest));
+        verify(occupancyService).releaseSlot(parking.getId());
+        verify(occupancyService).confirmPlate(createRequest.getPlateNumber());
+        verify(occupancyService, never()).releasePlate(anyString());
     }
 
     @Test
@@ -3,6 +3,7 @@ package com.nelumbo.park.service.infrastructure;
 import com.nelumbo.park.dto.response.EmailDataResponse;
 import com.nelumbo.park.dto.response.RabbitMQResponse;
 import com.nelumbo.park.dto.response.VehicleOutDetailResponse;
+import com.nelumbo.park.entity.EmailOutboxMessage;
 import com.nelumbo.park.service.VehicleReportService;
 import com.nelumbo.park.utils.Excel;
 import com.nelumbo.park.utils.ExcelComponent;
@@ -18,8 +19,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -41,7 +48,7 @@ class CronServiceTest {
     @Mock
     private S3Service s3Service;
     @Mock
-    private RabbitMQService rabbitMQService;
+    private EmailOutboxService emailOutboxService;
 
     @InjectMocks
     private CronService cronService;
@@ -53,30 +60,25 @@ class CronServiceTest {
         ReflectionTestUtils.setField(cronService, "pdfContentType", "application/pdf");
     }
 
-    @Test
-    @DisplayName("Should return false when no vehicle out details are found")
-    void runDailyTask_NoVehicleOutDetails_ReturnsFalse() {
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(Collections.emptyList());
-
-        boolean result = cronService.runDailyTask();
-
-        assertFalse(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
-        verifyNoMoreInteractions(vehicleReportService);
-        verifyNoInteractions(excel, excelGenerator, s3Service, rabbitMQService);
+    private void stubDetails(List<VehicleOutDetailResponse> details) {
+        doAnswer(invocation -> {
+            Consumer<VehicleOutDetailResponse> consumer = invocation.getArgument(0);
+            details.forEach(consumer);
+            return null;
+        }).when(vehicleReportService).streamVehiclesOutDetails(any());
     }
 
     @Test
-    @DisplayName("Should return false when vehicle out details are null")
-    void runDailyTask_NullVehicleOutDetails_ReturnsFalse() {
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(null);
+    @DisplayName("Should return false when no vehicle out details are found")
+    void runDailyTask_NoVehicleOutDetails_ReturnsFalse() {
+        stubDetails(Collections.emptyList());
 
         boolean result = cronService.runDailyTask();
 
         assertFalse(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
+        verify(vehicleReportService, times(1)).streamVehiclesOutDetails(any());
         verifyNoMoreInteractions(vehicleReportService);
-        verifyNoInteractions(excel, excelGenerator, s3Service, rabbitMQService);
+        verifyNoInteractions(excel, excelGenerator, s3Service, emailOutboxService);
     }
 
     @Test
@@ -98,22 +100,22 @@ class CronServiceTest {
 
         List<VehicleOutDetailResponse> details = List.of(detail1, detail2);
 
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(details);
-        when(excel.generarExcelPorUsuario(anyList())).thenReturn("test_excel_bytes".getBytes());
-        when(pdf.generarPdfPorUsuario(anyList())).thenReturn("test_pdf_bytes".getBytes());
+        stubDetails(details);
         when(excelGenerator.getContentType()).thenReturn("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        when(s3Service.uploadFile(any(byte[].class), anyString(), anyString())).thenReturn(Collections.singletonMap("Key", "someKey"));
-        doNothing().when(rabbitMQService).publishMessageBackoff(any());
+        when(s3Service.uploadFile(any(Path.class), anyString(), anyString())).thenReturn(Collections.singletonMap("Key", "someKey"));
+        when(emailOutboxService.enqueue(any())).thenReturn(new EmailOutboxMessage());
 
         boolean result = cronService.runDailyTask();
 
         assertTrue(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
-        verify(excel, times(2)).generarExcelPorUsuario(anyList());
-        verify(pdf, times(2)).generarPdfPorUsuario(anyList());
+        verify(vehicleReportService, times(1)).streamVehiclesOutDetails(any());
+        verify(excel, times(2)).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+        verify(pdf, times(2)).writePdfPorUsuario(anyList(), any(OutputStream.class));
         verify(excelGenerator, times(2)).getContentType();
-        verify(s3Service, times(4)).uploadFile(any(byte[].class), anyString(), anyString());
-        verify(rabbitMQService, times(2)).publishMessageBackoff(any());
+        ArgumentCaptor<Path> fileCaptor = ArgumentCaptor.forClass(Path.class);
+        verify(s3Service, times(4)).uploadFile(fileCaptor.capture(), anyString(), anyString());
+        assertTrue(fileCaptor.getAllValues().stream().noneMatch(Files::exists));
+        verify(emailOutboxService, times(2)).enqueue(any());
     }
 
     @Test
@@ -128,25 +130,23 @@ class CronServiceTest {
 
         List<VehicleOutDetailResponse> details = List.of(detail1);
 
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(details);
-        when(excel.generarExcelPorUsuario(anyList())).thenReturn("test_excel_bytes".getBytes());
-        when(pdf.generarPdfPorUsuario(anyList())).thenReturn("test_pdf_bytes".getBytes());
+        stubDetails(details);
         when(excelGenerator.getContentType()).thenReturn("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        when(s3Service.uploadFile(any(byte[].class), anyString(), anyString())).thenReturn(Collections.singletonMap("Key", "someKey"));
-        doNothing().when(rabbitMQService).publishMessageBackoff(any());
+        when(s3Service.uploadFile(any(Path.class), anyString(), anyString())).thenReturn(Collections.singletonMap("Key", "someKey"));
+        when(emailOutboxService.enqueue(any())).thenReturn(new EmailOutboxMessage());
 
         boolean result = cronService.runDailyTask();
 
         assertTrue(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
-        verify(excel, times(1)).generarExcelPorUsuario(anyList());
-        verify(pdf, times(1)).generarPdfPorUsuario(anyList());
+        verify(vehicleReportService, times(1)).streamVehiclesOutDetails(any());
+        verify(excel, times(1)).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+        verify(pdf, times(1)).writePdfPorUsuario(anyList(), any(OutputStream.class));
         verify(excelGenerator, times(1)).getContentType();
 
-        verify(s3Service, times(2)).uploadFile(any(byte[].class), anyString(), anyString());
+        verify(s3Service, times(2)).uploadFile(any(Path.class), anyString(), anyString());
 
         ArgumentCaptor<Object> rabbitMQMessageCaptor = ArgumentCaptor.forClass(Object.class);
-        verify(rabbitMQService, times(1)).publishMessageBackoff(rabbitMQMessageCaptor.capture());
+        verify(emailOutboxService, times(1)).enqueue(rabbitMQMessageCaptor.capture());
 
         RabbitMQResponse capturedResponse = (RabbitMQResponse) rabbitMQMessageCaptor.getValue();
         List<EmailDataResponse> emailDataList = (List<EmailDataResponse>) capturedResponse.getData();
@@ -173,27 +173,25 @@ class CronServiceTest {
 
         List<VehicleOutDetailResponse> details = List.of(detail1);
 
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(details);
-        when(excel.generarExcelPorUsuario(anyList())).thenReturn("test_excel_bytes".getBytes());
-        when(pdf.generarPdfPorUsuario(anyList())).thenReturn("test_pdf_bytes".getBytes());
+        stubDetails(details);
 
         when(excelGenerator.getContentType())
                 .thenReturn(null)
                 .thenReturn("");
 
-        when(s3Service.uploadFile(any(byte[].class), anyString(), anyString())).thenReturn(Collections.singletonMap("Key", "someKey"));
-        doNothing().when(rabbitMQService).publishMessageBackoff(any());
+        when(s3Service.uploadFile(any(Path.class), anyString(), anyString())).thenReturn(Collections.singletonMap("Key", "someKey"));
+        when(emailOutboxService.enqueue(any())).thenReturn(new EmailOutboxMessage());
 
         cronService.runDailyTask();
         cronService.runDailyTask();
 
-        verify(vehicleReportService, times(2)).getVehiclesOutDetails();
-        verify(excel, times(2)).generarExcelPorUsuario(anyList());
-        verify(pdf, times(2)).generarPdfPorUsuario(anyList());
+        verify(vehicleReportService, times(2)).streamVehiclesOutDetails(any());
+        verify(excel, times(2)).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+        verify(pdf, times(2)).writePdfPorUsuario(anyList(), any(OutputStream.class));
         verify(excelGenerator, times(2)).getContentType();
 
         ArgumentCaptor<String> contentTypeCaptor = ArgumentCaptor.forClass(String.class);
-        verify(s3Service, times(4)).uploadFile(any(byte[].class), contentTypeCaptor.capture(), anyString());
+        verify(s3Service, times(4)).uploadFile(any(Path.class), contentTypeCaptor.capture(), anyString());
 
         List<String> capturedContentTypes = contentTypeCaptor.getAllValues();
         assertEquals("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", capturedContentTypes.get(0));
@@ -201,7 +199,7 @@ class CronServiceTest {
         assertEquals("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", capturedContentTypes.get(2));
         assertEquals("application/pdf", capturedContentTypes.get(3));
 
-        verify(rabbitMQService, times(2)).publishMessageBackoff(any());
+        verify(emailOutboxService, times(2)).enqueue(any());
     }
 
     @Test
@@ -216,19 +214,19 @@ class CronServiceTest {
 
         List<VehicleOutDetailResponse> details = List.of(detail1);
 
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(details);
-        when(excel.generarExcelPorUsuario(anyList())).thenThrow(new IOException("Test IO Exception"));
+        stubDetails(details);
+        doThrow(new IOException("Test IO Exception")).when(excel).writeExcelPorUsuario(anyList(), any(OutputStream.class));
         when(excelGenerator.getContentType()).thenReturn("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
 
 
         boolean result = cronService.runDailyTask();
 
         assertTrue(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
-        verify(excel, times(1)).generarExcelPorUsuario(anyList());
+        verify(vehicleReportService, times(1)).streamVehiclesOutDetails(any());
+        verify(excel, times(1)).writeExcelPorUsuario(anyList(), any(OutputStream.class));
         verify(excelGenerator, times(1)).getContentType();
-        verify(s3Service, never()).uploadFile(any(byte[].class), anyString(), anyString());
-        verify(rabbitMQService, never()).publishMessageBackoff(any());
+        verify(s3Service, never()).uploadFile(any(Path.class), anyString(), anyString());
+        verify(emailOutboxService, never()).enqueue(any());
     }
 
     @Test
@@ -243,21 +241,19 @@ class CronServiceTest {
 
         List<VehicleOutDetailResponse> details = List.of(detail1);
 
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(details);
-        when(excel.generarExcelPorUsuario(anyList())).thenReturn("test_excel_bytes".getBytes());
-        when(pdf.generarPdfPorUsuario(anyList())).thenReturn("test_pdf_bytes".getBytes());
+        stubDetails(details);
         when(excelGenerator.getContentType()).thenReturn("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        when(s3Service.uploadFile(any(byte[].class), anyString(), anyString())).thenThrow(new RuntimeException("Test S3 Exception"));
+        when(s3Service.uploadFile(any(Path.class), anyString(), anyString())).thenThrow(new RuntimeException("Test S3 Exception"));
 
         boolean result = cronService.runDailyTask();
 
         assertTrue(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
-        verify(excel, times(1)).generarExcelPorUsuario(anyList());
-        verify(pdf, times(1)).generarPdfPorUsuario(anyList());
+        verify(vehicleReportService, times(1)).streamVehiclesOutDetails(any());
+        verify(excel, times(1)).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+        verify(pdf, times(1)).writePdfPorUsuario(anyList(), any(OutputStream.class));
         verify(excelGenerator, times(1)).getContentType();
-        verify(s3Service, times(2)).uploadFile(any(byte[].class), anyString(), anyString());
-        verify(rabbitMQService, never()).publishMessageBackoff(any());
+        verify(s3Service, times(2)).uploadFile(any(Path.class), anyString(), anyString());
+        verify(emailOutboxService, never()).enqueue(any());
     }
 
     @Test
@@ -272,21 +268,19 @@ class CronServiceTest {
 
         List<VehicleOutDetailResponse> details = List.of(detail1);
 
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(details);
-        when(excel.generarExcelPorUsuario(anyList())).thenReturn("test_excel_bytes".getBytes());
-        when(pdf.generarPdfPorUsuario(anyList())).thenReturn("test_pdf_bytes".getBytes());
+        stubDetails(details);
         when(excelGenerator.getContentType()).thenReturn("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        when(s3Service.uploadFile(any(byte[].class), anyString(), anyString())).thenReturn(null);
+        when(s3Service.uploadFile(any(Path.class), anyString(), anyString())).thenReturn(null);
 
         boolean result = cronService.runDailyTask();
 
         assertTrue(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
-        verify(excel, times(1)).generarExcelPorUsuario(anyList());
-        verify(pdf, times(1)).generarPdfPorUsuario(anyList());
+        verify(vehicleReportService, times(1)).streamVehiclesOutDetails(any());
+        verify(excel, times(1)).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+        verify(pdf, times(1)).writePdfPorUsuario(anyList(), any(OutputStream.class));
         verify(excelGenerator, times(1)).getContentType();
-        verify(s3Service, times(2)).uploadFile(any(byte[].class), anyString(), anyString());
-        verifyNoInteractions(rabbitMQService);
+        verify(s3Service, times(2)).uploadFile(any(Path.class), anyString(), anyString());
+        verifyNoInteractions(emailOutboxService);
     }
 
     @Test
@@ -301,21 +295,19 @@ class CronServiceTest {
 
         List<VehicleOutDetailResponse> details = List.of(detail1);
 
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(details);
-        when(excel.generarExcelPorUsuario(anyList())).thenReturn("test_excel_bytes".getBytes());
-        when(pdf.generarPdfPorUsuario(anyList())).thenReturn("test_pdf_bytes".getBytes());
+        stubDetails(details);
         when(excelGenerator.getContentType()).thenReturn("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        when(s3Service.uploadFile(any(byte[].class), anyString(), anyString())).thenReturn(Collections.singletonMap("OtherKey", "someKey"));
+        when(s3Service.uploadFile(any(Path.class), anyString(), anyString())).thenReturn(Collections.singletonMap("OtherKey", "someKey"));
 
         boolean result = cronService.runDailyTask();
 
         assertTrue(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
-        verify(excel, times(1)).generarExcelPorUsuario(anyList());
-        verify(pdf, times(1)).generarPdfPorUsuario(anyList());
+        verify(vehicleReportService, times(1)).streamVehiclesOutDetails(any());
+        verify(excel, times(1)).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+        verify(pdf, times(1)).writePdfPorUsuario(anyList(), any(OutputStream.class));
         verify(excelGenerator, times(1)).getContentType();
-        verify(s3Service, times(2)).uploadFile(any(byte[].class), anyString(), anyString());
-        verifyNoInteractions(rabbitMQService);
+        verify(s3Service, times(2)).uploadFile(any(Path.class), anyString(), anyString());
+        verifyNoInteractions(emailOutboxService);
     }
 
     @Test
@@ -330,22 +322,20 @@ class CronServiceTest {
 
         List<VehicleOutDetailResponse> details = List.of(detail1);
 
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(details);
-        when(excel.generarExcelPorUsuario(anyList())).thenReturn("test_excel_bytes".getBytes());
-        when(pdf.generarPdfPorUsuario(anyList())).thenReturn("test_pdf_bytes".getBytes());
+        stubDetails(details);
         when(excelGenerator.getContentType()).thenReturn("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        when(s3Service.uploadFile(any(byte[].class), anyString(), anyString())).thenReturn(Collections.singletonMap("Key", "someKey"));
-        doThrow(new RuntimeException("Test RabbitMQ Exception")).when(rabbitMQService).publishMessageBackoff(any());
+        when(s3Service.uploadFile(any(Path.class), anyString(), anyString())).thenReturn(Collections.singletonMap("Key", "someKey"));
+        doThrow(new RuntimeException("Test outbox Exception")).when(emailOutboxService).enqueue(any());
 
         boolean result = cronService.runDailyTask();
 
         assertTrue(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
-        verify(excel, times(1)).generarExcelPorUsuario(anyList());
-        verify(pdf, times(1)).generarPdfPorUsuario(anyList());
+        verify(vehicleReportService, times(1)).streamVehiclesOutDetails(any());
+        verify(excel, times(1)).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+        verify(pdf, times(1)).writePdfPorUsuario(anyList(), any(OutputStream.class));
         verify(excelGenerator, times(1)).getContentType();
-        verify(s3Service, times(2)).uploadFile(any(byte[].class), anyString(), anyString());
-        verify(rabbitMQService, times(1)).publishMessageBackoff(any());
+        verify(s3Service, times(2)).uploadFile(any(Path.class), anyString(), anyString());
+        verify(emailOutboxService, times(1)).enqueue(any());
     }
 
     @Test
@@ -360,24 +350,22 @@ class CronServiceTest {
 
         List<VehicleOutDetailResponse> details = List.of(detail1);
 
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(details);
-        when(excel.generarExcelPorUsuario(anyList())).thenReturn("test_excel_bytes".getBytes());
-        when(pdf.generarPdfPorUsuario(anyList())).thenReturn("test_pdf_bytes".getBytes());
+        stubDetails(details);
         when(excelGenerator.getContentType()).thenReturn("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        when(s3Service.uploadFile(any(byte[].class), anyString(), anyString())).thenReturn(Collections.singletonMap("Key", "someKey"));
-        doNothing().when(rabbitMQService).publishMessageBackoff(any());
+        when(s3Service.uploadFile(any(Path.class), anyString(), anyString())).thenReturn(Collections.singletonMap("Key", "someKey"));
+        when(emailOutboxService.enqueue(any())).thenReturn(new EmailOutboxMessage());
 
         boolean result = cronService.runDailyTask();
 
         assertTrue(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
-        verify(excel, times(1)).generarExcelPorUsuario(anyList());
-        verify(pdf, times(1)).generarPdfPorUsuario(anyList());
+        verify(vehicleReportService, times(1)).streamVehiclesOutDetails(any());
+        verify(excel, times(1)).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+        verify(pdf, times(1)).writePdfPorUsuario(anyList(), any(OutputStream.class));
         verify(excelGenerator, times(1)).getContentType();
-        verify(s3Service, times(2)).uploadFile(any(byte[].class), anyString(), anyString());
+        verify(s3Service, times(2)).uploadFile(any(Path.class), anyString(), anyString());
 
         ArgumentCaptor<Object> rabbitMQMessageCaptor = ArgumentCaptor.forClass(Object.class);
-        verify(rabbitMQService, times(1)).publishMessageBackoff(rabbitMQMessageCaptor.capture());
+        verify(emailOutboxService, times(1)).enqueue(rabbitMQMessageCaptor.capture());
 
         RabbitMQResponse capturedResponse = (RabbitMQResponse) rabbitMQMessageCaptor.getValue();
         List<EmailDataResponse> emailDataList = (List<EmailDataResponse>) capturedResponse.getData();
@@ -398,17 +386,56 @@ class CronServiceTest {
 
         List<VehicleOutDetailResponse> details = List.of(detail1);
 
-        when(vehicleReportService.getVehiclesOutDetails()).thenReturn(details);
+        stubDetails(details);
 
         when(excelGenerator.getContentType()).thenThrow(new RuntimeException("Simulated general exception"));
 
         boolean result = cronService.runDailyTask();
 
         assertTrue(result);
-        verify(vehicleReportService, times(1)).getVehiclesOutDetails();
+        verify(vehicleReportService, times(1)).streamVehiclesOutDetails(any());
         verify(excelGenerator, times(1)).getContentType();
-        verify(excel, never()).generarExcelPorUsuario(anyList());
-        verify(s3Service, never()).uploadFile(any(byte[].class), anyString(), anyString());
-        verify(rabbitMQService, never()).publishMessageBackoff(any());
+        verify(excel, never()).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+        verify(s3Service, never()).uploadFile(any(Path.class), anyString(), anyString());
+        verify(emailOutboxService, never()).enqueue(any());
+    }
+
+    @Test
+    @DisplayName("Should process every report while respecting the upload concurrency limit")
+    void runDailyTask_ManyReports_RespectsUploadConcurrency() throws IOException {
+        ReflectionTestUtils.setField(cronService, "generationThreads", 3);
+        ReflectionTestUtils.setField(cronService, "uploadConcurrency", 1);
+        ReflectionTestUtils.setField(cronService, "publishConcurrency", 1);
+        ReflectionTestUtils.setField(cronService, "maxPendingReports", 2);
+
+        List<VehicleOutDetailResponse> details = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            VehicleOutDetailResponse detail = new VehicleOutDetailResponse();
+            detail.setUserId("user" + i);
+            detail.setEmail("user" + i + "@example.com");
+            detail.setParking("parking" + i);
+            details.add(detail);
+        }
+
+        AtomicInteger activeUploads = new AtomicInteger();
+        AtomicInteger maxActiveUploads = new AtomicInteger();
+
+        stubDetails(details);
+        when(excelGenerator.getContentType()).thenReturn("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        when(s3Service.uploadFile(any(Path.class), anyString(), anyString())).thenAnswer(invocation -> {
+            maxActiveUploads.accumulateAndGet(activeUploads.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            activeUploads.decrementAndGet();
+            return Collections.singletonMap("Key", "someKey");
+        });
+        when(emailOutboxService.enqueue(any())).thenReturn(new EmailOutboxMessage());
+
+        boolean result = cronService.runDailyTask();
+
+        assertTrue(result);
+        assertEquals(1, maxActiveUploads.get());
+        verify(excel, times(6)).writeExcelPorUsuario(anyList(), any(OutputStream.class));
+        verify(s3Service, times(12)).uploadFile(any(Path.class), anyString(), anyString());
+        verify(emailOutboxService, times(6)).enqueue(any());
     }
 }
@@ -0,0 +1,148 @@
+package com.nelumbo.park.service.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nelumbo.park.entity.EmailOutboxMessage;
+import com.nelumbo.park.enums.OutboxStatus;
+import com.nelumbo.park.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceTest {
+
+    @Mock
+    private EmailOutboxRepository outboxRepository;
+    @Mock
+    private RabbitMQService rabbitMQService;
+
+    private EmailOutboxService emailOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxService = new EmailOutboxService(outboxRepository, rabbitMQService, new ObjectMapper());
+        ReflectionTestUtils.setField(emailOutboxService, "batchSize", 2);
+        ReflectionTestUtils.setField(emailOutboxService, "leaseSeconds", 120L);
+        ReflectionTestUtils.setField(emailOutboxService, "retryBaseSeconds", 30L);
+        ReflectionTestUtils.setField(emailOutboxService, "retryMaxSeconds", 3600L);
+        ReflectionTestUtils.setField(emailOutboxService, "retentionDays", 7L);
+    }
+
+    private static EmailOutboxMessage message(String id, int attempts) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(id);
+        message.setPayload("{\"id\":\"" + id + "\"}");
+        message.setStatus(OutboxStatus.PENDING);
+        message.setAttempts(attempts);
+        return message;
+    }
+
+    @Test
+    @DisplayName("Should store the serialized message as a pending row")
+    void enqueue_SavesPendingRow() {
+        when(outboxRepository.save(any(EmailOutboxMessage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        EmailOutboxMessage saved = emailOutboxService.enqueue(Map.of("type", "email"));
+
+        assertEquals(OutboxStatus.PENDING, saved.getStatus());
+        assertTrue(saved.getPayload().contains("\"email\""));
+        assertNotNull(saved.getAvailableAt());
+        verifyNoInteractions(rabbitMQService);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when there are no pending messages")
+    void relay_NoPendingMessages_ReturnsZero() {
+        when(outboxRepository.claimBatch(any(Date.class), any(Date.class), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, emailOutboxService.relay());
+
+        verifyNoInteractions(rabbitMQService);
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should mark confirmed messages as sent and keep claiming full batches")
+    void relay_AllConfirmed_MarksSentAndDrainsOutbox() {
+        when(outboxRepository.claimBatch(any(Date.class), any(Date.class), eq(2)))
+                .thenReturn(List.of(message("m1", 0), message("m2", 0)))
+                .thenReturn(List.of(message("m3", 0)));
+        when(rabbitMQService.publishPayload(any(byte[].class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        assertEquals(3, emailOutboxService.relay());
+
+        ArgumentCaptor<Collection<String>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxRepository, times(2)).markSent(idsCaptor.capture(), any(Date.class));
+        assertEquals(List.of("m1", "m2"), idsCaptor.getAllValues().get(0));
+        assertEquals(List.of("m3"), idsCaptor.getAllValues().get(1));
+        verify(outboxRepository, times(2)).claimBatch(any(Date.class), any(Date.class), eq(2));
+        verify(outboxRepository, never()).markFailed(anyString(), any(Date.class), anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should postpone rejected messages with exponential backoff")
+    void relay_RejectedMessage_SchedulesRetry() {
+        when(outboxRepository.claimBatch(any(Date.class), any(Date.class), eq(2)))
+                .thenReturn(List.of(message("m1", 0), message("m2", 2)))
+                .thenReturn(List.of());
+        when(rabbitMQService.publishPayload(any(byte[].class)))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("nack")));
+
+        long before = System.currentTimeMillis();
+        assertEquals(1, emailOutboxService.relay());
+
+        ArgumentCaptor<Collection<String>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(outboxRepository).markSent(idsCaptor.capture(), any(Date.class));
+        assertEquals(List.of("m1"), idsCaptor.getValue());
+
+        ArgumentCaptor<Date> availableAtCaptor = ArgumentCaptor.forClass(Date.class);
+        verify(outboxRepository).markFailed(eq("m2"), availableAtCaptor.capture(), eq("nack"));
+        long delay = availableAtCaptor.getValue().getTime() - before;
+        assertTrue(delay >= 120_000 && delay < 125_000, "30 s << 2 intentos previos = 120 s");
+        verify(outboxRepository, times(2)).claimBatch(any(Date.class), any(Date.class), eq(2));
+    }
+
+    @Test
+    @DisplayName("Should treat a publish that throws as a failed delivery")
+    void relay_PublishThrows_SchedulesRetry() {
+        when(outboxRepository.claimBatch(any(Date.class), any(Date.class), eq(2)))
+                .thenReturn(List.of(message("m1", 20)));
+        when(rabbitMQService.publishPayload(any(byte[].class))).thenThrow(new IllegalStateException("sin conexion"));
+
+        assertEquals(0, emailOutboxService.relay());
+
+        ArgumentCaptor<Date> availableAtCaptor = ArgumentCaptor.forClass(Date.class);
+        verify(outboxRepository).markFailed(eq("m1"), availableAtCaptor.capture(), eq("sin conexion"));
+        assertTrue(availableAtCaptor.getValue().getTime() - System.currentTimeMillis() <= 3_600_000);
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should delete sent messages older than the retention")
+    void purgeSent_DeletesOldMessages() {
+        when(outboxRepository.deleteSentBefore(any(Date.class))).thenReturn(4);
+
+        assertEquals(4, emailOutboxService.purgeSent());
+    }
+}
@@ -0,0 +1,73 @@
+package com.nelumbo.park.service.infrastructure;
+
+import com.nelumbo.park.entity.Parking;
+import com.nelumbo.park.repository.ParkingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ParkingLookupCacheTest {
+
+    @Mock
+    private ParkingRepository parkingRepository;
+
+    private ParkingLookupCache parkingLookupCache;
+    private Parking parking;
+
+    @BeforeEach
+    void setUp() {
+        parkingLookupCache = new ParkingLookupCache(parkingRepository, 60, 2, new SimpleMeterRegistry());
+        parking = new Parking();
+        parking.setId("parking-1");
+        parking.setCapacity(10);
+    }
+
+    @Test
+    void findById_ShouldQueryRepositoryOnlyOnceWhileEntryIsFresh() {
+        when(parkingRepository.findById("parking-1")).thenReturn(parking);
+
+        assertSame(parking, parkingLookupCache.findById("parking-1"));
+        assertSame(parking, parkingLookupCache.findById("parking-1"));
+
+        verify(parkingRepository, times(1)).findById("parking-1");
+    }
+
+    @Test
+    void evict_ShouldForceReloadFromRepository() {
+        when(parkingRepository.findById("parking-1")).thenReturn(parking);
+
+        parkingLookupCache.findById("parking-1");
+        parkingLookupCache.evict("parking-1");
+        parkingLookupCache.findById("parking-1");
+
+        verify(parkingRepository, times(2)).findById("parking-1");
+    }
+
+    @Test
+    void findById_WhenFull_ShouldDropLeastRecentlyUsed() {
+        Parking second = new Parking();
+        second.setId("parking-2");
+        Parking third = new Parking();
+        third.setId("parking-3");
+        when(parkingRepository.findById("parking-1")).thenReturn(parking);
+        when(parkingRepository.findById("parking-2")).thenReturn(second);
+        when(parkingRepository.findById("parking-3")).thenReturn(third);
+
+        parkingLookupCache.findById("parking-1");
+        parkingLookupCache.findById("parking-2");
+        parkingLookupCache.findById("parking-1");
+        parkingLookupCache.findById("parking-3");
+        parkingLookupCache.findById("parking-1");
+        parkingLookupCache.findById("parking-2");
+
+        verify(parkingRepository, times(1)).findById("parking-1");
+        verify(parkingRepository, times(2)).findById("parking-2");
+    }
+}
@@ -0,0 +1,160 @@
+package com.nelumbo.park.service.infrastructure;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.CancelCallback;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Connection;
+import com.rabbitmq.client.DeliverCallback;
+import com.rabbitmq.client.Delivery;
+import com.rabbitmq.client.Envelope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class QueueConsumerContainerTest {
+
+    private static final String QUEUE = "test_queue";
+
+    @Mock
+    private Connection connection;
+    @Mock
+    private Channel channel;
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueueConsumerContainer container;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        meterRegistry = new SimpleMeterRegistry();
+        when(connection.createChannel()).thenReturn(channel);
+        when(channel.isOpen()).thenReturn(true);
+        when(channel.basicConsume(eq(QUEUE), eq(false), any(DeliverCallback.class), any(CancelCallback.class)))
+                .thenReturn("ctag");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    private DeliverCallback start(QueueConsumerContainer.DeliveryHandler handler, int ackBatchSize)
+            throws IOException {
+        container = new QueueConsumerContainer(QUEUE, handler,
+                new QueueConsumerContainer.Settings(1, 10, ackBatchSize, 0, 0, 1000), meterRegistry);
+        container.start(connection);
+
+        ArgumentCaptor<DeliverCallback> callbackCaptor = ArgumentCaptor.forClass(DeliverCallback.class);
+        verify(channel).basicConsume(eq(QUEUE), eq(false), callbackCaptor.capture(), any(CancelCallback.class));
+        return callbackCaptor.getValue();
+    }
+
+    private static Delivery delivery(long tag, String body) {
+        return new Delivery(new Envelope(tag, false, "", QUEUE), new AMQP.BasicProperties(),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private double messages(String result) {
+        return meterRegistry.get("rabbitmq.consumer.messages").tag("queue", QUEUE).tag("result", result)
+                .counter().count();
+    }
+
+    @Test
+    @DisplayName("Should apply the prefetch to each consumer channel")
+    void start_SetsPrefetchAndConsumesWithManualAck() throws IOException {
+        start(body -> {}, 5);
+
+        verify(channel).basicQos(10);
+        verify(channel).basicConsume(eq(QUEUE), eq(false), any(DeliverCallback.class), any(CancelCallback.class));
+    }
+
+    @Test
+    @DisplayName("Should acknowledge a batch of processed messages with a single multiple ack")
+    void dispatch_BatchCompleted_AcksWithMultiple() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        DeliverCallback callback = start(body -> assertTrue(release.await(5, TimeUnit.SECONDS)), 3);
+
+        callback.handle("ctag", delivery(1, "a"));
+        callback.handle("ctag", delivery(2, "b"));
+        callback.handle("ctag", delivery(3, "c"));
+        release.countDown();
+
+        verify(channel, timeout(2000)).basicAck(3L, true);
+        verify(channel, never()).basicAck(eq(1L), anyBoolean());
+        verify(channel, never()).basicAck(eq(2L), anyBoolean());
+        verify(channel, never()).basicNack(anyLong(), anyBoolean(), anyBoolean());
+        assertEquals(3.0, messages("ack"));
+    }
+
+    @Test
+    @DisplayName("Should ack the messages before a failure and reject the failed one without requeue")
+    void dispatch_HandlerFails_AcksPreviousAndRejectsFailed() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        DeliverCallback callback = start(body -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            if ("bad".equals(new String(body, StandardCharsets.UTF_8))) {
+                throw new IllegalStateException("mensaje invalido");
+            }
+        }, 10);
+
+        callback.handle("ctag", delivery(1, "ok"));
+        callback.handle("ctag", delivery(2, "bad"));
+        callback.handle("ctag", delivery(3, "ok"));
+        release.countDown();
+
+        verify(channel, timeout(2000)).basicAck(3L, true);
+        InOrder inOrder = inOrder(channel);
+        inOrder.verify(channel).basicAck(1L, true);
+        inOrder.verify(channel).basicNack(2L, false, false);
+        inOrder.verify(channel).basicAck(3L, true);
+        assertEquals(2.0, messages("ack"));
+        assertEquals(1.0, messages("nack"));
+    }
+
+    @Test
+    @DisplayName("Should ack each message right away when nothing else is in flight")
+    void dispatch_SingleMessage_AcksWhenIdle() throws Exception {
+        DeliverCallback callback = start(body -> {}, 50);
+
+        callback.handle("ctag", delivery(7, "a"));
+
+        verify(channel, timeout(2000)).basicAck(7L, true);
+        assertEquals(0.0, meterRegistry.get("rabbitmq.consumer.in.flight").tag("queue", QUEUE).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should cancel the consumer and close its channel on stop")
+    void stop_CancelsConsumerAndClosesChannel() throws Exception {
+        start(body -> {}, 5);
+
+        container.stop();
+        container = null;
+
+        verify(channel).basicCancel("ctag");
+        verify(channel).close();
+    }
+}
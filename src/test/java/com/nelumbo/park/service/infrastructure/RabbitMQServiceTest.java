@@ -8,8 +8,10 @@ import com.nelumbo.park.exception.exceptions.RabbitMQConsumerException;
 import com.nelumbo.park.exception.exceptions.RabbitMQMessagePublishException;
 import com.rabbitmq.client.AMQP;
 import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.ConfirmCallback;
 import com.rabbitmq.client.Connection;
 import com.rabbitmq.client.ConnectionFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,12 +30,17 @@ import java.net.URISyntaxException;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -63,6 +70,12 @@ class RabbitMQServiceTest {
         ReflectionTestUtils.setField(rabbitMQService, "rabbitUrl", "amqp://localhost");
         ReflectionTestUtils.setField(rabbitMQService, "defaultQueueName", "test_queue");
         ReflectionTestUtils.setField(rabbitMQService, "defaultFinalQueueName", "_final_dlq");
+        ReflectionTestUtils.setField(rabbitMQService, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(rabbitMQService, "consumerContainerEnabled", true);
+        ReflectionTestUtils.setField(rabbitMQService, "consumerConcurrency", 2);
+        ReflectionTestUtils.setField(rabbitMQService, "consumerPrefetch", 20);
+        ReflectionTestUtils.setField(rabbitMQService, "consumerAckBatchSize", 10);
+        ReflectionTestUtils.setField(rabbitMQService, "consumerShutdownTimeoutMillis", 1000L);
 
         doReturn(mockConnectionFactory).when(rabbitMQService).createConnectionFactory();
 
@@ -137,101 +150,165 @@ class RabbitMQServiceTest {
         verify(mockChannel, never()).basicPublish(anyString(), anyString(), any(), any());
     }
 
-    @Test
-    @DisplayName("Should throw RabbitMQMessagePublishException if all backoff attempts fail")
-    void publishMessageBackoff_AllAttemptsFail_ThrowsException() throws IOException {
+    private static final byte[] PAYLOAD = "{}".getBytes();
 
-        Object message = new Object();
+    private void givenConnected() {
+        ReflectionTestUtils.setField(rabbitMQService, "connection", mockConnection);
+        ReflectionTestUtils.setField(rabbitMQService, "channel", mockChannel);
+    }
 
-        doThrow(new IOException("Publishing failed consistently"))
-                .when(mockChannel).basicPublish(anyString(), anyString(), any(), any());
+    private ConfirmCallback captureAckCallback() throws IOException {
+        ArgumentCaptor<ConfirmCallback> ackCaptor = ArgumentCaptor.forClass(ConfirmCallback.class);
+        verify(mockChannel, atLeastOnce()).addConfirmListener(ackCaptor.capture(), any(ConfirmCallback.class));
+        return ackCaptor.getValue();
+    }
 
-        RabbitMQMessagePublishException thrown = assertThrows(RabbitMQMessagePublishException.class, () -> {
-            rabbitMQService.publishMessageBackoff(message);
-        });
+    private ConfirmCallback captureNackCallback() throws IOException {
+        ArgumentCaptor<ConfirmCallback> nackCaptor = ArgumentCaptor.forClass(ConfirmCallback.class);
+        verify(mockChannel, atLeastOnce()).addConfirmListener(any(ConfirmCallback.class), nackCaptor.capture());
+        return nackCaptor.getValue();
+    }
 
-        assertTrue(thrown.getMessage().contains("Fallo final al publicar mensaje con backoff"));
+    @Test
+    @DisplayName("publishPayload should complete only when the broker confirms the message")
+    void publishPayload_CompletesOnBrokerAck() throws IOException {
+        givenConnected();
+        when(mockChannel.getNextPublishSeqNo()).thenReturn(1L);
 
-        verify(rabbitMQService, atLeast(5)).connect(null);
+        CompletableFuture<Void> result = rabbitMQService.publishPayload(PAYLOAD);
 
-        verify(mockChannel, atLeast(5)).basicPublish(anyString(), anyString(), any(), any());
+        assertFalse(result.isDone());
+        verify(mockChannel).confirmSelect();
+        verify(mockChannel, times(1)).basicPublish(eq(""), eq("test_queue"), any(), eq(PAYLOAD));
+
+        captureAckCallback().handle(1L, false);
+
+        assertTrue(result.isDone());
+        assertFalse(result.isCompletedExceptionally());
     }
 
     @Test
-    @DisplayName("publishMessageBackoff should succeed if basicPublish succeeds on first attempt")
-    void publishMessageBackoff_BasicPublishSucceeds_CompletesSuccessfully() throws IOException {
-        Object message = new Object();
+    @DisplayName("publishPayload should settle every message up to the tag on a multiple ack")
+    void publishPayload_MultipleAck_SettlesBatch() throws IOException {
+        givenConnected();
+        when(mockChannel.getNextPublishSeqNo()).thenReturn(1L, 2L, 3L);
 
-        assertDoesNotThrow(() -> rabbitMQService.publishMessageBackoff(message));
+        CompletableFuture<Void> first = rabbitMQService.publishPayload(PAYLOAD);
+        CompletableFuture<Void> second = rabbitMQService.publishPayload(PAYLOAD);
+        CompletableFuture<Void> third = rabbitMQService.publishPayload(PAYLOAD);
 
-        verify(mockChannel, times(1)).basicPublish(anyString(), anyString(), any(), any());
-        verify(rabbitMQService, never()).connect(anyString());
+        captureAckCallback().handle(2L, true);
+
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+        verify(mockConnection, times(1)).createChannel();
     }
 
     @Test
-    @DisplayName("publishMessageBackoff should reconnect if channel is null before publishing")
-    void publishMessageBackoff_ChannelNull_ReconnectsAndPublishes() throws IOException {
-        ReflectionTestUtils.setField(rabbitMQService, "channel", null);
-        Object message = new Object();
+    @DisplayName("publishPayload should reuse pooled channels across publishes")
+    void publishPayload_ReusesPooledChannel() throws IOException {
+        givenConnected();
+        ReflectionTestUtils.setField(rabbitMQService, "publisherChannels", 2);
 
-        assertDoesNotThrow(() -> rabbitMQService.publishMessageBackoff(message));
+        rabbitMQService.publishPayload(PAYLOAD);
+        rabbitMQService.publishPayload(PAYLOAD);
 
-        verify(rabbitMQService, times(1)).connect(null);
-        verify(mockChannel, times(1)).basicPublish(anyString(), anyString(), any(), any());
+        verify(mockConnection, times(1)).createChannel();
+        verify(mockChannel, times(1)).confirmSelect();
+        verify(mockChannel, times(2)).basicPublish(anyString(), anyString(), any(), any());
     }
 
     @Test
-    @DisplayName("publishMessageBackoff should reconnect if channel is not open before publishing")
-    void publishMessageBackoff_ChannelNotOpen_ReconnectsAndPublishes() throws IOException {
-        when(mockChannel.isOpen()).thenReturn(false);
-        Object message = new Object();
+    @DisplayName("publishPayload should fail the future when the broker nacks the message")
+    void publishPayload_Nack_CompletesExceptionally() throws IOException {
+        givenConnected();
+        when(mockChannel.getNextPublishSeqNo()).thenReturn(1L);
 
-        assertDoesNotThrow(() -> rabbitMQService.publishMessageBackoff(message));
+        CompletableFuture<Void> result = rabbitMQService.publishPayload(PAYLOAD);
+        captureNackCallback().handle(1L, false);
 
-        verify(rabbitMQService, times(1)).connect(null);
-        verify(mockChannel, times(1)).basicPublish(anyString(), anyString(), any(), any());
+        ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(RabbitMQMessagePublishException.class, thrown.getCause());
     }
 
     @Test
-    @DisplayName("publishMessageBackoff should reconnect if connection is null before publishing")
-    void publishMessageBackoff_ConnectionNull_ReconnectsAndPublishes() throws IOException {
-        ReflectionTestUtils.setField(rabbitMQService, "connection", null);
-        Object message = new Object();
+    @DisplayName("publishPayload should fail the future and discard the channel when publishing throws")
+    void publishPayload_PublishFails_CompletesExceptionally() throws IOException {
+        givenConnected();
+        doThrow(new IOException("Publishing failed"))
+                .when(mockChannel).basicPublish(anyString(), anyString(), any(), any());
 
-        assertDoesNotThrow(() -> rabbitMQService.publishMessageBackoff(message));
+        CompletableFuture<Void> first = rabbitMQService.publishPayload(PAYLOAD);
+        CompletableFuture<Void> second = rabbitMQService.publishPayload(PAYLOAD);
 
-        verify(rabbitMQService, times(1)).connect(null);
-        verify(mockChannel, times(1)).basicPublish(anyString(), anyString(), any(), any());
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        verify(mockConnection, times(2)).createChannel();
     }
 
     @Test
-    @DisplayName("publishMessageBackoff should reconnect if connection is not open before publishing")
-    void publishMessageBackoff_ConnectionNotOpen_ReconnectsAndPublishes() throws IOException {
-        when(mockConnection.isOpen()).thenReturn(false);
-        Object message = new Object();
+    @DisplayName("publishPayload should reconnect if the connection is not open")
+    void publishPayload_ConnectionNull_Reconnects() throws IOException {
+        ReflectionTestUtils.setField(rabbitMQService, "connection", null);
 
-        assertDoesNotThrow(() -> rabbitMQService.publishMessageBackoff(message));
+        rabbitMQService.publishPayload(PAYLOAD);
 
         verify(rabbitMQService, times(1)).connect(null);
         verify(mockChannel, times(1)).basicPublish(anyString(), anyString(), any(), any());
     }
 
     @Test
-    @DisplayName("publishMessageBackoff should throw exception and set channel to null if basicPublish consistently fails")
-    void publishMessageBackoff_BasicPublishConsistentlyFails_ThrowsExceptionAndSetsChannelNull() throws IOException {
-        Object message = new Object();
-        doThrow(new RuntimeException("General publish error")).when(mockChannel).basicPublish(anyString(), anyString(), any(), any());
-
-        RabbitMQMessagePublishException thrown = assertThrows(RabbitMQMessagePublishException.class, () -> {
-            rabbitMQService.publishMessageBackoff(message);
-        });
-
-        assertTrue(thrown.getMessage().contains("Fallo final al publicar mensaje con backoff"));
+    @DisplayName("publishPayload should queue the message when the pool is full and publish it once a channel is released")
+    void publishPayload_PoolExhausted_PublishesOnReleasedChannel() throws IOException {
+        givenConnected();
+        ReflectionTestUtils.setField(rabbitMQService, "publisherChannels", 1);
+        ReflectionTestUtils.setField(rabbitMQService, "borrowTimeoutMillis", 5000L);
+        CompletableFuture<?>[] queued = new CompletableFuture<?>[1];
+        doAnswer(invocation -> {
+            if (queued[0] == null) {
+                queued[0] = rabbitMQService.publishPayload(PAYLOAD);
+                assertFalse(queued[0].isDone());
+            }
+            return null;
+        }).when(mockChannel).basicPublish(anyString(), anyString(), any(), any());
 
-        verify(mockChannel, atLeast(5)).basicPublish(anyString(), anyString(), any(), any());
+        rabbitMQService.publishPayload(PAYLOAD);
 
-        verify(rabbitMQService, atLeast(5)).connect(null);
-        assertNull(ReflectionTestUtils.getField(rabbitMQService, "channel"));
+        verify(mockChannel, times(2)).basicPublish(anyString(), anyString(), any(), any());
+        verify(mockConnection, times(1)).createChannel();
+        assertFalse(queued[0].isCompletedExceptionally());
+    }
+
+    @Test
+    @DisplayName("publishPayload should return at once and fail after the borrow timeout when no channel is released")
+    void publishPayload_PoolExhausted_FailsAfterBorrowTimeoutWithoutBlocking() throws Exception {
+        givenConnected();
+        ReflectionTestUtils.setField(rabbitMQService, "publisherChannels", 1);
+        ReflectionTestUtils.setField(rabbitMQService, "borrowTimeoutMillis", 200L);
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            publishing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(mockChannel).basicPublish(anyString(), anyString(), any(), any());
+
+        Thread holder = new Thread(() -> rabbitMQService.publishPayload(PAYLOAD));
+        holder.start();
+        try {
+            assertTrue(publishing.await(1, TimeUnit.SECONDS));
+
+            CompletableFuture<Void> result = rabbitMQService.publishPayload(PAYLOAD);
+            assertFalse(result.isDone());
+
+            ExecutionException thrown = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+            assertTrue(thrown.getCause().getMessage().contains("No hay canales de publicacion disponibles"));
+        } finally {
+            release.countDown();
+            holder.join(1000);
+        }
+        verify(mockChannel, times(1)).basicPublish(anyString(), anyString(), any(), any());
     }
 
     @Test
@@ -326,9 +403,14 @@ class RabbitMQServiceTest {
         assertTrue(message.isFinalFailure());
     }
 
+    private void givenSingleConsumerMode() {
+        ReflectionTestUtils.setField(rabbitMQService, "consumerContainerEnabled", false);
+    }
+
     @Test
     @DisplayName("consumeFromQueue should set up consumer and process message successfully")
     void consumeFromQueue_Success() throws IOException {
+        givenSingleConsumerMode();
 
         String queueName = "test_consumer_queue";
         Consumer<QueueMessageResponse> mockCallback = mock(Consumer.class);
@@ -361,6 +443,7 @@ class RabbitMQServiceTest {
     @Test
     @DisplayName("consumeFromQueue should handle IOException during message processing and nack message")
     void consumeFromQueue_IOException_NacksMessage() throws IOException {
+        givenSingleConsumerMode();
         String queueName = "test_consumer_queue";
         Consumer<QueueMessageResponse> mockCallback = mock(Consumer.class);
 
@@ -391,6 +474,7 @@ class RabbitMQServiceTest {
     @Test
     @DisplayName("consumeFromQueue should handle IOException during basicNack")
     void consumeFromQueue_BasicNackIOException_HandlesGracefully() throws IOException {
+        givenSingleConsumerMode();
         String queueName = "test_consumer_queue";
         Consumer<QueueMessageResponse> mockCallback = mock(Consumer.class);
 
@@ -422,6 +506,7 @@ class RabbitMQServiceTest {
     @Test
     @DisplayName("consumeFromQueue should throw RabbitMQConsumerException on IOException during basicConsume setup")
     void consumeFromQueue_BasicConsumeIOException_ThrowsException() throws IOException {
+        givenSingleConsumerMode();
 
         String queueName = "test_consumer_queue";
         Consumer<QueueMessageResponse> mockCallback = mock(Consumer.class);
@@ -436,13 +521,57 @@ class RabbitMQServiceTest {
         assertTrue(thrown.getCause() instanceof IOException);
     }
 
+    @Test
+    @DisplayName("consumeFromQueue in container mode should open one channel with prefetch per consumer")
+    void consumeFromQueue_ContainerMode_OpensChannelPerConsumer() throws Exception {
+        givenConnected();
+        Channel consumerChannel1 = mock(Channel.class);
+        Channel consumerChannel2 = mock(Channel.class);
+        when(mockConnection.createChannel()).thenReturn(consumerChannel1, consumerChannel2);
+        when(consumerChannel1.isOpen()).thenReturn(true);
+        when(consumerChannel2.isOpen()).thenReturn(true);
+        when(consumerChannel1.basicConsume(anyString(), anyBoolean(), any(com.rabbitmq.client.DeliverCallback.class),
+                any(com.rabbitmq.client.CancelCallback.class))).thenReturn("ctag-1");
+        when(consumerChannel2.basicConsume(anyString(), anyBoolean(), any(com.rabbitmq.client.DeliverCallback.class),
+                any(com.rabbitmq.client.CancelCallback.class))).thenReturn("ctag-2");
+
+        rabbitMQService.consumeFromQueue("test_consumer_queue", mock(Consumer.class));
+
+        for (Channel consumerChannel : new Channel[]{consumerChannel1, consumerChannel2}) {
+            verify(consumerChannel).basicQos(20);
+            verify(consumerChannel).basicConsume(eq("test_consumer_queue"), eq(false),
+                    any(com.rabbitmq.client.DeliverCallback.class), any(com.rabbitmq.client.CancelCallback.class));
+        }
+        verify(mockChannel, never()).basicConsume(anyString(), anyBoolean(),
+                any(com.rabbitmq.client.DeliverCallback.class), any(com.rabbitmq.client.CancelCallback.class));
+
+        rabbitMQService.destroy();
+
+        verify(consumerChannel1).basicCancel("ctag-1");
+        verify(consumerChannel2).basicCancel("ctag-2");
+        verify(consumerChannel1).close();
+        verify(consumerChannel2).close();
+    }
+
+    @Test
+    @DisplayName("consumeFromQueue in container mode should wrap channel setup errors")
+    void consumeFromQueue_ContainerMode_SetupIOException_ThrowsException() throws IOException {
+        givenConnected();
+        doThrow(new IOException("qos error")).when(mockChannel).basicQos(anyInt());
+
+        RabbitMQConsumerException thrown = assertThrows(RabbitMQConsumerException.class,
+                () -> rabbitMQService.consumeFromQueue("test_consumer_queue", mock(Consumer.class)));
+
+        assertTrue(thrown.getMessage().contains("test_consumer_queue"));
+    }
+
     @Test
     @DisplayName("consumeFromFinalDLQ should call consumeFromQueue with final DLQ name")
     void consumeFromFinalDLQ_CallsConsumeFromQueue() {
 
         Consumer<QueueMessageResponse> mockCallback = mock(Consumer.class);
 
-        doNothing().when(rabbitMQService).sendToQueue(anyString(), any());
+        doNothing().when(rabbitMQService).consumeFromQueue(anyString(), any());
 
 
         rabbitMQService.consumeFromFinalDLQ(mockCallback);
@@ -0,0 +1,131 @@
+package com.nelumbo.park.service.infrastructure;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankingCacheTest {
+
+    private RankingCache rankingCache;
+
+    @AfterEach
+    void tearDown() {
+        if (rankingCache != null) {
+            rankingCache.shutdown();
+        }
+    }
+
+    @Test
+    void get_WhileFresh_ShouldCallLoaderOnlyOnce() {
+        rankingCache = new RankingCache(new ObjectMapper(), 60, 300, 10, new SimpleMeterRegistry());
+        AtomicInteger calls = new AtomicInteger();
+
+        RankingCache.Cached<List<String>> first = rankingCache.get("rankings:global", () -> {
+            calls.incrementAndGet();
+            return List.of("ABC123");
+        });
+        RankingCache.Cached<List<String>> second = rankingCache.get("rankings:global", () -> {
+            calls.incrementAndGet();
+            return List.of("XYZ789");
+        });
+
+        assertEquals(1, calls.get());
+        assertEquals(List.of("ABC123"), second.value());
+        assertEquals(first.etag(), second.etag());
+        assertEquals(300, second.staleSeconds());
+    }
+
+    @Test
+    void get_ConcurrentMisses_ShouldShareSingleLoad() throws Exception {
+        rankingCache = new RankingCache(new ObjectMapper(), 60, 300, 10, new SimpleMeterRegistry());
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<RankingCache.Cached<String>> first = CompletableFuture.supplyAsync(() ->
+                rankingCache.get("rankings:parking:1", () -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return "ranking";
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<RankingCache.Cached<String>> second = CompletableFuture.supplyAsync(() ->
+                rankingCache.get("rankings:parking:1", () -> {
+                    calls.incrementAndGet();
+                    return "otro";
+                }));
+        release.countDown();
+
+        assertEquals("ranking", first.get(5, TimeUnit.SECONDS).value());
+        assertEquals("ranking", second.get(5, TimeUnit.SECONDS).value());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void get_WhenStale_ShouldServePreviousValueAndRefreshInBackground() throws Exception {
+        rankingCache = new RankingCache(new ObjectMapper(), 0, 300, 10, new SimpleMeterRegistry());
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        rankingCache.get("rankings:global", () -> "anterior");
+        RankingCache.Cached<String> stale = rankingCache.get("rankings:global", () -> {
+            refreshed.countDown();
+            return "nuevo";
+        });
+
+        assertEquals("anterior", stale.value());
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+
+        String value = stale.value();
+        for (int i = 0; i < 50 && "anterior".equals(value); i++) {
+            Thread.sleep(20);
+            value = rankingCache.<String>get("rankings:global", () -> "nuevo").value();
+        }
+        assertEquals("nuevo", value);
+    }
+
+    @Test
+    void get_WhenLoaderFails_ShouldPropagateAndNotCache() {
+        rankingCache = new RankingCache(new ObjectMapper(), 60, 300, 10, new SimpleMeterRegistry());
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> rankingCache.get("rankings:global", () -> {
+                    throw new IllegalStateException("fallo");
+                }));
+        assertEquals("fallo", exception.getMessage());
+
+        assertEquals("ok", rankingCache.get("rankings:global", () -> "ok").value());
+    }
+
+    @Test
+    void get_AfterEvictAll_ShouldKeepEtagForSameValue() {
+        rankingCache = new RankingCache(new ObjectMapper(), 60, 300, 10, new SimpleMeterRegistry());
+
+        String before = rankingCache.get("rankings:global", () -> List.of("ABC123")).etag();
+        rankingCache.evictAll();
+        String after = rankingCache.get("rankings:global", () -> List.of("ABC123")).etag();
+        rankingCache.evictAll();
+        String changed = rankingCache.get("rankings:global", () -> List.of("XYZ789")).etag();
+
+        assertEquals(before, after);
+        assertNotEquals(before, changed);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,43 +3,56 @@ package com.nelumbo.park.service.infrastructure;
 import com.nelumbo.park.exception.exceptions.S3ConnectivityException;
 import com.nelumbo.park.exception.exceptions.S3FileRetrievalException;
 import com.nelumbo.park.exception.exceptions.S3FileUploadException;
+import com.nelumbo.park.service.infrastructure.storage.ObjectStorage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.test.util.ReflectionTestUtils;
 import software.amazon.awssdk.awscore.exception.AwsServiceException;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.UnknownHostException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class S3ServiceTest {
 
     @Mock
-    private S3Client s3Client;
+    private ObjectStorage objectStorage;
 
-    @InjectMocks
     private S3Service s3Service;
 
-    private final String bucketName = "test-bucket";
     private final String fileName = "test-file.txt";
     private final String contentType = "text/plain";
     private final byte[] buffer = "test content".getBytes();
 
     @BeforeEach
     void setUp() {
-        ReflectionTestUtils.setField(s3Service, "bucketName", bucketName);
+        s3Service = new S3Service(objectStorage, 2);
+    }
+
+    private void givenUploadReturns(CompletableFuture<Void> result) {
+        when(objectStorage.upload(anyString(), any(InputStream.class), anyLong(), anyString())).thenReturn(result);
+    }
+
+    private void givenUploadThrows(RuntimeException error) {
+        when(objectStorage.upload(anyString(), any(InputStream.class), anyLong(), anyString())).thenThrow(error);
     }
 
     // --- uploadFile tests ---
@@ -48,14 +61,13 @@ class S3ServiceTest {
     @DisplayName("Should upload file successfully")
     void uploadFile_Success() {
 
-        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
-                .thenReturn(PutObjectResponse.builder().build());
+        givenUploadReturns(CompletableFuture.completedFuture(null));
 
         Map<String, String> result = s3Service.uploadFile(buffer, contentType, fileName);
 
         assertNotNull(result);
         assertEquals(fileName, result.get("Key"));
-        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(objectStorage, times(1)).upload(eq(fileName), any(InputStream.class), eq((long) buffer.length), eq(contentType));
     }
 
     @Test
@@ -63,10 +75,10 @@ class S3ServiceTest {
     void uploadFile_Nullbuffer_ThrowsIllegalArgumentException() {
 
         IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> {
-            s3Service.uploadFile(null, contentType, fileName);
+            s3Service.uploadFile((byte[]) null, contentType, fileName);
         });
         assertEquals("El parámetro buffer debe ser un array de bytes válido", thrown.getMessage());
-        verifyNoInteractions(s3Client);
+        verifyNoInteractions(objectStorage);
     }
 
     @Test
@@ -77,7 +89,7 @@ class S3ServiceTest {
             s3Service.uploadFile(new byte[0], contentType, fileName);
         });
         assertEquals("El parámetro buffer debe ser un array de bytes válido", thrown.getMessage());
-        verifyNoInteractions(s3Client);
+        verifyNoInteractions(objectStorage);
     }
 
     @Test
@@ -85,8 +97,7 @@ class S3ServiceTest {
     void uploadFile_S3Exception_ThrowsS3FileUploadException() {
 
         String expectedS3ErrorMessage = "S3 error";
-        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
-                .thenThrow(S3Exception.builder().message(expectedS3ErrorMessage).build());
+        givenUploadReturns(CompletableFuture.failedFuture(S3Exception.builder().message(expectedS3ErrorMessage).build()));
 
         S3FileUploadException thrown = assertThrows(S3FileUploadException.class, () -> {
             s3Service.uploadFile(buffer, contentType, fileName);
@@ -107,8 +118,7 @@ class S3ServiceTest {
     void uploadFile_UnknownHostException_ThrowsS3ConnectivityException() {
 
         UnknownHostException unknownHostException = new UnknownHostException("Host not found");
-        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
-                .thenThrow(new RuntimeException(unknownHostException));
+        givenUploadReturns(CompletableFuture.failedFuture(new RuntimeException(unknownHostException)));
 
         S3ConnectivityException thrown = assertThrows(S3ConnectivityException.class, () -> {
             s3Service.uploadFile(buffer, contentType, fileName);
@@ -122,8 +132,7 @@ class S3ServiceTest {
     void uploadFile_GenericException_ThrowsS3FileUploadException() {
 
         RuntimeException genericException = new RuntimeException("Generic error");
-        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
-                .thenThrow(genericException);
+        givenUploadThrows(genericException);
 
         S3FileUploadException thrown = assertThrows(S3FileUploadException.class, () -> {
             s3Service.uploadFile(buffer, contentType, fileName);
@@ -138,38 +147,35 @@ class S3ServiceTest {
     @DisplayName("Should return exists true when file is found")
     void getFile_Exists_ReturnsTrue() {
 
-        when(s3Client.getObject(any(GetObjectRequest.class)))
-                .thenReturn(null);
+        when(objectStorage.exists(fileName)).thenReturn(true);
 
         Map<String, Object> result = s3Service.getFile(fileName);
 
         assertNotNull(result);
         assertEquals(fileName, result.get("key"));
         assertTrue((Boolean) result.get("exists"));
-        verify(s3Client, times(1)).getObject(any(GetObjectRequest.class));
+        verify(objectStorage, times(1)).exists(fileName);
     }
 
     @Test
-    @DisplayName("Should return exists false when NoSuchKeyException occurs")
-    void getFile_NoSuchKeyException_ReturnsFalse() {
+    @DisplayName("Should return exists false when the object is not found")
+    void getFile_NotFound_ReturnsFalse() {
 
-        when(s3Client.getObject(any(GetObjectRequest.class)))
-                .thenThrow(NoSuchKeyException.builder().message("Not found").build());
+        when(objectStorage.exists(fileName)).thenReturn(false);
 
         Map<String, Object> result = s3Service.getFile(fileName);
 
         assertNotNull(result);
         assertEquals(fileName, result.get("key"));
         assertFalse((Boolean) result.get("exists"));
-        verify(s3Client, times(1)).getObject(any(GetObjectRequest.class));
+        verify(objectStorage, times(1)).exists(fileName);
     }
 
     @Test
     @DisplayName("Should throw S3FileRetrievalException when S3Exception occurs during getFile")
     void getFile_S3Exception_ThrowsS3FileRetrievalException() {
 
-        when(s3Client.getObject(any(GetObjectRequest.class)))
-                .thenThrow(S3Exception.builder().message("S3 error").build());
+        when(objectStorage.exists(fileName)).thenThrow(S3Exception.builder().message("S3 error").build());
 
         S3FileRetrievalException thrown = assertThrows(S3FileRetrievalException.class, () -> {
             s3Service.getFile(fileName);
@@ -184,8 +190,7 @@ class S3ServiceTest {
     void getFile_UnknownHostException_ThrowsS3ConnectivityException() {
 
         UnknownHostException unknownHostException = new UnknownHostException("Host not found");
-        when(s3Client.getObject(any(GetObjectRequest.class)))
-                .thenThrow(new RuntimeException(unknownHostException));
+        when(objectStorage.exists(fileName)).thenThrow(new RuntimeException(unknownHostException));
 
         S3ConnectivityException thrown = assertThrows(S3ConnectivityException.class, () -> {
             s3Service.getFile(fileName);
@@ -199,8 +204,7 @@ class S3ServiceTest {
     void getFile_GenericException_ThrowsS3FileRetrievalException() {
 
         RuntimeException genericException = new RuntimeException("Generic error");
-        when(s3Client.getObject(any(GetObjectRequest.class)))
-                .thenThrow(genericException);
+        when(objectStorage.exists(fileName)).thenThrow(genericException);
 
         S3FileRetrievalException thrown = assertThrows(S3FileRetrievalException.class, () -> {
             s3Service.getFile(fileName);
@@ -215,14 +219,13 @@ class S3ServiceTest {
     @DisplayName("Should upload file directly successfully")
     void uploadFileDirectly_Success() {
 
-        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
-                .thenReturn(PutObjectResponse.builder().build());
+        givenUploadReturns(CompletableFuture.completedFuture(null));
 
         Map<String, String> result = s3Service.uploadFileDirectly(buffer, contentType, fileName);
 
         assertNotNull(result);
         assertEquals(fileName, result.get("Key"));
-        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(objectStorage, times(1)).upload(eq(fileName), any(InputStream.class), eq((long) buffer.length), eq(contentType));
     }
 
     @Test
@@ -233,7 +236,7 @@ class S3ServiceTest {
             s3Service.uploadFileDirectly(null, contentType, fileName);
         });
         assertEquals("El parámetro buffer debe ser un array de bytes válido", thrown.getMessage());
-        verifyNoInteractions(s3Client);
+        verifyNoInteractions(objectStorage);
     }
 
     @Test
@@ -244,15 +247,14 @@ class S3ServiceTest {
             s3Service.uploadFileDirectly(new byte[0], contentType, fileName);
         });
         assertEquals("El parámetro buffer debe ser un array de bytes válido", thrown.getMessage());
-        verifyNoInteractions(s3Client);
+        verifyNoInteractions(objectStorage);
     }
 
     @Test
     @DisplayName("Should throw S3FileUploadException when S3Exception occurs during uploadFileDirectly")
     void uploadFileDirectly_S3Exception_ThrowsS3FileUploadException() {
 
-        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
-                .thenThrow(S3Exception.builder().message("S3 error").build());
+        givenUploadReturns(CompletableFuture.failedFuture(S3Exception.builder().message("S3 error").build()));
 
         S3FileUploadException thrown = assertThrows(S3FileUploadException.class, () -> {
             s3Service.uploadFileDirectly(buffer, contentType, fileName);
@@ -267,8 +269,7 @@ class S3ServiceTest {
     void uploadFileDirectly_UnknownHostException_ThrowsS3ConnectivityException() {
 
         UnknownHostException unknownHostException = new UnknownHostException("Host not found");
-        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
-                .thenThrow(new RuntimeException(unknownHostException));
+        givenUploadReturns(CompletableFuture.failedFuture(new RuntimeException(unknownHostException)));
 
         S3ConnectivityException thrown = assertThrows(S3ConnectivityException.class, () -> {
             s3Service.uploadFileDirectly(buffer, contentType, fileName);
@@ -282,8 +283,7 @@ class S3ServiceTest {
     void uploadFileDirectly_GenericException_ThrowsS3FileUploadException() {
 
         RuntimeException genericException = new RuntimeException("Generic error");
-        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
-                .thenThrow(genericException);
+        givenUploadThrows(genericException);
 
         S3FileUploadException thrown = assertThrows(S3FileUploadException.class, () -> {
             s3Service.uploadFileDirectly(buffer, contentType, fileName);
@@ -291,4 +291,95 @@ class S3ServiceTest {
         assertTrue(thrown.getMessage().contains("Error subiendo archivo"));
         assertEquals(genericException, thrown.getCause());
     }
+
+    // --- uploadFile(Path) and uploadFile(InputStream) tests ---
+
+    @Test
+    @DisplayName("Should upload a local file through the storage backend")
+    void uploadFilePath_Success() {
+        Path file = Path.of("reporte.xlsx");
+        when(objectStorage.upload(fileName, file, contentType)).thenReturn(CompletableFuture.completedFuture(null));
+
+        Map<String, String> result = s3Service.uploadFile(file, contentType, fileName);
+
+        assertEquals(fileName, result.get("Key"));
+        verify(objectStorage).upload(fileName, file, contentType);
+    }
+
+    @Test
+    @DisplayName("Should stream an InputStream to the storage backend")
+    void uploadFileStream_Success() {
+        InputStream content = new ByteArrayInputStream(buffer);
+        when(objectStorage.upload(fileName, content, buffer.length, contentType))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        Map<String, String> result = s3Service.uploadFile(content, buffer.length, contentType, fileName);
+
+        assertEquals(fileName, result.get("Key"));
+    }
+
+    // --- uploadFiles tests ---
+
+    @Test
+    @DisplayName("Should keep at most upload-concurrency uploads in flight")
+    void uploadFiles_RespectsConcurrencyLimit() throws Exception {
+        List<CompletableFuture<Void>> started = new ArrayList<>();
+        when(objectStorage.upload(anyString(), any(InputStream.class), anyLong(), anyString())).thenAnswer(invocation -> {
+            CompletableFuture<Void> upload = new CompletableFuture<>();
+            synchronized (started) {
+                started.add(upload);
+            }
+            return upload;
+        });
+        List<S3Service.FileUpload> files = List.of(
+                new S3Service.FileUpload(buffer, contentType, "a"),
+                new S3Service.FileUpload(buffer, contentType, "b"),
+                new S3Service.FileUpload(buffer, contentType, "c"));
+
+        CompletableFuture<List<Map<String, String>>> result = CompletableFuture.supplyAsync(() -> s3Service.uploadFiles(files));
+
+        verify(objectStorage, timeout(2000).times(2)).upload(anyString(), any(InputStream.class), anyLong(), anyString());
+        Thread.sleep(100);
+        verify(objectStorage, times(2)).upload(anyString(), any(InputStream.class), anyLong(), anyString());
+
+        synchronized (started) {
+            started.get(0).complete(null);
+        }
+        verify(objectStorage, timeout(2000).times(3)).upload(anyString(), any(InputStream.class), anyLong(), anyString());
+        synchronized (started) {
+            started.forEach(upload -> upload.complete(null));
+        }
+
+        List<Map<String, String>> uploaded = result.get();
+        assertEquals(List.of("a", "b", "c"), uploaded.stream().map(map -> map.get("Key")).toList());
+    }
+
+    @Test
+    @DisplayName("Should finish every upload and then report the first failure")
+    void uploadFiles_OneFails_ThrowsAfterAllComplete() {
+        when(objectStorage.upload(eq("a"), any(InputStream.class), anyLong(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().message("S3 error").build()));
+        when(objectStorage.upload(eq("b"), any(InputStream.class), anyLong(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        S3FileUploadException thrown = assertThrows(S3FileUploadException.class, () -> s3Service.uploadFiles(List.of(
+                new S3Service.FileUpload(buffer, contentType, "a"),
+                new S3Service.FileUpload(buffer, contentType, "b"))));
+
+        assertTrue(thrown.getMessage().contains("S3 error"));
+        verify(objectStorage).upload(eq("b"), any(InputStream.class), anyLong(), anyString());
+    }
+
+    // --- generateDownloadUrl tests ---
+
+    @Test
+    @DisplayName("Should delegate download URLs to the storage backend")
+    void generateDownloadUrl_Success() {
+        when(objectStorage.downloadUrl("key", "reporte.pdf", Duration.ofMinutes(15)))
+                .thenReturn("https://bucket.example.com/key?X-Amz-Signature=abc");
+
+        String url = s3Service.generateDownloadUrl("key", "reporte.pdf", Duration.ofMinutes(15));
+
+        assertEquals("https://bucket.example.com/key?X-Amz-Signature=abc", url);
+    }
 }
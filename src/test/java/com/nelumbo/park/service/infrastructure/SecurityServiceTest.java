@@ -2,7 +2,6 @@ package com.nelumbo.park.service.infrastructure;
 
 import com.nelumbo.park.entity.User;
 import com.nelumbo.park.exception.exceptions.JwtUserNotFoundException;
-import com.nelumbo.park.repository.UserRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,7 +21,7 @@ import static org.mockito.Mockito.*;
 class SecurityServiceTest {
 
     @Mock
-    private UserRepository userRepository;
+    private UserLookupCache userLookupCache;
 
     @Spy
     @InjectMocks
@@ -41,7 +40,7 @@ class SecurityServiceTest {
         User result = securityService.getCurrentUser();
 
         assertNull(result);
-        verifyNoInteractions(userRepository);
+        verifyNoInteractions(userLookupCache);
     }
 
     @Test
@@ -58,13 +57,33 @@ class SecurityServiceTest {
 
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn(userId);
-        when(userRepository.findByIdUser(userId)).thenReturn(expectedUser);
+        when(userLookupCache.findById(userId)).thenReturn(expectedUser);
 
         User result = securityService.getCurrentUser();
 
         assertNotNull(result);
         assertEquals(expectedUser, result);
-        verify(userRepository, times(1)).findByIdUser(userId);
+        verify(userLookupCache, times(1)).findById(userId);
+    }
+
+    @Test
+    @DisplayName("Should reuse user carried in authentication details without lookup")
+    void getCurrentUser_UserInAuthenticationDetails_ReturnsUserWithoutLookup() {
+        User expectedUser = new User();
+        expectedUser.setId("testUser");
+
+        Authentication authentication = mock(Authentication.class);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        SecurityContextHolder.setContext(securityContext);
+
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getDetails()).thenReturn(expectedUser);
+
+        User result = securityService.getCurrentUser();
+
+        assertSame(expectedUser, result);
+        verifyNoInteractions(userLookupCache);
     }
 
     @Test
@@ -79,14 +98,14 @@ class SecurityServiceTest {
 
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn(userId);
-        when(userRepository.findByIdUser(userId)).thenReturn(null);
+        when(userLookupCache.findById(userId)).thenReturn(null);
 
         JwtUserNotFoundException thrown = assertThrows(JwtUserNotFoundException.class, () -> {
             securityService.getCurrentUser();
         });
 
         assertTrue(thrown.getMessage().contains("El usuario no se encuentra en la base de datos"));
-        verify(userRepository, times(1)).findByIdUser(userId);
+        verify(userLookupCache, times(1)).findById(userId);
     }
 
     @Test
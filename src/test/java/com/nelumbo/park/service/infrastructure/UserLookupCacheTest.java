@@ -0,0 +1,115 @@
+package com.nelumbo.park.service.infrastructure;
+
+import com.nelumbo.park.entity.User;
+import com.nelumbo.park.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserLookupCache userLookupCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userLookupCache = new UserLookupCache(userRepository, 60, 10, meterRegistry);
+        user = new User();
+        user.setId("user-123");
+        user.setEmail("socio@mail.com");
+        user.setUsername("socio");
+        user.setRole("SOCIO");
+    }
+
+    @Test
+    void findById_ShouldQueryRepositoryOnlyOnceWhileEntryIsFresh() {
+        when(userRepository.findByIdUser("user-123")).thenReturn(user);
+
+        User first = userLookupCache.findById("user-123");
+        User second = userLookupCache.findById("user-123");
+
+        assertSame(user, first);
+        assertSame(user, second);
+        verify(userRepository, times(1)).findByIdUser("user-123");
+    }
+
+    @Test
+    void findById_WhenUserDoesNotExist_ShouldNotCacheMiss() {
+        when(userRepository.findByIdUser("missing")).thenReturn(null, user);
+
+        assertNull(userLookupCache.findById("missing"));
+        assertSame(user, userLookupCache.findById("missing"));
+        verify(userRepository, times(2)).findByIdUser("missing");
+    }
+
+    @Test
+    void evict_ShouldForceReloadFromRepository() {
+        when(userRepository.findByIdUser("user-123")).thenReturn(user);
+
+        userLookupCache.findById("user-123");
+        userLookupCache.evict("user-123");
+        userLookupCache.findById("user-123");
+
+        verify(userRepository, times(2)).findByIdUser("user-123");
+    }
+
+    @Test
+    void findById_WithExpiredEntry_ShouldReloadFromRepository() {
+        UserLookupCache expiringCache = new UserLookupCache(userRepository, 0, 10, meterRegistry);
+        when(userRepository.findByIdUser("user-123")).thenReturn(user);
+
+        expiringCache.findById("user-123");
+        expiringCache.findById("user-123");
+
+        verify(userRepository, times(2)).findByIdUser("user-123");
+    }
+
+    @Test
+    void findByEmail_ShouldAlsoServeLookupsByIdAndUsername() {
+        when(userRepository.findByEmail("socio@mail.com")).thenReturn(user);
+
+        assertSame(user, userLookupCache.findByEmail("socio@mail.com"));
+        assertSame(user, userLookupCache.findById("user-123"));
+        assertSame(user, userLookupCache.findByUsername("socio"));
+
+        verify(userRepository, never()).findByIdUser(anyString());
+        verify(userRepository, never()).findByName(anyString());
+    }
+
+    @Test
+    void evictUser_ShouldDropEveryKey() {
+        when(userRepository.findByIdUser("user-123")).thenReturn(user);
+        when(userRepository.findByEmail("socio@mail.com")).thenReturn(user);
+
+        userLookupCache.findById("user-123");
+        userLookupCache.evict(user);
+        userLookupCache.findByEmail("socio@mail.com");
+
+        verify(userRepository).findByEmail("socio@mail.com");
+    }
+
+    @Test
+    void lookups_ShouldPublishHitRatio() {
+        when(userRepository.findByIdUser("user-123")).thenReturn(user);
+
+        userLookupCache.findById("user-123");
+        userLookupCache.findById("user-123");
+        userLookupCache.findById("user-123");
+        userLookupCache.findById("user-123");
+
+        assertEquals(3.0, meterRegistry.get("lookup.cache.hits").tag("cache", "user.id").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("lookup.cache.misses").tag("cache", "user.id").functionCounter().count());
+        assertEquals(0.75, meterRegistry.get("lookup.cache.hit.ratio").tag("cache", "user.id").gauge().value());
+    }
+}
@@ -1,6 +1,10 @@
 package com.nelumbo.park.service.infrastructure.scheduler;
 
+import com.nelumbo.park.service.ParkingOccupancyService;
+import com.nelumbo.park.service.PlateVisitRankingService;
+import com.nelumbo.park.service.ReportJobService;
 import com.nelumbo.park.service.infrastructure.CronService;
+import com.nelumbo.park.service.infrastructure.EmailOutboxService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +20,24 @@ class CronSchedulerTest {
     @Mock
     private CronService cronService;
 
+    @Mock
+    private ParkingOccupancyService occupancyService;
+
+    @Mock
+    private ParkingRollupBackfill rollupBackfill;
+
+    @Mock
+    private PlateVisitRankingService visitRankingService;
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+
+    @Mock
+    private VehicleArchiver vehicleArchiver;
+
+    @Mock
+    private ReportJobService reportJobService;
+
     @InjectMocks
     private CronScheduler cronScheduler;
 
@@ -39,4 +61,73 @@ class CronSchedulerTest {
 
         verify(cronService, times(1)).runDailyTask();
     }
+
+    @Test
+    @DisplayName("Should reconcile parking occupancy counters")
+    void reconcileOccupancy_ShouldDelegateToOccupancyService() {
+        when(occupancyService.reconcile()).thenReturn(2);
+
+        cronScheduler.reconcileOccupancy();
+
+        verify(occupancyService, times(1)).reconcile();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the recent hourly rollups")
+    void backfillRollups_ShouldDelegateToRollupBackfill() {
+        when(rollupBackfill.backfillRecent()).thenReturn(24);
+
+        cronScheduler.backfillRollups();
+
+        verify(rollupBackfill, times(1)).backfillRecent();
+    }
+
+    @Test
+    @DisplayName("Should rebuild the plate visit counters")
+    void rebuildVisitCounters_ShouldDelegateToVisitRankingService() {
+        when(visitRankingService.rebuild()).thenReturn(120);
+
+        cronScheduler.rebuildVisitCounters();
+
+        verify(visitRankingService, times(1)).rebuild();
+    }
+
+    @Test
+    @DisplayName("Should relay pending email notifications")
+    void relayEmailOutbox_ShouldDelegateToOutboxService() {
+        when(emailOutboxService.relay()).thenReturn(3);
+
+        cronScheduler.relayEmailOutbox();
+
+        verify(emailOutboxService, times(1)).relay();
+    }
+
+    @Test
+    @DisplayName("Should purge sent email notifications")
+    void purgeEmailOutbox_ShouldDelegateToOutboxService() {
+        when(emailOutboxService.purgeSent()).thenReturn(10);
+
+        cronScheduler.purgeEmailOutbox();
+
+        verify(emailOutboxService, times(1)).purgeSent();
+    }
+
+    @Test
+    @DisplayName("Should archive settled vehicles")
+    void archiveVehicles_ShouldDelegateToArchiver() {
+        when(vehicleArchiver.archiveSettled()).thenReturn(12);
+
+        cronScheduler.archiveVehicles();
+
+        verify(vehicleArchiver, times(1)).archiveSettled();
+    }
+
+    @Test
+    @DisplayName("Should fail the report jobs whose lease expired")
+    void failExpiredReportJobs_ShouldDelegateToReportJobService() {
+        cronScheduler.failExpiredReportJobs();
+
+        verify(reportJobService, times(1)).failExpiredJobs();
+        verify(reportJobService, never()).renewLeases();
+    }
 }
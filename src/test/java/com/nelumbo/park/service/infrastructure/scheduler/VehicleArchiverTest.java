@@ -0,0 +1,115 @@
+package com.nelumbo.park.service.infrastructure.scheduler;
+
+import com.nelumbo.park.repository.VehicleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.YearMonth;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VehicleArchiverTest {
+
+    @Mock
+    private VehicleRepository vehicleRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private VehicleArchiver vehicleArchiver;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(vehicleArchiver, "enabled", true);
+        ReflectionTestUtils.setField(vehicleArchiver, "settleMinutes", 15L);
+        ReflectionTestUtils.setField(vehicleArchiver, "batchSize", 100);
+        ReflectionTestUtils.setField(vehicleArchiver, "maxBatches", 3);
+        ReflectionTestUtils.setField(vehicleArchiver, "monthsAhead", 0);
+    }
+
+    @Test
+    @DisplayName("Should move batches until a short batch is returned")
+    void archiveSettled_ShortBatch_Stops() {
+        when(vehicleRepository.findOldestSettledExit(any(Date.class))).thenReturn(new Date());
+        when(vehicleRepository.archiveSettledBatch(any(Date.class), eq(100))).thenReturn(100, 40);
+
+        int archived = vehicleArchiver.archiveSettled();
+
+        assertEquals(140, archived);
+        verify(vehicleRepository, times(2)).archiveSettledBatch(any(Date.class), eq(100));
+    }
+
+    @Test
+    @DisplayName("Should stop after the configured number of batches and leave the rest for the next run")
+    void archiveSettled_MaxBatchesReached_Stops() {
+        when(vehicleRepository.findOldestSettledExit(any(Date.class))).thenReturn(new Date());
+        when(vehicleRepository.archiveSettledBatch(any(Date.class), eq(100))).thenReturn(100);
+
+        int archived = vehicleArchiver.archiveSettled();
+
+        assertEquals(300, archived);
+        verify(vehicleRepository, times(3)).archiveSettledBatch(any(Date.class), eq(100));
+    }
+
+    @Test
+    @DisplayName("Should do nothing when there are no settled exits")
+    void archiveSettled_NothingSettled_DoesNotArchive() {
+        when(vehicleRepository.findOldestSettledExit(any(Date.class))).thenReturn(null);
+
+        assertEquals(0, vehicleArchiver.archiveSettled());
+
+        verify(vehicleRepository, never()).archiveSettledBatch(any(Date.class), anyInt());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should not touch the database when archiving is disabled")
+    void archiveSettled_Disabled_DoesNothing() {
+        ReflectionTestUtils.setField(vehicleArchiver, "enabled", false);
+
+        assertEquals(0, vehicleArchiver.archiveSettled());
+
+        verifyNoInteractions(vehicleRepository, jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should create each monthly partition only once")
+    void ensurePartitions_CreatesMissingMonthsOnce() {
+        vehicleArchiver.ensurePartitions(YearMonth.of(2026, 11), YearMonth.of(2027, 1));
+        vehicleArchiver.ensurePartitions(YearMonth.of(2026, 12), YearMonth.of(2027, 1));
+
+        verify(jdbcTemplate, times(3)).execute(anyString());
+        verify(jdbcTemplate).execute(contains(
+                "vehicle_history_p2026_12 PARTITION OF vehicle_history FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')"));
+    }
+
+    @Test
+    @DisplayName("Should retry a partition that could not be created")
+    void ensurePartitions_CreationFails_RetriesNextTime() {
+        doThrow(new DataIntegrityViolationException("default partition has rows"))
+                .doNothing()
+                .when(jdbcTemplate).execute(anyString());
+
+        vehicleArchiver.ensurePartitions(YearMonth.of(2026, 10), YearMonth.of(2026, 10));
+        vehicleArchiver.ensurePartitions(YearMonth.of(2026, 10), YearMonth.of(2026, 10));
+
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+}
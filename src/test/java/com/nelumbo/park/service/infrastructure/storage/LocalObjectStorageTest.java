@@ -0,0 +1,73 @@
+package com.nelumbo.park.service.infrastructure.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalObjectStorageTest {
+
+    @TempDir
+    Path root;
+
+    private LocalObjectStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new LocalObjectStorage(root.toString());
+    }
+
+    @Test
+    @DisplayName("Should write the streamed content under its key")
+    void uploadStream_WritesObject() throws IOException {
+        byte[] content = "contenido".getBytes(StandardCharsets.UTF_8);
+
+        storage.upload("reportes/a.xlsx", new ByteArrayInputStream(content), content.length, "text/plain").join();
+
+        assertArrayEquals(content, Files.readAllBytes(root.resolve("reportes/a.xlsx")));
+        assertTrue(storage.exists("reportes/a.xlsx"));
+        try (var files = Files.list(root.resolve("reportes"))) {
+            assertEquals(1, files.count(), "No deben quedar archivos temporales");
+        }
+    }
+
+    @Test
+    @DisplayName("Should copy a local file under its key")
+    void uploadPath_CopiesFile() throws IOException {
+        Path source = Files.writeString(root.resolve("origen.pdf"), "pdf");
+
+        storage.upload("b.pdf", source, "application/pdf").join();
+
+        assertEquals("pdf", Files.readString(root.resolve("b.pdf")));
+    }
+
+    @Test
+    @DisplayName("Should report missing objects as not existing")
+    void exists_MissingObject_ReturnsFalse() {
+        assertFalse(storage.exists("no-existe"));
+    }
+
+    @Test
+    @DisplayName("Should reject keys that escape the storage root")
+    void upload_KeyOutsideRoot_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> storage.upload("../fuera.txt", new ByteArrayInputStream(new byte[1]), 1, "text/plain"));
+    }
+
+    @Test
+    @DisplayName("Should return a file URL for downloads")
+    void downloadUrl_ReturnsFileUri() {
+        String url = storage.downloadUrl("c.pdf", "reporte.pdf", Duration.ofMinutes(5));
+
+        assertEquals(root.resolve("c.pdf").toUri().toString(), url);
+    }
+}
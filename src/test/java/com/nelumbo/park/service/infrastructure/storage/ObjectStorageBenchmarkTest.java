@@ -0,0 +1,61 @@
+package com.nelumbo.park.service.infrastructure.storage;
+
+import com.nelumbo.park.service.infrastructure.S3Service;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Medicion de subidas masivas contra el almacenamiento local, variando el limite de subidas en
+ * curso. No corre con la suite normal:
+ * {@code mvn test -Dtest=ObjectStorageBenchmarkTest -Dbenchmark=true}
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ObjectStorageBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectStorageBenchmarkTest.class);
+
+    private static final int FILES = 200;
+    private static final int FILE_SIZE = 512 * 1024;
+    private static final int[] CONCURRENCY = {1, 4, 8, 16};
+
+    @TempDir
+    Path root;
+
+    @Test
+    @DisplayName("Benchmark: bulk uploads to the local storage backend")
+    void uploadFiles_LocalBackend() {
+        byte[] content = new byte[FILE_SIZE];
+        new Random(42).nextBytes(content);
+
+        for (int concurrency : CONCURRENCY) {
+            S3Service s3Service = new S3Service(new LocalObjectStorage(root.resolve("c" + concurrency).toString()),
+                    concurrency);
+            List<S3Service.FileUpload> files = new ArrayList<>(FILES);
+            for (int i = 0; i < FILES; i++) {
+                files.add(new S3Service.FileUpload(content, "application/octet-stream", "archivo-" + i));
+            }
+
+            long startedAt = System.nanoTime();
+            int uploaded = s3Service.uploadFiles(files).size();
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+            logger.info("Subidas locales: {} archivos de {} KB con concurrencia {} en {} ms",
+                    FILES, FILE_SIZE / 1024, concurrency, millis);
+            assertEquals(FILES, uploaded);
+        }
+    }
+}
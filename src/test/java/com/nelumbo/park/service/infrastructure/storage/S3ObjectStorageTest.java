@@ -0,0 +1,120 @@
+package com.nelumbo.park.service.infrastructure.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3ObjectStorageTest {
+
+    private static final String BUCKET = "test-bucket";
+
+    @Mock
+    private S3AsyncClient s3AsyncClient;
+    @Mock
+    private S3Presigner s3Presigner;
+
+    private S3ObjectStorage storage;
+
+    @BeforeEach
+    void setUp() {
+        storage = new S3ObjectStorage(s3AsyncClient, s3Presigner);
+        ReflectionTestUtils.setField(storage, "bucketName", BUCKET);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.destroy();
+    }
+
+    @Test
+    @DisplayName("Should stream the upload with its content length")
+    void uploadStream_PutsObjectWithLength() {
+        when(s3AsyncClient.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+                .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+
+        storage.upload("key", new ByteArrayInputStream(new byte[4]), 4, "text/plain").join();
+
+        verify(s3AsyncClient).putObject(argThat((PutObjectRequest request) ->
+                request.bucket().equals(BUCKET) && request.key().equals("key")
+                        && request.contentLength() == 4 && request.contentType().equals("text/plain")),
+                any(AsyncRequestBody.class));
+    }
+
+    @Test
+    @DisplayName("Should check existence with HEAD instead of downloading the object")
+    void exists_UsesHeadObject() {
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(HeadObjectResponse.builder().build()));
+
+        assertTrue(storage.exists("key"));
+
+        verify(s3AsyncClient).headObject(argThat((HeadObjectRequest request) ->
+                request.bucket().equals(BUCKET) && request.key().equals("key")));
+        verifyNoMoreInteractions(s3AsyncClient);
+    }
+
+    @Test
+    @DisplayName("Should treat a missing key as not existing")
+    void exists_NoSuchKey_ReturnsFalse() {
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(NoSuchKeyException.builder().message("Not found").build()));
+
+        assertFalse(storage.exists("key"));
+    }
+
+    @Test
+    @DisplayName("Should propagate other S3 errors on HEAD")
+    void exists_OtherError_Throws() {
+        when(s3AsyncClient.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().statusCode(403).message("denied").build()));
+
+        CompletionException thrown = assertThrows(CompletionException.class, () -> storage.exists("key"));
+        assertInstanceOf(S3Exception.class, thrown.getCause());
+    }
+
+    @Test
+    @DisplayName("Should presign a download URL for the bucket key")
+    void downloadUrl_Presigns() throws Exception {
+        PresignedGetObjectRequest presigned = mock(PresignedGetObjectRequest.class);
+        when(presigned.url()).thenReturn(new URL("https://bucket.example.com/key?X-Amz-Signature=abc"));
+        when(s3Presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenReturn(presigned);
+
+        String url = storage.downloadUrl("key", "reporte.pdf", Duration.ofMinutes(15));
+
+        assertEquals("https://bucket.example.com/key?X-Amz-Signature=abc", url);
+        verify(s3Presigner).presignGetObject(argThat((GetObjectPresignRequest request) ->
+                request.signatureDuration().equals(Duration.ofMinutes(15))
+                        && request.getObjectRequest().bucket().equals(BUCKET)
+                        && request.getObjectRequest().key().equals("key")
+                        && request.getObjectRequest().responseContentDisposition().contains("reporte.pdf")));
+    }
+}
@@ -0,0 +1,41 @@
+package com.nelumbo.park.support;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara durante una operacion. Requiere
+ * {@code spring.jpa.properties.hibernate.generate_statistics=true}.
+ */
+public final class SqlStatementCounter {
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    public SqlStatementCounter(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Vacia el contexto de persistencia, ejecuta {@code operation} y verifica que haya preparado
+     * exactamente {@code expected} sentencias.
+     * @return Resultado de la operacion
+     */
+    public <T> T assertStatements(long expected, Supplier<T> operation) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        T result = operation.get();
+
+        assertEquals(expected, statistics.getPrepareStatementCount(),
+                () -> "Sentencias SQL ejecutadas: " + statistics.getPrepareStatementCount());
+        return result;
+    }
+}
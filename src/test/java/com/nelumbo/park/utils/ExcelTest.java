@@ -0,0 +1,73 @@
+package com.nelumbo.park.utils;
+
+import com.nelumbo.park.dto.response.VehicleDetailResponse;
+import com.nelumbo.park.dto.response.VehicleOutDetailResponse;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExcelTest {
+
+    private final Excel excel = new Excel();
+
+    private static VehicleOutDetailResponse report(int vehicles) {
+        List<VehicleDetailResponse> details = new ArrayList<>();
+        for (int i = 0; i < vehicles; i++) {
+            details.add(new VehicleDetailResponse("v" + i, "ABC" + i, "Modelo", "15-01-2023-08:00",
+                    "15-01-2023-10:00", new BigDecimal("2.50")));
+        }
+        return new VehicleOutDetailResponse("u1", "socio", "socio@mail.com", "p1", "Central", details,
+                vehicles, new BigDecimal("2.50").multiply(BigDecimal.valueOf(vehicles)));
+    }
+
+    @Test
+    @DisplayName("Should stream every row beyond the in-memory window")
+    void writeExcelPorUsuario_ShouldWriteAllRows() throws IOException {
+        int vehicles = Excel.ROW_WINDOW * 3;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        excel.writeExcelPorUsuario(List.of(report(vehicles)), out);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            Sheet sheet = workbook.getSheet("socio");
+            assertNotNull(sheet);
+            assertEquals("ABC0", sheet.getRow(3).getCell(1).getStringCellValue());
+            Row subtotal = sheet.getRow(3 + vehicles);
+            assertEquals("Subtotal:", subtotal.getCell(4).getStringCellValue());
+            assertEquals(2.5 * vehicles, subtotal.getCell(5).getNumericCellValue());
+            assertEquals(subtotal.getCell(5).getCellStyle().getDataFormat(),
+                    sheet.getRow(3).getCell(5).getCellStyle().getDataFormat());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reuse the same styles across sheets")
+    void generarExcelPorUsuario_ShouldNotCreateStylesPerSheet() throws IOException {
+        VehicleOutDetailResponse second = report(2);
+        second.setUsername("otro");
+
+        byte[] bytes = excel.generarExcelPorUsuario(List.of(report(2), second));
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(bytes))) {
+            assertEquals(2, workbook.getNumberOfSheets());
+            assertEquals(4, workbook.getNumCellStyles());
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject empty data")
+    void generarExcelPorUsuario_WithEmptyData_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> excel.generarExcelPorUsuario(List.of()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.nelumbo.park.utils;
+
+import com.nelumbo.park.dto.response.VehicleOutDetailResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Medicion del reporte PDF con 10.000 vehiculos. No corre con la suite normal:
+ * {@code mvn test -Dtest=PdfBenchmarkTest -Dbenchmark=true}
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PdfBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(PdfBenchmarkTest.class);
+
+    private static final int VEHICLES = 10_000;
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    @Test
+    @DisplayName("Benchmark: PDF report with 10k vehicles")
+    void writePdfPorUsuario_TenThousandVehicles() throws IOException {
+        Pdf pdf = new Pdf();
+        List<VehicleOutDetailResponse> data = List.of(PdfTest.report(VEHICLES));
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            pdf.writePdfPorUsuario(data, OutputStream.nullOutputStream());
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        long totalNanos = 0;
+        long peakUsedBytes = 0;
+        long size = 0;
+        for (int i = 0; i < MEASURED_RUNS; i++) {
+            System.gc();
+            long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+            CountingOutputStream out = new CountingOutputStream();
+            long startedAt = System.nanoTime();
+            pdf.writePdfPorUsuario(data, out);
+            totalNanos += System.nanoTime() - startedAt;
+            peakUsedBytes = Math.max(peakUsedBytes, runtime.totalMemory() - runtime.freeMemory() - usedBefore);
+            size = out.count;
+        }
+
+        logger.info("PDF {} vehiculos: {} ms promedio, {} KB, heap adicional max {} MB",
+                VEHICLES, TimeUnit.NANOSECONDS.toMillis(totalNanos / MEASURED_RUNS), size / 1024,
+                peakUsedBytes / (1024 * 1024));
+        assertTrue(size > 0);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
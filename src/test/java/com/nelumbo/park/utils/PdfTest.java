@@ -0,0 +1,96 @@
+package com.nelumbo.park.utils;
+
+import com.nelumbo.park.dto.response.VehicleDetailResponse;
+import com.nelumbo.park.dto.response.VehicleOutDetailResponse;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PdfTest {
+
+    private final Pdf pdf = new Pdf();
+
+    static VehicleOutDetailResponse report(int vehicles) {
+        List<VehicleDetailResponse> details = new ArrayList<>(vehicles);
+        for (int i = 0; i < vehicles; i++) {
+            details.add(new VehicleDetailResponse("v" + i, "ABC" + i, "Modelo", "15-01-2023-08:00",
+                    "15-01-2023-10:00", new BigDecimal("2.50")));
+        }
+        return new VehicleOutDetailResponse("u1", "socio", "socio@mail.com", "p1", "Central", details,
+                vehicles, new BigDecimal("2.50").multiply(BigDecimal.valueOf(vehicles)));
+    }
+
+    @Test
+    @DisplayName("Should continue the table on new pages when it does not fit")
+    void generarPdfPorUsuario_WithManyVehicles_ShouldPaginate() throws IOException {
+        byte[] bytes = pdf.generarPdfPorUsuario(List.of(report(120)));
+
+        try (PDDocument document = Loader.loadPDF(bytes)) {
+            assertTrue(document.getNumberOfPages() > 1);
+            String text = new PDFTextStripper().getText(document);
+            assertTrue(text.contains("ABC0"));
+            assertTrue(text.contains("ABC119"));
+            assertTrue(text.contains("Subtotal:"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should embed the classpath logo once and share it across pages")
+    void generarPdfPorUsuario_ShouldShareLogoXObject() throws IOException {
+        VehicleOutDetailResponse second = report(1);
+        second.setUsername("otro");
+
+        byte[] bytes = pdf.generarPdfPorUsuario(List.of(report(1), second));
+
+        try (PDDocument document = Loader.loadPDF(bytes)) {
+            assertEquals(2, document.getNumberOfPages());
+            PDPage first = document.getPage(0);
+            PDPage last = document.getPage(1);
+            COSName firstLogo = first.getResources().getXObjectNames().iterator().next();
+            COSName lastLogo = last.getResources().getXObjectNames().iterator().next();
+            assertSame(first.getResources().getXObject(firstLogo).getCOSObject(),
+                    last.getResources().getXObject(lastLogo).getCOSObject());
+        }
+    }
+
+    @Test
+    @DisplayName("Should render documents concurrently with their own fonts")
+    void generarPdfPorUsuario_Concurrently_ShouldProduceValidDocuments() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> renders = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                renders.add(executor.submit(() -> pdf.generarPdfPorUsuario(List.of(report(60)))));
+            }
+            for (Future<byte[]> render : renders) {
+                try (PDDocument document = Loader.loadPDF(render.get())) {
+                    String text = new PDFTextStripper().getText(document);
+                    assertTrue(text.contains("ABC59"));
+                    assertTrue(text.contains("Reporte generado por Nelumbo Park"));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject empty data")
+    void generarPdfPorUsuario_WithEmptyData_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> pdf.generarPdfPorUsuario(List.of()));
+    }
+}
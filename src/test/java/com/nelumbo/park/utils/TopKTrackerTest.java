@@ -0,0 +1,63 @@
+package com.nelumbo.park.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTrackerTest {
+
+    @Test
+    @DisplayName("Should keep only the K highest counts in descending order")
+    void offer_ShouldKeepHighestCounts() {
+        TopKTracker tracker = new TopKTracker(2);
+
+        tracker.offer("AAA", 3);
+        tracker.offer("BBB", 1);
+        assertTrue(tracker.offer("CCC", 2));
+        assertFalse(tracker.offer("DDD", 1));
+
+        List<Map.Entry<String, Long>> top = tracker.snapshot();
+        assertEquals(List.of(Map.entry("AAA", 3L), Map.entry("CCC", 2L)), top);
+    }
+
+    @Test
+    @DisplayName("Should update a tracked key in place")
+    void offer_WhenKeyIsTracked_ShouldUpdateItsCount() {
+        TopKTracker tracker = new TopKTracker(3);
+        tracker.offer("AAA", 5);
+        tracker.offer("BBB", 4);
+        tracker.offer("CCC", 3);
+
+        tracker.offer("CCC", 6);
+        tracker.offer("DDD", 4);
+
+        assertEquals(3, tracker.size());
+        assertEquals(List.of(Map.entry("CCC", 6L), Map.entry("AAA", 5L), Map.entry("BBB", 4L)),
+                tracker.snapshot());
+    }
+
+    @Test
+    @DisplayName("Should replace the content on reset")
+    void reset_ShouldReplaceEntries() {
+        TopKTracker tracker = new TopKTracker(2);
+        tracker.offer("AAA", 10);
+
+        Map<String, Long> entries = new LinkedHashMap<>();
+        entries.put("BBB", 2L);
+        entries.put("CCC", 1L);
+        tracker.reset(entries);
+
+        assertEquals(List.of(Map.entry("BBB", 2L), Map.entry("CCC", 1L)), tracker.snapshot());
+    }
+
+    @Test
+    @DisplayName("Should reject a non positive capacity")
+    void constructor_WithZeroCapacity_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new TopKTracker(0));
+    }
+}